@@ -0,0 +1,37 @@
+package com.kaylerrenslow.armaplugin;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Command line entry point for the JMH benchmarks inside the benchmarks source folder.
+ * Results are always written as JSON so that runs can be compared against each other
+ * (default file is <code>benchmark-results.json</code> in the working directory).
+ * <p>
+ * Any JMH command line option can be passed (e.g. <code>-f 1 -wi 3 ValueTypeBenchmark</code>).
+ * If no benchmark regex is given, every benchmark in this project is run.
+ */
+public class BenchmarkRunner {
+	private static final String DEFAULT_RESULT_FILE = "benchmark-results.json";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		if (cmdOptions.getIncludes().isEmpty()) {
+			builder.include("com\\.kaylerrenslow\\.armaplugin\\..*Benchmark.*");
+		}
+		if (!cmdOptions.getResult().hasValue()) {
+			builder.result(DEFAULT_RESULT_FILE);
+		}
+		Options options = builder
+				.parent(cmdOptions)
+				.resultFormat(ResultFormatType.JSON)
+				.build();
+		new Runner(options).run();
+	}
+}
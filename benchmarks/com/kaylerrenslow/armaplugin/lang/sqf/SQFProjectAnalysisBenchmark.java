@@ -0,0 +1,214 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.inspections.SQFSyntaxAndTypeCheckingInspection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end timings of lexing, parsing, syntax checking and reference resolution on missions made by
+ * {@link SQFProjectGenerator}. For each mission size, this times highlighting of function files, completion of a global
+ * variable, find usages of a global variable and renaming a global variable. Each operation is first run a number of
+ * times without being timed (so that caches are filled and the JIT has compiled the hot paths), then it is sampled a
+ * number of times and the 50th, 90th and 99th percentiles and max are printed to standard out. The 99th percentile is
+ * only printed when there are at least 100 samples, since with fewer samples it is the max.
+ * <p>
+ * System properties:
+ * <ul>
+ * <li>armaplugin.benchmark.fileCounts: comma separated mission sizes (default 100). For example, 100,1000,10000
+ * to track scaling.</li>
+ * <li>armaplugin.benchmark.warmup: untimed runs of each operation and size before sampling (default 20).</li>
+ * <li>armaplugin.benchmark.samples: samples for each operation and size (default 200).</li>
+ * <li>armaplugin.benchmark.seed: seed for the generator and for picking files (default 0).</li>
+ * </ul>
+ * This isn't a test and doesn't assert anything about the timings, so it is in the benchmarks source folder.
+ */
+public class SQFProjectAnalysisBenchmark extends LightCodeInsightFixtureTestCase {
+
+	private static final String FILE_COUNTS_PROPERTY = "armaplugin.benchmark.fileCounts";
+	private static final String WARMUP_PROPERTY = "armaplugin.benchmark.warmup";
+	private static final String SAMPLES_PROPERTY = "armaplugin.benchmark.samples";
+	private static final String SEED_PROPERTY = "armaplugin.benchmark.seed";
+
+	/**
+	 * Incremented for every completion and rename, so that warmup runs and samples don't reuse file or variable names
+	 */
+	private int runCount = 0;
+
+	public void test_analysis() {
+		int warmup = Integer.parseInt(System.getProperty(WARMUP_PROPERTY, "20"));
+		int samples = Integer.parseInt(System.getProperty(SAMPLES_PROPERTY, "200"));
+		long seed = Long.parseLong(System.getProperty(SEED_PROPERTY, "0"));
+		myFixture.enableInspections(SQFSyntaxAndTypeCheckingInspection.class);
+
+		for (String fileCountStr : System.getProperty(FILE_COUNTS_PROPERTY, "100").split(",")) {
+			int fileCount = Integer.parseInt(fileCountStr.trim());
+			SQFProjectGenerator generator = new SQFProjectGenerator(fileCount, seed);
+			Random random = new Random(seed);
+
+			long start = System.nanoTime();
+			for (Map.Entry<String, String> entry : generator.generate().entrySet()) {
+				myFixture.addFileToProject(entry.getKey(), entry.getValue());
+			}
+			System.out.println(String.format(Locale.ROOT, "files=%d generated and added in %.1f ms",
+					fileCount, toMillis(System.nanoTime() - start)
+			));
+
+			timeHighlighting(generator, random, warmup);
+			report(fileCount, "highlighting", timeHighlighting(generator, random, samples));
+			timeCompletion(generator, random, warmup);
+			report(fileCount, "completion", timeCompletion(generator, random, samples));
+			timeFindUsages(generator, random, warmup);
+			report(fileCount, "find usages", timeFindUsages(generator, random, samples));
+			timeRename(generator, random, warmup);
+			report(fileCount, "rename", timeRename(generator, random, samples));
+
+			deleteProjectFiles();
+		}
+	}
+
+	@NotNull
+	private long[] timeHighlighting(@NotNull SQFProjectGenerator generator, @NotNull Random random, int samples) {
+		long[] times = new long[samples];
+		for (int i = 0; i < samples; i++) {
+			openFunctionFile(generator, random.nextInt(generator.getFileCount()));
+			long start = System.nanoTime();
+			myFixture.doHighlighting();
+			times[i] = System.nanoTime() - start;
+		}
+		return times;
+	}
+
+	@NotNull
+	private long[] timeCompletion(@NotNull SQFProjectGenerator generator, @NotNull Random random, int samples) {
+		long[] times = new long[samples];
+		for (int i = 0; i < samples; i++) {
+			String prefix = SQFProjectGenerator.getGlobalVariableName(random.nextInt(generator.getGlobalVariableCount()));
+			//remove last char so that there is something to complete
+			prefix = prefix.substring(0, prefix.length() - 1);
+			myFixture.configureByText("completion" + runCount++ + ".sqf", "_x = " + prefix + "<caret>;");
+			long start = System.nanoTime();
+			myFixture.completeBasic();
+			times[i] = System.nanoTime() - start;
+		}
+		return times;
+	}
+
+	@NotNull
+	private long[] timeFindUsages(@NotNull SQFProjectGenerator generator, @NotNull Random random, int samples) {
+		long[] times = new long[samples];
+		int timed = 0;
+		for (int i = 0; i < samples; i++) {
+			SQFVariable var = findGlobalVariable(generator, random.nextInt(generator.getFileCount()));
+			if (var == null) {
+				continue;
+			}
+			long start = System.nanoTime();
+			myFixture.findUsages(var);
+			times[timed++] = System.nanoTime() - start;
+		}
+		return Arrays.copyOf(times, timed);
+	}
+
+	@NotNull
+	private long[] timeRename(@NotNull SQFProjectGenerator generator, @NotNull Random random, int samples) {
+		long[] times = new long[samples];
+		int timed = 0;
+		for (int i = 0; i < samples; i++) {
+			SQFVariable var = findGlobalVariable(generator, random.nextInt(generator.getFileCount()));
+			if (var == null) {
+				continue;
+			}
+			long start = System.nanoTime();
+			myFixture.renameElement(var, var.getVarName() + "_renamed" + runCount++);
+			times[timed++] = System.nanoTime() - start;
+		}
+		return Arrays.copyOf(times, timed);
+	}
+
+	@NotNull
+	private PsiFile openFunctionFile(@NotNull SQFProjectGenerator generator, int index) {
+		VirtualFile file = myFixture.findFileInTempDir(generator.getFunctionFilePath(index));
+		assertNotNull(file);
+		myFixture.configureFromExistingVirtualFile(file);
+		return myFixture.getFile();
+	}
+
+	/**
+	 * @return the last global variable in the function file, or null if the file has none
+	 */
+	@Nullable
+	private SQFVariable findGlobalVariable(@NotNull SQFProjectGenerator generator, int index) {
+		PsiFile file = openFunctionFile(generator, index);
+		SQFVariable found = null;
+		for (SQFVariable var : PsiTreeUtil.findChildrenOfType(file, SQFVariable.class)) {
+			if (!var.isLocal() && var.getVarName().startsWith(SQFProjectGenerator.TAG + "_gVar_")) {
+				found = var;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Deletes the generated mission so that the next mission size has its own description.ext
+	 */
+	private void deleteProjectFiles() {
+		PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+		PsiDirectory root = myFixture.getPsiManager().findDirectory(myFixture.getTempDirFixture().getFile("."));
+		if (root == null) {
+			return;
+		}
+		List<PsiElement> children = new ArrayList<>(Arrays.asList(root.getChildren()));
+		ApplicationManager.getApplication().runWriteAction(() -> {
+			for (PsiElement child : children) {
+				child.delete();
+			}
+		});
+	}
+
+	private static void report(int fileCount, @NotNull String operation, @NotNull long[] nanos) {
+		if (nanos.length == 0) {
+			System.out.println(String.format(Locale.ROOT, "files=%d %s: no samples", fileCount, operation));
+			return;
+		}
+		Arrays.sort(nanos);
+		//with fewer than 100 samples, the 99th percentile is the max
+		String p99 = nanos.length < 100 ? "n/a" : String.format(Locale.ROOT, "%.2f ms", toMillis(percentile(nanos, 99)));
+		System.out.println(String.format(Locale.ROOT,
+				"files=%d %s: n=%d p50=%.2f ms p90=%.2f ms p99=%s max=%.2f ms",
+				fileCount, operation, nanos.length,
+				toMillis(percentile(nanos, 50)), toMillis(percentile(nanos, 90)), p99,
+				toMillis(nanos[nanos.length - 1])
+		));
+	}
+
+	/**
+	 * @param sorted     sorted samples
+	 * @param percentile percentile from 1 to 100
+	 * @return the sample at the given percentile (nearest rank)
+	 */
+	private static long percentile(@NotNull long[] sorted, int percentile) {
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
@@ -0,0 +1,306 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a synthetic Arma mission for benchmarking. The mission has a description.ext with CfgFunctions for every
+ * function file, a stringtable.xml, an init.sqf, and the given number of function files. Function files contain
+ * nested code blocks and use global variables, stringtable keys and other functions, so that references
+ * reach across files like they do in a real mission.
+ * <p>
+ * The same seed and settings always generate the same files.
+ * <p>
+ * To write a mission to disk (e.g. to open it in a sandbox IDE), run the main method with
+ * the output directory and file count as arguments.
+ */
+public class SQFProjectGenerator {
+	/**
+	 * Tag for CfgFunctions, global variables and stringtable keys
+	 */
+	public static final String TAG = "BENCH";
+	public static final String FUNCTIONS_DIRECTORY = "functions";
+
+	private final int fileCount;
+	private final long seed;
+	private int nestingDepth = 4;
+	private int statementsPerBlock = 4;
+	private int functionsPerCategory = 50;
+	private int globalVariableCount = -1;
+	private int stringTableKeyCount = -1;
+
+	/**
+	 * @param fileCount number of function files to generate
+	 * @param seed      seed for the random decisions
+	 */
+	public SQFProjectGenerator(int fileCount, long seed) {
+		this.fileCount = Math.max(1, fileCount);
+		this.seed = seed;
+	}
+
+	/**
+	 * Set how deep code blocks (if, for, forEach) may be nested inside a function. Default is 4.
+	 */
+	public void setNestingDepth(int nestingDepth) {
+		this.nestingDepth = Math.max(0, nestingDepth);
+	}
+
+	/**
+	 * Set how many statements are in each function body and code block. Default is 4.
+	 */
+	public void setStatementsPerBlock(int statementsPerBlock) {
+		this.statementsPerBlock = Math.max(1, statementsPerBlock);
+	}
+
+	/**
+	 * Set how many functions are in each CfgFunctions category (and directory). Default is 50.
+	 */
+	public void setFunctionsPerCategory(int functionsPerCategory) {
+		this.functionsPerCategory = Math.max(1, functionsPerCategory);
+	}
+
+	/**
+	 * Set how many global variables are shared by the functions. Default is 1 for every 4 files.
+	 */
+	public void setGlobalVariableCount(int globalVariableCount) {
+		this.globalVariableCount = globalVariableCount;
+	}
+
+	/**
+	 * Set how many keys are in the stringtable. Default is 1 for every 2 files.
+	 */
+	public void setStringTableKeyCount(int stringTableKeyCount) {
+		this.stringTableKeyCount = stringTableKeyCount;
+	}
+
+	public int getFileCount() {
+		return fileCount;
+	}
+
+	public int getGlobalVariableCount() {
+		return globalVariableCount > 0 ? globalVariableCount : Math.max(1, fileCount / 4);
+	}
+
+	public int getStringTableKeyCount() {
+		return stringTableKeyCount > 0 ? stringTableKeyCount : Math.max(1, fileCount / 2);
+	}
+
+	/**
+	 * @return name of the global variable with the given index (e.g. BENCH_gVar_3)
+	 */
+	@NotNull
+	public static String getGlobalVariableName(int index) {
+		return TAG + "_gVar_" + index;
+	}
+
+	/**
+	 * @return name of the function with the given index, without tag (e.g. func3)
+	 */
+	@NotNull
+	public static String getFunctionName(int index) {
+		return "func" + index;
+	}
+
+	/**
+	 * @return path of the function file with the given index, relative to the mission root
+	 */
+	@NotNull
+	public String getFunctionFilePath(int index) {
+		return getCategoryDirectory(index / functionsPerCategory) + "/fn_" + getFunctionName(index) + ".sqf";
+	}
+
+	/**
+	 * Generates all files of the mission.
+	 *
+	 * @return map of path (relative to the mission root, using '/') to file text, in the order they were generated
+	 */
+	@NotNull
+	public Map<String, String> generate() {
+		Random random = new Random(seed);
+		Map<String, String> files = new LinkedHashMap<>();
+		files.put("description.ext", generateDescriptionExt());
+		files.put("stringtable.xml", generateStringTable());
+		files.put("init.sqf", generateInit(random));
+		for (int i = 0; i < fileCount; i++) {
+			files.put(getFunctionFilePath(i), generateFunction(i, random));
+		}
+		return files;
+	}
+
+	/**
+	 * Generates all files and writes them into the given directory.
+	 *
+	 * @param directory the mission root
+	 */
+	public void writeTo(@NotNull File directory) throws IOException {
+		for (Map.Entry<String, String> entry : generate().entrySet()) {
+			File file = new File(directory, entry.getKey());
+			File parent = file.getParentFile();
+			if (!parent.exists() && !parent.mkdirs()) {
+				throw new IOException("Couldn't create directory " + parent);
+			}
+			Files.write(file.toPath(), entry.getValue().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@NotNull
+	private String getCategoryDirectory(int category) {
+		return FUNCTIONS_DIRECTORY + "/category" + category;
+	}
+
+	@NotNull
+	private String generateDescriptionExt() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("author = \"Benchmark\";\n");
+		sb.append("onLoadName = \"Generated Mission\";\n\n");
+		sb.append("class CfgFunctions {\n");
+		sb.append("\tclass ").append(TAG).append(" {\n");
+		int categoryCount = (fileCount + functionsPerCategory - 1) / functionsPerCategory;
+		for (int category = 0; category < categoryCount; category++) {
+			sb.append("\t\tclass category").append(category).append(" {\n");
+			sb.append("\t\t\tfile = \"").append(getCategoryDirectory(category).replace('/', '\\')).append("\";\n");
+			int end = Math.min(fileCount, (category + 1) * functionsPerCategory);
+			for (int i = category * functionsPerCategory; i < end; i++) {
+				sb.append("\t\t\tclass ").append(getFunctionName(i)).append(" {};\n");
+			}
+			sb.append("\t\t};\n");
+		}
+		sb.append("\t};\n");
+		sb.append("};\n");
+		return sb.toString();
+	}
+
+	@NotNull
+	private String generateStringTable() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+		sb.append("<Project name=\"").append(TAG).append("\">\n");
+		sb.append("\t<Package name=\"Generated\">\n");
+		sb.append("\t\t<Container name=\"Strings\">\n");
+		for (int i = 0; i < getStringTableKeyCount(); i++) {
+			sb.append("\t\t\t<Key ID=\"").append(getStringTableKey(i)).append("\">\n");
+			sb.append("\t\t\t\t<Original>Generated text ").append(i).append("</Original>\n");
+			sb.append("\t\t\t\t<English>Generated text ").append(i).append("</English>\n");
+			sb.append("\t\t\t</Key>\n");
+		}
+		sb.append("\t\t</Container>\n");
+		sb.append("\t</Package>\n");
+		sb.append("</Project>\n");
+		return sb.toString();
+	}
+
+	@NotNull
+	private String generateInit(@NotNull Random random) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < getGlobalVariableCount(); i++) {
+			sb.append(getGlobalVariableName(i)).append(" = ").append(random.nextInt(100)).append(";\n");
+		}
+		sb.append('\n');
+		int calls = Math.min(fileCount, 20);
+		for (int i = 0; i < calls; i++) {
+			sb.append("[player, ").append(i).append("] call ").append(getFunctionCallName(random.nextInt(fileCount))).append(";\n");
+		}
+		return sb.toString();
+	}
+
+	@NotNull
+	private String generateFunction(int index, @NotNull Random random) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("/*\n\tGenerated function ").append(index).append("\n*/\n");
+		sb.append("params [\"_unit\", [\"_count\", 0, [0]]];\n");
+		sb.append("private _result = [];\n");
+		for (int i = 0; i < statementsPerBlock; i++) {
+			appendStatement(sb, random, 0, "");
+		}
+		sb.append(getGlobalVariableName(random.nextInt(getGlobalVariableCount()))).append(" = count _result;\n");
+		sb.append("_result\n");
+		return sb.toString();
+	}
+
+	private void appendStatement(@NotNull StringBuilder sb, @NotNull Random random, int depth, @NotNull String indent) {
+		boolean nest = depth < nestingDepth && random.nextInt(3) != 0;
+		int kind = random.nextInt(nest ? 3 : 4);
+		if (nest) {
+			String inner = indent + "\t";
+			switch (kind) {
+				case 0: {
+					sb.append(indent).append("if (_count > ").append(random.nextInt(10)).append(") then {\n");
+					appendBlock(sb, random, depth + 1, inner);
+					sb.append(indent).append("} else {\n");
+					appendBlock(sb, random, depth + 1, inner);
+					sb.append(indent).append("};\n");
+					break;
+				}
+				case 1: {
+					sb.append(indent).append("for \"_i").append(depth).append("\" from 0 to _count do {\n");
+					appendBlock(sb, random, depth + 1, inner);
+					sb.append(indent).append("};\n");
+					break;
+				}
+				default: {
+					sb.append(indent).append("{\n");
+					appendBlock(sb, random, depth + 1, inner);
+					sb.append(indent).append("} forEach [1, 2, 3];\n");
+					break;
+				}
+			}
+			return;
+		}
+		switch (kind) {
+			case 0: {
+				sb.append(indent).append("_result pushBack (").append(getGlobalVariableName(random.nextInt(getGlobalVariableCount())))
+						.append(" + ").append(random.nextInt(100)).append(");\n");
+				break;
+			}
+			case 1: {
+				sb.append(indent).append("hint localize \"").append(getStringTableKey(random.nextInt(getStringTableKeyCount())))
+						.append("\";\n");
+				break;
+			}
+			case 2: {
+				sb.append(indent).append("[_unit, _count - 1] call ").append(getFunctionCallName(random.nextInt(fileCount)))
+						.append(";\n");
+				break;
+			}
+			default: {
+				sb.append(indent).append("_unit setVariable [\"").append(TAG).append("_var").append(random.nextInt(10))
+						.append("\", _count, true];\n");
+				break;
+			}
+		}
+	}
+
+	private void appendBlock(@NotNull StringBuilder sb, @NotNull Random random, int depth, @NotNull String indent) {
+		int count = 1 + random.nextInt(statementsPerBlock);
+		for (int i = 0; i < count; i++) {
+			appendStatement(sb, random, depth, indent);
+		}
+	}
+
+	@NotNull
+	private static String getFunctionCallName(int index) {
+		return TAG + "_fnc_" + getFunctionName(index);
+	}
+
+	@NotNull
+	private static String getStringTableKey(int index) {
+		return "STR_" + TAG + "_key" + index;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: SQFProjectGenerator <output directory> <file count> [seed]");
+			return;
+		}
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+		SQFProjectGenerator generator = new SQFProjectGenerator(Integer.parseInt(args[1]), seed);
+		generator.writeTo(new File(args[0]));
+	}
+}
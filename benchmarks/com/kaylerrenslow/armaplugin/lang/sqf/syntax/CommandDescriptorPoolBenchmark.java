@@ -0,0 +1,91 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CommandDescriptorPool#get(String)}, both single threaded and under contention.
+ * <p>
+ * The pool is shared across all benchmark threads ({@link Scope#Benchmark}), which is how
+ * {@link com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFSyntaxHelper} uses it. The command names are split into
+ * frequently used commands (always cached by the pool), a small working set that fits inside the tallied cache,
+ * and a large working set that forces the tallied cache to keep replacing entries.
+ * <p>
+ * The syntax xml files must be on the classpath (see syntax/README.md).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CommandDescriptorPoolBenchmark {
+
+	private static final String[] FREQUENT = {
+			"if", "then", "else", "forEach", "select", "count", "private", "call", "spawn", "hint"
+	};
+
+	private static final String[] SMALL_WORKING_SET = {
+			"createVehicle", "setVariable", "getVariable", "allUnits", "deleteVehicle",
+			"attachTo", "getPosATL", "setPosATL", "nearestObjects", "side"
+	};
+
+	private static final String[] LARGE_WORKING_SET = {
+			"createVehicle", "setVariable", "getVariable", "allUnits", "deleteVehicle",
+			"attachTo", "getPosATL", "setPosATL", "nearestObjects", "side",
+			"addItem", "addWeapon", "addMagazine", "removeAllWeapons", "createMarker",
+			"setMarkerPos", "setMarkerType", "setMarkerColor", "deleteMarker", "createGroup",
+			"joinSilent", "doMove", "moveInDriver", "moveInCargo", "setDamage",
+			"allPlayers", "alive", "distance", "getPos", "setVelocity",
+			"createDialog", "closeDialog", "ctrlSetText", "ctrlText", "lbAdd",
+			"lbSetData", "lbData", "lbCurSel", "displayCtrl", "addEventHandler",
+			"removeEventHandler", "publicVariable", "remoteExec", "diag_log", "format",
+			"toUpper", "toLower", "parseNumber", "round", "floor"
+	};
+
+	private CommandDescriptorPool pool;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		pool = new CommandDescriptorPool();
+	}
+
+	@Benchmark
+	public CommandDescriptor get_frequent() {
+		return pool.get(randomOf(FREQUENT));
+	}
+
+	@Benchmark
+	public CommandDescriptor get_smallWorkingSet() {
+		return pool.get(randomOf(SMALL_WORKING_SET));
+	}
+
+	@Benchmark
+	public CommandDescriptor get_largeWorkingSet() {
+		return pool.get(randomOf(LARGE_WORKING_SET));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public CommandDescriptor get_frequent_contended() {
+		return pool.get(randomOf(FREQUENT));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public CommandDescriptor get_smallWorkingSet_contended() {
+		return pool.get(randomOf(SMALL_WORKING_SET));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public CommandDescriptor get_largeWorkingSet_contended() {
+		return pool.get(randomOf(LARGE_WORKING_SET));
+	}
+
+	private static String randomOf(String[] arr) {
+		return arr[ThreadLocalRandom.current().nextInt(arr.length)];
+	}
+}
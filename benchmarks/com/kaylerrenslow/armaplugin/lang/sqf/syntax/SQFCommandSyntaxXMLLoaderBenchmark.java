@@ -0,0 +1,67 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link SQFCommandSyntaxXMLLoader#importFromStream(CommandXMLInputStream)} and
+ * {@link SQFCommandSyntaxXMLLoader#importDescriptionsFromStream(CommandXMLInputStream)}.
+ * <p>
+ * The cold benchmarks use {@link Mode#SingleShotTime} with no warmup and many forks, so each measurement
+ * is the first load inside a fresh JVM (class loading, XML parser setup, etc). The warm benchmarks measure steady-state
+ * throughput after the JIT has settled.
+ * <p>
+ * The syntax xml files must be on the classpath (see syntax/README.md).
+ */
+@State(Scope.Thread)
+public class SQFCommandSyntaxXMLLoaderBenchmark {
+
+	/**
+	 * A mix of small (hint), medium (setVariable), and large (createVehicle) syntax xml files
+	 */
+	@Param({"hint", "setVariable", "createVehicle"})
+	public String commandName;
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	@Fork(10)
+	public CommandDescriptor importFromStream_cold() throws Exception {
+		return SQFCommandSyntaxXMLLoader.importFromStream(new CommandXMLInputStream(commandName));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	@Fork(10)
+	public List<String> importDescriptionsFromStream_cold() throws Exception {
+		return SQFCommandSyntaxXMLLoader.importDescriptionsFromStream(new CommandXMLInputStream(commandName));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 5, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(2)
+	public CommandDescriptor importFromStream_warm() throws Exception {
+		return SQFCommandSyntaxXMLLoader.importFromStream(new CommandXMLInputStream(commandName));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 5, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(2)
+	public List<String> importDescriptionsFromStream_warm() throws Exception {
+		return SQFCommandSyntaxXMLLoader.importDescriptionsFromStream(new CommandXMLInputStream(commandName));
+	}
+}
@@ -0,0 +1,127 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType.BaseType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ValueType#typeEquivalent(ValueType, ValueType)} and the {@link ExpandedValueType} methods
+ * that are hit the hardest during syntax checking ({@link ExpandedValueType#getType()} and
+ * {@link ExpandedValueType#isHardEqual(ValueType)}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ValueTypeBenchmark {
+
+	/*
+	 * Base types are read from fields instead of passed as constants, so the JIT can't constant fold the benchmarks
+	 */
+	private ValueType numberType;
+	private ValueType numberTypeOther;
+	private ValueType stringType;
+	private ValueType colorType;
+	private ValueType anythingType;
+	private ValueType codeType;
+	private ValueType codeTypeOther;
+	private ExpandedValueType expandedNumber;
+	private ExpandedValueType colorExpanded;
+	private ExpandedValueType colorExpandedCopy;
+	private ExpandedValueType nestedArray;
+	private ExpandedValueType nestedArrayCopy;
+	private ExpandedValueType unboundedArray;
+
+	@Setup
+	public void setup() {
+		numberType = BaseType.NUMBER;
+		numberTypeOther = BaseType.NUMBER;
+		stringType = BaseType.STRING;
+		colorType = BaseType.COLOR;
+		anythingType = BaseType.ANYTHING;
+		codeType = new CodeType(BaseType.NUMBER);
+		codeTypeOther = new CodeType(BaseType.NAMESPACE);
+		expandedNumber = new ExpandedValueType(BaseType.NUMBER);
+		colorExpanded = new ExpandedValueType(BaseType.NUMBER, BaseType.NUMBER, BaseType.NUMBER, BaseType.NUMBER);
+		colorExpandedCopy = new ExpandedValueType(BaseType.NUMBER, BaseType.NUMBER, BaseType.NUMBER, BaseType.NUMBER);
+		nestedArray = new ExpandedValueType(
+				BaseType.STRING,
+				new ExpandedValueType(BaseType.NUMBER, BaseType.NUMBER, BaseType.NUMBER),
+				new ExpandedValueType(BaseType.OBJECT, new ExpandedValueType(BaseType.BOOLEAN, BaseType.CODE))
+		);
+		nestedArrayCopy = new ExpandedValueType(
+				BaseType.STRING,
+				new ExpandedValueType(BaseType.NUMBER, BaseType.NUMBER, BaseType.NUMBER),
+				new ExpandedValueType(BaseType.OBJECT, new ExpandedValueType(BaseType.BOOLEAN, BaseType.CODE))
+		);
+		unboundedArray = new ExpandedValueType(true, BaseType.NUMBER);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_baseTypes() {
+		return ValueType.typeEquivalent(numberType, numberTypeOther);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_baseTypesNotEqual() {
+		return ValueType.typeEquivalent(numberType, stringType);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_baseAndExpanded() {
+		return ValueType.typeEquivalent(numberType, expandedNumber);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_colorAndExpanded() {
+		return ValueType.typeEquivalent(colorType, colorExpanded);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_codeTypes() {
+		return ValueType.typeEquivalent(codeType, codeTypeOther);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_nestedArrays() {
+		return ValueType.typeEquivalent(nestedArray, nestedArrayCopy);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_anything() {
+		return ValueType.typeEquivalent(anythingType, nestedArray);
+	}
+
+	@Benchmark
+	public boolean typeEquivalent_unboundedArray() {
+		return ValueType.typeEquivalent(unboundedArray, colorExpanded);
+	}
+
+	@Benchmark
+	public String expandedGetType_flat() {
+		return colorExpanded.getType();
+	}
+
+	@Benchmark
+	public String expandedGetType_nested() {
+		return nestedArray.getType();
+	}
+
+	@Benchmark
+	public boolean expandedIsHardEqual_flat() {
+		return colorExpanded.isHardEqual(colorExpandedCopy);
+	}
+
+	@Benchmark
+	public boolean expandedIsHardEqual_nested() {
+		return nestedArray.isHardEqual(nestedArrayCopy);
+	}
+
+	@Benchmark
+	public boolean expandedIsHardEqual_notEqual() {
+		return nestedArray.isHardEqual(colorExpanded);
+	}
+}
@@ -650,7 +650,7 @@ public class SQFLexer implements FlexLexer {
             // fall through
           case 40: break;
           case 3: 
-            { if(SQFStatic.COMMANDS_SET.contains(yytext().toString())){
+            { if(SQFStatic.COMMAND_KEYWORDS.contains(zzBuffer, zzStartRead, zzMarkedPos)){
         return SQFTypes.COMMAND_TOKEN;
     }
 
@@ -824,11 +824,13 @@ public class SQFLexer implements FlexLexer {
             // fall through
           case 74: break;
           case 37: 
-            { String yytext = yytext().toString();
-    int parenIndex = yytext.indexOf('(');
-    String identifier = yytext.substring(0, parenIndex);
-    if(SQFStatic.COMMANDS_SET.contains(identifier)) {
-        yypushback(yytext.length() - identifier.length()); //push the (...) back into stream to re-lex
+            { //the identifier can't contain '(', so the first one is right after the identifier
+    int parenIndex = zzStartRead;
+    while(zzBuffer.charAt(parenIndex) != '(') {
+        parenIndex++;
+    }
+    if(SQFStatic.COMMAND_KEYWORDS.contains(zzBuffer, zzStartRead, parenIndex)) {
+        yypushback(zzMarkedPos - parenIndex); //push the (...) back into stream to re-lex
         return SQFTypes.COMMAND_TOKEN;
     } else {
         return SQFTypes.MACRO_FUNC;
@@ -4,7 +4,9 @@ package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 import java.util.List;
 import org.jetbrains.annotations.*;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.StubBasedPsiElement;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFVariableStub;
 
-public interface SQFPsiVariable extends PsiElement {
+public interface SQFPsiVariable extends StubBasedPsiElement<SQFVariableStub> {
 
 }
@@ -4,6 +4,7 @@ package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.PsiElement;
 import com.intellij.lang.ASTNode;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFVariableStubElementType;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.impl.*;
 
 public interface SQFTypes {
@@ -12,7 +13,7 @@ public interface SQFTypes {
   IElementType ASSIGNMENT_STATEMENT = new SQFElementType("ASSIGNMENT_STATEMENT");
   IElementType CASE_COMMAND = new SQFElementType("CASE_COMMAND");
   IElementType CASE_STATEMENT = new SQFElementType("CASE_STATEMENT");
-  IElementType CODE_BLOCK = new SQFElementType("CODE_BLOCK");
+  IElementType CODE_BLOCK = SQFCodeBlockElementType.getElementType("CODE_BLOCK");
   IElementType CODE_BLOCK_EXPRESSION = new SQFElementType("CODE_BLOCK_EXPRESSION");
   IElementType COMMAND = new SQFElementType("COMMAND");
   IElementType COMMAND_AFTER = new SQFElementType("COMMAND_AFTER");
@@ -33,7 +34,7 @@ public interface SQFTypes {
   IElementType SIGNED_EXPRESSION = new SQFElementType("SIGNED_EXPRESSION");
   IElementType STATEMENT = new SQFElementType("STATEMENT");
   IElementType STRING = new SQFElementType("STRING");
-  IElementType VARIABLE = new SQFElementType("VARIABLE");
+  IElementType VARIABLE = SQFVariableStubElementType.getElementType("VARIABLE");
 
   IElementType AMPAMP = new SQFTokenType("AMPAMP");
   IElementType ASTERISK = new SQFTokenType("ASTERISK");
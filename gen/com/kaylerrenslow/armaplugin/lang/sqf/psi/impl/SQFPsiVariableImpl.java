@@ -10,6 +10,8 @@ import com.intellij.psi.util.PsiTreeUtil;
 import static com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFTypes.*;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFVariableStub;
+import com.intellij.psi.stubs.IStubElementType;
 
 public class SQFPsiVariableImpl extends SQFVariable implements SQFPsiVariable {
 
@@ -17,6 +19,10 @@ public class SQFPsiVariableImpl extends SQFVariable implements SQFPsiVariable {
     super(node);
   }
 
+  public SQFPsiVariableImpl(SQFVariableStub stub, IStubElementType nodeType) {
+    super(stub, nodeType);
+  }
+
   public void accept(@NotNull SQFPsiVisitor visitor) {
     visitor.visitVariable(this);
   }
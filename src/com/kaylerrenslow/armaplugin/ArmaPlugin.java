@@ -1,5 +1,8 @@
 package com.kaylerrenslow.armaplugin;
 
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManager;
+import com.intellij.openapi.extensions.PluginId;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.kaylerrenslow.armaplugin.lang.sqf.SQFStatic;
@@ -15,6 +18,8 @@ import java.util.ResourceBundle;
  * @since 05/18/2017
  */
 public class ArmaPlugin {
+	public static final String PLUGIN_ID = "com.kaylerrenslow.plugin.armaplugin.id";
+
 	/**
 	 * Get the ResourceBundle for the plugin
 	 *
@@ -49,4 +54,16 @@ public class ArmaPlugin {
 		}
 		return imlDir.getPath() + tempFolder;
 	}
+
+	/**
+	 * @return the installed version of the plugin, or "unknown" if it couldn't be determined
+	 */
+	@NotNull
+	public static String getPluginVersion() {
+		IdeaPluginDescriptor plugin = PluginManager.getPlugin(PluginId.getId(PLUGIN_ID));
+		if (plugin == null || plugin.getVersion() == null) {
+			return "unknown";
+		}
+		return plugin.getVersion();
+	}
 }
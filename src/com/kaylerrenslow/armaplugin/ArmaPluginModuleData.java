@@ -1,88 +1,318 @@
 package com.kaylerrenslow.armaplugin;
 
+import com.intellij.notification.Notifications;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.EmptyRunnable;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.xml.XmlFile;
 import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderFile;
-import com.kaylerrenslow.armaplugin.lang.header.ConfigClassNotDefinedException;
-import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
-import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunctionUtil;
+import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderParseResult;
+import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderParser;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * Data of a module. The root config files are parsed on a background thread and the result is published as a
+ * {@link ConfigHeaderSnapshot}, so all methods can be invoked from any thread.
+ * Nothing is parsed until a snapshot is requested.
+ *
  * @author Kayler
  * @since 09/08/2017
  */
 class ArmaPluginModuleData {
-	private List<HeaderFile> configHeaderFiles = Collections.emptyList();
-	private boolean reparseConfigHeaderFiles = true;
+	private static final Logger LOG = Logger.getInstance(ArmaPluginModuleData.class);
+
 	private final Module module;
-	private List<HeaderConfigFunction> functions = null;
-	private XmlFile stringTableXmlFile;
+	/**
+	 * Executor that parses the root config files
+	 */
+	private final Executor parseExecutor;
+	/**
+	 * The latest published snapshot
+	 */
+	private final AtomicReference<ConfigHeaderSnapshot> snapshot = new AtomicReference<>(ConfigHeaderSnapshot.EMPTY);
+	/**
+	 * Version that the next published snapshot will have. If the published snapshot's version is less than this,
+	 * the snapshot is out of date.
+	 */
+	private final AtomicLong requestedVersion = new AtomicLong(1);
+	/**
+	 * Files that were edited since the last parse started
+	 */
+	private final Set<VirtualFile> editedFiles = ConcurrentHashMap.newKeySet();
+	/**
+	 * Whether or not a parse is queued or running
+	 */
+	private final AtomicBoolean parseScheduled = new AtomicBoolean(false);
+	/**
+	 * Futures that are completed when a snapshot with at least the mapped version is published
+	 */
+	private final Map<CompletableFuture<ConfigHeaderSnapshot>, Long> snapshotWaiters = new HashMap<>();
+	/**
+	 * Lock for {@link #parseAndPublish()}
+	 */
+	private final Object parseLock = new Object();
+	/**
+	 * Whether or not a snapshot was ever requested. Until then, edits don't schedule a parse, since nothing would read
+	 * the snapshot (the first parse parses every root config anyway).
+	 */
+	private volatile boolean snapshotRequested = false;
+	private volatile XmlFile stringTableXmlFile;
 
-	public ArmaPluginModuleData(@NotNull Module module) {
+	public ArmaPluginModuleData(@NotNull Module module, @NotNull Executor parseExecutor) {
 		this.module = module;
+		this.parseExecutor = parseExecutor;
 	}
 
-	boolean shouldReparseConfigHeaderFiles() {
-		return reparseConfigHeaderFiles;
+	/**
+	 * Gets the latest published snapshot without blocking. If the snapshot is out of date, the root configs are parsed
+	 * on the background thread and a new snapshot is published later.
+	 *
+	 * @return the latest snapshot, which is {@link ConfigHeaderSnapshot#EMPTY} if nothing has been parsed yet
+	 */
+	@NotNull
+	ConfigHeaderSnapshot getSnapshot() {
+		snapshotRequested = true;
+		ConfigHeaderSnapshot current = snapshot.get();
+		if (current.getVersion() < requestedVersion.get()) {
+			scheduleParse();
+		}
+		return current;
 	}
 
-	void setReparseConfigHeaderFiles(boolean reparseConfigHeaderFiles) {
-		this.reparseConfigHeaderFiles = reparseConfigHeaderFiles;
-		if (reparseConfigHeaderFiles) {
-			this.functions = null;
+	/**
+	 * @return a future that is completed with the first snapshot that includes every edit made before this method
+	 * was invoked. If the latest snapshot is up to date, the future is already complete.
+	 */
+	@NotNull
+	CompletableFuture<ConfigHeaderSnapshot> getFreshSnapshot() {
+		snapshotRequested = true;
+		CompletableFuture<ConfigHeaderSnapshot> future = new CompletableFuture<>();
+		long target = requestedVersion.get();
+		synchronized (snapshotWaiters) {
+			ConfigHeaderSnapshot current = snapshot.get();
+			if (current.getVersion() >= target) {
+				future.complete(current);
+				return future;
+			}
+			snapshotWaiters.put(future, target);
 		}
+		scheduleParse();
+		return future;
 	}
 
 	/**
-	 * Sets {@link #getConfigHeaderFiles()} and also loads all {@link #getAllConfigFunctions()} instances
+	 * Marks the parsed config of every root config file that is the given file or includes it (directly or transitively)
+	 * as out of date and parses them again on the background thread. Parsed configs that don't depend on the file are kept.
+	 * If nothing depends on the file and the file isn't a root config, nothing is parsed. If a snapshot was never
+	 * requested, nothing is parsed either.
 	 *
-	 * @param configHeaderFiles a read-only list of config header files
+	 * @param editedFile the file that was edited
 	 */
-	void setConfigHeaderFiles(@NotNull List<HeaderFile> configHeaderFiles) {
-		this.configHeaderFiles = configHeaderFiles;
-		ArrayList<HeaderConfigFunction> functions = new ArrayList<>();
-		for (HeaderFile file : configHeaderFiles) {
+	void invalidateConfigsIncluding(@NotNull VirtualFile editedFile) {
+		if (!snapshotRequested) {
+			return;
+		}
+		boolean rootConfig = editedFile.getName().equalsIgnoreCase("description.ext")
+				|| editedFile.getName().equalsIgnoreCase("config.cpp");
+		if (!rootConfig && !snapshot.get().dependsOn(editedFile)) {
+			//Nothing depends on the file (a root config that isn't in the snapshot may be new, so it isn't skipped).
+			//A parse that is running already read the edited text, because it reads with read access and publishes
+			//before releasing it.
+			return;
+		}
+		//the file must be added before the version is incremented (see parseAndPublish)
+		editedFiles.add(editedFile);
+		requestedVersion.incrementAndGet();
+		scheduleParse();
+	}
+
+	private void scheduleParse() {
+		if (!parseScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		parseExecutor.execute(() -> {
 			try {
-				functions.addAll(HeaderConfigFunctionUtil.getAllConfigFunctionsFromRootConfig(HeaderConfigFunctionUtil.getCfgFunctions(file)));
-			} catch (ConfigClassNotDefinedException ignore) {
-//				e.printStackTrace();
+				parseWithWriteActionPriority();
+			} catch (RuntimeException e) {
+				failWaiters(e);
+				throw e;
+			} finally {
+				parseScheduled.set(false);
+			}
+			if (snapshot.get().getVersion() < requestedVersion.get()) {
+				//edited while parsing
+				scheduleParse();
+			}
+		});
+	}
+
+	/**
+	 * Invokes {@link #parseAndPublish()} with read access that is given up whenever a write action is waiting, so the
+	 * parse never blocks a write action (e.g. typing). A parse that gave up read access is restarted after the write
+	 * action is done.
+	 */
+	private void parseWithWriteActionPriority() {
+		Application application = ApplicationManager.getApplication();
+		while (true) {
+			if (module.isDisposed()) {
+				application.runReadAction(this::parseAndPublish);
+				return;
+			}
+			Project project = module.getProject();
+			//root configs can't be located until indexing is done
+			DumbService.getInstance(project).waitForSmartMode();
+			AtomicBoolean parsed = new AtomicBoolean(false);
+			boolean finished = ProgressManager.getInstance().runInReadActionWithWriteActionPriority(() -> {
+				if (module.isDisposed() || !DumbService.isDumb(project)) {
+					parseAndPublish();
+					parsed.set(true);
+				}
+			}, new EmptyProgressIndicator());
+			if (parsed.get()) {
+				return;
+			}
+			if (!finished) {
+				//wait for the write action to finish before trying again
+				application.runReadAction(EmptyRunnable.getInstance());
 			}
 		}
-		this.functions = Collections.unmodifiableList(functions);
 	}
 
 	/**
-	 * Get a list of preprocessed and parsed config files. If the list is empty, there is no description.ext (for missions)
-	 * file or config.cpp files (for addons). If the list is non-empty, the list will be a singleton with the description.ext
-	 * file, or it will contain multiple, at least 1, config.cpp files (for addons).
-	 *
-	 * @return a read only list of config files
+	 * Parses the root configs that are out of date and publishes a new snapshot. Must be invoked with read access, so that
+	 * the snapshot is published before any edit that happens after the files were read. If the parse is canceled,
+	 * the edited files are kept for the next parse.
 	 */
-	@NotNull
-	public List<HeaderFile> getConfigHeaderFiles() {
-		return configHeaderFiles;
+	private void parseAndPublish() {
+		synchronized (parseLock) {
+			if (module.isDisposed()) {
+				publish(new ConfigHeaderSnapshot(requestedVersion.get(), Collections.emptyList(), Collections.emptyMap()));
+				return;
+			}
+			//the version must be read before the edited files are drained (see invalidateConfigsIncluding)
+			long version = requestedVersion.get();
+			ConfigHeaderSnapshot previous = snapshot.get();
+			if (previous.getVersion() >= version) {
+				//the edited files are left for the parse of the next version
+				return;
+			}
+			Set<VirtualFile> edited = new HashSet<>(editedFiles);
+			editedFiles.removeAll(edited);
+			try {
+				parseAndPublish(version, previous, edited);
+			} catch (RuntimeException e) {
+				//e.g. canceled by a write action
+				editedFiles.addAll(edited);
+				throw e;
+			}
+		}
 	}
 
 	/**
-	 * @return the Module for which this data is relevant for
+	 * Parses the root configs that were never parsed or depend on an edited file, and publishes the snapshot of
+	 * the given version.
 	 */
+	private void parseAndPublish(long version, @NotNull ConfigHeaderSnapshot previous, @NotNull Set<VirtualFile> edited) {
+		//find a place to save parse data
+		String imlDir = ArmaPlugin.getPathToTempDirectory(module);
+		List<VirtualFile> configVirtualFiles = imlDir == null ? Collections.emptyList() : ArmaPluginUtil.getConfigVirtualFiles(module);
+
+		Map<VirtualFile, ParsedConfig> parsedConfigs = new LinkedHashMap<>();
+		List<HeaderFile> parsedFiles = new ArrayList<>(configVirtualFiles.size());
+		for (VirtualFile configVirtualFile : configVirtualFiles) {
+			ProgressManager.checkCanceled();
+			ParsedConfig parsedConfig = previous.getParsedConfigs().get(configVirtualFile);
+			if (parsedConfig == null || parsedConfig.dependsOnAny(edited)) {
+				//only root configs that were invalidated (or never parsed) are parsed
+				parsedConfig = parseConfig(configVirtualFile, imlDir);
+			}
+			parsedConfigs.put(configVirtualFile, parsedConfig);
+			if (parsedConfig.getHeaderFile() != null) {
+				parsedFiles.add(parsedConfig.getHeaderFile());
+			}
+		}
+
+		publish(new ConfigHeaderSnapshot(version,
+				Collections.unmodifiableList(parsedFiles), Collections.unmodifiableMap(parsedConfigs)
+		));
+	}
+
+	private void publish(@NotNull ConfigHeaderSnapshot newSnapshot) {
+		List<CompletableFuture<ConfigHeaderSnapshot>> completed = new ArrayList<>();
+		synchronized (snapshotWaiters) {
+			snapshot.set(newSnapshot);
+			snapshotWaiters.entrySet().removeIf(entry -> {
+				if (entry.getValue() <= newSnapshot.getVersion()) {
+					completed.add(entry.getKey());
+					return true;
+				}
+				return false;
+			});
+		}
+		for (CompletableFuture<ConfigHeaderSnapshot> future : completed) {
+			future.complete(newSnapshot);
+		}
+	}
+
+	private void failWaiters(@NotNull Throwable t) {
+		List<CompletableFuture<ConfigHeaderSnapshot>> failed;
+		synchronized (snapshotWaiters) {
+			failed = new ArrayList<>(snapshotWaiters.keySet());
+			snapshotWaiters.clear();
+		}
+		for (CompletableFuture<ConfigHeaderSnapshot> future : failed) {
+			future.completeExceptionally(t);
+		}
+	}
+
 	@NotNull
-	public Module getModule() {
-		return module;
+	private ParsedConfig parseConfig(@NotNull VirtualFile configVirtualFile, @NotNull String imlDir) {
+		//every project file that is included while parsing is recorded, so that an edit to a file only
+		//invalidates the root configs that include it
+		Set<VirtualFile> dependencies = new HashSet<>();
+		dependencies.add(configVirtualFile);
+		try {
+			HeaderParseResult result = HeaderParser.parse(
+					new VirtualFileHeaderFileTextProvider(configVirtualFile, module.getProject(), dependencies),
+					new File(imlDir)
+			);
+			return new ParsedConfig(result.getFile(), dependencies);
+		} catch (ProcessCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			//the parser may have wrapped a ProcessCanceledException
+			ProgressManager.checkCanceled();
+			LOG.warn("Couldn't parse " + configVirtualFile.getPath(), e);
+			Notifications.Bus.notify(new ArmaPluginUserData.HeaderFileParseErrorNotification(e));
+			//not parsed again until a file it depends on is edited
+			return new ParsedConfig(null, dependencies);
+		}
 	}
 
 	/**
-	 * @return a read-only list of all config functions.
+	 * @return the Module for which this data is relevant for
 	 */
-	@Nullable
-	public List<HeaderConfigFunction> getAllConfigFunctions() {
-		return functions;
+	@NotNull
+	public Module getModule() {
+		return module;
 	}
 
 	@Nullable
@@ -93,4 +323,44 @@ class ArmaPluginModuleData {
 	public void setStringTableXmlFile(@Nullable XmlFile stringTableXmlFile) {
 		this.stringTableXmlFile = stringTableXmlFile;
 	}
+
+	/**
+	 * A root config file that was parsed, along with every project file that was read to parse it.
+	 */
+	static class ParsedConfig {
+		@Nullable
+		private final HeaderFile headerFile;
+		@NotNull
+		private final Set<VirtualFile> dependencies;
+
+		/**
+		 * @param headerFile   the parsed file, or null if the root config couldn't be parsed
+		 * @param dependencies the root config file and every file it includes (transitively)
+		 */
+		ParsedConfig(@Nullable HeaderFile headerFile, @NotNull Set<VirtualFile> dependencies) {
+			this.headerFile = headerFile;
+			this.dependencies = dependencies;
+		}
+
+		/**
+		 * @return the parsed file, or null if the root config couldn't be parsed
+		 */
+		@Nullable
+		HeaderFile getHeaderFile() {
+			return headerFile;
+		}
+
+		boolean dependsOn(@NotNull VirtualFile file) {
+			return dependencies.contains(file);
+		}
+
+		boolean dependsOnAny(@NotNull Collection<VirtualFile> files) {
+			for (VirtualFile file : files) {
+				if (dependencies.contains(file)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
 }
@@ -2,7 +2,7 @@ package com.kaylerrenslow.armaplugin;
 
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationType;
-import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtil;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -10,16 +10,21 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.xml.XmlFile;
+import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderFile;
-import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderParseResult;
-import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderParser;
 import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
+import com.kaylerrenslow.armaplugin.lang.header.index.HeaderConfigFunctionIndex;
 import com.kaylerrenslow.armaplugin.settings.ArmaPluginApplicationSettings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Used for storing data collected from the current IntelliJ process's lifetime.
@@ -36,8 +41,69 @@ public class ArmaPluginUserData {
 		return instance;
 	}
 
-	private final Map<Module, ArmaPluginModuleData> moduleMap = new IdentityHashMap<>();
+	/**
+	 * Time to wait after the last edit of a header file before invalidating parsed configs
+	 *
+	 * @see #reparseConfigs(PsiFile)
+	 */
+	private static final int REPARSE_CONFIGS_DELAY_MILLIS = 300;
+
+	/**
+	 * Module doesn't override equals or hashCode, so this is still mapped by identity
+	 */
+	private final Map<Module, ArmaPluginModuleData> moduleMap = new ConcurrentHashMap<>();
+	/**
+	 * Executor that parses the root config files of all modules, one module at a time
+	 */
+	private final ExecutorService configParseExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+			"ArmaPluginUserData Config Parser", 1
+	);
+	/**
+	 * Header files that were edited since the last time {@link #reparseConfigsAlarm} went off
+	 */
+	private final Map<Module, Set<VirtualFile>> editedConfigFiles = new IdentityHashMap<>();
+	private final Alarm reparseConfigsAlarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, ApplicationManager.getApplication());
+
+
+	/**
+	 * Invokes {@link #getConfigHeaderSnapshot(Module)} by first getting a {@link Module} instance for the given PsiElement.
+	 *
+	 * @return the latest snapshot, or {@link ConfigHeaderSnapshot#EMPTY} if couldn't locate a {@link Module}
+	 */
+	@NotNull
+	public ConfigHeaderSnapshot getConfigHeaderSnapshot(@NotNull PsiElement elementFromModule) {
+		ArmaPluginModuleData moduleData = getModuleData(elementFromModule);
+		if (moduleData == null) {
+			return ConfigHeaderSnapshot.EMPTY;
+		}
+		return moduleData.getSnapshot();
+	}
 
+	/**
+	 * Gets the latest parsed root config files (a single description.ext for missions or multiple config.cpp for
+	 * addons/mods) without blocking. The root configs are parsed on a background thread. If the snapshot is out of date
+	 * (a root config or a file it includes was edited), the out of date root configs are parsed again and a new
+	 * snapshot is published later, so this can be invoked from the EDT.
+	 *
+	 * @return the latest snapshot. It is {@link ConfigHeaderSnapshot#EMPTY} if nothing has been parsed yet.
+	 * @see #getFreshConfigHeaderSnapshot(Module)
+	 */
+	@NotNull
+	public ConfigHeaderSnapshot getConfigHeaderSnapshot(@NotNull Module module) {
+		return getModuleData(module).getSnapshot();
+	}
+
+	/**
+	 * Gets a future for the snapshot that includes every edit made before this method was invoked. The root configs are
+	 * parsed on a background thread.
+	 *
+	 * @return the future, which is already complete if the latest snapshot is up to date
+	 * @see #getConfigHeaderSnapshot(Module)
+	 */
+	@NotNull
+	public CompletableFuture<ConfigHeaderSnapshot> getFreshConfigHeaderSnapshot(@NotNull Module module) {
+		return getModuleData(module).getFreshSnapshot();
+	}
 
 	/**
 	 * Invokes {@link #parseAndGetConfigHeaderFiles(Module)} by first getting a {@link Module} instance for the given PsiElement.
@@ -46,58 +112,39 @@ public class ArmaPluginUserData {
 	 */
 	@NotNull
 	public List<HeaderFile> parseAndGetConfigHeaderFiles(@NotNull PsiElement elementFromModule) {
-		ArmaPluginModuleData moduleData = getModuleData(elementFromModule);
-		if (moduleData == null) {
+		Module module = ModuleUtil.findModuleForPsiElement(elementFromModule);
+		if (module == null) {
 			return Collections.emptyList();
 		}
-		return doParseAndGetConfigHeaderFiles(moduleData);
+		return parseAndGetConfigHeaderFiles(module);
 	}
 
 	/**
 	 * Get a list of {@link HeaderFile} instances. It will be either a single description.ext (for missions)
 	 * or multiple config.cpp (for addons/mods).
-	 * Note: this method will reparse only if it is unset or out of date (file was updated).
+	 * <p>
+	 * Note: the root configs are never parsed on the current thread. Without read access, this method blocks until the
+	 * background thread has parsed the root configs that are unset or out of date. On the EDT or with read access, this
+	 * never blocks (waiting could dead lock with a write action) and returns the latest snapshot's files like
+	 * {@link #getConfigHeaderSnapshot(Module)} (use {@link #getFreshConfigHeaderSnapshot(Module)} to be notified of the
+	 * parsed files).
 	 *
 	 * @return the root config file, or an empty list if couldn't locate a {@link Module} or couldn't be parsed
 	 */
 	@NotNull
 	public List<HeaderFile> parseAndGetConfigHeaderFiles(@NotNull Module module) {
-		return doParseAndGetConfigHeaderFiles(getModuleData(module));
-	}
-
-	@NotNull
-	private List<HeaderFile> doParseAndGetConfigHeaderFiles(@NotNull ArmaPluginModuleData moduleData) {
-		if (!moduleData.shouldReparseConfigHeaderFiles()) {
-			return moduleData.getConfigHeaderFiles();
-		}
-		//find a place to save parse data
-		String imlDir = ArmaPlugin.getPathToTempDirectory(moduleData.getModule());
-		if (imlDir == null) {
-			return Collections.emptyList();
+		ArmaPluginModuleData moduleData = getModuleData(module);
+		if (ApplicationManager.getApplication().isReadAccessAllowed()) {
+			//also true on the EDT
+			return moduleData.getSnapshot().getHeaderFiles();
 		}
-		List<VirtualFile> configVirtualFiles = ArmaPluginUtil.getConfigVirtualFiles(moduleData.getModule());
-		if (configVirtualFiles.isEmpty()) {
-			return Collections.emptyList();
+		try {
+			return moduleData.getFreshSnapshot().get().getHeaderFiles();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ignore) {
 		}
-
-		List<HeaderFile> parsedFiles = new ArrayList<>();
-		for (VirtualFile configVirtualFile : configVirtualFiles) {
-			try {
-				HeaderParseResult result = HeaderParser.parse(
-						new VirtualFileHeaderFileTextProvider(configVirtualFile, moduleData.getModule().getProject()),
-						new File(imlDir)
-				);
-				parsedFiles.add(result.getFile());
-			} catch (Exception e) {
-				System.out.println("Header Parse Exception: " + e.getMessage());
-				Notifications.Bus.notify(new HeaderFileParseErrorNotification(e));
-			}
-		}
-
-		moduleData.setConfigHeaderFiles(parsedFiles);
-		moduleData.setReparseConfigHeaderFiles(false);
-
-		return moduleData.getConfigHeaderFiles();
+		return moduleData.getSnapshot().getHeaderFiles();
 	}
 
 	/**
@@ -106,30 +153,22 @@ public class ArmaPluginUserData {
 	 */
 	@Nullable
 	public List<HeaderConfigFunction> getAllConfigFunctions(@NotNull PsiElement elementFromModule) {
-		ArmaPluginModuleData moduleData = getModuleData(elementFromModule);
-		if (moduleData == null) {
+		Module module = ModuleUtil.findModuleForPsiElement(elementFromModule);
+		if (module == null) {
 			return null;
 		}
-		return doGetHeaderConfigFunctions(moduleData);
+		return getAllConfigFunctions(module);
 	}
 
 	/**
-	 * Gets all CfgFunctions functions from the given Module.
+	 * Gets all CfgFunctions functions from the given Module. The functions are read from {@link HeaderConfigFunctionIndex}
+	 * and the root config files aren't parsed.
 	 *
-	 * @return null if the functions couldn't be retrieved (parse error or some other problem), or the list of functions
+	 * @return null if the functions couldn't be retrieved (indexes aren't ready), or the list of functions
 	 */
 	@Nullable
 	public List<HeaderConfigFunction> getAllConfigFunctions(@NotNull Module module) {
-		ArmaPluginModuleData moduleData = getModuleData(module);
-		return doGetHeaderConfigFunctions(moduleData);
-	}
-
-	@Nullable
-	private List<HeaderConfigFunction> doGetHeaderConfigFunctions(@NotNull ArmaPluginModuleData moduleData) {
-		if (moduleData.getConfigHeaderFiles().isEmpty() || moduleData.shouldReparseConfigHeaderFiles()) {
-			doParseAndGetConfigHeaderFiles(moduleData);
-		}
-		return moduleData.getAllConfigFunctions();
+		return HeaderConfigFunctionIndex.getAllConfigFunctions(module);
 	}
 
 	@Nullable
@@ -144,24 +183,61 @@ public class ArmaPluginUserData {
 	@NotNull
 	private ArmaPluginModuleData getModuleData(@NotNull Module module) {
 		return moduleMap.computeIfAbsent(module, module1 -> {
-			return new ArmaPluginModuleData(module);
+			return new ArmaPluginModuleData(module, configParseExecutor);
 		});
 	}
 
 	/**
-	 * Invoke when the root config file ({@link #parseAndGetConfigHeaderFiles(PsiElement)}) or included files for it has been edited.
-	 * Note that this doesn't do any reparsing and instead tells {@link #parseAndGetConfigHeaderFiles(PsiElement)} that it's cached
-	 * {@link HeaderFile} is no longer valid and it should reparse.
+	 * Invoke when a header file has been edited. Note that this doesn't do any reparsing on the current thread. After the
+	 * edits stop for {@link #REPARSE_CONFIGS_DELAY_MILLIS}, the cached {@link #getAllConfigFunctions(Module)} are dropped
+	 * if a root config is the edited file or includes it (see {@link HeaderConfigFunctionIndex#configFilesEdited}).
+	 * Every root config ({@link #getConfigHeaderSnapshot(PsiElement)}) that is the edited file or includes it is also
+	 * parsed again on a background thread and a new snapshot is published. If no root config includes the edited file,
+	 * nothing is dropped or parsed.
 	 */
 	public void reparseConfigs(@NotNull PsiFile fileFromModule) {
+		if (!fileFromModule.isPhysical()) {
+			return;
+		}
+		VirtualFile editedFile = fileFromModule.getVirtualFile();
+		if (editedFile == null) {
+			return;
+		}
 		Module module = ModuleUtil.findModuleForPsiElement(fileFromModule);
 		if (module == null) {
 			return;
 		}
-		ArmaPluginModuleData moduleData = moduleMap.computeIfAbsent(module, module1 -> {
-			return new ArmaPluginModuleData(module);
+		synchronized (editedConfigFiles) {
+			editedConfigFiles.computeIfAbsent(module, module1 -> {
+				return new HashSet<>();
+			}).add(editedFile);
+		}
+		//each keystroke restarts the delay
+		reparseConfigsAlarm.cancelAllRequests();
+		reparseConfigsAlarm.addRequest(this::invalidateEditedConfigs, REPARSE_CONFIGS_DELAY_MILLIS);
+	}
+
+	private void invalidateEditedConfigs() {
+		Map<Module, Set<VirtualFile>> edited;
+		synchronized (editedConfigFiles) {
+			edited = new HashMap<>(editedConfigFiles);
+			editedConfigFiles.clear();
+		}
+		edited.forEach((module, files) -> {
+			if (module.isDisposed()) {
+				moduleMap.remove(module);
+				return;
+			}
+			HeaderConfigFunctionIndex.configFilesEdited(module, files);
+			ArmaPluginModuleData moduleData = moduleMap.get(module);
+			if (moduleData == null) {
+				//nothing was parsed yet
+				return;
+			}
+			for (VirtualFile file : files) {
+				moduleData.invalidateConfigsIncluding(file);
+			}
 		});
-		moduleData.setReparseConfigHeaderFiles(true);
 	}
 
 	/**
@@ -196,9 +272,7 @@ public class ArmaPluginUserData {
 		if (module == null) {
 			return null;
 		}
-		ArmaPluginModuleData data = moduleMap.computeIfAbsent(module, module1 -> {
-			return new ArmaPluginModuleData(module);
-		});
+		ArmaPluginModuleData data = getModuleData(module);
 		XmlFile f = data.getStringTableXmlFile();
 		if (f == null) {
 			VirtualFile virtFile = ArmaPluginUtil.getStringTableXmlFile(module);
@@ -217,7 +291,7 @@ public class ArmaPluginUserData {
 		}
 	}
 
-	private static class HeaderFileParseErrorNotification extends Notification {
+	static class HeaderFileParseErrorNotification extends Notification {
 		private final ResourceBundle bundle = ArmaPlugin.getPluginBundle();
 		@NotNull
 		private final Exception e;
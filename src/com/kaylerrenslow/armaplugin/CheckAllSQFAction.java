@@ -0,0 +1,86 @@
+package com.kaylerrenslow.armaplugin;
+
+import com.intellij.notification.NotificationGroup;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFBatchChecker;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFCheckReportWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ResourceBundle;
+
+/**
+ * Syntax and type checks every SQF file in the project and saves the results to a SARIF (JSON) report.
+ *
+ * @see SQFBatchChecker
+ * @see CheckAllSQFApplicationStarter
+ */
+public class CheckAllSQFAction extends AnAction {
+	private static final NotificationGroup NOTIFICATION_GROUP = NotificationGroup.balloonGroup("Arma Plugin - Check All SQF");
+
+	@Override
+	public void actionPerformed(AnActionEvent e) {
+		Project project = e.getProject();
+		if (project == null) {
+			return;
+		}
+		ResourceBundle bundle = ArmaPlugin.getPluginBundle();
+		VirtualFileWrapper wrapper = FileChooserFactory.getInstance().createSaveFileDialog(
+				new FileSaverDescriptor(
+						bundle.getString("CheckAllSQFAction.save-dialog.title"),
+						bundle.getString("CheckAllSQFAction.save-dialog.description"),
+						"json"
+				),
+				project
+		).save(project.getBaseDir(), "sqf-check-report.sarif.json");
+		if (wrapper == null) {
+			return;
+		}
+		File reportFile = wrapper.getFile();
+
+		ProgressManager.getInstance().run(new Task.Backgroundable(project, bundle.getString("CheckAllSQFAction.progress-title"), true) {
+			private int problemCount = 0;
+
+			@Override
+			public void run(@NotNull ProgressIndicator indicator) {
+				try (SQFCheckReportWriter report = new SQFCheckReportWriter(
+						new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8)),
+						ArmaPlugin.getPluginVersion()
+				)) {
+					problemCount = new SQFBatchChecker(project).run(report, indicator);
+				} catch (IOException ex) {
+					notify(String.format(bundle.getString("CheckAllSQFAction.notification.failed_f"), ex.getMessage()), NotificationType.ERROR);
+				}
+			}
+
+			@Override
+			public void onSuccess() {
+				notify(
+						String.format(bundle.getString("CheckAllSQFAction.notification.finished_f"), problemCount, reportFile.getAbsolutePath()),
+						problemCount == 0 ? NotificationType.INFORMATION : NotificationType.WARNING
+				);
+			}
+
+			private void notify(@NotNull String content, @NotNull NotificationType type) {
+				NOTIFICATION_GROUP.createNotification(
+						bundle.getString("CheckAllSQFAction.notification.title"), content, type, null
+				).notify(project);
+			}
+		});
+	}
+
+	@Override
+	public void update(AnActionEvent e) {
+		e.getPresentation().setEnabled(e.getProject() != null);
+	}
+}
@@ -0,0 +1,73 @@
+package com.kaylerrenslow.armaplugin;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFBatchChecker;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFCheckReportWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headless entry point for syntax and type checking every SQF file in a project (for CI). Usage:
+ * <pre>
+ * idea checkSqf &lt;project path&gt; &lt;report file&gt;
+ * </pre>
+ * The report is a SARIF (JSON) file. The process exits with 0 if there were no problems, 1 if there were problems,
+ * and 2 if the check couldn't be done.
+ *
+ * @see SQFBatchChecker
+ * @see CheckAllSQFAction
+ */
+public class CheckAllSQFApplicationStarter implements ApplicationStarter {
+	private static final String COMMAND_NAME = "checkSqf";
+
+	@Override
+	public String getCommandName() {
+		return COMMAND_NAME;
+	}
+
+	@Override
+	public void premain(String[] args) {
+		if (args.length != 3) {
+			System.err.println("Usage: " + COMMAND_NAME + " <project path> <report file>");
+			System.exit(2);
+		}
+	}
+
+	@Override
+	public void main(String[] args) {
+		String projectPath = new File(args[1]).getAbsolutePath();
+		File reportFile = new File(args[2]);
+
+		Project project = ProjectUtil.openOrImport(projectPath, null, false);
+		if (project == null) {
+			System.err.println("Couldn't open project " + projectPath);
+			System.exit(2);
+			return;
+		}
+
+		//don't block the event dispatch thread because indexing may need it
+		ApplicationManager.getApplication().executeOnPooledThread(() -> {
+			int exitCode;
+			try (SQFCheckReportWriter report = new SQFCheckReportWriter(
+					new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8)),
+					ArmaPlugin.getPluginVersion()
+			)) {
+				DumbService.getInstance(project).waitForSmartMode();
+				long start = System.currentTimeMillis();
+				int problemCount = new SQFBatchChecker(project).run(report, null);
+				System.out.println("Found " + problemCount + " problem(s) in " + (System.currentTimeMillis() - start) + "ms. Report: " + reportFile.getAbsolutePath());
+				exitCode = problemCount == 0 ? 0 : 1;
+			} catch (Exception e) {
+				e.printStackTrace();
+				exitCode = 2;
+			}
+			System.exit(exitCode);
+		});
+	}
+}
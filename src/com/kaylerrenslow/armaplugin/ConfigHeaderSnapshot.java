@@ -0,0 +1,76 @@
+package com.kaylerrenslow.armaplugin;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable result of parsing all root config files (description.ext or config.cpp) of a module. A new snapshot is
+ * published each time the root configs are parsed (see {@link ArmaPluginUserData#getConfigHeaderSnapshot(com.intellij.openapi.module.Module)}),
+ * so a snapshot can be read from any thread without locking.
+ */
+public class ConfigHeaderSnapshot {
+	static final ConfigHeaderSnapshot EMPTY = new ConfigHeaderSnapshot(0, Collections.emptyList(), Collections.emptyMap());
+
+	private final long version;
+	@NotNull
+	private final List<HeaderFile> headerFiles;
+	@NotNull
+	private final Map<VirtualFile, ArmaPluginModuleData.ParsedConfig> parsedConfigs;
+
+	/**
+	 * @param version       version of the snapshot
+	 * @param headerFiles   a read-only list of the parsed root configs
+	 * @param parsedConfigs a read-only map of each root config file to its parsed config
+	 */
+	ConfigHeaderSnapshot(long version, @NotNull List<HeaderFile> headerFiles,
+						 @NotNull Map<VirtualFile, ArmaPluginModuleData.ParsedConfig> parsedConfigs) {
+		this.version = version;
+		this.headerFiles = headerFiles;
+		this.parsedConfigs = parsedConfigs;
+	}
+
+	/**
+	 * @return the version of the snapshot. A snapshot with a greater version was parsed after an edit that made a snapshot
+	 * with a lesser version out of date. The version is 0 if nothing has been parsed.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get a list of preprocessed and parsed config files. If the list is empty, there is no description.ext (for missions)
+	 * file or config.cpp files (for addons), or they haven't been parsed yet. If the list is non-empty, the list will be a
+	 * singleton with the description.ext file, or it will contain multiple, at least 1, config.cpp files (for addons).
+	 *
+	 * @return a read only list of config files
+	 */
+	@NotNull
+	public List<HeaderFile> getHeaderFiles() {
+		return headerFiles;
+	}
+
+	/**
+	 * @return a read-only map of each root config file to its parsed config and the files it includes
+	 */
+	@NotNull
+	Map<VirtualFile, ArmaPluginModuleData.ParsedConfig> getParsedConfigs() {
+		return parsedConfigs;
+	}
+
+	/**
+	 * @return true if the given file is a root config or is included by a root config of this snapshot
+	 */
+	boolean dependsOn(@NotNull VirtualFile file) {
+		for (ArmaPluginModuleData.ParsedConfig parsedConfig : parsedConfigs.values()) {
+			if (parsedConfig.dependsOn(file)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
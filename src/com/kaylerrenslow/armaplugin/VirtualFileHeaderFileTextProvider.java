@@ -2,8 +2,10 @@ package com.kaylerrenslow.armaplugin;
 
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
@@ -20,6 +22,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 /**
  * A {@link HeaderFileTextProvider} implementation that accepts {@link VirtualFile} instances
@@ -33,15 +36,29 @@ public class VirtualFileHeaderFileTextProvider implements HeaderFileTextProvider
 	private final VirtualFile virtualFile;
 	@NotNull
 	private final Project project;
+	@Nullable
+	private final Set<VirtualFile> includedFiles;
 
 	public VirtualFileHeaderFileTextProvider(@NotNull VirtualFile virtualFile, @NotNull Project project) {
+		this(virtualFile, project, null);
+	}
+
+	/**
+	 * @param includedFiles if not null, every project file that is resolved with {@link #resolvePath(String)} (by this
+	 *                      provider or the providers it creates) is added to this set. Files in addons aren't added.
+	 */
+	public VirtualFileHeaderFileTextProvider(@NotNull VirtualFile virtualFile, @NotNull Project project,
+											 @Nullable Set<VirtualFile> includedFiles) {
 		this.virtualFile = virtualFile;
 		this.project = project;
+		this.includedFiles = includedFiles;
 	}
 
 	@Override
 	@NotNull
 	public Scanner newTextScanner() throws IOException {
+		//a parse on a background thread is canceled when a write action is waiting
+		ProgressManager.checkCanceled();
 		PsiFile file = PsiManager.getInstance(project).findFile(virtualFile);
 		if (file == null) {
 			throw new FileNotFoundException("File " + virtualFile + " couldn't be found");
@@ -70,12 +87,55 @@ public class VirtualFileHeaderFileTextProvider implements HeaderFileTextProvider
 	@Override
 	@Nullable
 	public HeaderFileTextProvider resolvePath(@NotNull String path) {
-		VirtualFile resolvedFile = null;
+		VirtualFile resolvedFile = resolveInProject(this.virtualFile, path, project);
+		if (resolvedFile != null) {
+			if (includedFiles != null) {
+				includedFiles.add(resolvedFile);
+			}
+			return new VirtualFileHeaderFileTextProvider(resolvedFile, project, includedFiles);
+		}
+		File file = resolveInAddons(path);
+		if (file == null) {
+			return null;
+		}
+		return new HeaderFileTextProvider.BasicFileInput(file);
+	}
+
+	/**
+	 * Resolves a path used in an #include. This is the same lookup as {@link #resolvePath(String)}, except files
+	 * in addons are returned as {@link VirtualFile} instances.
+	 *
+	 * @param from    file that has the #include
+	 * @param path    the included path (\ or / may be used)
+	 * @param project project
+	 * @return the file, or null if it couldn't be found
+	 */
+	@Nullable
+	public static VirtualFile resolveIncludedFile(@NotNull VirtualFile from, @NotNull String path, @NotNull Project project) {
+		VirtualFile resolvedFile = resolveInProject(from, path, project);
+		if (resolvedFile != null) {
+			return resolvedFile;
+		}
+		File file = resolveInAddons(path);
+		if (file == null) {
+			return null;
+		}
+		return LocalFileSystem.getInstance().findFileByIoFile(file);
+	}
+
+	/**
+	 * Resolves a relative path against the source root of the given file (or the module's directory when there isn't
+	 * a source root), or an absolute path that starts with the addon prefix ({@link ArmaPluginProjectSettings}).
+	 *
+	 * @return the file, or null if it isn't in the project
+	 */
+	@Nullable
+	private static VirtualFile resolveInProject(@NotNull VirtualFile from, @NotNull String path, @NotNull Project project) {
 		path = path.replaceAll("\\\\", "/");
 		if (!path.startsWith("/")) {
-			VirtualFile srcRoot = ProjectFileIndex.getInstance(project).getSourceRootForFile(this.virtualFile);
+			VirtualFile srcRoot = ProjectFileIndex.getInstance(project).getSourceRootForFile(from);
 			if (srcRoot == null) {
-				Module module = ModuleUtil.findModuleForFile(this.virtualFile, project);
+				Module module = ModuleUtil.findModuleForFile(from, project);
 				if (module == null) {
 					return null;
 				}
@@ -89,29 +149,37 @@ public class VirtualFileHeaderFileTextProvider implements HeaderFileTextProvider
 				}
 			}
 
-			resolvedFile = srcRoot.findFileByRelativePath(path);
-			if (resolvedFile == null) {
-				return null;
-			}
-			return new VirtualFileHeaderFileTextProvider(resolvedFile, project);
+			return srcRoot.findFileByRelativePath(path);
 		}
 
 		path = path.substring(1); //remove \
-		String addonPrefix = ArmaPluginProjectSettings.getInstance(this.project).getState().addonPrefixName;
+		String addonPrefix = ArmaPluginProjectSettings.getInstance(project).getState().addonPrefixName;
 		if (addonPrefix != null) {
 			if (path.startsWith(addonPrefix + "/")) {
 				path = path.substring((addonPrefix + "/").length());
-				VirtualFile srcRoot = ProjectFileIndex.getInstance(project).getSourceRootForFile(this.virtualFile);
+				VirtualFile srcRoot = ProjectFileIndex.getInstance(project).getSourceRootForFile(from);
 				if (srcRoot == null) {
 					return null;
 				}
 
-				resolvedFile = srcRoot.findFileByRelativePath(path);
-				if (resolvedFile != null) {
-					return new VirtualFileHeaderFileTextProvider(resolvedFile, project);
-				}
+				return srcRoot.findFileByRelativePath(path);
 			}
 		}
+		return null;
+	}
+
+	/**
+	 * Resolves an absolute path (starts with \ or /) against the directories of the addons in {@link ArmaAddonsManager}.
+	 *
+	 * @return the file, or null if the path isn't absolute or isn't in an addon
+	 */
+	@Nullable
+	private static File resolveInAddons(@NotNull String path) {
+		path = path.replaceAll("\\\\", "/");
+		if (!path.startsWith("/")) {
+			return null;
+		}
+		path = path.substring(1); //remove \
 
 		Path pathAsPathObj = null;
 		try {
@@ -135,7 +203,7 @@ public class VirtualFileHeaderFileTextProvider implements HeaderFileTextProvider
 			if (!file.exists()) {
 				continue;
 			}
-			return new HeaderFileTextProvider.BasicFileInput(file);
+			return file;
 		}
 		return null;
 	}
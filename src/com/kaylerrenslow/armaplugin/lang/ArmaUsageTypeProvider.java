@@ -7,6 +7,7 @@ import com.intellij.usages.impl.rules.UsageTypeProvider;
 import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderFile;
 import com.kaylerrenslow.armaDialogCreator.util.Reference;
 import com.kaylerrenslow.armaplugin.ArmaPlugin;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFCallSiteIndex;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -28,6 +29,7 @@ public class ArmaUsageTypeProvider implements UsageTypeProvider {
 	private final UsageType TYPE_ASSIGNMENT;
 	private final UsageType TYPE_FUNCTION_CALL;
 	private final UsageType TYPE_FUNCTION_SPAWN;
+	private final UsageType TYPE_SCRIPT_EXEC_VM;
 	private final UsageType TYPE_FUNCTION_PARAMETER;
 	private final UsageType TYPE_RETURN_STATEMENT;
 	private final UsageType TYPE_COMMAND_ARGUMENT;
@@ -41,6 +43,7 @@ public class ArmaUsageTypeProvider implements UsageTypeProvider {
 		TYPE_ASSIGNMENT = new UsageType(bundle.getString("UsageTypeProvider.UsageType.assignment"));
 		TYPE_FUNCTION_CALL = new UsageType(bundle.getString("UsageTypeProvider.UsageType.function_call"));
 		TYPE_FUNCTION_SPAWN = new UsageType(bundle.getString("UsageTypeProvider.UsageType.function_spawn"));
+		TYPE_SCRIPT_EXEC_VM = new UsageType(bundle.getString("UsageTypeProvider.UsageType.script_exec_vm"));
 		TYPE_FUNCTION_PARAMETER = new UsageType(bundle.getString("UsageTypeProvider.UsageType.function_param"));
 		TYPE_RETURN_STATEMENT = new UsageType(bundle.getString("UsageTypeProvider.UsageType.return_statement"));
 		TYPE_COMMAND_ARGUMENT = new UsageType(bundle.getString("UsageTypeProvider.UsageType.command_argument"));
@@ -53,6 +56,20 @@ public class ArmaUsageTypeProvider implements UsageTypeProvider {
 		if (element instanceof SQFCommand) {
 			return TYPE_COMMAND_GENERAL;
 		}
+		SQFCallSiteIndex.CallKind callKind = SQFCallSiteIndex.getCallKind(element);
+		if (callKind != null) {
+			switch (callKind) {
+				case CALL: {
+					return TYPE_FUNCTION_CALL;
+				}
+				case SPAWN: {
+					return TYPE_FUNCTION_SPAWN;
+				}
+				case EXEC_VM: {
+					return TYPE_SCRIPT_EXEC_VM;
+				}
+			}
+		}
 		if (element instanceof SQFVariable) {
 			UsageType x = getUsageTypeForVariable((SQFVariable) element);
 			if (x != null) {
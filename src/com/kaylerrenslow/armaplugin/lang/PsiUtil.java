@@ -2,6 +2,7 @@ package com.kaylerrenslow.armaplugin.lang;
 
 import com.intellij.lang.ASTNode;
 import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
@@ -17,6 +18,9 @@ import java.util.List;
 import java.util.function.Function;
 
 /**
+ * The traversal methods of this class invoke {@link ProgressManager#checkCanceled()} for each node they visit,
+ * so they may throw {@link com.intellij.openapi.progress.ProcessCanceledException}.
+ *
  * @author Kayler
  * @since 09/06/2017
  */
@@ -101,6 +105,7 @@ public class PsiUtil {
 		}
 		ASTNode node;
 		while (nodes.size() > 0) {
+			ProgressManager.checkCanceled();
 			node = nodes.removeFirst();
 			stop = callback.apply(node);
 			if (stop != null && stop) {
@@ -133,6 +138,7 @@ public class PsiUtil {
 		}
 		ASTNode node;
 		while (nodes.size() > 0) {
+			ProgressManager.checkCanceled();
 			node = nodes.pop();
 			stop = callback.apply(node);
 			if (stop != null && stop) {
@@ -169,6 +175,7 @@ public class PsiUtil {
 		}
 		ASTNode node;
 		while (nodes.size() > 0) {
+			ProgressManager.checkCanceled();
 			node = nodes.removeFirst();
 			stop = callback.apply(node);
 			if (stop != null && stop) {
@@ -336,7 +343,9 @@ public class PsiUtil {
 																				@NotNull List<E> list) {
 		PsiElement child = rootElement.getFirstChild();
 		while (child != null) {
+			ProgressManager.checkCanceled();
 			if (cursor != null && child == cursor) {
+				child = child.getNextSibling();
 				continue;
 			}
 			if (type.isAssignableFrom(child.getClass()) && (textContent == null || child.getText().equals(textContent))) {
@@ -1,10 +1,17 @@
 package com.kaylerrenslow.armaplugin.lang;
 
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.impl.PsiTreeChangeEventImpl;
 import com.intellij.psi.impl.PsiTreeChangePreprocessor;
 import com.kaylerrenslow.armaplugin.ArmaPluginUserData;
+import com.kaylerrenslow.armaplugin.lang.header.index.HeaderConfigFunctionIndex;
 import com.kaylerrenslow.armaplugin.lang.header.psi.HeaderPsiFile;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * @author Kayler
@@ -14,8 +21,25 @@ public class TreeChangePreprocessor implements PsiTreeChangePreprocessor {
 
 	@Override
 	public void treeChanged(@NotNull PsiTreeChangeEventImpl event) {
-			if (event.getFile() instanceof HeaderPsiFile) {
-				ArmaPluginUserData.getInstance().reparseConfigs(event.getFile());
+			PsiFile file = event.getFile();
+			if (file instanceof HeaderPsiFile) {
+				//CfgFunctions are invalidated after the edits stop, if the file is included by a root config
+				ArmaPluginUserData.getInstance().reparseConfigs(file);
+				return;
 			}
+			if (file == null) {
+				//a file was created, deleted, renamed or moved, which may change what an #include resolves to
+				PsiElement changed = event.getParent() != null ? event.getParent() : event.getElement();
+				if (changed instanceof PsiDirectory || changed instanceof HeaderPsiFile) {
+					configFilesChanged(changed);
+				}
+			}
+	}
+
+	private static void configFilesChanged(@Nullable PsiElement elementFromModule) {
+		Module module = elementFromModule == null ? null : ModuleUtil.findModuleForPsiElement(elementFromModule);
+		if (module != null) {
+			HeaderConfigFunctionIndex.configFilesChanged(module);
+		}
 	}
 }
@@ -1,6 +1,5 @@
 package com.kaylerrenslow.armaplugin.lang.header;
 
-import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderClass;
 import com.kaylerrenslow.armaplugin.ArmaPluginIcons;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -14,29 +13,29 @@ import javax.swing.*;
 public class HeaderConfigFunction {
 	private final String tagName;
 	@NotNull
-	private final HeaderClass tagClass;
+	private final String tagClassName;
 	private final String filePath;
 	private final String fileNameNoExt;
 	private final String functionFileExtension;
 	private final boolean appendFn_;
-	private final HeaderClass headerClass;
+	private final String functionClassName;
 
 	/**
 	 * This class is a wrapper class for a function that was defined inside the missionConfigFile (description.ext >> CfgFunctions)
 	 *
-	 * @param headerClass             the {@link HeaderClass} instance
+	 * @param functionClassName       class name of the function's class declaration
 	 * @param containingDirectoryPath file path to the function that is defined in the config (defined from file="exampleFileDir")
 	 * @param fileNameNoExt           file name of the function, or null if determined by the function class name
 	 * @param tagName                 the prefix tag for the function. This is defined in the config with tag="something" (or if not defined, it is the first child class of CfgFunctions)
-	 * @param tagClass                the {@link HeaderClass} instance that owns the "tag" attribute/assignment
+	 * @param tagClassName            class name of the class that owns the "tag" attribute/assignment
 	 * @param functionFileExtension   file extension (.sqf, .fsm)
 	 */
-	public HeaderConfigFunction(@NotNull HeaderClass headerClass, @NotNull String containingDirectoryPath,
-								@Nullable String fileNameNoExt, @NotNull String tagName, @NotNull HeaderClass tagClass, @Nullable String functionFileExtension) {
-		this.headerClass = headerClass;
+	public HeaderConfigFunction(@NotNull String functionClassName, @NotNull String containingDirectoryPath,
+								@Nullable String fileNameNoExt, @NotNull String tagName, @NotNull String tagClassName, @Nullable String functionFileExtension) {
+		this.functionClassName = functionClassName;
 		this.filePath = containingDirectoryPath;
 		this.tagName = tagName;
-		this.tagClass = tagClass;
+		this.tagClassName = tagClassName;
 		if (functionFileExtension == null) {
 			this.functionFileExtension = ".sqf";
 		} else {
@@ -52,16 +51,16 @@ public class HeaderConfigFunction {
 	}
 
 	/**
-	 * @return the {@link HeaderClass} instance that owns the "tag" attribute/assignment
+	 * @return class name of the class that owns the "tag" attribute/assignment
 	 */
 	@NotNull
-	public HeaderClass getTagClass() {
-		return tagClass;
+	public String getTagClassName() {
+		return tagClassName;
 	}
 
 	@NotNull
 	public String getFunctionClassName() {
-		return this.headerClass.getClassName();
+		return this.functionClassName;
 	}
 
 	@NotNull
@@ -131,11 +130,6 @@ public class HeaderConfigFunction {
 		return ArmaPluginIcons.ICON_SQF_FUNCTION;
 	}
 
-	@NotNull
-	public HeaderClass getHeaderClass() {
-		return headerClass;
-	}
-
 	@Override
 	public String toString() {
 		return getCallableName();
@@ -0,0 +1,237 @@
+package com.kaylerrenslow.armaplugin.lang.header.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.kaylerrenslow.armaplugin.lang.header.psi.HeaderLexerAdapter;
+import com.kaylerrenslow.armaplugin.lang.header.psi.HeaderParserDefinition;
+import com.kaylerrenslow.armaplugin.lang.header.psi.HeaderTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The class structure of a single header file, created only with the lexer. The outline is a list of entries in
+ * the order they appear in the file: class bodies being opened and closed, class declarations without a body
+ * (class myFunction;), the assignments that CfgFunctions uses (tag, file, ext), and #include directives.
+ * <p>
+ * Included files are not followed, so the outline only depends on the file's content and can be stored in an index
+ * (see {@link HeaderConfigFunctionIndex}). Other macros are not expanded.
+ */
+public class HeaderClassOutline {
+	/**
+	 * Names of assignments that are kept in the outline (lowercase)
+	 */
+	private static final Set<String> OUTLINED_ASSIGNMENTS = new HashSet<>(Arrays.asList("tag", "file", "ext"));
+
+	public enum Kind {
+		/**
+		 * class name {. {@link Entry#getName()} is the class name
+		 */
+		CLASS_START,
+		/**
+		 * } of a class body
+		 */
+		CLASS_END,
+		/**
+		 * class name;. {@link Entry#getName()} is the class name
+		 */
+		CLASS_DECLARATION,
+		/**
+		 * name = value;. {@link Entry#getName()} is the lowercase name and {@link Entry#getValue()} is the value without quotes
+		 */
+		ASSIGNMENT,
+		/**
+		 * #include "path". {@link Entry#getName()} is the included path
+		 */
+		INCLUDE
+	}
+
+	public static class Entry {
+		private final Kind kind;
+		private final String name;
+		private final String value;
+
+		private Entry(@NotNull Kind kind, @NotNull String name, @Nullable String value) {
+			this.kind = kind;
+			this.name = name;
+			this.value = value;
+		}
+
+		@NotNull
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the name of the class or assignment, the included path, or an empty String for {@link Kind#CLASS_END}
+		 */
+		@NotNull
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the value of the assignment, or null if {@link #getKind()} isn't {@link Kind#ASSIGNMENT}
+		 */
+		@Nullable
+		public String getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return kind + " " + name + (value == null ? "" : "=" + value);
+		}
+	}
+
+	private final List<Entry> entries;
+
+	private HeaderClassOutline(@NotNull List<Entry> entries) {
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return a read-only list of all entries, in the order they appear in the file
+	 */
+	@NotNull
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Creates an outline for the given header file text.
+	 */
+	@NotNull
+	public static HeaderClassOutline create(@NotNull CharSequence text) {
+		List<IElementType> types = new ArrayList<>();
+		List<String> texts = new ArrayList<>();
+		Lexer lexer = new HeaderLexerAdapter();
+		lexer.start(text);
+		IElementType type;
+		while ((type = lexer.getTokenType()) != null) {
+			if (type != TokenType.WHITE_SPACE && !HeaderParserDefinition.COMMENTS.contains(type)) {
+				types.add(type);
+				if (type == HeaderTypes.IDENTIFIER || type == HeaderTypes.STRING_LITERAL || type == HeaderTypes.MACRO) {
+					texts.add(lexer.getTokenText());
+				} else {
+					texts.add(null);
+				}
+			}
+			lexer.advance();
+		}
+
+		List<Entry> entries = new ArrayList<>();
+		//true for each opened class body, false for each opened array or other brace
+		LinkedList<Boolean> braces = new LinkedList<>();
+		for (int i = 0; i < types.size(); i++) {
+			type = types.get(i);
+			if (type == HeaderTypes.CLASS) {
+				if (tokenAt(types, i + 1) != HeaderTypes.IDENTIFIER) {
+					continue;
+				}
+				String className = texts.get(i + 1);
+				int next = i + 2;
+				if (tokenAt(types, next) == HeaderTypes.COLON) {
+					next += 2; //skip the base class
+				}
+				if (tokenAt(types, next) == HeaderTypes.LBRACE) {
+					entries.add(new Entry(Kind.CLASS_START, className, null));
+					braces.push(true);
+					i = next;
+				} else if (tokenAt(types, next) == HeaderTypes.SEMICOLON) {
+					entries.add(new Entry(Kind.CLASS_DECLARATION, className, null));
+					i = next;
+				}
+			} else if (type == HeaderTypes.IDENTIFIER) {
+				if (tokenAt(types, i + 1) != HeaderTypes.EQ) {
+					continue;
+				}
+				String name = texts.get(i).toLowerCase();
+				IElementType valueType = tokenAt(types, i + 2);
+				if (!OUTLINED_ASSIGNMENTS.contains(name)
+						|| (valueType != HeaderTypes.STRING_LITERAL && valueType != HeaderTypes.IDENTIFIER)) {
+					continue;
+				}
+				entries.add(new Entry(Kind.ASSIGNMENT, name, stripOuterQuotes(texts.get(i + 2))));
+				i += 2;
+			} else if (type == HeaderTypes.LBRACE) {
+				braces.push(false);
+			} else if (type == HeaderTypes.RBRACE) {
+				if (!braces.isEmpty() && braces.pop()) {
+					entries.add(new Entry(Kind.CLASS_END, "", null));
+				}
+			} else if (type == HeaderTypes.MACRO) {
+				String path = getIncludedPath(texts.get(i));
+				if (path != null) {
+					entries.add(new Entry(Kind.INCLUDE, path, null));
+				}
+			}
+		}
+
+		return new HeaderClassOutline(entries);
+	}
+
+	@Nullable
+	private static IElementType tokenAt(@NotNull List<IElementType> types, int index) {
+		return index < types.size() ? types.get(index) : null;
+	}
+
+	/**
+	 * @param macroText text of a {@link HeaderTypes#MACRO} token
+	 * @return the path between the quotes or angle brackets if the text is an #include, otherwise null
+	 */
+	@Nullable
+	static String getIncludedPath(@NotNull String macroText) {
+		if (!macroText.startsWith("#include")) {
+			return null;
+		}
+		String path = macroText.substring("#include".length()).trim();
+		if (path.length() < 2) {
+			return null;
+		}
+		char first = path.charAt(0);
+		char last = path.charAt(path.length() - 1);
+		if ((first == '"' && last == '"') || (first == '<' && last == '>')) {
+			return path.substring(1, path.length() - 1);
+		}
+		return null;
+	}
+
+	@NotNull
+	private static String stripOuterQuotes(@NotNull String text) {
+		if (text.length() >= 2 && text.charAt(0) == '"' && text.charAt(text.length() - 1) == '"') {
+			return text.substring(1, text.length() - 1);
+		}
+		return text;
+	}
+
+	void write(@NotNull DataOutput out) throws IOException {
+		out.writeInt(entries.size());
+		for (Entry entry : entries) {
+			out.writeByte(entry.kind.ordinal());
+			out.writeUTF(entry.name);
+			if (entry.kind == Kind.ASSIGNMENT) {
+				out.writeUTF(entry.value);
+			}
+		}
+	}
+
+	@NotNull
+	static HeaderClassOutline read(@NotNull DataInput in) throws IOException {
+		int size = in.readInt();
+		List<Entry> entries = new ArrayList<>(size);
+		Kind[] kinds = Kind.values();
+		for (int i = 0; i < size; i++) {
+			Kind kind = kinds[in.readByte()];
+			String name = in.readUTF();
+			String value = kind == Kind.ASSIGNMENT ? in.readUTF() : null;
+			entries.add(new Entry(kind, name, value));
+		}
+		return new HeaderClassOutline(entries);
+	}
+}
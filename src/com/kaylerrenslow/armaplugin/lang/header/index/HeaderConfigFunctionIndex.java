@@ -0,0 +1,392 @@
+package com.kaylerrenslow.armaplugin.lang.header.index;
+
+import com.intellij.openapi.fileEditor.impl.LoadTextUtil;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.kaylerrenslow.armaplugin.ArmaPluginUtil;
+import com.kaylerrenslow.armaplugin.VirtualFileHeaderFileTextProvider;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderFileType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Stores a {@link HeaderClassOutline} for every header file, so that CfgFunctions can be read without preprocessing
+ * and parsing the root config files. The key is the file's name in lowercase.
+ * <p>
+ * The functions of a module are found by replaying the outlines of the root configs
+ * ({@link ArmaPluginUtil#getConfigVirtualFiles(Module)}), where each #include is replaced with the outline of the
+ * included file. Only the outline of an edited file is created again.
+ */
+public class HeaderConfigFunctionIndex extends FileBasedIndexExtension<String, HeaderClassOutline> {
+	public static final ID<String, HeaderClassOutline> NAME = ID.create("armaplugin.header.classOutline");
+	private static final int MAX_INCLUDE_DEPTH = 32;
+	private static final Key<SimpleModificationTracker> MODIFICATION_TRACKER_KEY = Key.create("HeaderConfigFunctionIndex.modificationTracker");
+	/**
+	 * The files of the last computed {@link ConfigFunctions} of a module (see {@link #configFilesEdited(Module, Collection)})
+	 */
+	private static final Key<Set<VirtualFile>> LAST_CONFIG_FILES_KEY = Key.create("HeaderConfigFunctionIndex.lastConfigFiles");
+
+	/**
+	 * Gets all CfgFunctions functions of the given module. The result is cached until {@link #configFilesChanged(Module)}
+	 * is invoked for the module (see {@link #configFilesEdited(Module, Collection)}) or the project roots change, so editing a file that isn't a header file
+	 * (e.g. an SQF file) keeps the result.
+	 *
+	 * @return a read-only list of functions, or null if the indexes aren't ready
+	 */
+	@Nullable
+	public static List<HeaderConfigFunction> getAllConfigFunctions(@NotNull Module module) {
+		ConfigFunctions configFunctions = getConfigFunctions(module);
+		return configFunctions == null ? null : configFunctions.functions;
+	}
+
+	/**
+	 * Gets the root config files of the given module and every file they include (transitively), which are the files
+	 * that {@link #getAllConfigFunctions(Module)} is read from.
+	 *
+	 * @return a read-only set of files, or null if the indexes aren't ready
+	 */
+	@Nullable
+	public static Set<VirtualFile> getConfigFilesWithIncludes(@NotNull Module module) {
+		ConfigFunctions configFunctions = getConfigFunctions(module);
+		return configFunctions == null ? null : configFunctions.files;
+	}
+
+	@Nullable
+	private static ConfigFunctions getConfigFunctions(@NotNull Module module) {
+		Project project = module.getProject();
+		if (DumbService.isDumb(project)) {
+			return null;
+		}
+		try {
+			return CachedValuesManager.getManager(project).getCachedValue(module, () -> {
+				return CachedValueProvider.Result.create(
+						computeFunctions(module),
+						getModificationTracker(module),
+						ProjectRootManager.getInstance(project)
+				);
+			});
+		} catch (IndexNotReadyException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Invoke when a header file of the module was edited, created, deleted, renamed or moved. Drops the cached result of
+	 * {@link #getAllConfigFunctions(Module)}.
+	 */
+	public static void configFilesChanged(@NotNull Module module) {
+		((SimpleModificationTracker) getModificationTracker(module)).incModificationCount();
+	}
+
+	/**
+	 * Invoke when header files of the module were edited. The cached result of {@link #getAllConfigFunctions(Module)}
+	 * is only dropped if an edited file is a root config or is included by one, since editing any other header file
+	 * can't change the functions (a file only becomes included by editing a file that is already included).
+	 *
+	 * @param editedFiles the edited header files
+	 */
+	public static void configFilesEdited(@NotNull Module module, @NotNull Collection<VirtualFile> editedFiles) {
+		Set<VirtualFile> lastConfigFiles = module.getUserData(LAST_CONFIG_FILES_KEY);
+		for (VirtualFile editedFile : editedFiles) {
+			if (lastConfigFiles == null || lastConfigFiles.contains(editedFile) || isRootConfigName(editedFile)) {
+				configFilesChanged(module);
+				return;
+			}
+		}
+	}
+
+	private static boolean isRootConfigName(@NotNull VirtualFile file) {
+		return file.getName().equalsIgnoreCase("description.ext") || file.getName().equalsIgnoreCase("config.cpp");
+	}
+
+	/**
+	 * @return a tracker that changes each time {@link #configFilesChanged(Module)} is invoked for the module
+	 */
+	@NotNull
+	public static ModificationTracker getModificationTracker(@NotNull Module module) {
+		synchronized (MODIFICATION_TRACKER_KEY) {
+			SimpleModificationTracker tracker = module.getUserData(MODIFICATION_TRACKER_KEY);
+			if (tracker == null) {
+				tracker = new SimpleModificationTracker();
+				module.putUserData(MODIFICATION_TRACKER_KEY, tracker);
+			}
+			return tracker;
+		}
+	}
+
+	/**
+	 * Gets the outline of the given header file. If the file isn't indexed (e.g. it is inside an addon outside
+	 * of the project), the outline is created from the file's text.
+	 */
+	@NotNull
+	public static HeaderClassOutline getOutline(@NotNull VirtualFile file, @NotNull Project project) {
+		List<HeaderClassOutline> values = FileBasedIndex.getInstance().getValues(
+				NAME, getKey(file), GlobalSearchScope.fileScope(project, file)
+		);
+		if (!values.isEmpty()) {
+			return values.get(0);
+		}
+		return HeaderClassOutline.create(LoadTextUtil.loadText(file));
+	}
+
+	@NotNull
+	private static String getKey(@NotNull VirtualFile file) {
+		return file.getName().toLowerCase();
+	}
+
+	@NotNull
+	private static ConfigFunctions computeFunctions(@NotNull Module module) {
+		Project project = module.getProject();
+		List<HeaderConfigFunction> functions = new ArrayList<>();
+		Set<VirtualFile> files = new LinkedHashSet<>();
+		for (VirtualFile configFile : ArmaPluginUtil.getConfigVirtualFiles(module)) {
+			CfgFunctionsCollector collector = new CfgFunctionsCollector();
+			replay(configFile, project, collector, new HashSet<>(), files, 0);
+			for (ClassNode cfgFunctions : collector.cfgFunctionsClasses) {
+				addFunctions(cfgFunctions, functions);
+			}
+		}
+		Set<VirtualFile> readOnlyFiles = Collections.unmodifiableSet(files);
+		module.putUserData(LAST_CONFIG_FILES_KEY, readOnlyFiles);
+		return new ConfigFunctions(Collections.unmodifiableList(functions), readOnlyFiles);
+	}
+
+	/**
+	 * Gives all entries of the file's outline to the collector, where entries of included files are given in place
+	 * of their #include.
+	 *
+	 * @param includeStack files that are currently being replayed, used to stop include cycles
+	 * @param replayed     every file that was replayed is added to this set
+	 */
+	private static void replay(@NotNull VirtualFile file, @NotNull Project project, @NotNull CfgFunctionsCollector collector,
+							   @NotNull Set<VirtualFile> includeStack, @NotNull Set<VirtualFile> replayed, int depth) {
+		if (depth > MAX_INCLUDE_DEPTH || !includeStack.add(file)) {
+			return;
+		}
+		replayed.add(file);
+		for (HeaderClassOutline.Entry entry : getOutline(file, project).getEntries()) {
+			if (entry.getKind() != HeaderClassOutline.Kind.INCLUDE) {
+				collector.accept(entry);
+				continue;
+			}
+			VirtualFile includedFile = VirtualFileHeaderFileTextProvider.resolveIncludedFile(file, entry.getName(), project);
+			if (includedFile != null) {
+				replay(includedFile, project, collector, includeStack, replayed, depth + 1);
+			}
+		}
+		includeStack.remove(file);
+	}
+
+	/**
+	 * Adds the functions of a CfgFunctions class. Classes of depth 1 are tag classes (the tag is the class name unless
+	 * the class has a tag assignment), and classes of depth 2 relative to a tag class are functions.
+	 */
+	private static void addFunctions(@NotNull ClassNode cfgFunctions, @NotNull List<HeaderConfigFunction> functions) {
+		for (ClassNode tagClass : cfgFunctions.children) {
+			String tag = tagClass.assignments.get("tag");
+			if (tag == null) {
+				tag = tagClass.name;
+			}
+			for (ClassNode containerClass : tagClass.children) {
+				for (ClassNode functionClass : containerClass.children) {
+					HeaderConfigFunction function = getFunction(tag, tagClass, containerClass, functionClass);
+					if (function != null) {
+						functions.add(function);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the function, or null if the function's file extension isn't .sqf or .fsm
+	 */
+	@Nullable
+	private static HeaderConfigFunction getFunction(@NotNull String tag, @NotNull ClassNode tagClass,
+													@NotNull ClassNode containerClass, @NotNull ClassNode functionClass) {
+		String containingDirectoryPath;
+		String functionFileName = null;
+		String functionFileExtension = functionClass.assignments.get("ext");
+
+		String fileAttr = functionClass.assignments.get("file");
+		if (fileAttr != null) {
+			int lastSlash = fileAttr.lastIndexOf('\\');
+			int dot = fileAttr.lastIndexOf('.');
+			containingDirectoryPath = lastSlash < 0 ? "" : fileAttr.substring(0, lastSlash);
+			if (dot > lastSlash) {
+				functionFileName = fileAttr.substring(lastSlash + 1, dot);
+				functionFileExtension = fileAttr.substring(dot);
+			} else {
+				functionFileName = fileAttr.substring(lastSlash + 1);
+			}
+		} else {
+			containingDirectoryPath = containerClass.assignments.get("file");
+			if (containingDirectoryPath == null) {
+				containingDirectoryPath = "functions\\" + containerClass.name;
+			}
+		}
+		if (functionFileExtension != null && !isAllowedFunctionExtension(functionFileExtension)) {
+			return null;
+		}
+
+		return new HeaderConfigFunction(functionClass.name, containingDirectoryPath, functionFileName, tag,
+				tagClass.name, functionFileExtension
+		);
+	}
+
+	private static boolean isAllowedFunctionExtension(@NotNull String ext) {
+		return ext.equalsIgnoreCase(".sqf") || ext.equalsIgnoreCase(".fsm");
+	}
+
+	private static class ConfigFunctions {
+		private final List<HeaderConfigFunction> functions;
+		private final Set<VirtualFile> files;
+
+		private ConfigFunctions(@NotNull List<HeaderConfigFunction> functions, @NotNull Set<VirtualFile> files) {
+			this.functions = functions;
+			this.files = files;
+		}
+	}
+
+	private static class ClassNode {
+		private final String name;
+		/**
+		 * Lowercase name -> value. Only the first assignment of a name is kept.
+		 */
+		private final Map<String, String> assignments = new HashMap<>();
+		private final List<ClassNode> children = new ArrayList<>();
+
+		private ClassNode(@NotNull String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * Builds a tree of the classes inside every root level CfgFunctions class. Classes outside of CfgFunctions are
+	 * only tracked for their depth.
+	 */
+	private static class CfgFunctionsCollector {
+		private final List<ClassNode> cfgFunctionsClasses = new ArrayList<>();
+		/**
+		 * Opened class bodies. An element is null when the class isn't inside CfgFunctions.
+		 */
+		private final LinkedList<ClassNode> openClasses = new LinkedList<>();
+
+		void accept(@NotNull HeaderClassOutline.Entry entry) {
+			switch (entry.getKind()) {
+				case CLASS_START: {
+					openClasses.push(addClass(entry.getName()));
+					break;
+				}
+				case CLASS_DECLARATION: {
+					addClass(entry.getName());
+					break;
+				}
+				case CLASS_END: {
+					if (!openClasses.isEmpty()) {
+						openClasses.pop();
+					}
+					break;
+				}
+				case ASSIGNMENT: {
+					ClassNode owner = openClasses.peek();
+					if (owner != null) {
+						owner.assignments.putIfAbsent(entry.getName(), entry.getValue());
+					}
+					break;
+				}
+			}
+		}
+
+		@Nullable
+		private ClassNode addClass(@NotNull String className) {
+			if (openClasses.isEmpty()) {
+				if (!className.equalsIgnoreCase("CfgFunctions")) {
+					return null;
+				}
+				ClassNode cfgFunctions = new ClassNode(className);
+				cfgFunctionsClasses.add(cfgFunctions);
+				return cfgFunctions;
+			}
+			ClassNode parent = openClasses.peek();
+			if (parent == null) {
+				return null;
+			}
+			ClassNode node = new ClassNode(className);
+			parent.children.add(node);
+			return node;
+		}
+	}
+
+	@NotNull
+	@Override
+	public ID<String, HeaderClassOutline> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, HeaderClassOutline, FileContent> getIndexer() {
+		return inputData -> {
+			return Collections.singletonMap(getKey(inputData.getFile()), HeaderClassOutline.create(inputData.getContentAsText()));
+		};
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public DataExternalizer<HeaderClassOutline> getValueExternalizer() {
+		return new DataExternalizer<HeaderClassOutline>() {
+			@Override
+			public void save(@NotNull DataOutput out, HeaderClassOutline value) throws IOException {
+				value.write(out);
+			}
+
+			@Override
+			public HeaderClassOutline read(@NotNull DataInput in) throws IOException {
+				return HeaderClassOutline.read(in);
+			}
+		};
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(HeaderFileType.INSTANCE);
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+}
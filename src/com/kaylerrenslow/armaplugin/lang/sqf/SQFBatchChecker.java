@@ -0,0 +1,270 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.util.SensitiveProgressWrapper;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFSyntaxCheckResult;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFSyntaxHelper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Syntax and type checks every {@link SQFFile} in a project and writes the results to a {@link SQFCheckReportWriter}.
+ * Files are checked in parallel on a work-stealing pool (one worker per core by default). Each file is checked inside
+ * a read action that runs under the progress indicator (so canceling stops checking in the middle of a file) and yields
+ * to write actions. All workers share the command descriptor cache of {@link SQFSyntaxHelper}.
+ */
+public class SQFBatchChecker {
+	@NotNull
+	private final Project project;
+	@NotNull
+	private final GlobalSearchScope scope;
+	private final int parallelism;
+
+	/**
+	 * Creates a checker for all SQF files in the project's content, with one worker per core.
+	 */
+	public SQFBatchChecker(@NotNull Project project) {
+		this(project, GlobalSearchScope.projectScope(project), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param project     project
+	 * @param scope       scope to find SQF files in
+	 * @param parallelism max number of files to check at once
+	 */
+	public SQFBatchChecker(@NotNull Project project, @NotNull GlobalSearchScope scope, int parallelism) {
+		this.project = project;
+		this.scope = scope;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Checks all files and writes their results to the report. This will block until all files are checked.
+	 * This should not be invoked on the event dispatch thread.
+	 * <p>
+	 * {@link SQFCheckReportWriter#begin()} is invoked by this method, but the report is not closed.
+	 *
+	 * @param report    report to write to
+	 * @param indicator indicator to show progress with and to check for cancellation, or null
+	 * @return the total number of problems found
+	 * @throws IOException when the report couldn't be written to
+	 */
+	public int run(@NotNull SQFCheckReportWriter report, @Nullable ProgressIndicator indicator) throws IOException {
+		List<VirtualFile> files = runReadAction(() -> new ArrayList<>(FileTypeIndex.getFiles(SQFFileType.INSTANCE, scope)));
+		report.begin();
+		if (files.isEmpty()) {
+			return 0;
+		}
+		if (indicator != null) {
+			indicator.setIndeterminate(false);
+			indicator.setFraction(0);
+		}
+
+		ProgressIndicator baseIndicator = indicator == null ? new EmptyProgressIndicator() : indicator;
+		AtomicInteger done = new AtomicInteger(0);
+		AtomicInteger problemCount = new AtomicInteger(0);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(files.size());
+			for (VirtualFile file : files) {
+				tasks.add(pool.submit(() -> {
+					baseIndicator.checkCanceled();
+					try {
+						problemCount.addAndGet(checkFile(file, report, baseIndicator));
+					} catch (IOException e) {
+						throw new RuntimeException(e);
+					}
+					if (indicator != null) {
+						indicator.setFraction(done.incrementAndGet() / (double) files.size());
+						indicator.setText2(file.getName());
+					}
+				}));
+			}
+			for (ForkJoinTask<?> task : tasks) {
+				try {
+					task.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException && cause.getCause() instanceof IOException) {
+						throw (IOException) cause.getCause();
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					throw new RuntimeException(cause);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return problemCount.get();
+	}
+
+	/**
+	 * @return number of problems in the file
+	 */
+	private int checkFile(@NotNull VirtualFile file, @NotNull SQFCheckReportWriter report,
+						  @NotNull ProgressIndicator indicator) throws IOException {
+		long start = System.nanoTime();
+		boolean[] timeBudgetExceeded = {false};
+		List<SQFCheckReportWriter.Problem> problems = runCancellableReadAction(indicator, () -> {
+			if (!file.isValid() || project.isDisposed()) {
+				return Collections.emptyList();
+			}
+			PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+			if (!(psiFile instanceof SQFFile)) {
+				return Collections.emptyList();
+			}
+			SQFSyntaxCheckResult result = SQFSyntaxHelper.getInstance().getCheckResult((SQFFile) psiFile);
+			timeBudgetExceeded[0] = result.isTimeBudgetExceeded();
+			if (result.getProblems().isEmpty()) {
+				return Collections.emptyList();
+			}
+			int[] lineStarts = getLineStarts(psiFile.getViewProvider().getContents());
+			List<SQFCheckReportWriter.Problem> list = new ArrayList<>(result.getProblems().size());
+			for (ProblemDescriptor descriptor : result.getProblems()) {
+				TextRange range = getProblemRange(descriptor);
+				if (range == null) {
+					continue;
+				}
+				int[] startLineCol = lineAndColumn(lineStarts, range.getStartOffset());
+				int[] endLineCol = lineAndColumn(lineStarts, range.getEndOffset());
+				list.add(new SQFCheckReportWriter.Problem(
+						descriptor.getDescriptionTemplate(),
+						isError(descriptor.getHighlightType()),
+						startLineCol[0], startLineCol[1], endLineCol[0], endLineCol[1]
+				));
+			}
+			return list;
+		});
+		long nanos = System.nanoTime() - start;
+
+		report.writeFileResult(getRelativePath(file), nanos, timeBudgetExceeded[0], problems);
+		return problems.size();
+	}
+
+	/**
+	 * @return the range of the problem in the file, which is only part of the element if the problem was registered
+	 * with a range in the element, or null if the element is gone
+	 */
+	@Nullable
+	static TextRange getProblemRange(@NotNull ProblemDescriptor descriptor) {
+		PsiElement element = descriptor.getPsiElement();
+		if (element == null) {
+			return null;
+		}
+		TextRange elementRange = element.getTextRange();
+		TextRange rangeInElement = descriptor.getTextRangeInElement();
+		if (rangeInElement == null) {
+			return elementRange;
+		}
+		return rangeInElement.shiftRight(elementRange.getStartOffset());
+	}
+
+	@NotNull
+	private String getRelativePath(@NotNull VirtualFile file) {
+		VirtualFile baseDir = project.getBaseDir();
+		if (baseDir != null) {
+			String path = VfsUtilCore.getRelativePath(file, baseDir, '/');
+			if (path != null) {
+				return path;
+			}
+		}
+		return file.getPath();
+	}
+
+	private static boolean isError(@NotNull ProblemHighlightType type) {
+		return type == ProblemHighlightType.GENERIC_ERROR_OR_WARNING
+				|| type == ProblemHighlightType.GENERIC_ERROR
+				|| type == ProblemHighlightType.ERROR;
+	}
+
+	/**
+	 * @return offsets of where each line starts
+	 */
+	@NotNull
+	private static int[] getLineStarts(@NotNull CharSequence text) {
+		int count = 1;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == '\n') {
+				count++;
+			}
+		}
+		int[] lineStarts = new int[count];
+		int line = 1;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == '\n') {
+				lineStarts[line++] = i + 1;
+			}
+		}
+		return lineStarts;
+	}
+
+	/**
+	 * @return {line, column}, both starting at 1
+	 */
+	@NotNull
+	private static int[] lineAndColumn(@NotNull int[] lineStarts, int offset) {
+		int ind = Arrays.binarySearch(lineStarts, offset);
+		int line = ind >= 0 ? ind : -ind - 2;
+		return new int[]{line + 1, offset - lineStarts[line] + 1};
+	}
+
+	private static <T> T runReadAction(@NotNull Computable<T> computable) {
+		return ApplicationManager.getApplication().runReadAction(computable);
+	}
+
+	/**
+	 * Runs the computable in a read action under a progress indicator that is canceled when the given indicator is
+	 * canceled, so {@link ProgressManager#checkCanceled()} inside the computable sees the cancel. The read action is also
+	 * canceled when a write action wants to start, in which case the computable is run again after the write action.
+	 *
+	 * @param indicator indicator of the whole check
+	 * @return the result of the computable
+	 * @throws ProcessCanceledException when the given indicator was canceled
+	 */
+	private static <T> T runCancellableReadAction(@NotNull ProgressIndicator indicator, @NotNull Computable<T> computable) {
+		List<T> result = new ArrayList<>(1);
+		while (true) {
+			indicator.checkCanceled();
+			boolean finished = ProgressManager.getInstance().runInReadActionWithWriteActionPriority(
+					() -> result.add(computable.compute()), new SensitiveProgressWrapper(indicator)
+			);
+			if (finished) {
+				return result.get(0);
+			}
+			//wait for the write action to finish before trying again
+			runReadAction(() -> null);
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the results of {@link SQFBatchChecker} as a SARIF (v2.1.0) JSON report. Problems are written as soon as a file
+ * is finished. Each checked file is also listed as an artifact with how long it took to check, how many problems it had,
+ * and whether checking stopped early because the file took longer than the time budget.
+ * <p>
+ * All methods are thread safe.
+ */
+public class SQFCheckReportWriter implements Closeable {
+	private static final String RULE_ID = "sqf-syntax-and-type";
+
+	@NotNull
+	private final Writer out;
+	@NotNull
+	private final String toolVersion;
+	private final List<FileTiming> timings = new ArrayList<>();
+	private boolean wroteFirstResult = false;
+	private boolean begun = false;
+	private boolean closed = false;
+
+	/**
+	 * @param out         where to write the report to. This writer will be closed by {@link #close()}
+	 * @param toolVersion version of the plugin
+	 */
+	public SQFCheckReportWriter(@NotNull Writer out, @NotNull String toolVersion) {
+		this.out = out;
+		this.toolVersion = toolVersion;
+	}
+
+	/**
+	 * Writes the beginning of the report. Needs to be invoked before {@link #writeFileResult(String, long, List)}
+	 */
+	public synchronized void begin() throws IOException {
+		if (begun) {
+			return;
+		}
+		begun = true;
+		out.write("{\n");
+		out.write("\"$schema\":\"https://schemastore.azurewebsites.net/schemas/json/sarif-2.1.0.json\",\n");
+		out.write("\"version\":\"2.1.0\",\n");
+		out.write("\"runs\":[{\n");
+		out.write("\"tool\":{\"driver\":{\"name\":\"Arma IntelliJ Plugin\",\"version\":");
+		writeString(toolVersion);
+		out.write(",\"rules\":[{\"id\":\"" + RULE_ID + "\",\"shortDescription\":{\"text\":\"SQF Syntax and Type Checking\"}}]}},\n");
+		out.write("\"originalUriBaseIds\":{\"SRCROOT\":{\"description\":{\"text\":\"project base directory\"}}},\n");
+		out.write("\"results\":[\n");
+	}
+
+	/**
+	 * Writes all problems for a file and records the time it took to check the file.
+	 *
+	 * @param relativePath path of the file, relative to the project base directory
+	 * @param nanos        time it took to check the file
+	 * @param problems     problems in the file
+	 */
+	public void writeFileResult(@NotNull String relativePath, long nanos, @NotNull List<Problem> problems) throws IOException {
+		writeFileResult(relativePath, nanos, false, problems);
+	}
+
+	/**
+	 * Writes all problems for a file and records the time it took to check the file.
+	 *
+	 * @param relativePath       path of the file, relative to the project base directory
+	 * @param nanos              time it took to check the file
+	 * @param timeBudgetExceeded true if checking stopped before the end of the file because it took too long
+	 * @param problems           problems in the file
+	 */
+	public synchronized void writeFileResult(@NotNull String relativePath, long nanos, boolean timeBudgetExceeded,
+											 @NotNull List<Problem> problems) throws IOException {
+		if (!begun) {
+			throw new IllegalStateException("begin() wasn't invoked");
+		}
+		timings.add(new FileTiming(relativePath, nanos, problems.size(), timeBudgetExceeded));
+		for (Problem problem : problems) {
+			if (wroteFirstResult) {
+				out.write(",\n");
+			}
+			wroteFirstResult = true;
+			out.write("{\"ruleId\":\"" + RULE_ID + "\",\"level\":\"" + (problem.error ? "error" : "warning") + "\",");
+			out.write("\"message\":{\"text\":");
+			writeString(problem.message);
+			out.write("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+			writeString(relativePath);
+			out.write(",\"uriBaseId\":\"SRCROOT\"},\"region\":{");
+			out.write("\"startLine\":" + problem.startLine + ",\"startColumn\":" + problem.startColumn);
+			out.write(",\"endLine\":" + problem.endLine + ",\"endColumn\":" + problem.endColumn);
+			out.write("}}}]}");
+		}
+		out.flush();
+	}
+
+	/**
+	 * Writes the artifacts (with timings), the end of the report, and then closes the underlying writer.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			begin();
+			out.write("\n],\n\"artifacts\":[\n");
+			long totalNanos = 0;
+			int totalProblems = 0;
+			int timeBudgetExceededCount = 0;
+			boolean first = true;
+			for (FileTiming timing : timings) {
+				if (!first) {
+					out.write(",\n");
+				}
+				first = false;
+				totalNanos += timing.nanos;
+				totalProblems += timing.problemCount;
+				out.write("{\"location\":{\"uri\":");
+				writeString(timing.path);
+				out.write(",\"uriBaseId\":\"SRCROOT\"},\"properties\":{\"checkTimeMillis\":");
+				out.write(formatMillis(timing.nanos));
+				out.write(",\"problemCount\":" + timing.problemCount);
+				if (timing.timeBudgetExceeded) {
+					timeBudgetExceededCount++;
+					out.write(",\"timeBudgetExceeded\":true");
+				}
+				out.write("}}");
+			}
+			out.write("\n],\n\"properties\":{\"fileCount\":" + timings.size());
+			out.write(",\"problemCount\":" + totalProblems);
+			out.write(",\"timeBudgetExceededCount\":" + timeBudgetExceededCount);
+			out.write(",\"totalCheckTimeMillis\":" + formatMillis(totalNanos) + "}\n");
+			out.write("}]\n}\n");
+		} finally {
+			out.close();
+		}
+	}
+
+	@NotNull
+	private static String formatMillis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	private void writeString(@NotNull String s) throws IOException {
+		out.write('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"': {
+					out.write("\\\"");
+					break;
+				}
+				case '\\': {
+					out.write("\\\\");
+					break;
+				}
+				case '\n': {
+					out.write("\\n");
+					break;
+				}
+				case '\r': {
+					out.write("\\r");
+					break;
+				}
+				case '\t': {
+					out.write("\\t");
+					break;
+				}
+				default: {
+					if (c < 0x20) {
+						out.write(String.format("\\u%04x", (int) c));
+					} else {
+						out.write(c);
+					}
+				}
+			}
+		}
+		out.write('"');
+	}
+
+	/**
+	 * A problem for the report. Lines and columns start at 1 and the end column is exclusive.
+	 */
+	public static class Problem {
+		@NotNull
+		private final String message;
+		private final boolean error;
+		private final int startLine, startColumn, endLine, endColumn;
+
+		public Problem(@NotNull String message, boolean error, int startLine, int startColumn, int endLine, int endColumn) {
+			this.message = message;
+			this.error = error;
+			this.startLine = startLine;
+			this.startColumn = startColumn;
+			this.endLine = endLine;
+			this.endColumn = endColumn;
+		}
+	}
+
+	private static class FileTiming {
+		private final String path;
+		private final long nanos;
+		private final int problemCount;
+		private final boolean timeBudgetExceeded;
+
+		public FileTiming(@NotNull String path, long nanos, int problemCount, boolean timeBudgetExceeded) {
+			this.path = path;
+			this.nanos = nanos;
+			this.problemCount = problemCount;
+			this.timeBudgetExceeded = timeBudgetExceeded;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import com.intellij.navigation.ChooseByNameContributor;
+import com.intellij.navigation.NavigationItem;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFGlobalVariableIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Go to Symbol for assigned global variables and functions (e.g. tag_fnc_function = {}). Only the stub index
+ * ({@link SQFGlobalVariableIndex}) is used, so SQF files aren't parsed.
+ */
+public class SQFChooseByNameContributor implements ChooseByNameContributor {
+	@NotNull
+	@Override
+	public String[] getNames(Project project, boolean includeNonProjectItems) {
+		Collection<String> keys = StubIndex.getInstance().getAllKeys(SQFGlobalVariableIndex.KEY, project);
+		return keys.toArray(new String[keys.size()]);
+	}
+
+	@NotNull
+	@Override
+	public NavigationItem[] getItemsByName(String name, String pattern, Project project, boolean includeNonProjectItems) {
+		GlobalSearchScope scope = includeNonProjectItems ? GlobalSearchScope.allScope(project) : GlobalSearchScope.projectScope(project);
+		Collection<SQFVariable> vars = SQFGlobalVariableIndex.getAssignments(name, project, scope);
+		return vars.toArray(new NavigationItem[vars.size()]);
+	}
+}
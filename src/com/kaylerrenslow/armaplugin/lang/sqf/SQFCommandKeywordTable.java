@@ -0,0 +1,163 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * A read only, case insensitive set of keywords that can be checked against a range of a {@link CharSequence} without
+ * creating any objects. This is used by the SQF lexer to determine if an identifier is a command
+ * (see {@link SQFStatic#COMMAND_KEYWORDS}).
+ * <p>
+ * Keywords are case folded and stored in one char array. Lookup is done with an open addressing hash table (load factor
+ * &lt;= 0.25) that stores each keyword's full hash, so a miss almost never needs to compare chars and a hit compares
+ * the chars once. Identifiers that are shorter or longer than every keyword are rejected before hashing.
+ * <p>
+ * Case folding is the same as {@link String#CASE_INSENSITIVE_ORDER}. This class is immutable and thread safe.
+ */
+public class SQFCommandKeywordTable {
+	/**
+	 * All keywords, folded, one after another
+	 */
+	private final char[] chars;
+	/**
+	 * Keyword i is in {@link #chars} from offsets[i] (inclusive) to offsets[i+1] (exclusive)
+	 */
+	private final int[] offsets;
+	/**
+	 * Keyword index + 1 for each slot, or 0 if the slot is empty
+	 */
+	private final int[] slots;
+	/**
+	 * Hash of the keyword in each slot
+	 */
+	private final int[] slotHashes;
+	private final int mask;
+	private final int size;
+	private final int minLength;
+	private final int maxLength;
+
+	/**
+	 * @param keywords keywords (duplicates, ignoring case, are only stored once)
+	 */
+	public SQFCommandKeywordTable(@NotNull Collection<String> keywords) {
+		int capacity = Integer.highestOneBit(Math.max(4, keywords.size() * 4) - 1) << 1;
+		mask = capacity - 1;
+		slots = new int[capacity];
+		slotHashes = new int[capacity];
+
+		int totalLength = 0;
+		for (String keyword : keywords) {
+			totalLength += keyword.length();
+		}
+		char[] chars = new char[totalLength];
+		int[] offsets = new int[keywords.size() + 1];
+		int count = 0;
+		int charCount = 0;
+		int minLength = Integer.MAX_VALUE;
+		int maxLength = 0;
+		for (String keyword : keywords) {
+			int hash = hash(keyword, 0, keyword.length());
+			if (find(keyword, 0, keyword.length(), hash, chars, offsets)) {
+				continue;
+			}
+			for (int i = 0; i < keyword.length(); i++) {
+				chars[charCount + i] = fold(keyword.charAt(i));
+			}
+			offsets[count] = charCount;
+			offsets[count + 1] = charCount + keyword.length();
+			charCount += keyword.length();
+
+			int slot = hash & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = count + 1;
+			slotHashes[slot] = hash;
+			count++;
+
+			minLength = Math.min(minLength, keyword.length());
+			maxLength = Math.max(maxLength, keyword.length());
+		}
+		this.chars = chars;
+		this.offsets = offsets;
+		this.size = count;
+		this.minLength = count == 0 ? 1 : minLength;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * @return number of keywords
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if the text is a keyword (case doesn't matter)
+	 */
+	public boolean contains(@NotNull CharSequence text) {
+		return contains(text, 0, text.length());
+	}
+
+	/**
+	 * Checks if a range of text is a keyword (case doesn't matter). Nothing is allocated.
+	 *
+	 * @param text  text to check
+	 * @param start start index of the range (inclusive)
+	 * @param end   end index of the range (exclusive)
+	 * @return true if the range is a keyword
+	 */
+	public boolean contains(@NotNull CharSequence text, int start, int end) {
+		int length = end - start;
+		if (length < minLength || length > maxLength) {
+			return false;
+		}
+		return find(text, start, end, hash(text, start, end), chars, offsets);
+	}
+
+	private boolean find(@NotNull CharSequence text, int start, int end, int hash, @NotNull char[] chars, @NotNull int[] offsets) {
+		int slot = hash & mask;
+		int keyword;
+		while ((keyword = slots[slot]) != 0) {
+			if (slotHashes[slot] == hash && equalsKeyword(text, start, end, keyword - 1, chars, offsets)) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	private static boolean equalsKeyword(@NotNull CharSequence text, int start, int end, int keyword,
+										 @NotNull char[] chars, @NotNull int[] offsets) {
+		int offset = offsets[keyword];
+		if (offsets[keyword + 1] - offset != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (fold(text.charAt(i)) != chars[offset + i - start]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(@NotNull CharSequence text, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + fold(text.charAt(i));
+		}
+		//spread the bits since only the low bits pick the slot
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Folds the case of the char the same way {@link String#CASE_INSENSITIVE_ORDER} compares chars
+	 */
+	private static char fold(char c) {
+		if (c < 128) {
+			return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+		}
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+}
@@ -7,18 +7,18 @@ import com.intellij.psi.PsiComment;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
+import com.intellij.psi.xml.XmlFile;
 import com.intellij.psi.xml.XmlTag;
-import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderClass;
-import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderFile;
 import com.kaylerrenslow.armaplugin.ArmaPluginUserData;
 import com.kaylerrenslow.armaplugin.ArmaPluginUtil;
 import com.kaylerrenslow.armaplugin.lang.DocumentationUtil;
 import com.kaylerrenslow.armaplugin.lang.PsiUtil;
-import com.kaylerrenslow.armaplugin.lang.header.GenericConfigException;
 import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
 import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunctionUtil;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
 import com.kaylerrenslow.armaplugin.stringtable.StringTableKey;
+import com.kaylerrenslow.armaplugin.stringtable.StringTableKeyIndex;
+import com.kaylerrenslow.armaplugin.stringtable.StringTableKeyLocation;
 import com.kaylerrenslow.armaplugin.util.FileResourceContentExtractor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -111,8 +111,12 @@ public class SQFDocumentationProvider extends DocumentationProviderEx {
 	@Nullable
 	@Override
 	public PsiElement getDocumentationElementForLookupItem(PsiManager psiManager, Object object, PsiElement element) {
-		if (object instanceof StringTableKey) {
-			return ((StringTableKey) object).getIDXmlTag();
+		if (object instanceof StringTableKeyLocation) {
+			XmlFile stringTableXml = ArmaPluginUserData.getInstance().getStringTableXml(element);
+			if (stringTableXml == null) {
+				return null;
+			}
+			return StringTableKeyIndex.getKeyTag(stringTableXml, (StringTableKeyLocation) object);
 		}
 		if (SQFParserDefinition.isCommand(element.getNode().getElementType())) {
 			return element;
@@ -154,26 +158,18 @@ public class SQFDocumentationProvider extends DocumentationProviderEx {
 				return null;
 			}
 			String functionName = link.substring(DOC_LINK_PREFIX_USER_FUNCTION.length());
-			List<HeaderFile> headerFiles = ArmaPluginUserData.getInstance().parseAndGetConfigHeaderFiles(context);
-			if (headerFiles.isEmpty()) {
+			List<HeaderConfigFunction> functions = ArmaPluginUserData.getInstance().getAllConfigFunctions(context);
+			if (functions == null) {
 				return null;
 			}
-			HeaderClass cfgFunctions;
-			HeaderConfigFunction function;
 
 			List<VirtualFile> configVirtFiles = ArmaPluginUtil.getConfigVirtualFiles(context);
 			if (configVirtFiles.isEmpty()) {
 				return null;
 			}
 
-			for (HeaderFile headerFile : headerFiles) {
-				try {
-					cfgFunctions = HeaderConfigFunctionUtil.getCfgFunctions(headerFile);
-					function = HeaderConfigFunctionUtil.getFunctionFromCfgFunctionsBody(new SQFVariableName(functionName), cfgFunctions);
-					if (function == null) {
-						continue;
-					}
-				} catch (GenericConfigException e) {
+			for (HeaderConfigFunction function : functions) {
+				if (!function.getCallableName().equalsIgnoreCase(functionName)) {
 					continue;
 				}
 				VirtualFile functionVirtFile = HeaderConfigFunctionUtil.locateConfigFunctionVirtualFile(configVirtFiles, function);
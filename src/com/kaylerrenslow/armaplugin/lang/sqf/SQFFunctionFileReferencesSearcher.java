@@ -0,0 +1,89 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.util.Processor;
+import com.kaylerrenslow.armaplugin.ArmaPluginUserData;
+import com.kaylerrenslow.armaplugin.ArmaPluginUtil;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunctionUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFCallSiteIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFCallSiteReference;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds usages of a SQF file with {@link SQFCallSiteIndex}. A file is used where its CfgFunctions function is called
+ * or spawned (e.g. [] call tag_fnc_function), and where its path is given to execVM or preprocessFile
+ * (e.g. [] execVM "scripts\script.sqf"). Paths are relative to the directory of the root config.
+ */
+public class SQFFunctionFileReferencesSearcher extends QueryExecutorBase<PsiReference, ReferencesSearch.SearchParameters> {
+	public SQFFunctionFileReferencesSearcher() {
+		super(true);
+	}
+
+	@Override
+	public void processQuery(@NotNull ReferencesSearch.SearchParameters queryParameters, @NotNull Processor<PsiReference> consumer) {
+		PsiElement element = queryParameters.getElementToSearch();
+		if (!(element instanceof SQFFile)) {
+			return;
+		}
+		SQFFile file = (SQFFile) element;
+		VirtualFile virtualFile = file.getVirtualFile();
+		SearchScope scope = queryParameters.getEffectiveSearchScope();
+		if (virtualFile == null || !(scope instanceof GlobalSearchScope)) {
+			return;
+		}
+		Project project = file.getProject();
+		for (String key : getCallSiteKeys(file, virtualFile)) {
+			for (SQFCallSiteIndex.CallSite callSite : SQFCallSiteIndex.findCallSites(key, project, (GlobalSearchScope) scope)) {
+				PsiElement callTarget = callSite.getElement(project);
+				if (callTarget == null) {
+					continue;
+				}
+				if (!consumer.process(new SQFCallSiteReference(callTarget, file))) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the names of the functions that are implemented by the file and the file's script path keys
+	 */
+	@NotNull
+	private static Set<String> getCallSiteKeys(@NotNull SQFFile file, @NotNull VirtualFile virtualFile) {
+		Set<String> keys = new LinkedHashSet<>();
+		List<VirtualFile> configFiles = ArmaPluginUtil.getConfigVirtualFiles(file);
+		List<HeaderConfigFunction> functions = ArmaPluginUserData.getInstance().getAllConfigFunctions(file);
+		if (functions != null) {
+			for (HeaderConfigFunction function : functions) {
+				if (virtualFile.equals(HeaderConfigFunctionUtil.locateConfigFunctionVirtualFile(configFiles, function))) {
+					keys.add(function.getCallableName().toLowerCase());
+				}
+			}
+		}
+		for (VirtualFile configFile : configFiles) {
+			VirtualFile rootDir = configFile.getParent();
+			if (rootDir == null || !VfsUtilCore.isAncestor(rootDir, virtualFile, true)) {
+				continue;
+			}
+			String relativePath = VfsUtilCore.getRelativePath(virtualFile, rootDir, '/');
+			if (relativePath != null) {
+				keys.add(SQFCallSiteIndex.getScriptPathKey(relativePath));
+			}
+		}
+		return keys;
+	}
+}
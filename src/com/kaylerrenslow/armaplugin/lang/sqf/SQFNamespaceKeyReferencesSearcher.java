@@ -0,0 +1,47 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.util.Processor;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFNamespaceKeyIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFString;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFNamespaceKeyReference;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds usages of a setVariable/getVariable key with {@link SQFNamespaceKeyIndex}. The text of strings isn't in the word
+ * index, so the usages can't be found by the default search.
+ */
+public class SQFNamespaceKeyReferencesSearcher extends QueryExecutorBase<PsiReference, ReferencesSearch.SearchParameters> {
+	public SQFNamespaceKeyReferencesSearcher() {
+		super(true);
+	}
+
+	@Override
+	public void processQuery(@NotNull ReferencesSearch.SearchParameters queryParameters, @NotNull Processor<PsiReference> consumer) {
+		PsiElement element = queryParameters.getElementToSearch();
+		if (!(element instanceof SQFString)) {
+			return;
+		}
+		SQFString key = (SQFString) element;
+		if (!SQFNamespaceKeyIndex.isKey(key)) {
+			return;
+		}
+		SearchScope scope = queryParameters.getEffectiveSearchScope();
+		if (!(scope instanceof GlobalSearchScope)) {
+			return;
+		}
+		for (SQFString other : SQFNamespaceKeyIndex.findKeys(key.getNonQuoteText(), key.getProject(), (GlobalSearchScope) scope)) {
+			if (other == key) {
+				continue;
+			}
+			if (!consumer.process(new SQFNamespaceKeyReference(other))) {
+				return;
+			}
+		}
+	}
+}
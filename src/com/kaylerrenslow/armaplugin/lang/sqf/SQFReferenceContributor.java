@@ -3,22 +3,26 @@ package com.kaylerrenslow.armaplugin.lang.sqf;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtil;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.NotNullLazyValue;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.patterns.PlatformPatterns;
 import com.intellij.psi.*;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.util.ProcessingContext;
 import com.kaylerrenslow.armaplugin.lang.PsiUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFCommandUsageIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFGlobalVariableOccurrenceIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFNamespaceKeyIndex;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFCommand;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFString;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFCommandReference;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFNamespaceKeyReference;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFVariableReference;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,6 +34,26 @@ public class SQFReferenceContributor extends PsiReferenceContributor {
 	public void registerReferenceProviders(@NotNull PsiReferenceRegistrar registrar) {
 		registrar.registerReferenceProvider(PlatformPatterns.psiElement(SQFVariable.class), new SQFGlobalVariableReferenceProvider());
 		registrar.registerReferenceProvider(PlatformPatterns.psiElement(SQFCommand.class), new SQFCommandReferenceProvider());
+		registrar.registerReferenceProvider(PlatformPatterns.psiElement(SQFString.class), new SQFNamespaceKeyReferenceProvider());
+	}
+
+	/**
+	 * This reference provider is meant for creating a reference between the keys of setVariable and getVariable
+	 * (e.g. missionNamespace setVariable ["key", 1]) across all files.
+	 *
+	 * @author Kayler
+	 * @since 01/26/2018
+	 */
+	private static class SQFNamespaceKeyReferenceProvider extends PsiReferenceProvider {
+
+		@NotNull
+		@Override
+		public PsiReference[] getReferencesByElement(@NotNull PsiElement element, @NotNull ProcessingContext context) {
+			if (!(element instanceof SQFString) || !SQFNamespaceKeyIndex.isKey((SQFString) element)) {
+				return PsiReference.EMPTY_ARRAY;
+			}
+			return new PsiReference[]{new SQFNamespaceKeyReference((SQFString) element)};
+		}
 	}
 
 	/**
@@ -47,16 +71,19 @@ public class SQFReferenceContributor extends PsiReferenceContributor {
 				return PsiReference.EMPTY_ARRAY;
 			}
 			SQFCommand command = (SQFCommand) element;
-			List<SQFCommand> commandInstances = findAllCommandInstances(element.getProject(), command);
-			if (commandInstances.isEmpty()) {
-				return PsiReference.EMPTY_ARRAY;
-			}
-
-			return new PsiReference[]{new SQFCommandReference(command, commandInstances)};
+			//the other instances are only found when the reference is resolved
+			return new PsiReference[]{new SQFCommandReference(command, new NotNullLazyValue<List<SQFCommand>>() {
+				@NotNull
+				@Override
+				protected List<SQFCommand> compute() {
+					return findAllCommandInstances(command.getProject(), command);
+				}
+			})};
 		}
 
 		/**
-		 * Adds all {@link SQFCommand} instances in the current module that is equal to findCommand into a list and returns it
+		 * Adds all {@link SQFCommand} instances in the current module that is equal to findCommand into a list and returns it.
+		 * Only the files that use the command are loaded (see {@link SQFCommandUsageIndex}).
 		 *
 		 * @param project     project
 		 * @param findCommand the command
@@ -70,7 +97,7 @@ public class SQFReferenceContributor extends PsiReferenceContributor {
 				return result;
 			}
 			GlobalSearchScope searchScope = m.getModuleContentScope();
-			Collection<VirtualFile> files = FileTypeIndex.getFiles(SQFFileType.INSTANCE, searchScope);
+			List<VirtualFile> files = SQFCommandUsageIndex.getFilesUsingCommand(findCommand.getCommandName(), project, searchScope);
 			for (VirtualFile virtualFile : files) {
 				PsiFile file = PsiManager.getInstance(project).findFile(virtualFile);
 				if (!(file instanceof SQFFile)) {
@@ -119,7 +146,8 @@ public class SQFReferenceContributor extends PsiReferenceContributor {
 		}
 
 		/**
-		 * Adds all {@link SQFVariable}s in the current module that is equal to findVar into a list and returns it
+		 * Adds all {@link SQFVariable}s in the current module that is equal to findVar into a list and returns it.
+		 * Only the files that contain the variable are loaded (see {@link SQFGlobalVariableOccurrenceIndex}).
 		 * <p>
 		 * If findVar is a local variable, the list returned will be empty.
 		 *
@@ -129,37 +157,15 @@ public class SQFReferenceContributor extends PsiReferenceContributor {
 		 */
 		@NotNull
 		public static List<SQFVariable> findGlobalVariables(@NotNull Project project, @NotNull SQFVariable findVar) {
-			List<SQFVariable> result = new ArrayList<>();
 			if (findVar.isLocal()) {
-				return result;
+				return new ArrayList<>();
 			}
 			Module m = ModuleUtil.findModuleForPsiElement(findVar);
 			if (m == null) {
-				return result;
+				return new ArrayList<>();
 			}
 			GlobalSearchScope searchScope = m.getModuleContentScope();
-			Collection<VirtualFile> files = FileTypeIndex.getFiles(SQFFileType.INSTANCE, searchScope);
-			for (VirtualFile virtualFile : files) {
-				PsiFile file = PsiManager.getInstance(project).findFile(virtualFile);
-				if (!(file instanceof SQFFile)) {
-					continue;
-				}
-				SQFFile sqfFile = (SQFFile) file;
-				PsiUtil.traverseBreadthFirstSearch(sqfFile.getNode(), astNode -> {
-					PsiElement nodeAsElement = astNode.getPsi();
-					if (nodeAsElement instanceof SQFVariable) {
-						SQFVariable var = (SQFVariable) nodeAsElement;
-						if (var.isLocal()) {
-							return false;
-						}
-						if (SQFVariableName.nameEquals(var.getVarName(), findVar.getVarName())) {
-							result.add(var);
-						}
-					}
-					return false;
-				});
-			}
-			return result;
+			return SQFGlobalVariableOccurrenceIndex.findGlobalVariables(findVar.getVarName(), project, searchScope);
 		}
 	}
 
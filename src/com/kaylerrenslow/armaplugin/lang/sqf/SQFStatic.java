@@ -64,6 +64,11 @@ public class SQFStatic {
 	 */
 	@NotNull
 	public static final TreeSet<String> COMMANDS_SET = TextFileList.getTreeSetFromStream(SQFStatic.class.getResourceAsStream(COMMANDS_DOC_FILE_LOOKUP));
+	/**
+	 * Has the same commands as {@link #COMMANDS_SET}, but can be checked without creating Strings. Used by the lexer.
+	 */
+	@NotNull
+	public static final SQFCommandKeywordTable COMMAND_KEYWORDS = new SQFCommandKeywordTable(COMMANDS_SET);
 	/**
 	 * Has all BIS functions stored as presented in Wiki
 	 */
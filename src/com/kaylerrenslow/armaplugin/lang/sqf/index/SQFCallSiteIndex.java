@@ -0,0 +1,325 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Maps the target of every call, spawn and execVM to where the target is called in each SQF file. The key is either
+ * the name of the called variable in lowercase (e.g. tag_fnc_function) or the path of the script (see
+ * {@link #getScriptPathKey(String)}):
+ * <ul>
+ * <li>[] call tag_fnc_function</li>
+ * <li>[] spawn tag_fnc_function</li>
+ * <li>[] execVM "scripts\script.sqf"</li>
+ * <li>[] call compile preprocessFileLineNumbers "scripts\script.sqf"</li>
+ * </ul>
+ * Each value holds the offset of the target and its {@link CallKind}, so usages don't need to be classified after
+ * they are found.
+ */
+public class SQFCallSiteIndex extends FileBasedIndexExtension<String, int[]> {
+	public static final ID<String, int[]> NAME = ID.create("armaplugin.sqf.callSite");
+
+	/**
+	 * Bits of a value that are used for the {@link CallKind}. The rest of the bits are the offset.
+	 */
+	private static final int KIND_BITS = 2;
+
+	public enum CallKind {
+		/**
+		 * call
+		 */
+		CALL,
+		/**
+		 * spawn
+		 */
+		SPAWN,
+		/**
+		 * execVM
+		 */
+		EXEC_VM
+	}
+
+	/**
+	 * Where something is called
+	 */
+	public static class CallSite {
+		private final VirtualFile file;
+		private final int offset;
+		private final CallKind kind;
+
+		private CallSite(@NotNull VirtualFile file, int offset, @NotNull CallKind kind) {
+			this.file = file;
+			this.offset = offset;
+			this.kind = kind;
+		}
+
+		/**
+		 * @return the file that has the call
+		 */
+		@NotNull
+		public VirtualFile getFile() {
+			return file;
+		}
+
+		/**
+		 * @return offset of the called variable or script path string in {@link #getFile()}
+		 */
+		public int getOffset() {
+			return offset;
+		}
+
+		@NotNull
+		public CallKind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the called {@link SQFVariable} or script path {@link SQFString}, or null if the file couldn't be loaded
+		 */
+		@Nullable
+		public PsiElement getElement(@NotNull Project project) {
+			PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+			if (!(psiFile instanceof SQFFile)) {
+				return null;
+			}
+			PsiElement element = psiFile.findElementAt(offset);
+			if (element == null) {
+				return null;
+			}
+			PsiElement target = PsiTreeUtil.getParentOfType(element, SQFString.class, false);
+			if (target == null) {
+				target = PsiTreeUtil.getParentOfType(element, SQFVariable.class, false);
+			}
+			return target;
+		}
+	}
+
+	/**
+	 * The target of a call, spawn or execVM
+	 */
+	public static class CallTarget {
+		private final PsiElement element;
+		private final String key;
+		private final CallKind kind;
+
+		private CallTarget(@NotNull PsiElement element, @NotNull String key, @NotNull CallKind kind) {
+			this.element = element;
+			this.key = key;
+			this.kind = kind;
+		}
+
+		/**
+		 * @return the called {@link SQFVariable} or the script path {@link SQFString}
+		 */
+		@NotNull
+		public PsiElement getElement() {
+			return element;
+		}
+
+		/**
+		 * @return the key in the index
+		 */
+		@NotNull
+		public String getKey() {
+			return key;
+		}
+
+		@NotNull
+		public CallKind getKind() {
+			return kind;
+		}
+	}
+
+	/**
+	 * Finds all call sites in the given scope of the given key.
+	 *
+	 * @param key     a function name (case doesn't matter) or a key made with {@link #getScriptPathKey(String)}
+	 * @param project project
+	 * @param scope   scope to search in
+	 * @return the call sites, or an empty list if indexing is in progress
+	 */
+	@NotNull
+	public static List<CallSite> findCallSites(@NotNull String key, @NotNull Project project, @NotNull GlobalSearchScope scope) {
+		if (DumbService.isDumb(project)) {
+			return Collections.emptyList();
+		}
+		List<CallSite> result = new ArrayList<>();
+		FileBasedIndex.getInstance().processValues(NAME, key.toLowerCase(), null, (file, values) -> {
+			for (int value : values) {
+				result.add(new CallSite(file, value >>> KIND_BITS, CallKind.values()[value & ((1 << KIND_BITS) - 1)]));
+			}
+			return true;
+		}, scope);
+		return result;
+	}
+
+	/**
+	 * @param scriptPath a path given to execVM or preprocessFile (e.g. "\scripts\script.sqf")
+	 * @return the path in lowercase, with / as separator and without a leading separator (e.g. "scripts/script.sqf")
+	 */
+	@NotNull
+	public static String getScriptPathKey(@NotNull String scriptPath) {
+		String key = scriptPath.replace('\\', '/').toLowerCase();
+		while (key.startsWith("/")) {
+			key = key.substring(1);
+		}
+		return key;
+	}
+
+	/**
+	 * @param expression the command expression
+	 * @return the target if the expression is a call, spawn or execVM of a global variable or script path, or null
+	 */
+	@Nullable
+	public static CallTarget getCallTarget(@NotNull SQFCommandExpression expression) {
+		CallKind kind;
+		if (expression.commandNameEquals("call")) {
+			kind = CallKind.CALL;
+		} else if (expression.commandNameEquals("spawn")) {
+			kind = CallKind.SPAWN;
+		} else if (expression.commandNameEquals("execVM")) {
+			kind = CallKind.EXEC_VM;
+		} else {
+			return null;
+		}
+		SQFCommandArgument postfix = expression.getPostfixArgument();
+		if (postfix == null) {
+			return null;
+		}
+		SQFExpression target = postfix.getExpr().withoutParenthesis();
+		if (kind != CallKind.EXEC_VM && target instanceof SQFCommandExpression) {
+			//call compile preprocessFileLineNumbers "script.sqf"
+			List<SQFCommandArgument> args = ((SQFCommandExpression) target).captureArguments(
+					"compile preprocessFile|preprocessFileLineNumbers $"
+			);
+			if (args == null) {
+				return null;
+			}
+			target = args.get(0).getExpr().withoutParenthesis();
+		} else if (kind != CallKind.EXEC_VM && target instanceof SQFLiteralExpression) {
+			SQFVariable variable = ((SQFLiteralExpression) target).getVar();
+			if (variable == null || variable.isLocal()) {
+				return null;
+			}
+			return new CallTarget(variable, variable.getVarName().toLowerCase(), kind);
+		}
+		if (!(target instanceof SQFLiteralExpression)) {
+			return null;
+		}
+		SQFString path = ((SQFLiteralExpression) target).getStr();
+		if (path == null) {
+			return null;
+		}
+		return new CallTarget(path, getScriptPathKey(path.getNonQuoteText()), kind);
+	}
+
+	/**
+	 * @param element a {@link SQFVariable} or {@link SQFString}
+	 * @return how the element is called, or null if it isn't the target of a call, spawn or execVM
+	 * @see #getCallTarget(SQFCommandExpression)
+	 */
+	@Nullable
+	public static CallKind getCallKind(@NotNull PsiElement element) {
+		if (!(element instanceof SQFVariable) && !(element instanceof SQFString)) {
+			return null;
+		}
+		//a script path is at most 3 command expressions deep (call compile preprocessFile "")
+		PsiElement cursor = element;
+		for (int i = 0; i < 3; i++) {
+			cursor = PsiTreeUtil.getParentOfType(cursor, SQFCommandExpression.class, true, SQFStatement.class, SQFCodeBlock.class);
+			if (cursor == null) {
+				return null;
+			}
+			CallTarget target = getCallTarget((SQFCommandExpression) cursor);
+			if (target != null && target.getElement() == element) {
+				return target.getKind();
+			}
+		}
+		return null;
+	}
+
+	@NotNull
+	@Override
+	public ID<String, int[]> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, int[], FileContent> getIndexer() {
+		return inputData -> {
+			CharSequence text = inputData.getContentAsText();
+			if (!StringUtil.containsIgnoreCase(text, "call") && !StringUtil.containsIgnoreCase(text, "spawn")
+					&& !StringUtil.containsIgnoreCase(text, "execVM")) {
+				return Collections.emptyMap();
+			}
+			Map<String, List<Integer>> callSites = new HashMap<>();
+			inputData.getPsiFile().accept(new PsiRecursiveElementWalkingVisitor() {
+				@Override
+				public void visitElement(PsiElement element) {
+					super.visitElement(element);
+					if (!(element instanceof SQFCommandExpression)) {
+						return;
+					}
+					CallTarget target = getCallTarget((SQFCommandExpression) element);
+					if (target != null) {
+						int value = (target.getElement().getTextOffset() << KIND_BITS) | target.getKind().ordinal();
+						callSites.computeIfAbsent(target.getKey(), k -> new ArrayList<>()).add(value);
+					}
+				}
+			});
+			Map<String, int[]> map = new HashMap<>(callSites.size());
+			for (Map.Entry<String, List<Integer>> entry : callSites.entrySet()) {
+				//a nested call is found before the call that contains it, but toArray sorts by offset
+				map.put(entry.getKey(), SQFOffsetsExternalizer.toArray(entry.getValue()));
+			}
+			return map;
+		};
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public DataExternalizer<int[]> getValueExternalizer() {
+		return SQFOffsetsExternalizer.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(SQFFileType.INSTANCE);
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+}
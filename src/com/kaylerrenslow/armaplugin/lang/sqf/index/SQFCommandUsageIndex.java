@@ -0,0 +1,89 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFLexerAdapter;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFTypes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Maps every command name (in lowercase) to the SQF files that use the command. The index is made by lexing the file
+ * (the file isn't parsed).
+ */
+public class SQFCommandUsageIndex extends ScalarIndexExtension<String> {
+	public static final ID<String, Void> NAME = ID.create("armaplugin.sqf.commandUsage");
+
+	/**
+	 * @param commandName name of the command (case doesn't matter)
+	 * @param project     project
+	 * @param scope       scope to search in
+	 * @return the files in the scope that use the command, or an empty list if indexing is in progress
+	 */
+	@NotNull
+	public static List<VirtualFile> getFilesUsingCommand(@NotNull String commandName, @NotNull Project project,
+														 @NotNull GlobalSearchScope scope) {
+		if (DumbService.isDumb(project)) {
+			return Collections.emptyList();
+		}
+		List<VirtualFile> files = new ArrayList<>();
+		FileBasedIndex.getInstance().processValues(NAME, commandName.toLowerCase(), null, (file, value) -> {
+			files.add(file);
+			return true;
+		}, scope);
+		return files;
+	}
+
+	@NotNull
+	@Override
+	public ID<String, Void> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, Void, FileContent> getIndexer() {
+		return inputData -> {
+			Map<String, Void> commands = new HashMap<>();
+			Lexer lexer = new SQFLexerAdapter();
+			lexer.start(inputData.getContentAsText());
+			while (lexer.getTokenType() != null) {
+				if (lexer.getTokenType() == SQFTypes.COMMAND_TOKEN) {
+					commands.put(lexer.getTokenText().toLowerCase(), null);
+				}
+				lexer.advance();
+			}
+			return commands;
+		};
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(SQFFileType.INSTANCE);
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+}
@@ -0,0 +1,63 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueTypeExternalizer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * What is known about a function file (e.g. fn_myFunction.sqf) without checking it again: the type the function returns.
+ * Summaries are created by {@link SQFFunctionSummaryIndex}.
+ */
+public class SQFFunctionSummary {
+	@NotNull
+	private final ValueType returnType;
+
+	/**
+	 * @param returnType type the function returns, or {@link ValueType.BaseType#_VARIABLE} if it can't be determined
+	 */
+	public SQFFunctionSummary(@NotNull ValueType returnType) {
+		this.returnType = returnType;
+	}
+
+	/**
+	 * @return the type the function returns, or {@link ValueType.BaseType#_VARIABLE} if it can't be determined
+	 */
+	@NotNull
+	public ValueType getReturnType() {
+		return returnType;
+	}
+
+	void write(@NotNull DataOutput out) throws IOException {
+		ValueTypeExternalizer.write(out, returnType);
+	}
+
+	@NotNull
+	static SQFFunctionSummary read(@NotNull DataInput in) throws IOException {
+		return new SQFFunctionSummary(ValueTypeExternalizer.read(in));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof SQFFunctionSummary)) {
+			return false;
+		}
+		return returnType.getType().equals(((SQFFunctionSummary) o).returnType.getType());
+	}
+
+	@Override
+	public int hashCode() {
+		return returnType.getType().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "SQFFunctionSummary{returnType=" + returnType.getDisplayName() + "}";
+	}
+}
@@ -0,0 +1,148 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.kaylerrenslow.armaplugin.lang.PsiUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores a {@link SQFFunctionSummary} for every SQF file. The summary is created by syntax and type checking the file once,
+ * and is only created again when the file's content changes. The key is the file's name without extension in lowercase
+ * (e.g. fn_myfunction).
+ */
+public class SQFFunctionSummaryIndex extends FileBasedIndexExtension<String, SQFFunctionSummary> {
+	public static final ID<String, SQFFunctionSummary> NAME = ID.create("armaplugin.sqf.functionSummary");
+
+	/**
+	 * Gets the summary of the given function file.
+	 *
+	 * @param functionFile the SQF function file
+	 * @param project      project
+	 * @return the summary, or null if the file isn't indexed (yet)
+	 */
+	@Nullable
+	public static SQFFunctionSummary getSummary(@NotNull VirtualFile functionFile, @NotNull Project project) {
+		List<SQFFunctionSummary> values = FileBasedIndex.getInstance().getValues(
+				NAME, getKey(functionFile), GlobalSearchScope.fileScope(project, functionFile)
+		);
+		return values.isEmpty() ? null : values.get(0);
+	}
+
+	@NotNull
+	private static String getKey(@NotNull VirtualFile file) {
+		return file.getNameWithoutExtension().toLowerCase();
+	}
+
+	@NotNull
+	@Override
+	public ID<String, SQFFunctionSummary> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, SQFFunctionSummary, FileContent> getIndexer() {
+		return inputData -> {
+			PsiFile psiFile = inputData.getPsiFile();
+			if (!(psiFile instanceof SQFFile)) {
+				return Collections.emptyMap();
+			}
+			return Collections.singletonMap(getKey(inputData.getFile()), computeSummary((SQFFile) psiFile, inputData.getProject()));
+		};
+	}
+
+	/**
+	 * Creates a summary only from the given file. Other functions the file calls are not looked up, so that the summary
+	 * only depends on the file's content.
+	 */
+	@NotNull
+	static SQFFunctionSummary computeSummary(@NotNull SQFFile file, @NotNull Project project) {
+		return new SQFFunctionSummary(computeReturnType(file, project));
+	}
+
+	@NotNull
+	private static ValueType computeReturnType(@NotNull SQFFile file, @NotNull Project project) {
+		//exitWith can make the function return in many places, so only the last statement isn't enough
+		for (SQFCommand command : PsiUtil.findDescendantElementsOfInstance(file, SQFCommand.class, null, null)) {
+			if (command.commandNameEquals("exitWith")) {
+				return ValueType.BaseType._VARIABLE;
+			}
+		}
+		ValueType type;
+		try {
+			SQFSyntaxChecker checker = new SQFSyntaxChecker(
+					file.getFileScope().getChildStatements(),
+					//loaded on the indexing thread, since indexing must not wait for other threads
+					SQFSyntaxHelper.getInstance().getCommandDescriptorsOnCurrentThread(file.getNode()),
+					new ProblemsHolder(InspectionManager.getInstance(project), file, false)
+			);
+			type = checker.begin();
+		} catch (ProcessCanceledException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			//the file couldn't be checked (e.g. unknown command)
+			return ValueType.BaseType._VARIABLE;
+		}
+		if (type == null || type.isHardEqual(ValueType.BaseType._ERROR)) {
+			return ValueType.BaseType._VARIABLE;
+		}
+		return type;
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public DataExternalizer<SQFFunctionSummary> getValueExternalizer() {
+		return new DataExternalizer<SQFFunctionSummary>() {
+			@Override
+			public void save(@NotNull DataOutput out, SQFFunctionSummary value) throws IOException {
+				value.write(out);
+			}
+
+			@Override
+			public SQFFunctionSummary read(@NotNull DataInput in) throws IOException {
+				return SQFFunctionSummary.read(in);
+			}
+		};
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(SQFFileType.INSTANCE);
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 2;
+	}
+}
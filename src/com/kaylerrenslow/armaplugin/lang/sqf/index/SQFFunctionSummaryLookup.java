@@ -0,0 +1,136 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.kaylerrenslow.armaplugin.ArmaPluginUserData;
+import com.kaylerrenslow.armaplugin.ArmaPluginUtil;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunctionUtil;
+import com.kaylerrenslow.armaplugin.lang.header.index.HeaderConfigFunctionIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFStatic;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFSyntaxChecker;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Gets the return types of CfgFunctions functions from {@link SQFFunctionSummaryIndex} for a {@link SQFSyntaxChecker}.
+ * Create one instance per check, since the function names are only mapped to their files once.
+ * <p>
+ * The files that were used are remembered (see {@link #getDependencies()}) so that results that used
+ * a function's return type can be dropped when the function file (or config file) changes.
+ */
+public class SQFFunctionSummaryLookup implements SQFSyntaxChecker.FunctionReturnTypeProvider {
+	@NotNull
+	private final PsiElement context;
+	@NotNull
+	private final Project project;
+	/**
+	 * Lowercase callable name (e.g. tag_fnc_function) -> function. Null when not created yet.
+	 */
+	@Nullable
+	private Map<String, HeaderConfigFunction> functions;
+	@NotNull
+	private List<VirtualFile> configFiles = Collections.emptyList();
+	private final Set<PsiFile> dependencies = new LinkedHashSet<>();
+
+	/**
+	 * @param context element in the module to get CfgFunctions functions from
+	 */
+	public SQFFunctionSummaryLookup(@NotNull PsiElement context) {
+		this.context = context;
+		this.project = context.getProject();
+	}
+
+	@Override
+	public boolean isFunction(@NotNull String functionName) {
+		if (!SQFStatic.followsSQFFunctionNameRules(functionName) || DumbService.isDumb(project)) {
+			return false;
+		}
+		return getFunctions().containsKey(functionName.toLowerCase());
+	}
+
+	/**
+	 * @return a number that changes when the CfgFunctions functions of the module may have changed, or when indexing
+	 * starts or finishes (since functions aren't looked up while indexing)
+	 */
+	public long getModificationStamp() {
+		long stamp = DumbService.getInstance(project).getModificationTracker().getModificationCount();
+		stamp = 31 * stamp + ProjectRootManager.getInstance(project).getModificationCount();
+		Module module = ModuleUtil.findModuleForPsiElement(context);
+		if (module != null) {
+			stamp = 31 * stamp + HeaderConfigFunctionIndex.getModificationTracker(module).getModificationCount();
+		}
+		return stamp;
+	}
+
+	@Nullable
+	@Override
+	public ValueType getReturnType(@NotNull String functionName) {
+		if (!SQFStatic.followsSQFFunctionNameRules(functionName) || DumbService.isDumb(project)) {
+			return null;
+		}
+		HeaderConfigFunction function = getFunctions().get(functionName.toLowerCase());
+		if (function == null || !function.getFunctionFileExtension().equalsIgnoreCase(".sqf")) {
+			return null;
+		}
+		VirtualFile functionFile = HeaderConfigFunctionUtil.locateConfigFunctionVirtualFile(configFiles, function);
+		if (functionFile == null) {
+			return null;
+		}
+		PsiFile functionPsiFile = PsiManager.getInstance(project).findFile(functionFile);
+		if (functionPsiFile != null) {
+			dependencies.add(functionPsiFile);
+		}
+		SQFFunctionSummary summary = SQFFunctionSummaryIndex.getSummary(functionFile, project);
+		if (summary == null || summary.getReturnType().isHardEqual(ValueType.BaseType._VARIABLE)) {
+			return null;
+		}
+		return summary.getReturnType();
+	}
+
+	/**
+	 * @return the function files and config files (including the files they include) that were used by {@link #getReturnType(String)}
+	 */
+	@NotNull
+	public Collection<PsiFile> getDependencies() {
+		return dependencies;
+	}
+
+	@NotNull
+	private Map<String, HeaderConfigFunction> getFunctions() {
+		if (functions != null) {
+			return functions;
+		}
+		functions = new HashMap<>();
+		List<HeaderConfigFunction> allFunctions = ArmaPluginUserData.getInstance().getAllConfigFunctions(context);
+		if (allFunctions == null) {
+			return functions;
+		}
+		for (HeaderConfigFunction function : allFunctions) {
+			functions.put(function.getCallableName().toLowerCase(), function);
+		}
+		configFiles = ArmaPluginUtil.getConfigVirtualFiles(context);
+		Module module = ModuleUtil.findModuleForPsiElement(context);
+		Set<VirtualFile> functionsFiles = module == null ? null : HeaderConfigFunctionIndex.getConfigFilesWithIncludes(module);
+		//the included files are dependencies too, since CfgFunctions is often declared in an included file
+		Collection<VirtualFile> configDependencies = functionsFiles == null ? configFiles : functionsFiles;
+		PsiManager psiManager = PsiManager.getInstance(project);
+		for (VirtualFile configFile : configDependencies) {
+			PsiFile configPsiFile = psiManager.findFile(configFile);
+			if (configPsiFile != null) {
+				dependencies.add(configPsiFile);
+			}
+		}
+		return functions;
+	}
+}
@@ -0,0 +1,42 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFFileStubElementType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFVariableStub;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Stub index of global variables that are assigned ({@link SQFVariableStub}).
+ * The key is the variable name in lowercase.
+ */
+public class SQFGlobalVariableIndex extends StringStubIndexExtension<SQFVariable> {
+	public static final StubIndexKey<String, SQFVariable> KEY = StubIndexKey.createIndexKey("armaplugin.sqf.globalVariable");
+
+	/**
+	 * @param name name of the variable (case doesn't matter)
+	 * @return the variables that are assigned with the given name
+	 */
+	@NotNull
+	public static Collection<SQFVariable> getAssignments(@NotNull String name, @NotNull Project project,
+														 @NotNull GlobalSearchScope scope) {
+		return StubIndex.getElements(KEY, name.toLowerCase(), project, scope, SQFVariable.class);
+	}
+
+	@NotNull
+	@Override
+	public StubIndexKey<String, SQFVariable> getKey() {
+		return KEY;
+	}
+
+	@Override
+	public int getVersion() {
+		return super.getVersion() + SQFFileStubElementType.INSTANCE.getStubVersion();
+	}
+}
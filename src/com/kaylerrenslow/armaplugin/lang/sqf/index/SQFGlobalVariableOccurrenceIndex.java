@@ -0,0 +1,132 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFVariableName;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFLexerAdapter;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFTypes;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Maps every global variable name (in lowercase) to the offsets where it is in each SQF file. The index is made by
+ * lexing the file (the file isn't parsed), and finding a variable only loads the files that contain it.
+ */
+public class SQFGlobalVariableOccurrenceIndex extends FileBasedIndexExtension<String, int[]> {
+	public static final ID<String, int[]> NAME = ID.create("armaplugin.sqf.globalVariableOccurrence");
+
+	/**
+	 * Finds all global variables in the given scope that have the given name (case doesn't matter).
+	 *
+	 * @param name    name of the variable
+	 * @param project project
+	 * @param scope   scope to search in
+	 * @return the variables, or an empty list if indexing is in progress
+	 */
+	@NotNull
+	public static List<SQFVariable> findGlobalVariables(@NotNull String name, @NotNull Project project,
+														@NotNull GlobalSearchScope scope) {
+		if (DumbService.isDumb(project)) {
+			return Collections.emptyList();
+		}
+		List<SQFVariable> result = new ArrayList<>();
+		PsiManager psiManager = PsiManager.getInstance(project);
+		FileBasedIndex.getInstance().processValues(NAME, name.toLowerCase(), null, (file, offsets) -> {
+			ProgressManager.checkCanceled();
+			PsiFile psiFile = psiManager.findFile(file);
+			if (!(psiFile instanceof SQFFile)) {
+				return true;
+			}
+			for (int offset : offsets) {
+				SQFVariable var = getVariableAt(psiFile, offset);
+				//the offsets may be out of date with the PSI (e.g. the document isn't committed yet)
+				if (var != null && SQFVariableName.nameEquals(var.getVarName(), name)) {
+					result.add(var);
+				}
+			}
+			return true;
+		}, scope);
+		return result;
+	}
+
+	@Nullable
+	private static SQFVariable getVariableAt(@NotNull PsiFile file, int offset) {
+		PsiElement element = file.findElementAt(offset);
+		if (element == null) {
+			return null;
+		}
+		return PsiTreeUtil.getParentOfType(element, SQFVariable.class, false);
+	}
+
+	@NotNull
+	@Override
+	public ID<String, int[]> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, int[], FileContent> getIndexer() {
+		return inputData -> {
+			Map<String, List<Integer>> occurrences = new HashMap<>();
+			Lexer lexer = new SQFLexerAdapter();
+			lexer.start(inputData.getContentAsText());
+			while (lexer.getTokenType() != null) {
+				if (lexer.getTokenType() == SQFTypes.GLOBAL_VAR) {
+					String name = lexer.getTokenText().toLowerCase();
+					occurrences.computeIfAbsent(name, k -> new ArrayList<>()).add(lexer.getTokenStart());
+				}
+				lexer.advance();
+			}
+			Map<String, int[]> map = new HashMap<>(occurrences.size());
+			for (Map.Entry<String, List<Integer>> entry : occurrences.entrySet()) {
+				map.put(entry.getKey(), SQFOffsetsExternalizer.toArray(entry.getValue()));
+			}
+			return map;
+		};
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public DataExternalizer<int[]> getValueExternalizer() {
+		return SQFOffsetsExternalizer.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(SQFFileType.INSTANCE);
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+}
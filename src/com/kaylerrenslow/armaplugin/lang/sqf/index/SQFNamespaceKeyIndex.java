@@ -0,0 +1,183 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Maps every key (in lowercase) of a variable that is stored in a namespace or object to the offsets of the key strings
+ * in each SQF file. A key string is the name given to setVariable or getVariable:
+ * <ul>
+ * <li>missionNamespace setVariable ["key", value]</li>
+ * <li>player getVariable "key"</li>
+ * <li>missionNamespace getVariable ["key", defaultValue]</li>
+ * </ul>
+ */
+public class SQFNamespaceKeyIndex extends FileBasedIndexExtension<String, int[]> {
+	public static final ID<String, int[]> NAME = ID.create("armaplugin.sqf.namespaceKey");
+
+	/**
+	 * Finds all key strings in the given scope for the given key (case doesn't matter).
+	 *
+	 * @param key     the key
+	 * @param project project
+	 * @param scope   scope to search in
+	 * @return the key strings, or an empty list if indexing is in progress
+	 */
+	@NotNull
+	public static List<SQFString> findKeys(@NotNull String key, @NotNull Project project, @NotNull GlobalSearchScope scope) {
+		if (DumbService.isDumb(project)) {
+			return Collections.emptyList();
+		}
+		List<SQFString> result = new ArrayList<>();
+		PsiManager psiManager = PsiManager.getInstance(project);
+		FileBasedIndex.getInstance().processValues(NAME, key.toLowerCase(), null, (file, offsets) -> {
+			ProgressManager.checkCanceled();
+			PsiFile psiFile = psiManager.findFile(file);
+			if (!(psiFile instanceof SQFFile)) {
+				return true;
+			}
+			for (int offset : offsets) {
+				PsiElement element = psiFile.findElementAt(offset);
+				SQFString string = element == null ? null : PsiTreeUtil.getParentOfType(element, SQFString.class, false);
+				if (string != null && isKey(string)) {
+					result.add(string);
+				}
+			}
+			return true;
+		}, scope);
+		return result;
+	}
+
+	/**
+	 * @param expression the command expression
+	 * @return the key string if the expression is a setVariable or getVariable with a string key, or null otherwise
+	 */
+	@Nullable
+	public static SQFString getKey(@NotNull SQFCommandExpression expression) {
+		List<SQFCommandArgument> args = expression.captureArguments("$ setVariable|getVariable $");
+		if (args == null) {
+			//missionNamespace is a command, so it isn't an argument of setVariable
+			args = expression.captureArguments("setVariable|getVariable $");
+		}
+		if (args == null) {
+			return null;
+		}
+		SQFExpression keyExpr = args.get(args.size() - 1).getExpr().withoutParenthesis();
+		if (!(keyExpr instanceof SQFLiteralExpression)) {
+			return null;
+		}
+		SQFLiteralExpression literal = (SQFLiteralExpression) keyExpr;
+		if (literal.getArr() != null) {
+			List<SQFExpression> items = literal.getArr().getExpressions();
+			if (items.isEmpty() || !(items.get(0) instanceof SQFLiteralExpression)) {
+				return null;
+			}
+			literal = (SQFLiteralExpression) items.get(0);
+		}
+		return literal.getStr();
+	}
+
+	/**
+	 * @param string the string
+	 * @return true if the string is the key of a setVariable or getVariable ({@link #getKey(SQFCommandExpression)})
+	 */
+	public static boolean isKey(@NotNull SQFString string) {
+		PsiElement cursor = string.getParent();
+		if (!(cursor instanceof SQFLiteralExpression)) {
+			return false;
+		}
+		cursor = cursor.getParent();
+		if (cursor instanceof SQFArray) {
+			cursor = cursor.getParent();
+		}
+		while (cursor instanceof SQFParenExpression || cursor instanceof SQFLiteralExpression) {
+			cursor = cursor.getParent();
+		}
+		if (!(cursor instanceof SQFCommandArgument) || !(cursor.getParent() instanceof SQFCommandExpression)) {
+			return false;
+		}
+		return getKey((SQFCommandExpression) cursor.getParent()) == string;
+	}
+
+	@NotNull
+	@Override
+	public ID<String, int[]> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, int[], FileContent> getIndexer() {
+		return inputData -> {
+			//getVariable and setVariable both end with etVariable
+			if (!StringUtil.containsIgnoreCase(inputData.getContentAsText().toString(), "etVariable")) {
+				return Collections.emptyMap();
+			}
+			Map<String, List<Integer>> occurrences = new HashMap<>();
+			inputData.getPsiFile().accept(new PsiRecursiveElementWalkingVisitor() {
+				@Override
+				public void visitElement(PsiElement element) {
+					if (element instanceof SQFCommandExpression) {
+						SQFString key = getKey((SQFCommandExpression) element);
+						if (key != null) {
+							String keyText = key.getNonQuoteText().toLowerCase();
+							occurrences.computeIfAbsent(keyText, k -> new ArrayList<>()).add(key.getTextOffset());
+						}
+					}
+					super.visitElement(element);
+				}
+			});
+			Map<String, int[]> map = new HashMap<>(occurrences.size());
+			for (Map.Entry<String, List<Integer>> entry : occurrences.entrySet()) {
+				map.put(entry.getKey(), SQFOffsetsExternalizer.toArray(entry.getValue()));
+			}
+			return map;
+		};
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public DataExternalizer<int[]> getValueExternalizer() {
+		return SQFOffsetsExternalizer.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(SQFFileType.INSTANCE);
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 2;
+	}
+}
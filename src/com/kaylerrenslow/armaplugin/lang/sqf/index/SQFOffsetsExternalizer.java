@@ -0,0 +1,54 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes increasing offsets in a file. Only the differences between offsets are written, so the values stay small.
+ * Arrays must be created with {@link #toArray(List)}, which sorts the offsets.
+ */
+class SQFOffsetsExternalizer implements DataExternalizer<int[]> {
+	static final SQFOffsetsExternalizer INSTANCE = new SQFOffsetsExternalizer();
+
+	/**
+	 * @param offsets offsets in any order
+	 * @return the offsets as an array, in increasing order
+	 */
+	@NotNull
+	static int[] toArray(@NotNull List<Integer> offsets) {
+		int[] offsetsArray = new int[offsets.size()];
+		for (int i = 0; i < offsetsArray.length; i++) {
+			offsetsArray[i] = offsets.get(i);
+		}
+		Arrays.sort(offsetsArray);
+		return offsetsArray;
+	}
+
+	@Override
+	public void save(@NotNull DataOutput out, int[] value) throws IOException {
+		DataInputOutputUtil.writeINT(out, value.length);
+		int previous = 0;
+		for (int offset : value) {
+			DataInputOutputUtil.writeINT(out, offset - previous);
+			previous = offset;
+		}
+	}
+
+	@Override
+	public int[] read(@NotNull DataInput in) throws IOException {
+		int[] value = new int[DataInputOutputUtil.readINT(in)];
+		int previous = 0;
+		for (int i = 0; i < value.length; i++) {
+			previous += DataInputOutputUtil.readINT(in);
+			value[i] = previous;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,280 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.preprocessor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A preprocessor directive (#define, #undef, #include, #ifdef, #ifndef, #else, #endif) read from a file's text.
+ * Other directives are ignored.
+ */
+class SQFDirective {
+	enum Kind {
+		DEFINE, UNDEF, INCLUDE, IFDEF, IFNDEF, ELSE, ENDIF
+	}
+
+	@NotNull
+	private final Kind kind;
+	@NotNull
+	private final String argument;
+	@Nullable
+	private final SQFMacro macro;
+	private final int offset;
+
+	/**
+	 * @param kind     kind
+	 * @param argument macro name for {@link Kind#DEFINE}, {@link Kind#UNDEF}, {@link Kind#IFDEF} and {@link Kind#IFNDEF},
+	 *                 path for {@link Kind#INCLUDE}, and empty for the rest
+	 * @param macro    the defined macro for {@link Kind#DEFINE}, or null for the rest
+	 */
+	SQFDirective(@NotNull Kind kind, @NotNull String argument, @Nullable SQFMacro macro) {
+		this(kind, argument, macro, 0);
+	}
+
+	private SQFDirective(@NotNull Kind kind, @NotNull String argument, @Nullable SQFMacro macro, int offset) {
+		this.kind = kind;
+		this.argument = argument;
+		this.macro = macro;
+		this.offset = offset;
+	}
+
+	@NotNull
+	public Kind getKind() {
+		return kind;
+	}
+
+	@NotNull
+	public String getArgument() {
+		return argument;
+	}
+
+	@Nullable
+	public SQFMacro getMacro() {
+		return macro;
+	}
+
+	/**
+	 * @return offset in the file's text of the line the directive starts on
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	@Override
+	public String toString() {
+		return macro != null ? macro.toString() : "#" + kind.name().toLowerCase() + " " + argument;
+	}
+
+	/**
+	 * Reads all directives in the given text, in order. A directive is a line that starts with # (whitespace before it
+	 * is allowed). Each directive has the offset of its line ({@link #getOffset()}). A line that ends with \ is continued on the next line. Lines inside block comments are skipped.
+	 *
+	 * @param text the file's text
+	 * @return the directives
+	 */
+	@NotNull
+	static List<SQFDirective> parse(@NotNull CharSequence text) {
+		List<SQFDirective> directives = null;
+		int length = text.length();
+		int lineStart = 0;
+		boolean inBlockComment = false;
+		while (lineStart < length) {
+			int lineEnd = lineStart;
+			while (lineEnd < length && text.charAt(lineEnd) != '\n' && text.charAt(lineEnd) != '\r') {
+				lineEnd++;
+			}
+			int i = lineStart;
+			if (!inBlockComment) {
+				while (i < lineEnd && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+					i++;
+				}
+			}
+			if (!inBlockComment && i < lineEnd && text.charAt(i) == '#') {
+				//join the continued lines
+				StringBuilder logicalLine = new StringBuilder(lineEnd - i);
+				int end = i;
+				while (true) {
+					int contentEnd = end;
+					while (contentEnd < length && text.charAt(contentEnd) != '\n' && text.charAt(contentEnd) != '\r') {
+						contentEnd++;
+					}
+					if (contentEnd > end && text.charAt(contentEnd - 1) == '\\') {
+						logicalLine.append(text, end, contentEnd - 1).append(' ');
+						end = skipLineBreak(text, contentEnd);
+						if (end < length) {
+							continue;
+						}
+					} else {
+						logicalLine.append(text, end, contentEnd);
+					}
+					end = contentEnd;
+					break;
+				}
+				SQFDirective directive = parseLine(logicalLine.toString());
+				if (directive != null) {
+					if (directives == null) {
+						directives = new ArrayList<>();
+					}
+					directives.add(new SQFDirective(directive.kind, directive.argument, directive.macro, lineStart));
+				}
+				lineStart = skipLineBreak(text, end);
+				continue;
+			}
+			//track block comments so that commented out directives aren't used
+			for (int j = lineStart; j < lineEnd - 1; j++) {
+				char c = text.charAt(j);
+				char next = text.charAt(j + 1);
+				if (inBlockComment) {
+					if (c == '*' && next == '/') {
+						inBlockComment = false;
+						j++;
+					}
+				} else if (c == '/' && next == '/') {
+					break;
+				} else if (c == '/' && next == '*') {
+					inBlockComment = true;
+					j++;
+				} else if (c == '"' || c == '\'') {
+					int close = j + 1;
+					while (close < lineEnd && text.charAt(close) != c) {
+						close++;
+					}
+					j = close;
+				}
+			}
+			lineStart = skipLineBreak(text, lineEnd);
+		}
+		return directives == null ? Collections.emptyList() : directives;
+	}
+
+	private static int skipLineBreak(@NotNull CharSequence text, int index) {
+		if (index < text.length() && text.charAt(index) == '\r') {
+			index++;
+		}
+		if (index < text.length() && text.charAt(index) == '\n') {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * @param line the logical line, starting with #
+	 * @return the directive, or null if the line isn't a supported directive or is malformed
+	 */
+	@Nullable
+	static SQFDirective parseLine(@NotNull String line) {
+		int i = 1;
+		int nameEnd = i;
+		while (nameEnd < line.length() && Character.isLetter(line.charAt(nameEnd))) {
+			nameEnd++;
+		}
+		String directiveName = line.substring(i, nameEnd);
+		String rest = line.substring(nameEnd).trim();
+		switch (directiveName) {
+			case "define": {
+				return parseDefine(rest);
+			}
+			case "undef": {
+				String name = readIdentifier(rest, 0);
+				return name == null ? null : new SQFDirective(Kind.UNDEF, name, null);
+			}
+			case "ifdef": {
+				String name = readIdentifier(rest, 0);
+				return name == null ? null : new SQFDirective(Kind.IFDEF, name, null);
+			}
+			case "ifndef": {
+				String name = readIdentifier(rest, 0);
+				return name == null ? null : new SQFDirective(Kind.IFNDEF, name, null);
+			}
+			case "else": {
+				return new SQFDirective(Kind.ELSE, "", null);
+			}
+			case "endif": {
+				return new SQFDirective(Kind.ENDIF, "", null);
+			}
+			case "include": {
+				if (rest.length() < 2) {
+					return null;
+				}
+				char open = rest.charAt(0);
+				char close = open == '<' ? '>' : open == '"' ? '"' : 0;
+				int closeIndex = close == 0 ? -1 : rest.indexOf(close, 1);
+				if (closeIndex < 0) {
+					return null;
+				}
+				return new SQFDirective(Kind.INCLUDE, rest.substring(1, closeIndex).trim(), null);
+			}
+			default: {
+				return null;
+			}
+		}
+	}
+
+	@Nullable
+	private static SQFDirective parseDefine(@NotNull String rest) {
+		String name = readIdentifier(rest, 0);
+		if (name == null) {
+			return null;
+		}
+		int i = name.length();
+		List<String> parameters = null;
+		if (i < rest.length() && rest.charAt(i) == '(') {
+			//function-like only when ( is right after the name
+			int close = rest.indexOf(')', i);
+			if (close < 0) {
+				return null;
+			}
+			String paramsText = rest.substring(i + 1, close).trim();
+			parameters = new ArrayList<>();
+			if (!paramsText.isEmpty()) {
+				for (String param : Arrays.asList(paramsText.split(","))) {
+					param = param.trim();
+					if (readIdentifier(param, 0) == null) {
+						return null;
+					}
+					parameters.add(param);
+				}
+			}
+			i = close + 1;
+		}
+		String body = removeLineComment(rest.substring(i)).trim();
+		return new SQFDirective(Kind.DEFINE, name, new SQFMacro(name, parameters, body));
+	}
+
+	/**
+	 * @return the text before // (when // isn't inside a string)
+	 */
+	@NotNull
+	private static String removeLineComment(@NotNull String text) {
+		char quote = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '/' && i + 1 < text.length() && text.charAt(i + 1) == '/') {
+				return text.substring(0, i);
+			}
+		}
+		return text;
+	}
+
+	@Nullable
+	private static String readIdentifier(@NotNull String text, int start) {
+		if (start >= text.length() || !SQFMacroTable.isIdentifierStart(text.charAt(start))) {
+			return null;
+		}
+		int end = start + 1;
+		while (end < text.length() && SQFMacroTable.isIdentifierPart(text.charAt(end))) {
+			end++;
+		}
+		return text.substring(start, end);
+	}
+}
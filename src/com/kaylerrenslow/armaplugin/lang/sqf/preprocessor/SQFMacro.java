@@ -0,0 +1,58 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.preprocessor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A macro created with #define. Function-like macros (#define NAME(a,b) ...) have parameters and object-like macros
+ * (#define NAME ...) don't.
+ */
+public class SQFMacro {
+	@NotNull
+	private final String name;
+	@Nullable
+	private final List<String> parameters;
+	@NotNull
+	private final String body;
+
+	/**
+	 * @param name       name of the macro
+	 * @param parameters parameter names, or null if the macro is object-like
+	 * @param body       text the macro is replaced with
+	 */
+	public SQFMacro(@NotNull String name, @Nullable List<String> parameters, @NotNull String body) {
+		this.name = name;
+		this.parameters = parameters == null ? null : Collections.unmodifiableList(parameters);
+		this.body = body;
+	}
+
+	@NotNull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the parameter names, or null if the macro is object-like
+	 */
+	@Nullable
+	public List<String> getParameters() {
+		return parameters;
+	}
+
+	@NotNull
+	public String getBody() {
+		return body;
+	}
+
+	public boolean isFunctionLike() {
+		return parameters != null;
+	}
+
+	@Override
+	public String toString() {
+		return "#define " + name + (parameters == null ? "" : "(" + String.join(",", parameters) + ")") + " " + body;
+	}
+}
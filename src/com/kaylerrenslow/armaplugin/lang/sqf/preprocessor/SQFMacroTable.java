@@ -0,0 +1,424 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.preprocessor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable set of {@link SQFMacro} instances, where each macro has a unique name. Tables are created by
+ * {@link SQFPreprocessor} and shared by every file that includes the same header.
+ * <p>
+ * Like the Arma preprocessor, macros are not expanded inside strings (" or ') and parameters are not replaced inside
+ * strings in the macro body. Arguments of function-like macros are expanded before they replace the parameters.
+ * Inside a function-like macro's body, #param turns the argument into a string and ## joins the text on both sides
+ * (after both sides are expanded, so PREFIX##_##var uses the value of PREFIX).
+ */
+public class SQFMacroTable {
+	public static final SQFMacroTable EMPTY = new SQFMacroTable(Collections.emptyMap());
+
+	/**
+	 * Max number of nested macro expansions. Stops runaway expansion of macros that expand to each other in a loop
+	 * through arguments.
+	 */
+	private static final int MAX_DEPTH = 32;
+	/**
+	 * Expansion stops when the expanded text is this long
+	 */
+	private static final int MAX_LENGTH = 1 << 16;
+
+	@NotNull
+	private final Map<String, SQFMacro> macros;
+	/**
+	 * Every #define and #undef of each name, in document order, or null if the table was created without offsets
+	 */
+	@Nullable
+	private final Map<String, History> histories;
+	/**
+	 * Only definitions before this offset are visible (see {@link #atOffset(int)})
+	 */
+	private final int offset;
+	private volatile long namesFingerprint = -1;
+
+	/**
+	 * @param macros map of macro name to macro. The map is not copied.
+	 */
+	SQFMacroTable(@NotNull Map<String, SQFMacro> macros) {
+		this(macros, null, Integer.MAX_VALUE);
+	}
+
+	private SQFMacroTable(@NotNull Map<String, SQFMacro> macros, @Nullable Map<String, History> histories, int offset) {
+		this.macros = macros;
+		this.histories = histories;
+		this.offset = offset;
+	}
+
+	/**
+	 * Gets the table as it is at the given offset of the file, where only the #define and #undef before the offset are
+	 * used. For example, a macro that is defined after the offset, or undefined before it, isn't in the returned table.
+	 *
+	 * @param offset offset in the file's text
+	 * @return the table at the offset
+	 */
+	@NotNull
+	public SQFMacroTable atOffset(int offset) {
+		if (histories == null) {
+			return this;
+		}
+		return new SQFMacroTable(macros, histories, offset);
+	}
+
+	/**
+	 * @return the macro with the given name (case sensitive), or null if there isn't one
+	 */
+	@Nullable
+	public SQFMacro get(@NotNull String name) {
+		if (histories == null || offset == Integer.MAX_VALUE) {
+			return macros.get(name);
+		}
+		History history = histories.get(name);
+		return history == null ? null : history.getAt(offset);
+	}
+
+	/**
+	 * @return true if the name is defined anywhere in the file (even if it is undefined later), false otherwise
+	 */
+	public boolean isEverDefined(@NotNull String name) {
+		return histories == null ? macros.containsKey(name) : histories.containsKey(name);
+	}
+
+	/**
+	 * @return a number that only changes when the set of names that are ever defined ({@link #isEverDefined(String)})
+	 * changes. It is the same for every {@link #atOffset(int)} table.
+	 */
+	public long getNamesFingerprint() {
+		long fingerprint = namesFingerprint;
+		if (fingerprint == -1) {
+			Set<String> names = histories == null ? macros.keySet() : histories.keySet();
+			fingerprint = ((long) names.size() << 32) | (names.hashCode() & 0xFFFFFFFFL);
+			namesFingerprint = fingerprint;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * @return all macros that are defined at the end of the file, in order of when they were first defined
+	 */
+	@NotNull
+	public Collection<SQFMacro> getMacros() {
+		return Collections.unmodifiableCollection(macros.values());
+	}
+
+	/**
+	 * @return number of macros that are defined at the end of the file
+	 */
+	public int size() {
+		return macros.size();
+	}
+
+	/**
+	 * @return true if no macro is ever defined ({@link #isEverDefined(String)}), false otherwise
+	 */
+	public boolean isEmpty() {
+		return histories == null ? macros.isEmpty() : histories.isEmpty();
+	}
+
+	/**
+	 * Expands all macros in the given text.
+	 *
+	 * @param text text to expand
+	 * @return the expanded text, or the same text if there was nothing to expand
+	 */
+	@NotNull
+	public String expand(@NotNull CharSequence text) {
+		if (isEmpty()) {
+			return text.toString();
+		}
+		StringBuilder out = new StringBuilder(text.length());
+		expand(text, out, new HashSet<>(), 0);
+		return out.toString();
+	}
+
+	private void expand(@NotNull CharSequence text, @NotNull StringBuilder out, @NotNull Set<String> expanding, int depth) {
+		int i = 0;
+		int length = text.length();
+		while (i < length) {
+			char c = text.charAt(i);
+			if (c == '"' || c == '\'') {
+				int end = skipString(text, i);
+				out.append(text, i, end);
+				i = end;
+				continue;
+			}
+			if (c == '#' && i + 1 < length && text.charAt(i + 1) == '#') {
+				i += 2;
+				continue;
+			}
+			if (Character.isDigit(c)) {
+				//don't expand the end of numbers like 1e5
+				int end = skipIdentifier(text, i);
+				out.append(text, i, end);
+				i = end;
+				continue;
+			}
+			if (!isIdentifierStart(c)) {
+				out.append(c);
+				i++;
+				continue;
+			}
+			int end = skipIdentifier(text, i);
+			String name = text.subSequence(i, end).toString();
+			SQFMacro macro = get(name);
+			if (macro == null || expanding.contains(name) || depth >= MAX_DEPTH || out.length() >= MAX_LENGTH) {
+				out.append(name);
+				i = end;
+				continue;
+			}
+			String replacement;
+			if (macro.isFunctionLike()) {
+				List<String> args = new ArrayList<>();
+				int close = end < length && text.charAt(end) == '(' ? readArguments(text, end, args) : -1;
+				List<String> params = macro.getParameters();
+				if (close < 0 || params == null || !argumentCountMatches(params, args)) {
+					out.append(name);
+					i = end;
+					continue;
+				}
+				//arguments are expanded before they are used, so QUOTE(GVAR(x)) gives "tag_x"
+				for (int argIndex = 0; argIndex < args.size(); argIndex++) {
+					StringBuilder arg = new StringBuilder(args.get(argIndex).length());
+					expand(args.get(argIndex), arg, expanding, depth + 1);
+					args.set(argIndex, arg.toString());
+				}
+				replacement = substitute(macro.getBody(), params, args);
+				i = close + 1;
+			} else {
+				replacement = macro.getBody();
+				i = end;
+			}
+			expanding.add(name);
+			expand(replacement, out, expanding, depth + 1);
+			expanding.remove(name);
+		}
+	}
+
+	private static boolean argumentCountMatches(@NotNull List<String> params, @NotNull List<String> args) {
+		if (params.size() == args.size()) {
+			return true;
+		}
+		//NAME() for a macro with no parameters
+		return params.isEmpty() && args.size() == 1 && args.get(0).isEmpty();
+	}
+
+	/**
+	 * Replaces the parameters in a function-like macro body with the arguments
+	 */
+	@NotNull
+	private static String substitute(@NotNull String body, @NotNull List<String> params, @NotNull List<String> args) {
+		StringBuilder sb = new StringBuilder(body.length() + 16);
+		int i = 0;
+		int length = body.length();
+		while (i < length) {
+			char c = body.charAt(i);
+			if (c == '"' || c == '\'') {
+				int end = skipString(body, i);
+				sb.append(body, i, end);
+				i = end;
+				continue;
+			}
+			if (c == '#') {
+				if (i + 1 < length && body.charAt(i + 1) == '#') {
+					//join: drop the whitespace around ##. The ## is removed by expand, after the text on both sides is expanded.
+					while (sb.length() > 0 && Character.isWhitespace(sb.charAt(sb.length() - 1))) {
+						sb.setLength(sb.length() - 1);
+					}
+					sb.append("##");
+					i += 2;
+					while (i < length && Character.isWhitespace(body.charAt(i))) {
+						i++;
+					}
+					continue;
+				}
+				int start = i + 1;
+				if (start < length && isIdentifierStart(body.charAt(start))) {
+					int end = skipIdentifier(body, start);
+					int paramIndex = params.indexOf(body.substring(start, end));
+					if (paramIndex >= 0) {
+						sb.append('"').append(args.get(paramIndex)).append('"');
+						i = end;
+						continue;
+					}
+				}
+				sb.append(c);
+				i++;
+				continue;
+			}
+			if (isIdentifierStart(c) || Character.isDigit(c)) {
+				int end = skipIdentifier(body, i);
+				int paramIndex = Character.isDigit(c) ? -1 : params.indexOf(body.substring(i, end));
+				sb.append(paramIndex >= 0 ? args.get(paramIndex) : body.substring(i, end));
+				i = end;
+				continue;
+			}
+			sb.append(c);
+			i++;
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads the arguments of a function-like macro. Arguments are split by commas that aren't inside parenthesis or
+	 * strings. Each argument is trimmed.
+	 *
+	 * @param text      text
+	 * @param openParen index of (
+	 * @param args      list to add arguments to
+	 * @return index of the matching ), or -1 if there isn't one
+	 */
+	private static int readArguments(@NotNull CharSequence text, int openParen, @NotNull List<String> args) {
+		int depth = 0;
+		int argStart = openParen + 1;
+		int i = openParen;
+		int length = text.length();
+		while (i < length) {
+			char c = text.charAt(i);
+			if (c == '"' || c == '\'') {
+				i = skipString(text, i);
+				continue;
+			}
+			if (c == '(') {
+				depth++;
+			} else if (c == ')') {
+				depth--;
+				if (depth == 0) {
+					args.add(text.subSequence(argStart, i).toString().trim());
+					return i;
+				}
+			} else if (c == ',' && depth == 1) {
+				args.add(text.subSequence(argStart, i).toString().trim());
+				argStart = i + 1;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param start index of the opening quote
+	 * @return index after the closing quote (or length of text if the string isn't closed)
+	 */
+	private static int skipString(@NotNull CharSequence text, int start) {
+		char quote = text.charAt(start);
+		int i = start + 1;
+		while (i < text.length()) {
+			if (text.charAt(i) == quote) {
+				//"" and '' are escaped quotes
+				if (i + 1 < text.length() && text.charAt(i + 1) == quote) {
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return text.length();
+	}
+
+	private static int skipIdentifier(@NotNull CharSequence text, int start) {
+		int i = start;
+		while (i < text.length() && isIdentifierPart(text.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	static boolean isIdentifierStart(char c) {
+		return c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	static boolean isIdentifierPart(char c) {
+		return isIdentifierStart(c) || (c >= '0' && c <= '9');
+	}
+
+	/**
+	 * Every #define and #undef of a name, in document order
+	 */
+	private static class History {
+		private int[] offsets = new int[2];
+		/**
+		 * The macro after each #define, or null after each #undef
+		 */
+		private SQFMacro[] macros = new SQFMacro[2];
+		private int size = 0;
+
+		void add(int offset, @Nullable SQFMacro macro) {
+			if (size == offsets.length) {
+				offsets = Arrays.copyOf(offsets, size * 2);
+				macros = Arrays.copyOf(macros, size * 2);
+			}
+			offsets[size] = offset;
+			macros[size] = macro;
+			size++;
+		}
+
+		/**
+		 * @return the macro of the last #define or #undef before the offset, or null if there isn't one
+		 */
+		@Nullable
+		SQFMacro getAt(int offset) {
+			int low = 0;
+			int high = size - 1;
+			int found = -1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (offsets[mid] < offset) {
+					found = mid;
+					low = mid + 1;
+				} else {
+					high = mid - 1;
+				}
+			}
+			return found < 0 ? null : macros[found];
+		}
+	}
+
+	/**
+	 * Creates a table from the directives of a file. The directives must be given in document order.
+	 */
+	static class Builder {
+		private final Map<String, SQFMacro> macros = new LinkedHashMap<>();
+		private final Map<String, History> histories = new HashMap<>();
+
+		/**
+		 * @param offset offset of the #define (or the #include the macro came from)
+		 */
+		void define(int offset, @NotNull SQFMacro macro) {
+			macros.put(macro.getName(), macro);
+			histories.computeIfAbsent(macro.getName(), name -> new History()).add(offset, macro);
+		}
+
+		/**
+		 * @param offset offset of the #undef
+		 */
+		void undefine(int offset, @NotNull String name) {
+			if (macros.remove(name) != null) {
+				histories.get(name).add(offset, null);
+			}
+		}
+
+		/**
+		 * @return true if the name is defined at the current offset
+		 */
+		boolean isDefined(@NotNull String name) {
+			return macros.containsKey(name);
+		}
+
+		@NotNull
+		SQFMacroTable build() {
+			if (histories.isEmpty()) {
+				return EMPTY;
+			}
+			return new SQFMacroTable(macros, histories, Integer.MAX_VALUE);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.preprocessor;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.kaylerrenslow.armaplugin.lang.PsiUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gets the types of macros for a {@link SQFSyntaxChecker} by expanding them with a {@link SQFMacroTable} and type checking
+ * the expanded text on its own. The expansion must be one expression, otherwise the type isn't known.
+ * <p>
+ * Types are cached by expanded text (shared by all files), so a macro used in many files is only checked once.
+ */
+public class SQFMacroTypeResolver implements SQFSyntaxChecker.MacroTypeProvider {
+	private static final int MAX_CACHED_TYPES = 512;
+	/**
+	 * Expanded text -> type. Access must be synchronized.
+	 */
+	private static final Map<String, ValueType> typeCache = new LinkedHashMap<String, ValueType>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ValueType> eldest) {
+			return size() > MAX_CACHED_TYPES;
+		}
+	};
+
+	@NotNull
+	private final SQFMacroTable table;
+	@NotNull
+	private final Project project;
+
+	public SQFMacroTypeResolver(@NotNull SQFMacroTable table, @NotNull Project project) {
+		this.table = table;
+		this.project = project;
+	}
+
+	@Override
+	public boolean isMacro(@NotNull String macroText) {
+		int nameEnd = 0;
+		while (nameEnd < macroText.length() && SQFMacroTable.isIdentifierPart(macroText.charAt(nameEnd))) {
+			nameEnd++;
+		}
+		return table.isEverDefined(macroText.substring(0, nameEnd));
+	}
+
+	@Nullable
+	@Override
+	public ValueType getMacroType(@NotNull String macroText, int offset) {
+		String expanded = table.atOffset(offset).expand(macroText).trim();
+		if (expanded.isEmpty() || expanded.equals(macroText)) {
+			return null;
+		}
+		synchronized (typeCache) {
+			ValueType type = typeCache.get(expanded);
+			if (type != null) {
+				return type;
+			}
+		}
+		ValueType type = computeType(expanded);
+		synchronized (typeCache) {
+			typeCache.put(expanded, type);
+		}
+		return type;
+	}
+
+	@NotNull
+	private ValueType computeType(@NotNull String expanded) {
+		try {
+			SQFFile file = PsiUtil.createFile(project, expanded, SQFFileType.INSTANCE);
+			List<SQFStatement> statements = file.getFileScope().getChildStatements();
+			if (statements.size() != 1 || !(statements.get(0) instanceof SQFExpressionStatement)
+					|| PsiTreeUtil.hasErrorElements(file)) {
+				return ValueType.BaseType._VARIABLE;
+			}
+			ProblemsHolder holder = new ProblemsHolder(InspectionManager.getInstance(project), file, false);
+			SQFSyntaxChecker checker = new SQFSyntaxChecker(statements,
+					SQFSyntaxHelper.getInstance().getCommandDescriptors(file.getNode()), holder
+			);
+			ValueType type = checker.begin();
+			if (type == null || holder.hasResults()) {
+				return ValueType.BaseType._VARIABLE;
+			}
+			return type;
+		} catch (ProcessCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			return ValueType.BaseType._VARIABLE;
+		}
+	}
+}
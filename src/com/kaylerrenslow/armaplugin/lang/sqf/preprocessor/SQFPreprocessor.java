@@ -0,0 +1,217 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.preprocessor;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.kaylerrenslow.armaplugin.VirtualFileHeaderFileTextProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Reads the #define, #undef, #include and conditional (#ifdef, #ifndef, #else, #endif) directives of SQF files
+ * (the lexer treats them as whitespace) and creates a {@link SQFMacroTable} for each file.
+ * <p>
+ * #include paths are resolved the same way as header files ({@link VirtualFileHeaderFileTextProvider#resolveIncludedFile}).
+ * Each included file has its own table, which is created without the macros of the file that included it. This way, a
+ * header that is included by many files is only read once. The downside is that #ifdef inside a header only sees
+ * the macros that the header defines or includes itself.
+ * <p>
+ * Tables are cached on the file until the file or a file it includes (directly or not) changes, so editing a header
+ * updates the tables of every file that includes it. If an #include can't be resolved, the table is also updated when
+ * any file changes, since the included file may be created later.
+ * <p>
+ * Each table remembers where every macro is defined and undefined, so {@link SQFMacroTable#atOffset(int)} gives the
+ * macros that are defined at a place in the file.
+ * <p>
+ * Expanded text is never stored. It is created when needed with {@link #expand(PsiElement)}.
+ */
+public class SQFPreprocessor {
+	private static final Key<CachedValue<List<SQFDirective>>> DIRECTIVES_KEY = Key.create("SQFPreprocessor.directives");
+	private static final Key<CachedValue<SQFMacroTable>> TABLE_KEY = Key.create("SQFPreprocessor.table");
+	/**
+	 * Max depth of nested includes when collecting included files. Deeper includes are ignored.
+	 */
+	private static final int MAX_INCLUDE_DEPTH = 32;
+
+	/**
+	 * Gets all macros that are defined in the file, including the ones from included files. Use
+	 * {@link SQFMacroTable#atOffset(int)} to get the macros that are defined at a place in the file.
+	 *
+	 * @param file the file
+	 * @return the cached table (or {@link SQFMacroTable#EMPTY} if there are no macros)
+	 */
+	@NotNull
+	public static SQFMacroTable getMacroTable(@NotNull PsiFile file) {
+		return CachedValuesManager.getManager(file.getProject()).getCachedValue(file, TABLE_KEY, () -> {
+			SQFMacroTable table = RecursionManager.doPreventingRecursion(file, false, () -> createMacroTable(file));
+			List<Object> dependencies = new ArrayList<>();
+			dependencies.add(file);
+			dependencies.addAll(getIncludedFiles(file));
+			if (hasUnresolvedInclude(dependencies)) {
+				dependencies.add(PsiModificationTracker.MODIFICATION_COUNT);
+			}
+			return CachedValueProvider.Result.create(table == null ? SQFMacroTable.EMPTY : table, dependencies);
+		}, false);
+	}
+
+	/**
+	 * Expands all macros in the element's text with the macros that are defined at the element in
+	 * {@link #getMacroTable(PsiFile)} of the element's file.
+	 *
+	 * @param element element to expand
+	 * @return the expanded text
+	 */
+	@NotNull
+	public static String expand(@NotNull PsiElement element) {
+		PsiFile file = element.getContainingFile();
+		if (file == null) {
+			return element.getText();
+		}
+		return getMacroTable(file).atOffset(element.getTextRange().getStartOffset()).expand(element.getText());
+	}
+
+	/**
+	 * @param file the file
+	 * @return all files that the file includes, directly or through other included files
+	 */
+	@NotNull
+	public static Set<PsiFile> getIncludedFiles(@NotNull PsiFile file) {
+		Set<PsiFile> included = new LinkedHashSet<>();
+		collectIncludedFiles(file, included, 0);
+		return included;
+	}
+
+	private static void collectIncludedFiles(@NotNull PsiFile file, @NotNull Set<PsiFile> included, int depth) {
+		if (depth >= MAX_INCLUDE_DEPTH) {
+			return;
+		}
+		for (SQFDirective directive : getDirectives(file)) {
+			if (directive.getKind() != SQFDirective.Kind.INCLUDE) {
+				continue;
+			}
+			PsiFile includedFile = resolveInclude(file, directive.getArgument());
+			if (includedFile != null && included.add(includedFile)) {
+				collectIncludedFiles(includedFile, included, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * @param files a file and all files it includes
+	 * @return true if an #include of any of the files can't be resolved
+	 */
+	private static boolean hasUnresolvedInclude(@NotNull List<?> files) {
+		for (Object o : files) {
+			PsiFile file = (PsiFile) o;
+			for (SQFDirective directive : getDirectives(file)) {
+				if (directive.getKind() == SQFDirective.Kind.INCLUDE && resolveInclude(file, directive.getArgument()) == null) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@NotNull
+	private static SQFMacroTable createMacroTable(@NotNull PsiFile file) {
+		List<SQFDirective> directives = getDirectives(file);
+		if (directives.isEmpty()) {
+			return SQFMacroTable.EMPTY;
+		}
+		SQFMacroTable.Builder macros = new SQFMacroTable.Builder();
+		//each entry is true if the text in the #ifdef (or #else) is used
+		ArrayDeque<Boolean> conditions = new ArrayDeque<>();
+		int inactiveDepth = 0;
+		for (SQFDirective directive : directives) {
+			ProgressManager.checkCanceled();
+			switch (directive.getKind()) {
+				case IFDEF: //fall
+				case IFNDEF: {
+					boolean defined = macros.isDefined(directive.getArgument());
+					boolean active = directive.getKind() == SQFDirective.Kind.IFDEF ? defined : !defined;
+					conditions.push(active);
+					if (!active) {
+						inactiveDepth++;
+					}
+					break;
+				}
+				case ELSE: {
+					if (conditions.isEmpty()) {
+						break;
+					}
+					boolean active = conditions.pop();
+					if (!active) {
+						inactiveDepth--;
+					} else {
+						inactiveDepth++;
+					}
+					conditions.push(!active);
+					break;
+				}
+				case ENDIF: {
+					if (conditions.isEmpty()) {
+						break;
+					}
+					if (!conditions.pop()) {
+						inactiveDepth--;
+					}
+					break;
+				}
+				default: {
+					if (inactiveDepth > 0) {
+						break;
+					}
+					if (directive.getKind() == SQFDirective.Kind.DEFINE) {
+						SQFMacro macro = directive.getMacro();
+						if (macro != null) {
+							macros.define(directive.getOffset(), macro);
+						}
+					} else if (directive.getKind() == SQFDirective.Kind.UNDEF) {
+						macros.undefine(directive.getOffset(), directive.getArgument());
+					} else if (directive.getKind() == SQFDirective.Kind.INCLUDE) {
+						PsiFile includedFile = resolveInclude(file, directive.getArgument());
+						if (includedFile != null) {
+							for (SQFMacro macro : getMacroTable(includedFile).getMacros()) {
+								macros.define(directive.getOffset(), macro);
+							}
+						}
+					}
+				}
+			}
+		}
+		return macros.build();
+	}
+
+	/**
+	 * @return the directives of the file, which are cached until the file changes
+	 */
+	@NotNull
+	static List<SQFDirective> getDirectives(@NotNull PsiFile file) {
+		return CachedValuesManager.getManager(file.getProject()).getCachedValue(file, DIRECTIVES_KEY, () -> {
+			return CachedValueProvider.Result.create(SQFDirective.parse(file.getViewProvider().getContents()), file);
+		}, false);
+	}
+
+	@Nullable
+	private static PsiFile resolveInclude(@NotNull PsiFile from, @NotNull String path) {
+		VirtualFile fromVirtualFile = from.getOriginalFile().getVirtualFile();
+		if (fromVirtualFile == null) {
+			return null;
+		}
+		VirtualFile resolved = VirtualFileHeaderFileTextProvider.resolveIncludedFile(fromVirtualFile, path, from.getProject());
+		if (resolved == null || resolved.isDirectory()) {
+			return null;
+		}
+		return PsiManager.getInstance(from.getProject()).findFile(resolved);
+	}
+}
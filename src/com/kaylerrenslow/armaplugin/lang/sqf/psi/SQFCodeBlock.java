@@ -1,6 +1,5 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
@@ -10,7 +9,7 @@ import org.jetbrains.annotations.Nullable;
  * @author Kayler
  * @since 05/23/2017
  */
-public class SQFCodeBlock extends ASTWrapperPsiElement {
+public class SQFCodeBlock extends SQFTypeMemoElement {
 	public SQFCodeBlock(@NotNull ASTNode node) {
 		super(node);
 	}
@@ -0,0 +1,103 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFLanguage;
+import com.kaylerrenslow.armaplugin.lang.sqf.parser.SQFParser;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Element type for {@link SQFCodeBlock} ({@link SQFTypes#CODE_BLOCK}). When an edit is inside a code block
+ * and the block's braces are still balanced, only the code block is re-lexed and reparsed instead of the entire file.
+ * The rest of the tree (and everything cached on it) is kept.
+ * <p>
+ * The element type is created by {@link #getElementType(String)}, which is the elementTypeFactory of code_block in SQF.bnf
+ */
+public class SQFCodeBlockElementType extends IReparseableElementType {
+
+	private SQFCodeBlockElementType(@NotNull String debugName) {
+		super(debugName, SQFLanguage.INSTANCE);
+	}
+
+	/**
+	 * Used by the generated {@link SQFTypes}
+	 *
+	 * @param debugName name of the rule in upper case (CODE_BLOCK)
+	 * @return a new element type
+	 */
+	@NotNull
+	public static IElementType getElementType(@NotNull String debugName) {
+		return new SQFCodeBlockElementType(debugName);
+	}
+
+	@Override
+	protected ASTNode doParseContents(@NotNull ASTNode chameleon, @NotNull PsiElement psi) {
+		PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(
+				psi.getProject(), chameleon, new SQFLexerAdapter(), getLanguage(), chameleon.getChars()
+		);
+		return new SQFParser().parse(this, builder).getFirstChildNode();
+	}
+
+	@Override
+	public boolean isParsable(CharSequence buffer, Language fileLanguage, Project project) {
+		return isReparseable(buffer);
+	}
+
+	/**
+	 * Checks that the text is exactly one code block and that lexing the text alone gives the same tokens as lexing
+	 * it with the rest of the file. This is false when the text:
+	 * <ul>
+	 * <li>doesn't start with { or the matching } isn't the last token</li>
+	 * <li>has an unclosed parenthesis (a macro call could continue after the block)</li>
+	 * <li>has an unclosed string or block comment (they could end after the block)</li>
+	 * </ul>
+	 *
+	 * @param buffer new text of the code block
+	 * @return true if the text can be reparsed as only a code block
+	 */
+	static boolean isReparseable(@NotNull CharSequence buffer) {
+		Lexer lexer = new SQFLexerAdapter();
+		lexer.start(buffer);
+		if (lexer.getTokenType() != SQFTypes.L_CURLY_BRACE) {
+			return false;
+		}
+		int braceDepth = 0;
+		int parenDepth = 0;
+		IElementType previous = null;
+		IElementType type;
+		while ((type = lexer.getTokenType()) != null) {
+			if (type == TokenType.BAD_CHARACTER) {
+				//unclosed string
+				return false;
+			}
+			if (type == SQFTypes.ASTERISK && previous == SQFTypes.FSLASH) {
+				//unclosed block comment
+				return false;
+			}
+			if (type == SQFTypes.LPAREN) {
+				parenDepth++;
+			} else if (type == SQFTypes.RPAREN) {
+				parenDepth--;
+			} else if (type == SQFTypes.L_CURLY_BRACE) {
+				braceDepth++;
+			} else if (type == SQFTypes.R_CURLY_BRACE) {
+				braceDepth--;
+				if (braceDepth == 0) {
+					lexer.advance();
+					return lexer.getTokenType() == null && parenDepth <= 0;
+				}
+			}
+			previous = type;
+			lexer.advance();
+		}
+		return false;
+	}
+}
@@ -1,6 +1,5 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.kaylerrenslow.armaplugin.lang.sqf.SQFVariableName;
@@ -15,7 +14,7 @@ import java.util.List;
  * @author Kayler
  * @since 05/23/2017
  */
-public class SQFCommandExpression extends ASTWrapperPsiElement implements SQFExpression {
+public class SQFCommandExpression extends SQFTypeMemoElement implements SQFExpression {
 	public SQFCommandExpression(@NotNull ASTNode node) {
 		super(node);
 	}
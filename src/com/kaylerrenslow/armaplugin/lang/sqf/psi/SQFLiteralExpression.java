@@ -1,6 +1,5 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.CommandDescriptorCluster;
@@ -11,7 +10,7 @@ import org.jetbrains.annotations.Nullable;
  * @author Kayler
  * @since 05/23/2017
  */
-public class SQFLiteralExpression extends ASTWrapperPsiElement implements SQFExpression {
+public class SQFLiteralExpression extends SQFTypeMemoElement implements SQFExpression {
 	public SQFLiteralExpression(@NotNull ASTNode node) {
 		super(node);
 	}
@@ -1,6 +1,5 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.CommandDescriptorCluster;
 import org.jetbrains.annotations.NotNull;
@@ -10,7 +9,7 @@ import org.jetbrains.annotations.Nullable;
  * @author Kayler
  * @since 05/23/2017
  */
-public class SQFParenExpression extends ASTWrapperPsiElement implements SQFUnaryExpression {
+public class SQFParenExpression extends SQFTypeMemoElement implements SQFUnaryExpression {
 	public SQFParenExpression(@NotNull ASTNode node) {
 		super(node);
 	}
@@ -1,7 +1,6 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
 import com.intellij.lang.ASTNode;
-import com.intellij.lang.Language;
 import com.intellij.lang.ParserDefinition;
 import com.intellij.lang.PsiParser;
 import com.intellij.lexer.Lexer;
@@ -13,8 +12,8 @@ import com.intellij.psi.TokenType;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.IFileElementType;
 import com.intellij.psi.tree.TokenSet;
-import com.kaylerrenslow.armaplugin.lang.sqf.SQFLanguage;
 import com.kaylerrenslow.armaplugin.lang.sqf.parser.SQFParser;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFFileStubElementType;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -46,7 +45,7 @@ public class SQFParserDefinition implements ParserDefinition {
 	};
 
 
-	private static final IFileElementType FILE = new IFileElementType(Language.<SQFLanguage>findInstance(SQFLanguage.class));
+	private static final IFileElementType FILE = SQFFileStubElementType.INSTANCE;
 
 	/**
 	 * @return true if the given type refers to a command, false otherwise
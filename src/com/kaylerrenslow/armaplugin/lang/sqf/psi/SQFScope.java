@@ -4,8 +4,6 @@ import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.kaylerrenslow.armaplugin.lang.PsiUtil;
-import com.kaylerrenslow.armaplugin.lang.sqf.SQFVariableName;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFVariableInStringReference;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFVariableReference;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.CommandDescriptorCluster;
@@ -64,41 +62,32 @@ public abstract class SQFScope extends ASTWrapperPsiElement implements SQFSyntax
 		return visitor.visit(this, cluster);
 	}
 
+	/**
+	 * Gets references from the variable to all variables in its file with the same name and to all strings in its file
+	 * that have the variable's name as text. The occurrences are found with {@link SQFSymbolTable}.
+	 * <p>
+	 * For a local variable, only the occurrences of the same declaration are used (see {@link SQFScopeTree}).
+	 *
+	 * @param variable the variable
+	 * @return the references, or an empty list if there are no occurrences
+	 */
 	@NotNull
 	public static List<SQFVariableReference> getVariableReferencesFor(@NotNull SQFVariable variable) {
 		List<SQFVariableReference> vars = new ArrayList<>();
-		PsiFile file = variable.getContainingFile();
-		if (file == null) {
-			throw new IllegalArgumentException("variable doesn't have a containing file");
+		SQFFile file = getContainingSQFFile(variable);
+
+		List<SQFVariable> varTargets;
+		List<SQFString> stringTargets;
+		SQFScopeTree.LocalVariable localVariable = variable.isLocal() ?
+				SQFScopeTree.getInstance(file).getLocalVariable(variable) : null;
+		if (localVariable != null) {
+			varTargets = localVariable.getVariables();
+			stringTargets = localVariable.getStrings();
+		} else {
+			SQFSymbolTable table = SQFSymbolTable.getInstance(file);
+			varTargets = table.getVariables(variable.getVarName());
+			stringTargets = table.getStrings(variable.getVarName());
 		}
-		SQFScope fileScope = getContainingScope(file);
-
-		List<SQFVariable> varTargets = new ArrayList<>();
-		List<SQFString> stringTargets = new ArrayList<>();
-
-		PsiUtil.traverseBreadthFirstSearch(fileScope.getNode(), astNode -> {
-			PsiElement nodeAsPsi = astNode.getPsi();
-			if (!(nodeAsPsi instanceof SQFVariable || nodeAsPsi instanceof SQFString)) {
-				return false;
-			}
-			if (nodeAsPsi instanceof SQFVariable) {
-				SQFVariable sqfVariable = (SQFVariable) nodeAsPsi;
-				if (SQFVariableName.nameEquals(sqfVariable.getVarName(), variable.getVarName())) {
-					varTargets.add(sqfVariable);
-				} else {
-					return false;
-				}
-			} else {
-				SQFString string = (SQFString) nodeAsPsi;
-				if (SQFVariableName.nameEquals(string.getNonQuoteText(), variable.getVarName())) {
-					stringTargets.add(string);
-				} else {
-					return false;
-				}
-			}
-
-			return false;
-		});
 
 		if (!varTargets.isEmpty()) {
 			vars.add(new SQFVariableReference.IdentifierReference(variable, varTargets));
@@ -109,32 +98,24 @@ public abstract class SQFScope extends ASTWrapperPsiElement implements SQFSyntax
 		return vars;
 	}
 
+	/**
+	 * Gets references from the string to all variables in its file that have the string's text as name.
+	 * The variables are found with {@link SQFSymbolTable}.
+	 * <p>
+	 * If the string declares a local variable (e.g. private "_var"), only the variables of that declaration are used
+	 * (see {@link SQFScopeTree}).
+	 *
+	 * @param string the string
+	 * @return the references, or an empty list if there are no variables with the name
+	 */
 	@NotNull
 	public static List<SQFVariableInStringReference> getVariableReferencesFor(@NotNull SQFString string) {
 		List<SQFVariableInStringReference> vars = new ArrayList<>();
-		PsiFile file = string.getContainingFile();
-		if (file == null) {
-			throw new IllegalArgumentException("string doesn't have a containing file");
-		}
-		String varName = string.getNonQuoteText();
-		SQFScope fileScope = getContainingScope(file);
-
-		List<SQFVariable> varTargets = new ArrayList<>();
+		SQFFile file = getContainingSQFFile(string);
 
-		PsiUtil.traverseBreadthFirstSearch(fileScope.getNode(), astNode -> {
-			PsiElement nodeAsPsi = astNode.getPsi();
-			if (!(nodeAsPsi instanceof SQFVariable)) {
-				return false;
-			}
-			SQFVariable sqfVariable = (SQFVariable) nodeAsPsi;
-			if (SQFVariableName.nameEquals(sqfVariable.getVarName(), varName)) {
-				varTargets.add(sqfVariable);
-			} else {
-				return false;
-			}
-
-			return false;
-		});
+		SQFScopeTree.LocalVariable localVariable = SQFScopeTree.getInstance(file).getLocalVariable(string);
+		List<SQFVariable> varTargets = localVariable != null ? localVariable.getVariables()
+				: SQFSymbolTable.getInstance(file).getVariables(string.getNonQuoteText());
 
 		if (!varTargets.isEmpty()) {
 			vars.add(new SQFVariableInStringReference(string, varTargets));
@@ -142,6 +123,15 @@ public abstract class SQFScope extends ASTWrapperPsiElement implements SQFSyntax
 		return vars;
 	}
 
+	@NotNull
+	private static SQFFile getContainingSQFFile(@NotNull PsiElement element) {
+		PsiFile file = element.getContainingFile();
+		if (!(file instanceof SQFFile)) {
+			throw new IllegalArgumentException("element isn't in an SQF file");
+		}
+		return (SQFFile) file;
+	}
+
 
 	/**
 	 * Gets the {@link SQFScope} for the given PsiElement. If the given element is an {@link SQFScope} instance,
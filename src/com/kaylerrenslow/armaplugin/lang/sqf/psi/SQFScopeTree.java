@@ -0,0 +1,479 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Resolves the local variables of a file with the scoping rules of SQF. The tree has a {@link Scope} for the file,
+ * for every {@link SQFCodeBlock} and for every for loop. Each scope has the local variables that were declared in it.
+ * <p>
+ * A local variable is declared in a scope when:
+ * <ul>
+ * <li>it is declared with private or params (private _var = 1, private ["_var"], params ["_var"]).
+ * A variable with the same name in a parent scope is shadowed.</li>
+ * <li>it is assigned (_var = 1) and no parent scope has a variable with the same name</li>
+ * <li>it is the variable of a for loop (for "_i" from 0 to 1 do {}). The init code block of
+ * for [{private _i = 0}, {_i &lt; 1}, {_i = _i + 1}] do {} is in the for loop's scope, so _i can't be used after the loop.</li>
+ * <li>it is a magic variable of a code block (_x in forEach, count, select, apply and findIf, _forEachIndex in forEach,
+ * _this in spawn and _exception in catch)</li>
+ * </ul>
+ * Code passed to spawn can't see the variables of the scopes around it. A variable that is used, but never declared,
+ * is put in the outermost scope it can see.
+ * <p>
+ * The tree is created with one pass over the file and is cached until the file changes.
+ */
+public class SQFScopeTree {
+	@NotNull
+	private final Scope fileScope;
+	/**
+	 * {@link SQFVariable} or declaring {@link SQFString} -> the local variable it is an occurrence of
+	 */
+	@NotNull
+	private final Map<PsiElement, LocalVariable> occurrences;
+
+	private SQFScopeTree(@NotNull Scope fileScope, @NotNull Map<PsiElement, LocalVariable> occurrences) {
+		this.fileScope = fileScope;
+		this.occurrences = occurrences;
+	}
+
+	/**
+	 * @param file the file
+	 * @return the cached tree for the file
+	 */
+	@NotNull
+	public static SQFScopeTree getInstance(@NotNull SQFFile file) {
+		return CachedValuesManager.getCachedValue(file, () -> {
+			return CachedValueProvider.Result.create(new Builder(file).build(), file);
+		});
+	}
+
+	/**
+	 * @param element a local {@link SQFVariable}, or a {@link SQFString} that declares a local variable
+	 * (private "_var", params ["_var"] or for "_var" from ...)
+	 * @return the local variable that the element is an occurrence of, or null if the element isn't one
+	 */
+	@Nullable
+	public LocalVariable getLocalVariable(@NotNull PsiElement element) {
+		return occurrences.get(element);
+	}
+
+	/**
+	 * @return the scope of the whole file
+	 */
+	@NotNull
+	public Scope getFileScope() {
+		return fileScope;
+	}
+
+	public static class Scope {
+		@Nullable
+		private final Scope parent;
+		@NotNull
+		private final PsiElement owner;
+		private final boolean isolated;
+		/**
+		 * Name in lowercase -> the variable that is currently declared with the name. A private variable replaces
+		 * a variable that was declared before it in the same scope.
+		 */
+		private final Map<String, LocalVariable> declared = new HashMap<>();
+
+		private Scope(@Nullable Scope parent, @NotNull PsiElement owner, boolean isolated) {
+			this.parent = parent;
+			this.owner = owner;
+			this.isolated = isolated;
+		}
+
+		/**
+		 * @return the parent scope, or null if this is the file's scope
+		 */
+		@Nullable
+		public Scope getParent() {
+			return parent;
+		}
+
+		/**
+		 * @return the {@link SQFFileScope}, {@link SQFCodeBlock} or for loop {@link SQFCommandExpression} of this scope
+		 */
+		@NotNull
+		public PsiElement getOwner() {
+			return owner;
+		}
+
+		/**
+		 * @return true if the variables of the parent scopes can't be seen (e.g. code passed to spawn)
+		 */
+		public boolean isIsolated() {
+			return isolated;
+		}
+
+		/**
+		 * @param name name of the variable (case doesn't matter)
+		 * @return the variable with the name that is visible at the end of this scope, or null if there isn't one
+		 */
+		@Nullable
+		public LocalVariable find(@NotNull String name) {
+			name = name.toLowerCase();
+			Scope cursor = this;
+			while (cursor != null) {
+				LocalVariable var = cursor.declared.get(name);
+				if (var != null) {
+					return var;
+				}
+				if (cursor.isolated) {
+					return null;
+				}
+				cursor = cursor.parent;
+			}
+			return null;
+		}
+
+		@NotNull
+		private Scope getOutermostVisible() {
+			Scope cursor = this;
+			while (cursor.parent != null && !cursor.isolated) {
+				cursor = cursor.parent;
+			}
+			return cursor;
+		}
+	}
+
+	public static class LocalVariable {
+		@NotNull
+		private final String name;
+		@NotNull
+		private final Scope scope;
+		@Nullable
+		private final PsiElement declaration;
+		private final boolean isPrivate;
+		private final List<SQFVariable> variables = new ArrayList<>();
+		private final List<SQFString> strings = new ArrayList<>();
+
+		private LocalVariable(@NotNull String name, @NotNull Scope scope, @Nullable PsiElement declaration, boolean isPrivate) {
+			this.name = name;
+			this.scope = scope;
+			this.declaration = declaration;
+			this.isPrivate = isPrivate;
+		}
+
+		/**
+		 * @return the name as it was first written
+		 */
+		@NotNull
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the scope the variable was declared in
+		 */
+		@NotNull
+		public Scope getScope() {
+			return scope;
+		}
+
+		/**
+		 * @return the element that declared the variable, or null if the variable is a magic variable
+		 */
+		@Nullable
+		public PsiElement getDeclaration() {
+			return declaration;
+		}
+
+		/**
+		 * @return true if the variable was declared with private, params, a for loop, or is a magic variable
+		 */
+		public boolean isPrivate() {
+			return isPrivate;
+		}
+
+		/**
+		 * @return all {@link SQFVariable} occurrences in the order they appear in the file
+		 */
+		@NotNull
+		public List<SQFVariable> getVariables() {
+			return Collections.unmodifiableList(variables);
+		}
+
+		/**
+		 * @return all {@link SQFString} instances that declare the variable
+		 */
+		@NotNull
+		public List<SQFString> getStrings() {
+			return Collections.unmodifiableList(strings);
+		}
+
+		@Override
+		public String toString() {
+			return "LocalVariable{name=" + name + ", isPrivate=" + isPrivate + "}";
+		}
+	}
+
+	private static class Builder extends PsiRecursiveElementWalkingVisitor {
+		@NotNull
+		private final SQFFile file;
+		@NotNull
+		private final Map<PsiElement, LocalVariable> occurrences = new HashMap<>();
+		/**
+		 * Init code blocks of for loops, which don't have their own scope
+		 */
+		@NotNull
+		private final Set<SQFCodeBlock> forLoopInitBlocks = new HashSet<>();
+		private Scope fileScope;
+		private Scope current;
+
+		Builder(@NotNull SQFFile file) {
+			this.file = file;
+		}
+
+		@NotNull
+		SQFScopeTree build() {
+			fileScope = current = new Scope(null, SQFScope.getContainingScope(file), false);
+			SQFScope.getContainingScope(file).accept(this);
+			return new SQFScopeTree(fileScope, occurrences);
+		}
+
+		@Override
+		public void visitElement(PsiElement element) {
+			if (element instanceof SQFCodeBlock) {
+				enterCodeBlock((SQFCodeBlock) element);
+			} else if (element instanceof SQFCommandExpression) {
+				SQFCommandExpression commandExpression = (SQFCommandExpression) element;
+				if (commandExpression.commandNameEquals("for")) {
+					enterForLoop(commandExpression);
+				}
+			} else if (element instanceof SQFVariable) {
+				//the variable of an assignment is handled after the assigned expression (see elementFinished)
+				if (!(element.getParent() instanceof SQFAssignmentStatement)) {
+					visitVariable((SQFVariable) element);
+				}
+			} else if (element instanceof SQFString) {
+				SQFString string = (SQFString) element;
+				if (isDeclaration(string)) {
+					add(declare(string.getNonQuoteText(), string), string);
+				}
+			}
+			super.visitElement(element);
+		}
+
+		@Override
+		protected void elementFinished(PsiElement element) {
+			if (element instanceof SQFAssignmentStatement) {
+				SQFAssignmentStatement assignment = (SQFAssignmentStatement) element;
+				SQFVariable var = assignment.getVar();
+				if (var.isLocal()) {
+					LocalVariable localVariable;
+					if (assignment.isPrivate()) {
+						localVariable = declare(var.getVarName(), var);
+					} else {
+						localVariable = current.find(var.getVarName());
+						if (localVariable == null) {
+							localVariable = newVariable(var.getVarName(), current, var, false);
+						}
+					}
+					add(localVariable, var);
+				}
+			}
+			if (current != null && current.owner == element) {
+				current = current.parent;
+			}
+		}
+
+		private void visitVariable(@NotNull SQFVariable var) {
+			if (!var.isLocal()) {
+				return;
+			}
+			if ("private".equals(getDeclaringCommandName(var.getNode().getTreeParent()))) {
+				//private _var
+				add(declare(var.getVarName(), var), var);
+				return;
+			}
+			LocalVariable localVariable = current.find(var.getVarName());
+			if (localVariable == null) {
+				localVariable = newVariable(var.getVarName(), current.getOutermostVisible(), var, false);
+			}
+			add(localVariable, var);
+		}
+
+		private void enterCodeBlock(@NotNull SQFCodeBlock block) {
+			if (forLoopInitBlocks.contains(block)) {
+				return;
+			}
+			SQFCommandExpression commandExpression = null;
+			boolean prefix = false;
+			PsiElement parent = block.getParent();
+			if (parent instanceof SQFCodeBlockExpression && parent.getParent() instanceof SQFCommandArgument
+					&& parent.getParent().getParent() instanceof SQFCommandExpression) {
+				commandExpression = (SQFCommandExpression) parent.getParent().getParent();
+				prefix = commandExpression.getPrefixArgument() == parent.getParent();
+			}
+			boolean spawn = commandExpression != null && !prefix && commandExpression.commandNameEquals("spawn");
+			current = new Scope(current, block, spawn);
+			if (commandExpression == null) {
+				return;
+			}
+			if (spawn) {
+				declareMagicVariable("_this");
+			} else if (prefix && commandExpression.commandNameEquals("forEach")) {
+				declareMagicVariable("_x");
+				declareMagicVariable("_forEachIndex");
+			} else if (prefix && commandExpression.commandNameEquals("count")) {
+				declareMagicVariable("_x");
+			} else if (!prefix && (commandExpression.commandNameEquals("select")
+					|| commandExpression.commandNameEquals("apply")
+					|| commandExpression.commandNameEquals("findIf"))) {
+				declareMagicVariable("_x");
+			} else if (!prefix && commandExpression.commandNameEquals("catch")) {
+				declareMagicVariable("_exception");
+			}
+		}
+
+		private void enterForLoop(@NotNull SQFCommandExpression forExpression) {
+			SQFCommandArgument postfix = forExpression.getPostfixArgument();
+			if (postfix == null) {
+				return;
+			}
+			current = new Scope(current, forExpression, false);
+			SQFExpression afterFor = postfix.getExpr().withoutParenthesis();
+			if (!(afterFor instanceof SQFCommandExpression)) {
+				return;
+			}
+			SQFCommandArgument loopArgument = ((SQFCommandExpression) afterFor).getPrefixArgument();
+			if (loopArgument == null || !(loopArgument.getExpr() instanceof SQFLiteralExpression)) {
+				return;
+			}
+			SQFLiteralExpression literal = (SQFLiteralExpression) loopArgument.getExpr();
+			SQFString string = literal.getStr();
+			if (string != null) {
+				//for "_i" from 0 to 1 do {}
+				add(declare(string.getNonQuoteText(), string), string);
+				return;
+			}
+			SQFArray array = literal.getArr();
+			if (array == null) {
+				return;
+			}
+			//for [{init}, {condition}, {step}] do {}
+			List<SQFExpression> expressions = array.getExpressions();
+			if (!expressions.isEmpty() && expressions.get(0) instanceof SQFCodeBlockExpression) {
+				SQFCodeBlock init = ((SQFCodeBlockExpression) expressions.get(0)).getBlock();
+				if (init != null) {
+					forLoopInitBlocks.add(init);
+				}
+			}
+		}
+
+		private void declareMagicVariable(@NotNull String name) {
+			current.declared.put(name.toLowerCase(), new LocalVariable(name, current, null, true));
+		}
+
+		@NotNull
+		private LocalVariable declare(@NotNull String name, @NotNull PsiElement declaration) {
+			return newVariable(name, current, declaration, true);
+		}
+
+		@NotNull
+		private LocalVariable newVariable(@NotNull String name, @NotNull Scope scope, @NotNull PsiElement declaration,
+										  boolean isPrivate) {
+			LocalVariable var = new LocalVariable(name, scope, declaration, isPrivate);
+			scope.declared.put(name.toLowerCase(), var);
+			return var;
+		}
+
+		private void add(@NotNull LocalVariable localVariable, @NotNull SQFVariable var) {
+			localVariable.variables.add(var);
+			occurrences.put(var, localVariable);
+		}
+
+		private void add(@NotNull LocalVariable localVariable, @NotNull SQFString string) {
+			localVariable.strings.add(string);
+			occurrences.put(string, localVariable);
+		}
+
+		/**
+		 * @return true if the string declares a local variable (private "_var", private ["_var"], params ["_var"] or
+		 * params [["_var", defaultValue]])
+		 */
+		private static boolean isDeclaration(@NotNull SQFString string) {
+			ASTNode stringNode = string.getNode();
+			String text = stringNode.getText();
+			if (text.length() < 3 || text.charAt(1) != '_') {
+				return false;
+			}
+			ASTNode literal = stringNode.getTreeParent();
+			if (getDeclaringCommandName(literal) != null) {
+				//private "_var"
+				return true;
+			}
+			ASTNode array = getParentArray(literal);
+			ASTNode arrayLiteral = array == null ? null : array.getTreeParent();
+			if (getDeclaringCommandName(arrayLiteral) != null) {
+				//private ["_var"] or params ["_var"]
+				return true;
+			}
+			if (array == null || getFirstExpression(array) != literal) {
+				//in params [["_var", defaultValue]], only the first item is the name
+				return false;
+			}
+			ASTNode outerArray = getParentArray(arrayLiteral);
+			ASTNode outerArrayLiteral = outerArray == null ? null : outerArray.getTreeParent();
+			return "params".equals(getDeclaringCommandName(outerArrayLiteral));
+		}
+
+		/**
+		 * @param literalExpression node of a {@link SQFTypes#LITERAL_EXPRESSION}
+		 * @return "private" or "params" if the node is the argument after the private or params command, or null otherwise
+		 */
+		@Nullable
+		private static String getDeclaringCommandName(@Nullable ASTNode literalExpression) {
+			if (literalExpression == null || literalExpression.getElementType() != SQFTypes.LITERAL_EXPRESSION) {
+				return null;
+			}
+			ASTNode argument = literalExpression.getTreeParent();
+			if (argument == null || argument.getElementType() != SQFTypes.COMMAND_AFTER) {
+				return null;
+			}
+			ASTNode commandExpression = argument.getTreeParent();
+			if (commandExpression == null || commandExpression.getElementType() != SQFTypes.COMMAND_EXPRESSION) {
+				return null;
+			}
+			ASTNode operator = commandExpression.findChildByType(SQFTypes.EXPRESSION_OPERATOR);
+			if (operator == null) {
+				return null;
+			}
+			String commandName = operator.getText();
+			if (commandName.equalsIgnoreCase("private")) {
+				return "private";
+			}
+			if (commandName.equalsIgnoreCase("params")) {
+				return "params";
+			}
+			return null;
+		}
+
+		@Nullable
+		private static ASTNode getFirstExpression(@NotNull ASTNode array) {
+			for (ASTNode child = array.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+				if (child.getPsi() instanceof SQFExpression) {
+					return child;
+				}
+			}
+			return null;
+		}
+
+		@Nullable
+		private static ASTNode getParentArray(@Nullable ASTNode literal) {
+			if (literal == null) {
+				return null;
+			}
+			ASTNode parent = literal.getTreeParent();
+			return parent != null && parent.getElementType() == SQFTypes.ARRAY ? parent : null;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.kaylerrenslow.armaplugin.lang.PsiUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All {@link SQFVariable} instances of a file and all {@link SQFString} instances whose text could be a variable name,
+ * grouped by name (in lowercase since SQF variable names aren't case sensitive).
+ * <p>
+ * The table is made with one pass over the file and is cached until the file changes, so looking up every occurrence of a
+ * variable doesn't need to traverse the file.
+ */
+public class SQFSymbolTable {
+	@NotNull
+	private final Map<String, List<SQFVariable>> variables;
+	@NotNull
+	private final Map<String, List<SQFString>> strings;
+
+	private SQFSymbolTable(@NotNull Map<String, List<SQFVariable>> variables, @NotNull Map<String, List<SQFString>> strings) {
+		this.variables = variables;
+		this.strings = strings;
+	}
+
+	/**
+	 * @param file the file
+	 * @return the cached table for the file
+	 */
+	@NotNull
+	public static SQFSymbolTable getInstance(@NotNull SQFFile file) {
+		return CachedValuesManager.getCachedValue(file, () -> {
+			return CachedValueProvider.Result.create(create(file), file);
+		});
+	}
+
+	@NotNull
+	private static SQFSymbolTable create(@NotNull SQFFile file) {
+		Map<String, List<SQFVariable>> variables = new HashMap<>();
+		Map<String, List<SQFString>> strings = new HashMap<>();
+		PsiUtil.traverseBreadthFirstSearch(file.getNode(), astNode -> {
+			PsiElement nodeAsPsi = astNode.getPsi();
+			if (nodeAsPsi instanceof SQFVariable) {
+				SQFVariable variable = (SQFVariable) nodeAsPsi;
+				variables.computeIfAbsent(variable.getVarName().toLowerCase(), k -> new ArrayList<>()).add(variable);
+			} else if (nodeAsPsi instanceof SQFString) {
+				SQFString string = (SQFString) nodeAsPsi;
+				String text = string.getNonQuoteText();
+				if (isIdentifier(text)) {
+					strings.computeIfAbsent(text.toLowerCase(), k -> new ArrayList<>()).add(string);
+				}
+			}
+			return false;
+		});
+		return new SQFSymbolTable(freeze(variables), freeze(strings));
+	}
+
+	@NotNull
+	private static <T> Map<String, List<T>> freeze(@NotNull Map<String, List<T>> map) {
+		for (Map.Entry<String, List<T>> entry : map.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		return map;
+	}
+
+	/**
+	 * @return true if the text can be the name of a variable. Other strings can't match a variable, so they aren't kept.
+	 */
+	private static boolean isIdentifier(@NotNull String text) {
+		if (text.isEmpty() || Character.isDigit(text.charAt(0))) {
+			return false;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (!(Character.isLetterOrDigit(c) || c == '_')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param name name of the variable (case doesn't matter)
+	 * @return all variables in the file with the name, in the order they were found, or an empty list
+	 */
+	@NotNull
+	public List<SQFVariable> getVariables(@NotNull String name) {
+		return variables.getOrDefault(name.toLowerCase(), Collections.emptyList());
+	}
+
+	/**
+	 * @param name name of the variable (case doesn't matter)
+	 * @return all strings in the file whose text (without quotes) is the name, or an empty list
+	 */
+	@NotNull
+	public List<SQFString> getStrings(@NotNull String name) {
+		return strings.getOrDefault(name.toLowerCase(), Collections.emptyList());
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.QuickFix;
+import com.intellij.psi.PsiElement;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFStatic;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of running {@link SQFSyntaxChecker} over an entire {@link SQFFile}. Instances are cached per file
+ * by {@link SQFSyntaxHelper#getCheckResult(SQFFile)} and are invalidated when the file changes.
+ */
+public class SQFSyntaxCheckResult {
+	@NotNull
+	private final List<ProblemDescriptor> problems;
+	@NotNull
+	private final Map<SQFStatement, ValueType> statementTypes;
+	@NotNull
+	private final ValueType exitType;
+	@Nullable
+	private final SQFStatement firstUncheckedStatement;
+	private final long timeBudgetMillis;
+
+	/**
+	 * @param firstUncheckedStatement the statement that checking stopped at because the time budget ran out, or null if
+	 *                                the entire file was checked
+	 * @param timeBudgetMillis        the time budget that was used
+	 * @see SQFSyntaxChecker#setTimeBudget(long)
+	 */
+	public SQFSyntaxCheckResult(@NotNull List<ProblemDescriptor> problems,
+								@NotNull Map<SQFStatement, ValueType> statementTypes,
+								@NotNull ValueType exitType,
+								@Nullable SQFStatement firstUncheckedStatement,
+								long timeBudgetMillis) {
+		this.problems = Collections.unmodifiableList(problems);
+		this.statementTypes = Collections.unmodifiableMap(statementTypes);
+		this.exitType = exitType;
+		this.firstUncheckedStatement = firstUncheckedStatement;
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+
+	/**
+	 * @return all problems that were found in the file
+	 */
+	@NotNull
+	public List<ProblemDescriptor> getProblems() {
+		return problems;
+	}
+
+	/**
+	 * @param statement statement inside the checked file (nested statements included)
+	 * @return the type the statement resulted in, or null if the statement wasn't checked
+	 */
+	@Nullable
+	public ValueType getStatementType(@NotNull SQFStatement statement) {
+		return statementTypes.get(statement);
+	}
+
+	/**
+	 * @return the type of the file's last statement, or {@link ValueType.BaseType#NOTHING} if there are no statements
+	 */
+	@NotNull
+	public ValueType getExitType() {
+		return exitType;
+	}
+
+	/**
+	 * @return true if checking the file took longer than the time budget and not every statement was checked
+	 */
+	public boolean isTimeBudgetExceeded() {
+		return firstUncheckedStatement != null;
+	}
+
+	/**
+	 * Registers all problems of this result into the given holder. Each problem keeps its text range and quick fixes.
+	 * If the time budget was exceeded, a weak warning is also registered on the first statement that wasn't checked.
+	 *
+	 * @param holder holder to register to
+	 */
+	public void replayProblems(@NotNull ProblemsHolder holder) {
+		for (ProblemDescriptor problem : problems) {
+			PsiElement element = problem.getPsiElement();
+			if (element == null || !element.isValid()) {
+				continue;
+			}
+			holder.registerProblem(element, problem.getDescriptionTemplate(), problem.getHighlightType(),
+					problem.getTextRangeInElement(), getLocalFixes(problem)
+			);
+		}
+		if (firstUncheckedStatement != null && firstUncheckedStatement.isValid()) {
+			holder.registerProblem(firstUncheckedStatement,
+					String.format(SQFStatic.getSQFBundle().getString("Inspections.SyntaxAndTypeCheck.time-budget-exceeded_f"), timeBudgetMillis),
+					ProblemHighlightType.WEAK_WARNING
+			);
+		}
+	}
+
+	@NotNull
+	private static LocalQuickFix[] getLocalFixes(@NotNull ProblemDescriptor problem) {
+		QuickFix[] fixes = problem.getFixes();
+		if (fixes == null || fixes.length == 0) {
+			return LocalQuickFix.EMPTY_ARRAY;
+		}
+		List<LocalQuickFix> localFixes = new ArrayList<>(fixes.length);
+		for (QuickFix fix : fixes) {
+			if (fix instanceof LocalQuickFix) {
+				localFixes.add((LocalQuickFix) fix);
+			}
+		}
+		return localFixes.toArray(LocalQuickFix.EMPTY_ARRAY);
+	}
+}
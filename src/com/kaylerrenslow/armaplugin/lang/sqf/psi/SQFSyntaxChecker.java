@@ -2,15 +2,16 @@ package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.tree.IElementType;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
 
 import static com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType.BaseType.*;
 
@@ -28,6 +29,34 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 	private final CommandDescriptorCluster cluster;
 	@NotNull
 	private final ProblemsHolder problems;
+	@Nullable
+	private Map<SQFStatement, ValueType> statementTypes;
+	private boolean memoizeTypes = false;
+	/**
+	 * Recorders of the {@link SQFTypeMemoElement} that are currently being computed. The innermost is first.
+	 */
+	private final ArrayDeque<MemoRecorder> memoRecorders = new ArrayDeque<>();
+	/**
+	 * Elements that have had their problems reported in this run
+	 */
+	private final Set<PsiElement> reportedMemoElements = Collections.newSetFromMap(new IdentityHashMap<>());
+	/**
+	 * Potential problems of all command expressions being evaluated. Each {@link ExprParts} only uses the problems
+	 * after {@link ExprParts#potentialProblemsStart}
+	 */
+	private final SQFSyntaxProblemBuffer potentialProblems = new SQFSyntaxProblemBuffer();
+	@Nullable
+	private FunctionReturnTypeProvider functionReturnTypes;
+	@Nullable
+	private MacroTypeProvider macroTypes;
+	private long memoFingerprint = 0;
+	private long timeBudgetNanos = 0;
+	private long deadline;
+	/**
+	 * First statement that wasn't checked because the time budget was exceeded, or null if the budget wasn't exceeded
+	 */
+	@Nullable
+	private SQFStatement firstUncheckedStatement;
 
 	public SQFSyntaxChecker(@NotNull List<SQFStatement> statements, @NotNull CommandDescriptorCluster cluster,
 							@NotNull ProblemsHolder holder) {
@@ -36,31 +65,236 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 		this.problems = holder;
 	}
 
+	/**
+	 * Set a map to put the resulted {@link ValueType} of every visited {@link SQFStatement} into (nested statements included).
+	 *
+	 * @param statementTypes map to record into, or null to not record anything
+	 */
+	public void setStatementTypesRecorder(@Nullable Map<SQFStatement, ValueType> statementTypes) {
+		this.statementTypes = statementTypes;
+	}
+
+	/**
+	 * Set whether or not inferred types should be remembered on the PSI elements ({@link SQFTypeMemoElement}) and reused
+	 * until the element, or one of its descendants, changes. Problems found while inferring the type are remembered
+	 * as well and are reported again when the remembered type is used.
+	 * <p>
+	 * This should only be enabled when the {@link CommandDescriptorCluster} contains the default descriptors
+	 * (the ones given by {@link SQFSyntaxHelper}) and the function and macro type providers are the ones
+	 * {@link SQFSyntaxHelper#getCheckResult(SQFFile)} uses, since the remembered types are shared by all checkers.
+	 * Default value is false.
+	 *
+	 * @param memoizeTypes true if types should be remembered, false otherwise
+	 */
+	public void setMemoizeTypes(boolean memoizeTypes) {
+		this.memoizeTypes = memoizeTypes;
+	}
+
+	/**
+	 * Set a number that changes when a remembered type ({@link #setMemoizeTypes(boolean)}) that doesn't use a function or
+	 * macro may change without its element changing. For example, the number should change when a macro is defined
+	 * for a name that was a global variable, or when a function is added to CfgFunctions. Remembered types with
+	 * another fingerprint are computed again. Default value is 0.
+	 *
+	 * @param memoFingerprint the fingerprint
+	 */
+	public void setMemoFingerprint(long memoFingerprint) {
+		this.memoFingerprint = memoFingerprint;
+	}
+
+	/**
+	 * Set where to get the return types of functions (e.g. tag_fnc_myFunction) that are invoked with the call command.
+	 * Types of expressions that call a CfgFunctions function are never remembered ({@link #setMemoizeTypes(boolean)})
+	 * since the function is in another file.
+	 *
+	 * @param functionReturnTypes provider to use, or null to treat all function return values as {@link BaseType#_VARIABLE}
+	 */
+	public void setFunctionReturnTypeProvider(@Nullable FunctionReturnTypeProvider functionReturnTypes) {
+		this.functionReturnTypes = functionReturnTypes;
+	}
+
+	/**
+	 * Set where to get the types of macros (e.g. QUOTE(x) or a #define'd constant). Types of expressions that use a macro
+	 * are never remembered ({@link #setMemoizeTypes(boolean)}) since the macro may be in another file. Global variables
+	 * that aren't macros don't stop types from being remembered.
+	 *
+	 * @param macroTypes provider to use, or null to treat all macros as {@link BaseType#_VARIABLE}
+	 */
+	public void setMacroTypeProvider(@Nullable MacroTypeProvider macroTypes) {
+		this.macroTypes = macroTypes;
+	}
+
+	/**
+	 * Set the max amount of time {@link #begin()} may take. When the time is up, the statement currently being
+	 * checked is finished and all statements after it (nested statements included) are skipped.
+	 * Types of elements that were being checked when the time ran out are not remembered ({@link #setMemoizeTypes(boolean)}).
+	 * <p>
+	 * Regardless of budget, checking will stop with a {@link com.intellij.openapi.progress.ProcessCanceledException}
+	 * when the current progress is canceled.
+	 *
+	 * @param millis max time in milliseconds, or a number &lt;= 0 for no limit. Default is no limit.
+	 * @see #getFirstUncheckedStatement()
+	 */
+	public void setTimeBudget(long millis) {
+		this.timeBudgetNanos = millis <= 0 ? 0 : millis * 1_000_000L;
+	}
+
+	/**
+	 * @return true if the last {@link #begin()} ran out of time and didn't check every statement
+	 */
+	public boolean isTimeBudgetExceeded() {
+		return firstUncheckedStatement != null;
+	}
+
+	/**
+	 * @return the first statement that wasn't checked because the time budget ran out, or null if every statement was checked
+	 * @see #setTimeBudget(long)
+	 */
+	@Nullable
+	public SQFStatement getFirstUncheckedStatement() {
+		return firstUncheckedStatement;
+	}
+
 	/**
 	 * @return the last statement's resulted {@link ValueType}.
 	 * If there was no statements to check, will return {@link BaseType#NOTHING}
 	 */
 	@Nullable
 	public ValueType begin() {
-		ValueType ret = BaseType.NOTHING;
-		for (SQFStatement statement : statements) {
-			ret = (ValueType) statement.accept(this, cluster);
-		}
-		//System.out.println(problems.getResults());
-		return ret;
+		firstUncheckedStatement = null;
+		deadline = System.nanoTime() + timeBudgetNanos;
+		return visitStatements(statements, cluster);
 	}
 
 	@NotNull
 	@Override
 	public ValueType visit(@NotNull SQFScope scope, @NotNull CommandDescriptorCluster cluster) {
-		List<SQFStatement> statements = scope.getChildStatements();
+		return visitStatements(scope.getChildStatements(), cluster);
+	}
+
+	@NotNull
+	private ValueType visitStatements(@NotNull List<SQFStatement> statements, @NotNull CommandDescriptorCluster cluster) {
 		ValueType ret = ValueType.BaseType.NOTHING;
 		for (SQFStatement statement : statements) {
-			ret = (ValueType) statement.accept(this, cluster);
+			if (isOutOfTime(statement)) {
+				break;
+			}
+			ret = visitStatement(statement, cluster);
 		}
 		return ret;
 	}
 
+	@NotNull
+	private ValueType visitStatement(@NotNull SQFStatement statement, @NotNull CommandDescriptorCluster cluster) {
+		ProgressManager.checkCanceled();
+		ValueType type = (ValueType) statement.accept(this, cluster);
+		recordStatementType(statement, type);
+		return type;
+	}
+
+	/**
+	 * @param next the statement that is about to be visited
+	 * @return true if the time budget ran out and no more statements should be visited
+	 */
+	private boolean isOutOfTime(@NotNull SQFStatement next) {
+		if (firstUncheckedStatement != null) {
+			return true;
+		}
+		if (timeBudgetNanos == 0 || System.nanoTime() - deadline < 0) {
+			return false;
+		}
+		firstUncheckedStatement = next;
+		return true;
+	}
+
+	private void recordStatementType(@NotNull SQFStatement statement, @NotNull ValueType type) {
+		if (statementTypes != null) {
+			statementTypes.put(statement, type);
+		}
+		MemoRecorder recorder = memoRecorders.peekFirst();
+		if (recorder != null) {
+			recorder.addStatementType(statement, type);
+		}
+	}
+
+	/**
+	 * Registers a problem to the {@link ProblemsHolder} and to the {@link SQFTypeMemoElement} being computed (if any).
+	 */
+	private void reportProblem(@NotNull PsiElement element, @NotNull String message, @NotNull ProblemHighlightType highlightType) {
+		reportProblem(element, message, highlightType, null);
+	}
+
+	/**
+	 * Registers a problem to the {@link ProblemsHolder} and to the {@link SQFTypeMemoElement} being computed (if any).
+	 *
+	 * @param rangeInElement range of the problem in the element, or null for the whole element
+	 */
+	private void reportProblem(@NotNull PsiElement element, @NotNull String message, @NotNull ProblemHighlightType highlightType,
+							   @Nullable TextRange rangeInElement) {
+		problems.registerProblem(element, message, highlightType, rangeInElement);
+		MemoRecorder recorder = memoRecorders.peekFirst();
+		if (recorder != null) {
+			recorder.addProblem(new SQFTypeMemoElement.MemoProblem(element, message, highlightType, rangeInElement));
+		}
+	}
+
+	/**
+	 * Formats the problem's message and registers it (see {@link #reportProblem(PsiElement, String, ProblemHighlightType)}).
+	 */
+	private void reportProblem(@NotNull PsiElement element, @NotNull SQFSyntaxProblem problem,
+							   @Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+		reportProblem(element, problem.format(arg0, arg1, arg2), problem.getHighlightType());
+	}
+
+	/**
+	 * Gets the remembered type of the element, or computes it if there is none (see {@link #setMemoizeTypes(boolean)}).
+	 * If the remembered type is used, its problems are reported again, unless they were already reported in this run.
+	 *
+	 * @param element element to get type of
+	 * @param compute function that computes the type
+	 * @return the type
+	 */
+	@NotNull
+	private ValueType memoized(@NotNull SQFTypeMemoElement element, @NotNull Supplier<ValueType> compute) {
+		if (!memoizeTypes) {
+			return compute.get();
+		}
+		SQFTypeMemoElement.TypeMemo memo = element.getTypeMemo();
+		MemoRecorder parent = memoRecorders.peekFirst();
+		if (memo != null && memo.getFingerprint() != memoFingerprint) {
+			memo = null;
+		}
+		if (memo == null) {
+			MemoRecorder recorder = new MemoRecorder();
+			memoRecorders.push(recorder);
+			ValueType type;
+			try {
+				type = compute.get();
+			} finally {
+				memoRecorders.pop();
+			}
+			if (recorder.isCacheable() && firstUncheckedStatement == null) {
+				element.setTypeMemo(new SQFTypeMemoElement.TypeMemo(
+						type, recorder.getProblems(), recorder.getStatementTypes(), memoFingerprint
+				));
+			}
+			reportedMemoElements.add(element);
+			if (parent != null) {
+				parent.addAll(recorder);
+			}
+			return type;
+		}
+		if (reportedMemoElements.add(element)) {
+			for (SQFTypeMemoElement.MemoProblem problem : memo.getProblems()) {
+				reportProblem(problem.getElement(), problem.getMessage(), problem.getHighlightType(), problem.getRangeInElement());
+			}
+			for (Map.Entry<SQFStatement, ValueType> entry : memo.getStatementTypes().entrySet()) {
+				recordStatementType(entry.getKey(), entry.getValue());
+			}
+		}
+		return memo.getType();
+	}
+
 
 	@NotNull
 	@Override
@@ -82,10 +316,7 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 		}
 		SQFCodeBlock block = statement.getBlock();
 		if (block != null) {
-			SQFLocalScope scope = block.getScope();
-			if (scope != null) {
-				scope.accept(this, cluster);
-			}
+			fullyVisitCodeBlockScope(block, cluster);
 		}
 
 		return BaseType.NOTHING;
@@ -116,21 +347,28 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 	@NotNull
 	@Override
 	public ValueType visit(@NotNull SQFLiteralExpression expr, @NotNull CommandDescriptorCluster cluster) {
-		if (expr.getVar() != null) {
-			return _VARIABLE;
+		SQFVariable var = expr.getVar();
+		if (var != null) {
+			if (var.isLocal()) {
+				return _VARIABLE;
+			}
+			ValueType macroType = getMacroType(expr, var.getVarName());
+			return macroType == null ? _VARIABLE : macroType;
 		}
 		SQFArray arr = expr.getArr();
 		if (arr != null) {
-			if (arr.getExpressions().size() == 1) {
-				return new SingletonArrayExpandedValueType(
-						(ValueType) arr.getExpressions().get(0).accept(this, cluster)
-				);
-			}
-			ExpandedValueType expandedValueType = new ExpandedValueType(false);
-			for (SQFExpression arrItemExpr : arr.getExpressions()) {
-				expandedValueType.addValueType((ValueType) arrItemExpr.accept(this, cluster));
-			}
-			return expandedValueType;
+			return memoized(expr, () -> {
+				if (arr.getExpressions().size() == 1) {
+					return new SingletonArrayExpandedValueType(
+							(ValueType) arr.getExpressions().get(0).accept(this, cluster)
+					);
+				}
+				ExpandedValueType expandedValueType = new ExpandedValueType(false);
+				for (SQFExpression arrItemExpr : arr.getExpressions()) {
+					expandedValueType.addValueType((ValueType) arrItemExpr.accept(this, cluster));
+				}
+				return expandedValueType;
+			});
 		}
 		if (expr.getStr() != null) {
 			return BaseType.STRING;
@@ -139,11 +377,32 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 			return BaseType.NUMBER;
 		}
 		if (expr.getMacroCall_() != null) {
-			return BaseType._VARIABLE;
+			ValueType macroType = getMacroType(expr, expr.getText());
+			return macroType == null ? BaseType._VARIABLE : macroType;
 		}
 		throw new IllegalStateException("literal expression '" + expr.getText() + "' couldn't determine type");
 	}
 
+	/**
+	 * Remembered types that used a macro are never kept, since the macro may be in another file. A #define for a name
+	 * that isn't a macro yet changes the {@link #setMemoFingerprint(long)} instead.
+	 *
+	 * @param element element that has the text
+	 * @param macroText a global variable name, a macro name or a macro call (e.g. QUOTE(x))
+	 * @return the type from {@link #macroTypes}, or null if it isn't a macro or the type isn't known
+	 */
+	@Nullable
+	private ValueType getMacroType(@NotNull PsiElement element, @NotNull String macroText) {
+		if (macroTypes == null || !macroTypes.isMacro(macroText)) {
+			return null;
+		}
+		MemoRecorder recorder = memoRecorders.peekFirst();
+		if (recorder != null) {
+			recorder.setNotCacheable();
+		}
+		return macroTypes.getMacroType(macroText, element.getTextRange().getStartOffset());
+	}
+
 	@NotNull
 	@Override
 	public ValueType visit(@NotNull SQFParenExpression expr, @NotNull CommandDescriptorCluster cluster) {
@@ -151,201 +410,117 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 		if (expr1 == null) {
 			return _ERROR;
 		}
-		return (ValueType) expr1.accept(this, cluster);
+		return memoized(expr, () -> (ValueType) expr1.accept(this, cluster));
 	}
 
 
 	@NotNull
 	@Override
 	public ValueType visit(@NotNull SQFCommandExpression expr, @NotNull CommandDescriptorCluster cluster) {
-		LinkedList<PotentialProblem> potentialProblems = new LinkedList<>();
-		Counter reportCounter = new Counter(0);
-
-		LinkedList<ExprPart> parts = new LinkedList<>();
-		SQFCommandExpression cursor = expr;
-		while (true) {
-			SQFExpressionOperator op = cursor.getExprOperator();
-			SQFCommandArgument pre = cursor.getPrefixArgument();
-			SQFCommandArgument post = cursor.getPostfixArgument();
-			if (pre != null) {
-				parts.add(new ExprPart(new CommandArgumentPart(pre)));
-			}
-			parts.add(new ExprPart(op));
-			if (post != null) {
-				SQFExpression postExpr = post.getExpr();
-				if (postExpr instanceof SQFCommandExpression) {
-					cursor = (SQFCommandExpression) postExpr;
-				} else {
-					parts.add(new ExprPart(new CommandArgumentPart(post)));
-					break;
-				}
-			} else {
-				break;
-			}
-		}
-
-		LinkedList<ExprPart> groupedParts = groupTheParts(potentialProblems, reportCounter, parts);
+		ProgressManager.checkCanceled();
+		return memoized(expr, () -> getCommandExpressionType(expr));
+	}
 
-		return getReturnTypeForCommand(
-				groupedParts,
-				null,
-				problems,
-				potentialProblems,
-				reportCounter,
-				false
-		);
+	@NotNull
+	private ValueType getCommandExpressionType(@NotNull SQFCommandExpression expr) {
+		ExprParts parts = ExprParts.of(expr, potentialProblems.size());
+		groupTheParts(parts);
+		try {
+			return getReturnTypeForCommand(parts, parts.size(), true, null, false);
+		} finally {
+			potentialProblems.truncate(parts.potentialProblemsStart);
+		}
 	}
 
 	/**
 	 * This method is for grouping parts on the right hand side of forward looking commands ({@link #isForwardLookingCommand(SQFExpressionOperator)}).
-	 * This is done by adding everything left of the forward looking command as well as the command itself to a list
+	 * This is done by adding everything left of the forward looking command as well as the command itself to a group
 	 * and then grouping everything after it on the right. The grouping makes the right hand side evaluate like
 	 * the right hand side was enclosed in parenthesis. For example, "(_i + 1) >= count _numArr || (_i + 1) >= count _opNumArr" is evaluated like
 	 * "((_i + 1) >= count _numArr) || ((_i + 1) >= count _opNumArr)"
+	 * <p>
+	 * A group is only a range of parts ({@link ExprParts#getGroupEnd(int)}) and is evaluated like 1 argument
+	 * when the parts are evaluated with grouping enabled. Nothing is grouped if there is 1 or less forward looking operators.
 	 *
-	 * @param potentialProblems a list that will be shared across all fake groups.
-	 * @param reportCounter     report counter that will be shared across all fake groups
-	 * @param parts             parts to make a group of
-	 * @return the grouped parts, or will just return parts if there is 1 or less forward looking operators
+	 * @param parts parts to make groups in
 	 */
-	@NotNull
-	private LinkedList<ExprPart> groupTheParts(@NotNull LinkedList<PotentialProblem> potentialProblems,
-											   @NotNull Counter reportCounter, @NotNull LinkedList<ExprPart> parts) {
-		final int initialPartsSize = parts.size();
-		LinkedList<ExprPart> groupedParts = new LinkedList<>();
-		ArrayList<Integer> forwardLookingOpIndices = new ArrayList<>();
-		{
-			int i = 0;
-			for (ExprPart part : parts) {
-				if (part.isOperatorPart() && isForwardLookingCommand(part.getOperator())) {
-					forwardLookingOpIndices.add(i);
-				}
-				i++;
+	private void groupTheParts(@NotNull ExprParts parts) {
+		int forwardLookingOpCount = 0;
+		for (int i = 0; i < parts.size(); i++) {
+			if (parts.isOperator(i) && isForwardLookingCommand((SQFExpressionOperator) parts.get(i))) {
+				forwardLookingOpCount++;
 			}
 		}
-
-		if (forwardLookingOpIndices.size() <= 1) {
-			return parts;
+		if (forwardLookingOpCount <= 1) {
+			return;
 		}
-		LinkedList<ExprPart> currentGroup = new LinkedList<>();
-		final int STATE_START_BINARY = 0;
-		final int STATE_FINISHED_BINARY = 1;
-		int state = STATE_START_BINARY;
-		int partsIndex = 0;
-		int endIndexCount = 0;
-		for (int forwardLookingOpIndex : forwardLookingOpIndices) {
-			switch (state) {
-				case STATE_START_BINARY: {
-					for (; partsIndex < forwardLookingOpIndex; partsIndex++) {
-						currentGroup.add(parts.removeFirst());
-					}
-
-					ExprPart operatorPart = parts.removeFirst();
-					currentGroup.add(operatorPart);
-					partsIndex++;
-
-					final int endGroupIndex = endIndexCount + 1 >= forwardLookingOpIndices.size() ? initialPartsSize : forwardLookingOpIndices.get(endIndexCount + 1);
-
-					for (; partsIndex < endGroupIndex; partsIndex++) {
-						currentGroup.add(parts.removeFirst());
-					}
 
-					ExprPart part = new ExprPart(new ExprPartsGroupArgument(currentGroup, problems, potentialProblems, reportCounter));
-					groupedParts.add(part);
-					state = STATE_FINISHED_BINARY;
-					currentGroup = new LinkedList<>();
-					break;
-				}
-				case STATE_FINISHED_BINARY: {
-					groupedParts.add(parts.removeFirst());
-					partsIndex++;
-					state = STATE_START_BINARY;
-					break;
-				}
+		//every other forward looking operator starts a group that ends right before the next forward looking operator.
+		//The operators in between the groups aren't grouped
+		boolean startGroup = true;
+		int groupStart = 0;
+		for (int i = 0; i < parts.size(); i++) {
+			if (!parts.isOperator(i) || !isForwardLookingCommand((SQFExpressionOperator) parts.get(i))) {
+				continue;
 			}
-			endIndexCount++;
+			if (startGroup) {
+				startGroup = false;
+				continue;
+			}
+			parts.setGroupEnd(groupStart, i);
+			groupStart = i + 1;
+			startGroup = true;
 		}
-		if (state == STATE_START_BINARY) {
-			LinkedList<ExprPart> remainderPartsGroup = new LinkedList<>();
-			remainderPartsGroup.addAll(parts);
-			ExprPart part = new ExprPart(new ExprPartsGroupArgument(remainderPartsGroup, problems, potentialProblems, reportCounter));
-			groupedParts.add(part);
+		if (groupStart < parts.size()) {
+			parts.setGroupEnd(groupStart, parts.size());
 		}
-		return groupedParts;
 	}
 
 	/**
-	 * Gets a returned {@link ValueType} for a {@link SQFCommandExpression} that is broken up into a list of {@link ExprPart} instances.
-	 * <p>
-	 * This method recursively calls itself to syntax and type check command expressions. This method will also
-	 * report problems to the specified {@link ProblemsHolder}. Since some commands require a right type (postfix type)
-	 * and some commands can be chained (for example, "hint format ['']" is a chain of commands), the right type
-	 * may be determined by recursively calling this method without error reporting (this is called peeking).
-	 * <p>
-	 * An example of peeking is with "hint format ['']". The first command is hint, but its right type (postfix type)
-	 * requires a {@link BaseType#STRING}. It checks the next part, which is the format command. It then
-	 * invokes this method with format being the starting command part. Then, format notices that the next type
-	 * is not a command. If you look at the SQF grammar file, an array is contained in a {@link SQFLiteralExpression},
-	 * so this method will call {@link SQFLiteralExpression#accept(SQFSyntaxVisitor, CommandDescriptorCluster)}
-	 * to get the correct {@link ValueType}. From this point, format [''] will then return a {@link BaseType#STRING}
-	 * and then pass it into hint.
-	 * <p>
-	 * Sometimes when peeking, there are problems, but the problems aren't guaranteed to be problems.
-	 * They are potential problems (information stored in {@link PotentialProblem} instances) and
-	 * are stored in a list and then are subsequently reported to the {@link ProblemsHolder} when the potential problems
-	 * are actually problems. You can think of {@link PotentialProblem} as a future problem report when a peek fails.
-	 * But when a peek succeeds, no {@link PotentialProblem} instances should be reported.
-	 * Also, if a peek succeeds, all {@link PotentialProblem} instances created from the peek need to be removed.
+	 * Evaluates parts starting at {@link ExprParts#cursor} and moves the cursor past all parts that were used.
+	 * Each invocation evaluates 1 command. If the result can be passed into the next command,
+	 * the next command is evaluated as well.
 	 *
-	 * @param parts                     all parts
-	 * @param previousCommandReturnType the returned value of a previous recursive call,
-	 *                                  or null if the type hasn't been determined (peeking commands)
-	 * @param problems                  problems
-	 * @param potentialProblems         potential problems from peeking
-	 * @param reportCount               how many problems have been reported (>= 0)
-	 * @param isPeeking                 true if this invocation being called during a peek, false if it isn't
-	 * @return the last command's returned {@link ValueType}
+	 * @param parts                     parts to evaluate
+	 * @param end                       index (exclusive) of where to stop evaluating
+	 * @param grouped                   true if groups should be evaluated as 1 argument, false if the groups should be ignored
+	 * @param previousCommandReturnType type to use as the left argument if there isn't a left argument
+	 * @param isPeeking                 true if only 1 command should be evaluated and syntax problems should only be potential problems
+	 * @return the resulted type
 	 */
 	@NotNull
-	private ValueType getReturnTypeForCommand(@NotNull LinkedList<ExprPart> parts,
+	private ValueType getReturnTypeForCommand(@NotNull ExprParts parts,
+											  int end,
+											  boolean grouped,
 											  @Nullable ValueType previousCommandReturnType,
-											  @NotNull ProblemsHolder problems,
-											  @NotNull LinkedList<PotentialProblem> potentialProblems,
-											  @NotNull Counter reportCount,
 											  boolean isPeeking) {
-
-
-		//All parts removed from the current invocation (requires a new list for each recursive call).
-		//These parts will be added back if a peek wasn't used or a peek failed.
-		LinkedList<ExprPart> removedParts = new LinkedList<>();
-
-		ValueType prefixType = null;
-		ExprPart prefixPart = parts.removeFirst();
-		removedParts.push(prefixPart);
-		ExprPart commandPart = null;
-
-		if (!prefixPart.isOperatorPart()) {
-			commandPart = parts.removeFirst();
-			removedParts.push(commandPart);
-			if (!commandPart.isOperatorPart()) {
+		//Where this invocation started.
+		//The cursor is moved back here if a peek wasn't used or a peek failed.
+		final int start = parts.cursor;
+
+		int prefixIndex = -1;
+		int commandIndex = start;
+		if (parts.isArgument(start, grouped)) {
+			prefixIndex = start;
+			commandIndex = parts.nextIndex(start, grouped);
+			if (commandIndex >= end || parts.isArgument(commandIndex, grouped)) {
 				throw new IllegalStateException("expected command part");
 			}
-		} else {
-			commandPart = prefixPart;
-			prefixPart = null;
 		}
+		parts.cursor = commandIndex + 1;
 
-		SQFExpressionOperator exprOperator = commandPart.getOperator();
-		CommandDescriptor descriptor = getDescriptorForOperator(exprOperator, cluster);
+		SQFExpressionOperator exprOperator = (SQFExpressionOperator) parts.get(commandIndex);
+		CommandDescriptor descriptor = getDescriptorForPart(parts, commandIndex);
 		String commandName = descriptor.getCommandName();
 
-		if (prefixPart != null) {
-			prefixType = prefixPart.getArgument().getType(this, isPeeking, cluster);
+		ValueType prefixType;
+		if (prefixIndex >= 0) {
+			prefixType = getArgumentType(parts, prefixIndex, grouped, isPeeking);
 		} else {
 			prefixType = previousCommandReturnType;
 		}
 
-		ExprPart peekPart = parts.peekFirst();
+		final int peekIndex = parts.cursor;
 		ValueType peekType = null;
 
 		//if there are more parts to consume and there is at least 1 syntax that accepts a postfix param,
@@ -392,7 +567,7 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 				}
 			} else {
 				if (peekType == null) {
-					peekType = getPeekType(parts, removedParts, problems, potentialProblems, reportCount);
+					peekType = getPeekType(parts, end, grouped);
 				}
 				if (peekType == null) {
 					if (!postfixParam.isOptional()) {
@@ -417,13 +592,11 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 			}
 		}
 		if (!usedPeekType && !keepPartsRemoved) {
-			while (!removedParts.isEmpty()) {
-				parts.push(removedParts.pop());
-			}
+			parts.cursor = start;
 		}
 
 		if (matchedSyntax != null) {
-			potentialProblems.clear();
+			potentialProblems.truncate(parts.potentialProblemsStart);
 			ValueType retType;
 
 			//If either the left type or right type is variable, we must return variable.
@@ -432,19 +605,22 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 			} else {
 				retType = matchedSyntax.getReturnValue().getType();
 			}
+			if (usedPeekType && functionReturnTypes != null) {
+				ValueType functionReturnType = getCalledFunctionReturnType(parts, commandIndex, peekIndex, grouped);
+				if (functionReturnType != null) {
+					retType = functionReturnType;
+				}
+			}
 
 			if (isPeeking) {
 				return retType;
 			}
 
-			if (parts.isEmpty()) {
+			if (parts.cursor >= end) {
 				if (peekType != null && !usedPeekType) {
-					if (reportCount.count <= 0) {
-						problems.registerProblem(peekPart.getPsiElement(),
-								"Expected ;",
-								ProblemHighlightType.GENERIC_ERROR_OR_WARNING
-						);
-						reportCount.count++;
+					if (parts.reportCount <= 0) {
+						reportProblem(parts.get(peekIndex), SQFSyntaxProblem.EXPECTED_SEMICOLON, null, null, null);
+						parts.reportCount++;
 					}
 				}
 				return retType;
@@ -452,11 +628,10 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 
 			boolean expectedSemicolon = false;
 			boolean consumeMoreCommands = false;
-			ExprPart peekFirst = parts.peekFirst();
+			final int nextIndex = parts.cursor;
 
-			if (peekFirst.isOperatorPart()) {
-				SQFExpressionOperator peekExprOperator = peekFirst.getOperator();
-				CommandDescriptor d = getDescriptorForOperator(peekExprOperator, cluster);
+			if (!parts.isArgument(nextIndex, grouped)) {
+				CommandDescriptor d = getDescriptorForPart(parts, nextIndex);
 				for (CommandSyntax syntax1 : d.getSyntaxList()) {
 					if (syntax1.getPrefixParam() != null) {
 						if (syntax1.getPrefixParam().containsType(retType)) {
@@ -474,68 +649,42 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 				expectedSemicolon = true;
 			}
 			if (expectedSemicolon) {
-				if (reportCount.count <= 0) {
-					problems.registerProblem(
-							parts.getFirst().getPsiElement(), "Expected ;",
-							ProblemHighlightType.GENERIC_ERROR_OR_WARNING
-					);
-					reportCount.count++;
+				if (parts.reportCount <= 0) {
+					reportProblem(parts.get(nextIndex), SQFSyntaxProblem.EXPECTED_SEMICOLON, null, null, null);
+					parts.reportCount++;
 				}
 			}
 			if (consumeMoreCommands) {
-				retType = getReturnTypeForCommand(parts, retType, problems, potentialProblems, reportCount, false);
+				retType = getReturnTypeForCommand(parts, end, grouped, retType, false);
 			}
 
 			return retType;
 		} else {
-			PotentialProblem problem;
-
-			if (peekType == null) {
-				if (prefixType == null) {
-					problem = new PotentialProblem(
-							exprOperator,
-							"No syntax for '" + commandName + "' with left argument absent.",
-							ProblemHighlightType.GENERIC_ERROR_OR_WARNING
-					);
+			if (parts.reportCount <= 0) {
+				//all of the problems take the same arguments: prefix type, command name, postfix type
+				SQFSyntaxProblem problem;
+				if (peekType == null) {
+					problem = prefixType == null ? SQFSyntaxProblem.NO_SYNTAX_LEFT_ABSENT : SQFSyntaxProblem.NO_SYNTAX_FOR_LEFT;
 				} else {
-					if (requirePeek) {
-						problem = new PotentialProblem(
-								exprOperator,
-								"No syntax for '" + prefixType.getDisplayName() + " " + commandName + "'",
-								ProblemHighlightType.GENERIC_ERROR_OR_WARNING
-						);
-					} else {
-						problem = new PotentialProblem(
-								exprOperator,
-								"No syntax for '" + prefixType.getDisplayName() + " " + commandName + "'",
-								ProblemHighlightType.GENERIC_ERROR_OR_WARNING
-						);
-					}
+					problem = SQFSyntaxProblem.NO_SYNTAX;
 				}
-			} else {
-				problem = new PotentialProblem(
-						exprOperator,
-						"No syntax for '" +
-								(prefixType == null ? "" : prefixType.getDisplayName() + " ")
-								+ commandName + " " + peekType.getDisplayName() + "'",
-						ProblemHighlightType.GENERIC_ERROR_OR_WARNING
-				);
-			}
 
-			if (reportCount.count <= 0) {
 				if (!isPeeking) {
-					if (potentialProblems.isEmpty()) {
-						reportCount.count++;
-						problems.registerProblem(problem.getErrorElement(), problem.getMessage(), problem.getHighlightType());
+					int oldest = parts.potentialProblemsStart;
+					if (potentialProblems.size() <= oldest) {
+						parts.reportCount++;
+						reportProblem(exprOperator, problem, prefixType, commandName, peekType);
 					} else {
 						//report only the oldest potential problem
-						PotentialProblem actualProblem = potentialProblems.getFirst();
-						problems.registerProblem(actualProblem.getErrorElement(), actualProblem.getMessage(), actualProblem.getHighlightType());
-						reportCount.count++;
-						potentialProblems.clear();
+						reportProblem(potentialProblems.getElement(oldest), potentialProblems.getProblem(oldest),
+								potentialProblems.getArg(oldest, 0), potentialProblems.getArg(oldest, 1),
+								potentialProblems.getArg(oldest, 2)
+						);
+						parts.reportCount++;
+						potentialProblems.truncate(oldest);
 					}
 				} else {
-					potentialProblems.add(problem);
+					potentialProblems.add(exprOperator, problem, prefixType, commandName, peekType);
 				}
 			}
 
@@ -544,29 +693,86 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 
 	}
 
+	/**
+	 * Gets the type of the part at {@link ExprParts#cursor} and moves the cursor past what was used.
+	 *
+	 * @return the type, or null if there are no more parts before end
+	 */
 	@Nullable
-	private ValueType getPeekType(@NotNull LinkedList<ExprPart> parts,
-								  @NotNull LinkedList<ExprPart> removedParts,
-								  @NotNull ProblemsHolder problems,
-								  @NotNull LinkedList<PotentialProblem> potentialProblems,
-								  @NotNull Counter reportCount) {
-		ExprPart peekPart = parts.peekFirst();
-		if (peekPart == null) {
+	private ValueType getPeekType(@NotNull ExprParts parts, int end, boolean grouped) {
+		final int peekIndex = parts.cursor;
+		if (peekIndex >= end) {
 			return null;
 		}
-		if (peekPart.isOperatorPart()) {
-			return getReturnTypeForCommand(
-					parts,
-					null,
-					problems,
-					potentialProblems,
-					reportCount,
-					true
-			);
-		} else {
-			removedParts.push(parts.removeFirst());
-			return peekPart.getArgument().getType(this, true, cluster);
+		if (!parts.isArgument(peekIndex, grouped)) {
+			return getReturnTypeForCommand(parts, end, grouped, null, true);
+		}
+		parts.cursor = parts.nextIndex(peekIndex, grouped);
+		return getArgumentType(parts, peekIndex, grouped, true);
+	}
+
+	/**
+	 * Gets the type of an argument part, or of a group when grouped is true. This will not move {@link ExprParts#cursor}.
+	 */
+	@NotNull
+	private ValueType getArgumentType(@NotNull ExprParts parts, int index, boolean grouped, boolean isPeeking) {
+		if (grouped && parts.getGroupEnd(index) >= 0) {
+			int groupEnd = parts.getGroupEnd(index);
+			if (groupEnd - index == 1 && !parts.isOperator(index)) {
+				return getArgumentType(parts, index, false, isPeeking);
+			}
+			int cursor = parts.cursor;
+			parts.cursor = index;
+			ValueType type = getReturnTypeForCommand(parts, groupEnd, false, null, isPeeking);
+			parts.cursor = cursor;
+			return type;
+		}
+		SQFCommandArgument argument = (SQFCommandArgument) parts.get(index);
+		SQFCodeBlock block = argument.getBlock();
+		if (block == null) {
+			return (ValueType) argument.getExpr().accept(this, cluster);
 		}
+		return new CodeType(fullyVisitCodeBlockScope(block, cluster));
+	}
+
+	/**
+	 * If the command is call and the right argument is a function name (e.g. [] call tag_fnc_myFunction),
+	 * this will get the function's return type from {@link #functionReturnTypes}.
+	 *
+	 * @return the return type, or null if it isn't a function call or the type isn't known
+	 */
+	@Nullable
+	private ValueType getCalledFunctionReturnType(@NotNull ExprParts parts, int commandIndex, int postfixIndex, boolean grouped) {
+		if (functionReturnTypes == null || parts.isOperator(postfixIndex) || (grouped && parts.getGroupEnd(postfixIndex) >= 0)) {
+			return null;
+		}
+		SQFCommand command = ((SQFExpressionOperator) parts.get(commandIndex)).getCmd();
+		if (command == null || !command.commandNameEquals("call")) {
+			return null;
+		}
+		SQFExpression postfixExpr = ((SQFCommandArgument) parts.get(postfixIndex)).getExpr();
+		if (!(postfixExpr instanceof SQFLiteralExpression)) {
+			return null;
+		}
+		SQFVariable var = ((SQFLiteralExpression) postfixExpr).getVar();
+		if (var == null || var.isLocal() || !functionReturnTypes.isFunction(var.getVarName())) {
+			return null;
+		}
+		MemoRecorder recorder = memoRecorders.peekFirst();
+		if (recorder != null) {
+			recorder.setNotCacheable();
+		}
+		return functionReturnTypes.getReturnType(var.getVarName());
+	}
+
+	@NotNull
+	private CommandDescriptor getDescriptorForPart(@NotNull ExprParts parts, int index) {
+		CommandDescriptor descriptor = parts.descriptors[index];
+		if (descriptor == null) {
+			descriptor = getDescriptorForOperator((SQFExpressionOperator) parts.get(index), cluster);
+			parts.descriptors[index] = descriptor;
+		}
+		return descriptor;
 	}
 
 	/**
@@ -603,7 +809,7 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 	@NotNull
 	@Override
 	public ValueType visit(@NotNull SQFCodeBlockExpression expr, @NotNull CommandDescriptorCluster cluster) {
-		return new CodeType(fullyVisitCodeBlockScope(this, expr.getBlock(), cluster));
+		return new CodeType(fullyVisitCodeBlockScope(expr.getBlock(), cluster));
 	}
 
 	/**
@@ -615,12 +821,12 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 	 * or {@link BaseType#NOTHING} if there was no statements
 	 */
 	@NotNull
-	private static ValueType fullyVisitCodeBlockScope(@NotNull SQFSyntaxVisitor visitor, @NotNull SQFCodeBlock block, @NotNull CommandDescriptorCluster cluster) {
+	private ValueType fullyVisitCodeBlockScope(@NotNull SQFCodeBlock block, @NotNull CommandDescriptorCluster cluster) {
 		SQFLocalScope scope = block.getScope();
-		if (scope != null) {
-			return (ValueType) scope.accept(visitor, cluster);
+		if (scope == null) {
+			return ValueType.BaseType.NOTHING;
 		}
-		return ValueType.BaseType.NOTHING;
+		return memoized(block, () -> (ValueType) scope.accept(this, cluster));
 	}
 
 	@NotNull
@@ -655,9 +861,7 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 	 * @param gotPsiOwner the PsiElement to which the <code>got</code> type is owner of
 	 */
 	private void notOfType(@NotNull ValueType[] expected, @NotNull ValueType got, @NotNull PsiElement gotPsiOwner) {
-		String expectedTypes = getExpectedArrayAsString(expected);
-		problems.registerProblem(gotPsiOwner, "Type(s) " + expectedTypes + " expected. Got "
-				+ got.getDisplayName() + ".", ProblemHighlightType.GENERIC_ERROR_OR_WARNING);
+		reportProblem(gotPsiOwner, SQFSyntaxProblem.NOT_OF_TYPES, expected, got, null);
 	}
 
 	/**
@@ -683,27 +887,7 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 				return;
 			}
 		}
-		String expectedTypes = getExpectedArrayAsString(expected);
-		problems.registerProblem(checkPsiOwner, expectedTypes + " expected. Got "
-				+ check.getDisplayName() + ".", ProblemHighlightType.GENERIC_ERROR_OR_WARNING);
-	}
-
-	@NotNull
-	private String getExpectedArrayAsString(@NotNull ValueType[] expected) {
-		StringBuilder expectedTypes = new StringBuilder();
-		int i = 0;
-		for (ValueType t : expected) {
-			expectedTypes.append(t.getDisplayName());
-			if (i < expected.length - 1) {
-				if (i == expected.length - 2) {
-					expectedTypes.append(", or ");
-				} else {
-					expectedTypes.append(", ");
-				}
-			}
-			i++;
-		}
-		return expectedTypes.toString();
+		reportProblem(checkPsiOwner, SQFSyntaxProblem.EXPECTED_TYPES, expected, check, null);
 	}
 
 	/**
@@ -726,205 +910,232 @@ public class SQFSyntaxChecker implements SQFSyntaxVisitor<ValueType> {
 		if (ValueType.typeEquivalent(expected, check)) {
 			return;
 		}
-		problems.registerProblem(checkPsiOwner, "Type " + expected.getDisplayName() + " expected. Got "
-				+ check.getDisplayName() + ".", ProblemHighlightType.GENERIC_ERROR_OR_WARNING);
+		reportProblem(checkPsiOwner, SQFSyntaxProblem.EXPECTED_TYPE, expected, check, null);
 	}
 
-	private interface ArgumentPart {
-		@NotNull
-		PsiElement getPsiElement();
-
-		@NotNull
-		ValueType getType(@NotNull SQFSyntaxChecker checker, boolean isPeeking, @NotNull CommandDescriptorCluster cluster);
+	/**
+	 * Gives the return types of functions that are defined in CfgFunctions
+	 */
+	public interface FunctionReturnTypeProvider {
+		/**
+		 * @param functionName a global variable name
+		 * @return true if the name is a function, whether or not its return type is known
+		 */
+		boolean isFunction(@NotNull String functionName);
+
+		/**
+		 * @param functionName name of the function (e.g. tag_fnc_myFunction)
+		 * @return the type the function returns, or null if the function doesn't exist or its return type isn't known
+		 */
+		@Nullable
+		ValueType getReturnType(@NotNull String functionName);
 	}
 
-	private static class CommandArgumentPart implements ArgumentPart {
+	/**
+	 * Gives the types of preprocessor macros
+	 */
+	public interface MacroTypeProvider {
+		/**
+		 * @param macroText a name (e.g. MY_CONSTANT) or macro call (e.g. QUOTE(x))
+		 * @return true if the name (or name of the called macro) is defined anywhere in the file
+		 */
+		boolean isMacro(@NotNull String macroText);
+
+		/**
+		 * @param macroText a name (e.g. MY_CONSTANT) or macro call (e.g. QUOTE(x))
+		 * @param offset offset of the text in the file, since a macro is only defined after its #define
+		 * @return the type of the expanded macro, or null if it isn't a macro at the offset or the type isn't known
+		 */
+		@Nullable
+		ValueType getMacroType(@NotNull String macroText, int offset);
+	}
 
+	/**
+	 * The flattened parts of a {@link SQFCommandExpression}, in order. Each part is either a {@link SQFExpressionOperator}
+	 * or a {@link SQFCommandArgument}. Parts are consumed from left to right by moving {@link #cursor}.
+	 */
+	private static class ExprParts {
 		@NotNull
-		private final SQFCommandArgument argument;
-
-		public CommandArgumentPart(@NotNull SQFCommandArgument argument) {
-			this.argument = argument;
+		private final PsiElement[] parts;
+		private final int size;
+		/**
+		 * Descriptors of the operator parts, set when first needed
+		 */
+		@NotNull
+		private final CommandDescriptor[] descriptors;
+		/**
+		 * groupEnds[i] is the end index (exclusive) of the group that starts at i, or -1 if no group starts at i.
+		 * Null when there are no groups.
+		 */
+		@Nullable
+		private int[] groupEnds;
+		private int cursor = 0;
+		private int reportCount = 0;
+		/**
+		 * Index of the first potential problem (in {@link SQFSyntaxChecker#potentialProblems}) that belongs to these parts.
+		 * Potential problems are shared across all groups.
+		 */
+		private final int potentialProblemsStart;
+
+		private ExprParts(@NotNull PsiElement[] parts, int size, int potentialProblemsStart) {
+			this.parts = parts;
+			this.size = size;
+			this.potentialProblemsStart = potentialProblemsStart;
+			this.descriptors = new CommandDescriptor[size];
 		}
 
 		@NotNull
-		@Override
-		public PsiElement getPsiElement() {
-			return argument;
+		public static ExprParts of(@NotNull SQFCommandExpression expr, int potentialProblemsStart) {
+			PsiElement[] parts = new PsiElement[8];
+			int size = 0;
+			SQFCommandExpression cursor = expr;
+			while (true) {
+				if (size + 3 > parts.length) {
+					parts = Arrays.copyOf(parts, parts.length * 2);
+				}
+				SQFExpressionOperator op = cursor.getExprOperator();
+				SQFCommandArgument pre = cursor.getPrefixArgument();
+				SQFCommandArgument post = cursor.getPostfixArgument();
+				if (pre != null) {
+					parts[size++] = pre;
+				}
+				parts[size++] = op;
+				if (post != null) {
+					SQFExpression postExpr = post.getExpr();
+					if (postExpr instanceof SQFCommandExpression) {
+						cursor = (SQFCommandExpression) postExpr;
+					} else {
+						parts[size++] = post;
+						break;
+					}
+				} else {
+					break;
+				}
+			}
+			return new ExprParts(parts, size, potentialProblemsStart);
 		}
 
-		@NotNull
-		public SQFCommandArgument getArgument() {
-			return argument;
+		public int size() {
+			return size;
 		}
 
 		@NotNull
-		@Override
-		public ValueType getType(@NotNull SQFSyntaxChecker checker, boolean isPeeking, @NotNull CommandDescriptorCluster cluster) {
-			SQFExpression expr = argument.getExpr();
-			SQFCodeBlock block = argument.getBlock();
-			if (block == null) {
-				return (ValueType) expr.accept(checker, cluster);
-			}
-			return new CodeType(fullyVisitCodeBlockScope(checker, block, cluster));
+		public PsiElement get(int index) {
+			return parts[index];
 		}
 
-		@Override
-		public String toString() {
-			return argument.getText();
+		public boolean isOperator(int index) {
+			return parts[index] instanceof SQFExpressionOperator;
 		}
-	}
-
-	private static class ExprPartsGroupArgument implements ArgumentPart {
-		@NotNull
-		private final LinkedList<ExprPart> parts;
-		@NotNull
-		private final ProblemsHolder problems;
-		@NotNull
-		private final LinkedList<PotentialProblem> potentialProblems;
-		@NotNull
-		private final Counter reportCounter;
 
-		public ExprPartsGroupArgument(@NotNull LinkedList<ExprPart> parts, @NotNull ProblemsHolder problems,
-									  @NotNull LinkedList<PotentialProblem> potentialProblems,
-									  @NotNull Counter reportCounter) {
-			this.reportCounter = reportCounter;
-			if (parts.isEmpty()) {
-				throw new IllegalStateException("parts is empty");
-			}
-			this.parts = parts;
-			this.problems = problems;
-			this.potentialProblems = potentialProblems;
+		/**
+		 * @return true if the part is a {@link SQFCommandArgument}, or if grouped is true and a group starts at the index
+		 */
+		public boolean isArgument(int index, boolean grouped) {
+			return !isOperator(index) || (grouped && getGroupEnd(index) >= 0);
 		}
 
-		@NotNull
-		public List<ExprPart> getParts() {
-			return parts;
+		/**
+		 * @return the index after the part, or after the group if grouped is true and a group starts at the index
+		 */
+		public int nextIndex(int index, boolean grouped) {
+			if (grouped) {
+				int groupEnd = getGroupEnd(index);
+				if (groupEnd >= 0) {
+					return groupEnd;
+				}
+			}
+			return index + 1;
 		}
 
-		@NotNull
-		@Override
-		public PsiElement getPsiElement() {
-			return parts.get(0).getPsiElement();
+		/**
+		 * @return the end index (exclusive) of the group that starts at index, or -1 if there is no group
+		 */
+		public int getGroupEnd(int index) {
+			return groupEnds == null ? -1 : groupEnds[index];
 		}
 
-		@NotNull
-		@Override
-		public ValueType getType(@NotNull SQFSyntaxChecker checker, boolean isPeeking, @NotNull CommandDescriptorCluster cluster) {
-			if (parts.size() == 1 && parts.getFirst().isArgumentPart()) {
-				return parts.getFirst().getArgument().getType(checker, isPeeking, cluster);
+		public void setGroupEnd(int groupStart, int groupEnd) {
+			if (groupEnds == null) {
+				groupEnds = new int[size];
+				Arrays.fill(groupEnds, -1);
 			}
-			return checker.getReturnTypeForCommand(parts, null, problems, potentialProblems, reportCounter, isPeeking);
+			groupEnds[groupStart] = groupEnd;
 		}
 
 		@Override
 		public String toString() {
 			StringBuilder sb = new StringBuilder();
-			for (ExprPart part : parts) {
-				sb.append(part.toString());
-				if (part != parts.getLast()) {
+			for (int i = 0; i < size; i++) {
+				if (i != 0) {
 					sb.append(' ');
 				}
+				sb.append(parts[i].getText());
 			}
-			return "```" + sb.toString() + "```";
+			return sb.toString();
 		}
 	}
 
-	private static class ExprPart {
+	/**
+	 * Collects what is remembered for a {@link SQFTypeMemoElement}. Most elements have no problems and no nested statements,
+	 * so the collections are only created when needed.
+	 */
+	private static class MemoRecorder {
 		@Nullable
-		private final ArgumentPart argument;
+		private List<SQFTypeMemoElement.MemoProblem> problems;
 		@Nullable
-		private final SQFExpressionOperator operator;
-
-		public ExprPart(@NotNull SQFExpressionOperator operator) {
-			this.operator = operator;
-			this.argument = null;
-		}
-
-		public ExprPart(@NotNull ArgumentPart argument) {
-			this.operator = null;
-			this.argument = argument;
+		private Map<SQFStatement, ValueType> statementTypes;
+		private boolean cacheable = true;
+
+		/**
+		 * @return false if the type depends on something outside of the element (and shouldn't be remembered)
+		 */
+		public boolean isCacheable() {
+			return cacheable;
 		}
 
-		public boolean isOperatorPart() {
-			return operator != null;
+		public void setNotCacheable() {
+			this.cacheable = false;
 		}
 
-		public boolean isArgumentPart() {
-			return argument != null;
-		}
-
-		@NotNull
-		public SQFExpressionOperator getOperator() {
-			if (operator == null) {
-				throw new IllegalStateException("can't get operator on a non-operator part");
+		public void addProblem(@NotNull SQFTypeMemoElement.MemoProblem problem) {
+			if (problems == null) {
+				problems = new ArrayList<>();
 			}
-			return operator;
+			problems.add(problem);
 		}
 
-		@NotNull
-		public ArgumentPart getArgument() {
-			if (argument == null) {
-				throw new IllegalStateException("can't get command on a non-argument part");
+		public void addStatementType(@NotNull SQFStatement statement, @NotNull ValueType type) {
+			if (statementTypes == null) {
+				statementTypes = new HashMap<>();
 			}
-			return argument;
+			statementTypes.put(statement, type);
 		}
 
-		@NotNull
-		public PsiElement getPsiElement() {
-			PsiElement psiElement = argument != null ? argument.getPsiElement() : operator;
-			if (psiElement == null) {
-				throw new IllegalStateException("arguemnt and operator are both null");
+		public void addAll(@NotNull MemoRecorder other) {
+			if (!other.cacheable) {
+				cacheable = false;
+			}
+			if (other.problems != null) {
+				for (SQFTypeMemoElement.MemoProblem problem : other.problems) {
+					addProblem(problem);
+				}
+			}
+			if (other.statementTypes != null) {
+				for (Map.Entry<SQFStatement, ValueType> entry : other.statementTypes.entrySet()) {
+					addStatementType(entry.getKey(), entry.getValue());
+				}
 			}
-			return psiElement;
-		}
-
-		@Override
-		public String toString() {
-			return operator != null ? operator.getText() : argument.toString();
-		}
-	}
-
-	private static class Counter {
-		private int count = 0;
-
-		public Counter(int i) {
-			this.count = i;
-		}
-
-		@Override
-		public String toString() {
-			return count + "";
-		}
-	}
-
-	private static class PotentialProblem {
-		@NotNull
-		private final PsiElement errorElement;
-		@NotNull
-		private final String message;
-		@NotNull
-		private final ProblemHighlightType highlightType;
-
-		public PotentialProblem(@NotNull PsiElement errorElement, @NotNull String message, @NotNull ProblemHighlightType highlightType) {
-			this.errorElement = errorElement;
-			this.message = message;
-			this.highlightType = highlightType;
-		}
-
-		@NotNull
-		public PsiElement getErrorElement() {
-			return errorElement;
 		}
 
 		@NotNull
-		public String getMessage() {
-			return message;
+		public List<SQFTypeMemoElement.MemoProblem> getProblems() {
+			return problems == null ? Collections.emptyList() : problems;
 		}
 
 		@NotNull
-		public ProblemHighlightType getHighlightType() {
-			return highlightType;
+		public Map<SQFStatement, ValueType> getStatementTypes() {
+			return statementTypes == null ? Collections.emptyMap() : statementTypes;
 		}
 	}
 }
@@ -1,22 +1,43 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
+import com.intellij.codeInspection.InspectionManager;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.kaylerrenslow.armaplugin.lang.PsiUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFFunctionSummaryLookup;
+import com.kaylerrenslow.armaplugin.lang.sqf.preprocessor.SQFMacroTable;
+import com.kaylerrenslow.armaplugin.lang.sqf.preprocessor.SQFMacroTypeResolver;
+import com.kaylerrenslow.armaplugin.lang.sqf.preprocessor.SQFPreprocessor;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.CommandDescriptor;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.CommandDescriptorCluster;
 import com.kaylerrenslow.armaplugin.lang.sqf.syntax.CommandDescriptorPool;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import com.kaylerrenslow.armaplugin.settings.ArmaPluginApplicationSettings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Kayler
  * @since 11/13/2017
  */
 public class SQFSyntaxHelper {
+	private static final Logger LOG = Logger.getInstance(SQFSyntaxHelper.class);
 	private static final SQFSyntaxHelper instance = new SQFSyntaxHelper();
 
 	@NotNull
@@ -25,6 +46,17 @@ public class SQFSyntaxHelper {
 	}
 
 	private final CommandDescriptorPool pool = new CommandDescriptorPool();
+	/**
+	 * Shared executor for reading syntax xml files of commands that aren't cached.
+	 */
+	private final ExecutorService loaderExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+			"SQFSyntaxHelper Descriptor Loader", Math.max(2, Runtime.getRuntime().availableProcessors() / 2)
+	);
+
+	/**
+	 * Incremented when results that ran out of time should be computed again (see {@link #rerunPartialCheckResults()}).
+	 */
+	private final SimpleModificationTracker partialResultsTracker = new SimpleModificationTracker();
 
 	private SQFSyntaxHelper() {
 	}
@@ -34,118 +66,234 @@ public class SQFSyntaxHelper {
 		return pool.get(commandName);
 	}
 
+	/**
+	 * Gets the result of syntax and type checking the entire file. The result is computed with one pass over the file
+	 * and is cached until the file changes, until a function file whose return type was used changes, or until
+	 * a file that is included with #include changes (see {@link SQFPreprocessor}).
+	 * <p>
+	 * Checking stops early when it takes longer than {@link ArmaPluginApplicationSettings.State#sqfCheckTimeBudgetMillis}
+	 * (see {@link SQFSyntaxCheckResult#isTimeBudgetExceeded()}), or when the current progress is canceled. A result that
+	 * ran out of time is also dropped when anything in the project changes or when {@link #rerunPartialCheckResults()}
+	 * is invoked, so that it isn't kept like a complete result.
+	 *
+	 * @param file file to check
+	 * @return the cached result
+	 */
+	@NotNull
+	public SQFSyntaxCheckResult getCheckResult(@NotNull SQFFile file) {
+		return CachedValuesManager.getCachedValue(file, () -> computeCheckResult(file));
+	}
+
+	@NotNull
+	private CachedValueProvider.Result<SQFSyntaxCheckResult> computeCheckResult(@NotNull SQFFile file) {
+		//on the fly so that no problem is left out of the cached result. The holder the result is replayed into decides
+		//what is shown.
+		ProblemsHolder holder = new ProblemsHolder(InspectionManager.getInstance(file.getProject()), file, true);
+		Map<SQFStatement, ValueType> statementTypes = new HashMap<>();
+
+		SQFSyntaxChecker checker = new SQFSyntaxChecker(
+				file.getFileScope().getChildStatements(),
+				getCommandDescriptors(file.getNode()),
+				holder
+		);
+		checker.setStatementTypesRecorder(statementTypes);
+		checker.setMemoizeTypes(true);
+		SQFFunctionSummaryLookup functionLookup = new SQFFunctionSummaryLookup(file);
+		checker.setFunctionReturnTypeProvider(functionLookup);
+		SQFMacroTable macroTable = SQFPreprocessor.getMacroTable(file);
+		if (!macroTable.isEmpty()) {
+			checker.setMacroTypeProvider(new SQFMacroTypeResolver(macroTable, file.getProject()));
+		}
+		//remembered types that didn't use a macro or function are wrong when one is defined for a name they used
+		checker.setMemoFingerprint(31 * macroTable.getNamesFingerprint() + functionLookup.getModificationStamp());
+		int timeBudgetMillis = ArmaPluginApplicationSettings.getInstance().getState().sqfCheckTimeBudgetMillis;
+		checker.setTimeBudget(timeBudgetMillis);
+		ValueType exitType = checker.begin();
+
+		SQFSyntaxCheckResult result = new SQFSyntaxCheckResult(holder.getResults(), statementTypes,
+				exitType == null ? ValueType.BaseType.NOTHING : exitType,
+				checker.getFirstUncheckedStatement(), timeBudgetMillis
+		);
+		List<Object> dependencies = new ArrayList<>(functionLookup.getDependencies().size() + 1);
+		dependencies.add(file);
+		dependencies.addAll(functionLookup.getDependencies());
+		//a macro in an included file may have changed
+		dependencies.addAll(SQFPreprocessor.getIncludedFiles(file));
+		//function return types aren't looked up in dumb mode, so check again when indexing finishes
+		dependencies.add(DumbService.getInstance(file.getProject()).getModificationTracker());
+		if (result.isTimeBudgetExceeded()) {
+			//the statements that weren't checked are checked again on the next run
+			dependencies.add(PsiModificationTracker.MODIFICATION_COUNT);
+			dependencies.add(partialResultsTracker);
+		}
+		return CachedValueProvider.Result.create(result, dependencies);
+	}
+
+	/**
+	 * Drops every cached result of {@link #getCheckResult(SQFFile)} that ran out of time, so that the next request checks
+	 * the file again (e.g. after the time budget was changed).
+	 */
+	public void rerunPartialCheckResults() {
+		partialResultsTracker.incModificationCount();
+	}
+
 	public void checkSyntax(@NotNull SQFFile file, @NotNull ProblemsHolder problemsHolder) {
 		CommandDescriptorCluster cluster = getCommandDescriptors(file.getNode());
 
 		List<SQFStatement> statements = file.getFileScope().getChildStatements();
+		//types aren't memoized since this checker has no function or macro type providers (see computeCheckResult)
 		new SQFSyntaxChecker(statements, cluster, problemsHolder).begin();
 	}
 
 	public void checkSyntax(@NotNull SQFStatement statement, @NotNull ProblemsHolder holder,
 							@Nullable CommandDescriptorCluster cluster) {
-		cluster = cluster == null ? getCommandDescriptors(statement.getNode()) : cluster;
+		if (cluster == null) {
+			checkSyntax(statement, holder);
+			return;
+		}
 		new SQFSyntaxChecker(Collections.singletonList(statement), cluster, holder).begin();
 	}
 
 	public void checkSyntax(@NotNull SQFStatement statement, @NotNull ProblemsHolder holder) {
+		//types aren't memoized since this checker has no function or macro type providers (see computeCheckResult)
 		new SQFSyntaxChecker(Collections.singletonList(statement), getCommandDescriptors(statement.getNode()), holder).begin();
 	}
 
 
+	/**
+	 * Waits for the descriptor to be read, while checking if the current progress was canceled.
+	 * The read isn't stopped when canceled since other threads may need the descriptor.
+	 */
+	@Nullable
+	private static CommandDescriptor waitForDescriptor(@NotNull Future<CommandDescriptor> future)
+			throws InterruptedException, ExecutionException {
+		while (true) {
+			ProgressManager.checkCanceled();
+			try {
+				return future.get(10, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException ignore) {
+
+			}
+		}
+	}
+
 	/**
 	 * @return an array of all {@link CommandDescriptor} instances for every {@link SQFCommand} contained in the given {@link ASTNode}
 	 */
 	@NotNull
 	public CommandDescriptorCluster getCommandDescriptors(@NotNull ASTNode node) {
-		HashSet<String> commands = new HashSet<>();
-		{ //collect all commands needed to get syntax for
-			PsiUtil.traverseBreadthFirstSearch(node, astNode -> {
-				PsiElement psiElement = astNode.getPsi();
-				if (!(psiElement instanceof SQFCommand)) {
-					return false;
-				}
-				SQFCommand command = (SQFCommand) psiElement;
-				commands.add(command.getCommandName().toLowerCase());
-				//make sure we do commandname.toLowerCase() to guarantee name collisions
+		return getCommandDescriptors(getCommandNames(node));
+	}
 
-				return false;
-			});
+	/**
+	 * Same as {@link #getCommandDescriptors(ASTNode)}, but descriptors that aren't cached are read on the current thread
+	 * instead of the shared pool of threads. Use this on threads that must not wait for other threads (e.g. indexing).
+	 *
+	 * @return an array of all {@link CommandDescriptor} instances for every {@link SQFCommand} contained in the given {@link ASTNode}
+	 */
+	@NotNull
+	public CommandDescriptorCluster getCommandDescriptorsOnCurrentThread(@NotNull ASTNode node) {
+		Set<String> commands = getCommandNames(node);
+		List<CommandDescriptor> descriptors = new ArrayList<>(commands.size());
+		for (String command : commands) {
+			ProgressManager.checkCanceled();
+			CommandDescriptor d = getDescriptor(command);
+			if (d != null) {
+				descriptors.add(d);
+			}
 		}
+		return new CommandDescriptorCluster(descriptors.toArray(new CommandDescriptor[descriptors.size()]));
+	}
 
-		return getCommandDescriptors(commands);
+	/**
+	 * @return the lowercase name of every {@link SQFCommand} contained in the given {@link ASTNode}
+	 */
+	@NotNull
+	private static Set<String> getCommandNames(@NotNull ASTNode node) {
+		HashSet<String> commands = new HashSet<>();
+		PsiUtil.traverseBreadthFirstSearch(node, astNode -> {
+			PsiElement psiElement = astNode.getPsi();
+			if (!(psiElement instanceof SQFCommand)) {
+				return false;
+			}
+			SQFCommand command = (SQFCommand) psiElement;
+			commands.add(command.getCommandName().toLowerCase());
+			//make sure we do commandname.toLowerCase() to guarantee name collisions
+
+			return false;
+		});
+		return commands;
 	}
 
 	/**
-	 * @return an array of all {@link CommandDescriptor} instances for the given set of command names
+	 * Gets all {@link CommandDescriptor} instances for the given set of command names. Descriptors that are already
+	 * cached by the {@link CommandDescriptorPool} are retrieved immediately. If some need to be read from file,
+	 * the reading will be done on a shared, bounded pool of threads, unless only one needs reading
+	 * (in which case it is read on the current thread).
+	 *
+	 * @return a cluster of all {@link CommandDescriptor} instances for the given set of command names
+	 * @see #getDescriptorLoadCount()
 	 */
 	@NotNull
 	public CommandDescriptorCluster getCommandDescriptors(@NotNull Set<String> commands) {
-		CommandDescriptor[] descriptors;
-
 		if (commands.size() == 0) {
-			descriptors = new CommandDescriptor[0];
-			return new CommandDescriptorCluster(descriptors);
+			return new CommandDescriptorCluster(new CommandDescriptor[0]);
 		}
 
-		final String[] first = new String[commands.size() / 2];
-		final String[] second = new String[commands.size() - first.length];
-		{ //split the commands up
-			int i = 0;
-			int j = 0;
-			for (String command : commands) {
-				if (i >= first.length) {
-					second[j] = command;
-					j++;
-				} else {
-					first[i] = command;
-				}
-				i++;
+		List<CommandDescriptor> descriptors = new ArrayList<>(commands.size());
+		List<String> notCached = null;
+		for (String command : commands) {
+			CommandDescriptor d = pool.getIfCached(command);
+			if (d != null) {
+				descriptors.add(d);
+				continue;
+			}
+			if (pool.isResident(command)) {
+				//known to not have a descriptor
+				continue;
 			}
+			if (notCached == null) {
+				notCached = new ArrayList<>();
+			}
+			notCached.add(command);
 		}
 
-		{//get syntax's concurrently
-			List<CommandDescriptor> finished = Collections.synchronizedList(new ArrayList<>());
-
-			Thread t1 = new Thread(() -> {
-				for (String command : first) {
-					CommandDescriptor d = getDescriptor(command);
-					if (d != null) {
-						finished.add(d);
-					}
+		if (notCached != null) {
+			if (notCached.size() == 1) {
+				CommandDescriptor d = getDescriptor(notCached.get(0));
+				if (d != null) {
+					descriptors.add(d);
 				}
-			}, getClass().getName() + " - Worker Thread 1");
-
-			Thread t2 = new Thread(() -> {
-				for (String command : second) {
-					CommandDescriptor d = getDescriptor(command);
-					if (d != null) {
-						finished.add(d);
+			} else {
+				List<Future<CommandDescriptor>> futures = new ArrayList<>(notCached.size());
+				for (String command : notCached) {
+					futures.add(loaderExecutor.submit(() -> getDescriptor(command)));
+				}
+				for (Future<CommandDescriptor> future : futures) {
+					try {
+						CommandDescriptor d = waitForDescriptor(future);
+						if (d != null) {
+							descriptors.add(d);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					} catch (ExecutionException e) {
+						LOG.warn("Couldn't load a command descriptor", e.getCause());
 					}
 				}
-			}, getClass().getName() + " - Worker Thread 2");
-
-			t1.start();
-			t2.start();
-			try {
-				t1.join();
-			} catch (InterruptedException ignore) {
-
 			}
-			try {
-				t2.join();
-			} catch (InterruptedException ignore) {
+		}
 
-			}
+		return new CommandDescriptorCluster(descriptors.toArray(new CommandDescriptor[descriptors.size()]));
+	}
 
-			//convert them into an array to release some memory and
-			//because we no longer need a synchronized list
-			descriptors = new CommandDescriptor[finished.size()];
-			int i = 0;
-			for (CommandDescriptor d : finished) {
-				descriptors[i++] = d;
-			}
-		}
-		return new CommandDescriptorCluster(descriptors);
+	/**
+	 * @return how many times a command's syntax xml file needed to be read because it wasn't cached
+	 * @see CommandDescriptorPool#getLoadCount()
+	 */
+	public long getDescriptorLoadCount() {
+		return pool.getLoadCount();
 	}
 
 }
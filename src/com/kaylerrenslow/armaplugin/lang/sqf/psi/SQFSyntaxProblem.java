@@ -0,0 +1,117 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * All problems {@link SQFSyntaxChecker} can report. A problem is stored as one of these plus up to 3 arguments
+ * and the message is only created with {@link #format(Object, Object, Object)} when the problem is reported.
+ */
+enum SQFSyntaxProblem {
+	/**
+	 * Arguments: prefix type (null), command name, postfix type (null)
+	 */
+	NO_SYNTAX_LEFT_ABSENT {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return "No syntax for '" + arg1 + "' with left argument absent.";
+		}
+	},
+	/**
+	 * Arguments: prefix type, command name, postfix type (null)
+	 */
+	NO_SYNTAX_FOR_LEFT {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return "No syntax for '" + displayName(arg0) + " " + arg1 + "'";
+		}
+	},
+	/**
+	 * Arguments: prefix type (nullable), command name, postfix type
+	 */
+	NO_SYNTAX {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return "No syntax for '" + (arg0 == null ? "" : displayName(arg0) + " ") + arg1 + " " + displayName(arg2) + "'";
+		}
+	},
+	/**
+	 * No arguments
+	 */
+	EXPECTED_SEMICOLON {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return "Expected ;";
+		}
+	},
+	/**
+	 * Arguments: expected types (ValueType[]), got type
+	 */
+	NOT_OF_TYPES {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return "Type(s) " + getExpectedArrayAsString((ValueType[]) arg0) + " expected. Got " + displayName(arg1) + ".";
+		}
+	},
+	/**
+	 * Arguments: expected types (ValueType[]), got type
+	 */
+	EXPECTED_TYPES {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return getExpectedArrayAsString((ValueType[]) arg0) + " expected. Got " + displayName(arg1) + ".";
+		}
+	},
+	/**
+	 * Arguments: expected type, got type
+	 */
+	EXPECTED_TYPE {
+		@NotNull
+		@Override
+		public String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+			return "Type " + displayName(arg0) + " expected. Got " + displayName(arg1) + ".";
+		}
+	};
+
+	/**
+	 * @return the message of the problem with the given arguments
+	 */
+	@NotNull
+	public abstract String format(@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2);
+
+	@NotNull
+	public ProblemHighlightType getHighlightType() {
+		return ProblemHighlightType.GENERIC_ERROR_OR_WARNING;
+	}
+
+	@NotNull
+	private static String displayName(@Nullable Object type) {
+		return type instanceof ValueType ? ((ValueType) type).getDisplayName() : String.valueOf(type);
+	}
+
+	@NotNull
+	private static String getExpectedArrayAsString(@NotNull ValueType[] expected) {
+		StringBuilder expectedTypes = new StringBuilder();
+		int i = 0;
+		for (ValueType t : expected) {
+			expectedTypes.append(t.getDisplayName());
+			if (i < expected.length - 1) {
+				if (i == expected.length - 2) {
+					expectedTypes.append(", or ");
+				} else {
+					expectedTypes.append(", ");
+				}
+			}
+			i++;
+		}
+		return expectedTypes.toString();
+	}
+}
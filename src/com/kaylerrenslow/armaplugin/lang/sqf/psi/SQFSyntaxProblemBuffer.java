@@ -0,0 +1,77 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of problems that haven't been reported yet. Each problem is stored as its element,
+ * {@link SQFSyntaxProblem}, and arguments, so no message is created unless the problem is reported.
+ * <p>
+ * The buffer is used like a stack: everything after a size can be dropped with {@link #truncate(int)},
+ * so one buffer can be reused for an entire check.
+ */
+class SQFSyntaxProblemBuffer {
+	private PsiElement[] elements = new PsiElement[8];
+	private SQFSyntaxProblem[] problems = new SQFSyntaxProblem[8];
+	/**
+	 * 3 arguments per problem
+	 */
+	private Object[] args = new Object[8 * 3];
+	private int size = 0;
+
+	public int size() {
+		return size;
+	}
+
+	public void add(@NotNull PsiElement element, @NotNull SQFSyntaxProblem problem,
+					@Nullable Object arg0, @Nullable Object arg1, @Nullable Object arg2) {
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+			problems = Arrays.copyOf(problems, size * 2);
+			args = Arrays.copyOf(args, size * 2 * 3);
+		}
+		elements[size] = element;
+		problems[size] = problem;
+		args[size * 3] = arg0;
+		args[size * 3 + 1] = arg1;
+		args[size * 3 + 2] = arg2;
+		size++;
+	}
+
+	/**
+	 * Removes all problems at index newSize and after.
+	 */
+	public void truncate(int newSize) {
+		if (newSize >= size) {
+			return;
+		}
+		Arrays.fill(elements, newSize, size, null);
+		Arrays.fill(args, newSize * 3, size * 3, null);
+		size = newSize;
+	}
+
+	@NotNull
+	public PsiElement getElement(int index) {
+		return elements[checkIndex(index)];
+	}
+
+	@NotNull
+	public SQFSyntaxProblem getProblem(int index) {
+		return problems[checkIndex(index)];
+	}
+
+	@Nullable
+	public Object getArg(int index, int argIndex) {
+		return args[checkIndex(index) * 3 + argIndex];
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+		}
+		return index;
+	}
+}
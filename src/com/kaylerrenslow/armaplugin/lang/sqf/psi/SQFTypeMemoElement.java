@@ -0,0 +1,135 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A PSI element that can remember the {@link ValueType} {@link SQFSyntaxChecker} inferred for it. The memo is dropped
+ * whenever anything inside the element changes ({@link #subtreeChanged()} is invoked on every ancestor of a changed element),
+ * so editing one statement only requires the changed statement and its ancestors to be checked again.
+ */
+public abstract class SQFTypeMemoElement extends ASTWrapperPsiElement {
+	@Nullable
+	private volatile TypeMemo typeMemo;
+
+	public SQFTypeMemoElement(@NotNull ASTNode node) {
+		super(node);
+	}
+
+	/**
+	 * @return the memo, or null if the type hasn't been inferred since the last change
+	 */
+	@Nullable
+	TypeMemo getTypeMemo() {
+		return typeMemo;
+	}
+
+	void setTypeMemo(@Nullable TypeMemo typeMemo) {
+		this.typeMemo = typeMemo;
+	}
+
+	@Override
+	public void subtreeChanged() {
+		super.subtreeChanged();
+		typeMemo = null;
+	}
+
+	/**
+	 * An inferred type, all problems that were reported while inferring it, and the types of all nested statements
+	 * (descendants included).
+	 */
+	static class TypeMemo {
+		@NotNull
+		private final ValueType type;
+		@NotNull
+		private final List<MemoProblem> problems;
+		@NotNull
+		private final Map<SQFStatement, ValueType> statementTypes;
+		private final long fingerprint;
+
+		/**
+		 * @param fingerprint the checker's fingerprint when the type was computed (see {@link SQFSyntaxChecker#setMemoFingerprint(long)})
+		 */
+		TypeMemo(@NotNull ValueType type, @NotNull List<MemoProblem> problems, @NotNull Map<SQFStatement, ValueType> statementTypes,
+				 long fingerprint) {
+			this.type = type;
+			this.problems = problems.isEmpty() ? Collections.emptyList() : problems;
+			this.statementTypes = statementTypes.isEmpty() ? Collections.emptyMap() : statementTypes;
+			this.fingerprint = fingerprint;
+		}
+
+		@NotNull
+		public ValueType getType() {
+			return type;
+		}
+
+		@NotNull
+		public List<MemoProblem> getProblems() {
+			return problems;
+		}
+
+		@NotNull
+		public Map<SQFStatement, ValueType> getStatementTypes() {
+			return statementTypes;
+		}
+
+		public long getFingerprint() {
+			return fingerprint;
+		}
+	}
+
+	static class MemoProblem {
+		@NotNull
+		private final PsiElement element;
+		@NotNull
+		private final String message;
+		@NotNull
+		private final ProblemHighlightType highlightType;
+		@Nullable
+		private final TextRange rangeInElement;
+
+		/**
+		 * @param rangeInElement range of the problem in the element, or null for the whole element
+		 */
+		MemoProblem(@NotNull PsiElement element, @NotNull String message, @NotNull ProblemHighlightType highlightType,
+					@Nullable TextRange rangeInElement) {
+			this.element = element;
+			this.message = message;
+			this.highlightType = highlightType;
+			this.rangeInElement = rangeInElement;
+		}
+
+		@NotNull
+		public PsiElement getElement() {
+			return element;
+		}
+
+		@NotNull
+		public String getMessage() {
+			return message;
+		}
+
+		@NotNull
+		public ProblemHighlightType getHighlightType() {
+			return highlightType;
+		}
+
+		/**
+		 * @return range of the problem in {@link #getElement()}, or null for the whole element
+		 */
+		@Nullable
+		public TextRange getRangeInElement() {
+			return rangeInElement;
+		}
+	}
+}
@@ -1,14 +1,14 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
 import com.intellij.lang.ASTNode;
 import com.intellij.navigation.ItemPresentation;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiNameIdentifierOwner;
 import com.intellij.psi.PsiReference;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
-import com.kaylerrenslow.armaDialogCreator.util.Reference;
 import com.kaylerrenslow.armaplugin.lang.PsiUtil;
 import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
 import com.kaylerrenslow.armaplugin.lang.sqf.SQFStatic;
@@ -16,21 +16,27 @@ import com.kaylerrenslow.armaplugin.lang.sqf.SQFVariableName;
 import com.kaylerrenslow.armaplugin.lang.sqf.presentation.SQFFunctionItemPresentation;
 import com.kaylerrenslow.armaplugin.lang.sqf.presentation.SQFVariableItemPresentation;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.reference.SQFVariableReference;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.stub.SQFVariableStub;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Assigned global variables have a stub ({@link SQFVariableStub}).
+ *
  * @author Kayler
  * @since 05/23/2017
  */
-public class SQFVariable extends ASTWrapperPsiElement implements PsiNameIdentifierOwner {
+public class SQFVariable extends StubBasedPsiElementBase<SQFVariableStub> implements PsiNameIdentifierOwner {
 	public SQFVariable(@NotNull ASTNode node) {
 		super(node);
 	}
 
+	public SQFVariable(@NotNull SQFVariableStub stub, @NotNull IStubElementType nodeType) {
+		super(stub, nodeType);
+	}
+
 	@NotNull
 	public SQFVariableName getVarNameObj() {
 		return new SQFVariableName(getVarName());
@@ -38,6 +44,10 @@ public class SQFVariable extends ASTWrapperPsiElement implements PsiNameIdentifi
 
 	@NotNull
 	public String getVarName() {
+		SQFVariableStub stub = getStub();
+		if (stub != null) {
+			return stub.getName();
+		}
 		return getText();
 	}
 
@@ -48,20 +58,11 @@ public class SQFVariable extends ASTWrapperPsiElement implements PsiNameIdentifi
 		if (sqfFile == null) {
 			return PsiReference.EMPTY_ARRAY;
 		}
-		List<SQFVariable> vars = new ArrayList<>();
-		PsiUtil.traverseBreadthFirstSearch(sqfFile.getNode(), astNode -> {
-			PsiElement nodeAsElement = astNode.getPsi();
-			if (nodeAsElement instanceof SQFVariable) {
-				SQFVariable var = (SQFVariable) nodeAsElement;
-				if (var.isLocal()) {
-					return false;
-				}
-				if (SQFVariableName.nameEquals(var.getVarName(), getVarName())) {
-					vars.add(var);
-				}
-			}
-			return false;
-		});
+		if (isLocal()) {
+			List<SQFVariableReference> refs = SQFScope.getVariableReferencesFor(this);
+			return refs.toArray(new PsiReference[refs.size()]);
+		}
+		List<SQFVariable> vars = SQFSymbolTable.getInstance(sqfFile).getVariables(getVarName());
 		if (vars.isEmpty()) {
 			return PsiReference.EMPTY_ARRAY;
 		}
@@ -93,17 +94,8 @@ public class SQFVariable extends ASTWrapperPsiElement implements PsiNameIdentifi
 
 	@Override
 	public PsiElement setName(@NotNull String name) throws IncorrectOperationException {
-		PsiFile file = PsiUtil.createFile(getProject(), name, SQFFileType.INSTANCE);
-		Reference<SQFVariable> var = new Reference<>();
-		PsiUtil.traverseBreadthFirstSearch(file.getNode(), astNode -> {
-			PsiElement nodeAsPsi = astNode.getPsi();
-			if (nodeAsPsi instanceof SQFVariable) {
-				var.setValue((SQFVariable) nodeAsPsi);
-				return true;
-			}
-			return false;
-		});
-		SQFVariable newVar = var.getValue();
+		SQFFile file = PsiUtil.createFile(getProject(), name, SQFFileType.INSTANCE);
+		SQFVariable newVar = PsiTreeUtil.findChildOfType(file, SQFVariable.class);
 		if (newVar == null) {
 			return null;
 		}
@@ -0,0 +1,78 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.inspections;
+
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElementVisitor;
+import com.kaylerrenslow.armaplugin.ArmaPluginUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFStatic;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.*;
+import com.kaylerrenslow.armaplugin.stringtable.StringTableKeyIndex;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Inspection for finding localize "STR_key" where the key isn't in the module's stringtable.xml. The keys are looked up
+ * with {@link StringTableKeyIndex}.
+ */
+public class SQFLocalizeKeyInspection extends LocalInspectionTool {
+
+	@NotNull
+	@Override
+	public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+		if (DumbService.isDumb(holder.getProject())) {
+			return PsiElementVisitor.EMPTY_VISITOR;
+		}
+		Module module = ModuleUtil.findModuleForPsiElement(holder.getFile());
+		VirtualFile stringTable = module == null ? null : ArmaPluginUtil.getStringTableXmlFile(module);
+		if (stringTable == null) {
+			return PsiElementVisitor.EMPTY_VISITOR;
+		}
+		return new SQFPsiVisitor() {
+			@Override
+			public void visitCommandExpression(@NotNull SQFPsiCommandExpression o) {
+				super.visitCommandExpression(o);
+				if (!(o instanceof SQFCommandExpression)) {
+					return;
+				}
+				List<SQFCommandArgument> args = ((SQFCommandExpression) o).captureArguments("localize $");
+				if (args == null) {
+					return;
+				}
+				SQFExpression keyExpr = args.get(0).getExpr().withoutParenthesis();
+				if (!(keyExpr instanceof SQFLiteralExpression) || ((SQFLiteralExpression) keyExpr).getStr() == null) {
+					return;
+				}
+				SQFString key = ((SQFLiteralExpression) keyExpr).getStr();
+				if (StringTableKeyIndex.findKey(key.getNonQuoteText(), stringTable, holder.getProject()) != null) {
+					return;
+				}
+				holder.registerProblem(key,
+						String.format(SQFStatic.getSQFBundle().getString("Inspections.LocalizeKey.problem-description_f"), key.getNonQuoteText()),
+						ProblemHighlightType.GENERIC_ERROR_OR_WARNING,
+						key.getNonQuoteRangeRelativeToElement()
+				);
+			}
+		};
+	}
+
+	@Nls
+	@NotNull
+	@Override
+	public String getDisplayName() {
+		return SQFStatic.getSQFBundle().getString("Inspections.LocalizeKey.display-name");
+	}
+
+	@Nullable
+	@Override
+	public String getStaticDescription() {
+		return "<html><body>Checks that the keys given to localize are defined in the stringtable.xml file.</body></html>";
+	}
+}
@@ -3,10 +3,10 @@ package com.kaylerrenslow.armaplugin.lang.sqf.psi.inspections;
 import com.intellij.codeInspection.LocalInspectionTool;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
 import com.kaylerrenslow.armaplugin.lang.sqf.SQFStatic;
-import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFPsiStatement;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFPsiVisitor;
-import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFStatement;
 import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFSyntaxHelper;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
@@ -23,12 +23,13 @@ public class SQFSyntaxAndTypeCheckingInspection extends LocalInspectionTool {
 	public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
 		return new SQFPsiVisitor() {
 			@Override
-			public void visitStatement(@NotNull SQFPsiStatement o) {
-				super.visitStatement(o);
-				if (!(o instanceof SQFStatement)) {
+			public void visitFile(PsiFile file) {
+				super.visitFile(file);
+				if (!(file instanceof SQFFile)) {
 					return;
 				}
-				SQFSyntaxHelper.getInstance().checkSyntax((SQFStatement) o, holder);
+				//the whole file is checked at once and the result is cached until the file changes
+				SQFSyntaxHelper.getInstance().getCheckResult((SQFFile) file).replayProblems(holder);
 			}
 		};
 	}
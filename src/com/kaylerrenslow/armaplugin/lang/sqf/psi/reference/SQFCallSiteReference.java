@@ -0,0 +1,83 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.reference;
+
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.util.IncorrectOperationException;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFCallSiteIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reference from the target of a call, spawn or execVM (see {@link SQFCallSiteIndex}) to the SQF file that is called.
+ * These references are only created when finding usages of a function file.
+ */
+public class SQFCallSiteReference implements PsiReference {
+	@NotNull
+	private final PsiElement callTarget;
+	@NotNull
+	private final PsiFile calledFile;
+
+	/**
+	 * @param callTarget the called {@link com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable} or script path {@link SQFString}
+	 * @param calledFile the file that is called
+	 */
+	public SQFCallSiteReference(@NotNull PsiElement callTarget, @NotNull PsiFile calledFile) {
+		this.callTarget = callTarget;
+		this.calledFile = calledFile;
+	}
+
+	@Override
+	public PsiElement getElement() {
+		return callTarget;
+	}
+
+	@Override
+	public TextRange getRangeInElement() {
+		if (callTarget instanceof SQFString) {
+			return ((SQFString) callTarget).getNonQuoteRangeRelativeToElement();
+		}
+		return TextRange.from(0, callTarget.getTextLength());
+	}
+
+	@Nullable
+	@Override
+	public PsiElement resolve() {
+		return calledFile;
+	}
+
+	@NotNull
+	@Override
+	public String getCanonicalText() {
+		return calledFile.getName();
+	}
+
+	@Override
+	public PsiElement handleElementRename(String newElementName) throws IncorrectOperationException {
+		//renaming the file doesn't rename the function
+		return callTarget;
+	}
+
+	@Override
+	public PsiElement bindToElement(@NotNull PsiElement element) throws IncorrectOperationException {
+		return null;
+	}
+
+	@Override
+	public boolean isReferenceTo(PsiElement element) {
+		return element == calledFile;
+	}
+
+	@NotNull
+	@Override
+	public Object[] getVariants() {
+		return new Object[0];
+	}
+
+	@Override
+	public boolean isSoft() {
+		return true;
+	}
+}
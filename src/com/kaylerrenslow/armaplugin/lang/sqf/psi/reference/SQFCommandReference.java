@@ -1,5 +1,6 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.psi.reference;
 
+import com.intellij.openapi.util.NotNullLazyValue;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementResolveResult;
@@ -13,6 +14,9 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 
 /**
+ * Reference from a command to all instances of the same command. The instances can be given right away or found
+ * when the reference is first resolved.
+ *
  * @author Kayler
  * @since 09/14/2017
  */
@@ -20,21 +24,25 @@ public class SQFCommandReference implements PsiPolyVariantReference {
 	@NotNull
 	private final SQFCommand command;
 	@NotNull
-	private final List<SQFCommand> targets;
-	@NotNull
-	private final ResolveResult[] resolveResults;
+	private final NotNullLazyValue<List<SQFCommand>> targets;
 
 	public SQFCommandReference(@NotNull SQFCommand command, @NotNull List<SQFCommand> targets) {
+		this(command, NotNullLazyValue.createConstantValue(targets));
+	}
+
+	/**
+	 * @param command command
+	 * @param targets instances of the command, which are computed when the reference is resolved
+	 */
+	public SQFCommandReference(@NotNull SQFCommand command, @NotNull NotNullLazyValue<List<SQFCommand>> targets) {
 		this.command = command;
 		this.targets = targets;
-
-		resolveResults = PsiElementResolveResult.createResults(targets);
 	}
 
 	@NotNull
 	@Override
 	public ResolveResult[] multiResolve(boolean incompleteCode) {
-		return resolveResults;
+		return PsiElementResolveResult.createResults(targets.getValue());
 	}
 
 	@Override
@@ -50,7 +58,8 @@ public class SQFCommandReference implements PsiPolyVariantReference {
 	@Nullable
 	@Override
 	public PsiElement resolve() {
-		return targets.get(0);
+		List<SQFCommand> targets = this.targets.getValue();
+		return targets.isEmpty() ? null : targets.get(0);
 	}
 
 	@NotNull
@@ -74,9 +83,7 @@ public class SQFCommandReference implements PsiPolyVariantReference {
 		if (element == command) {
 			return true;
 		}
-		if (targets.contains(element)) {
-			return true;
-		}
+		//all instances of the command have the same name, so the targets don't need to be computed
 		if (element instanceof SQFCommand) {
 			SQFCommand other = (SQFCommand) element;
 			return this.command.commandNameEquals(other.getCommandName());
@@ -0,0 +1,112 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.reference;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.util.NotNullLazyValue;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.*;
+import com.intellij.util.IncorrectOperationException;
+import com.kaylerrenslow.armaplugin.lang.PsiUtil;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFVariableName;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFNamespaceKeyIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reference from the key of a setVariable or getVariable to all keys with the same name in the current module
+ * (see {@link SQFNamespaceKeyIndex}). The keys are found when the reference is first resolved.
+ */
+public class SQFNamespaceKeyReference implements PsiPolyVariantReference {
+	@NotNull
+	private final SQFString key;
+	@NotNull
+	private final NotNullLazyValue<List<SQFString>> targets;
+
+	public SQFNamespaceKeyReference(@NotNull SQFString key) {
+		this.key = key;
+		this.targets = new NotNullLazyValue<List<SQFString>>() {
+			@NotNull
+			@Override
+			protected List<SQFString> compute() {
+				Module module = ModuleUtil.findModuleForPsiElement(key);
+				if (module == null) {
+					return Collections.singletonList(key);
+				}
+				return SQFNamespaceKeyIndex.findKeys(key.getNonQuoteText(), key.getProject(), module.getModuleContentScope());
+			}
+		};
+	}
+
+	@NotNull
+	@Override
+	public ResolveResult[] multiResolve(boolean incompleteCode) {
+		return PsiElementResolveResult.createResults(targets.getValue());
+	}
+
+	@Override
+	public PsiElement getElement() {
+		return key;
+	}
+
+	@Override
+	public TextRange getRangeInElement() {
+		return key.getNonQuoteRangeRelativeToElement();
+	}
+
+	@Nullable
+	@Override
+	public PsiElement resolve() {
+		List<SQFString> targets = this.targets.getValue();
+		return targets.isEmpty() ? null : targets.get(0);
+	}
+
+	@NotNull
+	@Override
+	public String getCanonicalText() {
+		return key.getNonQuoteText();
+	}
+
+	@Override
+	public PsiElement handleElementRename(String newElementName) throws IncorrectOperationException {
+		SQFString newKey = PsiUtil.createElement(key.getProject(), "\"" + newElementName + "\"", SQFFileType.INSTANCE, SQFString.class);
+		if (newKey == null) {
+			return null;
+		}
+		return key.replace(newKey);
+	}
+
+	@Override
+	public PsiElement bindToElement(@NotNull PsiElement element) throws IncorrectOperationException {
+		return null;
+	}
+
+	@Override
+	public boolean isReferenceTo(PsiElement element) {
+		if (element == key) {
+			return true;
+		}
+		//keys with the same name are the same variable, so the targets don't need to be computed
+		if (element instanceof SQFString) {
+			SQFString other = (SQFString) element;
+			return SQFVariableName.nameEquals(key.getNonQuoteText(), other.getNonQuoteText())
+					&& SQFNamespaceKeyIndex.isKey(other);
+		}
+		return false;
+	}
+
+	@NotNull
+	@Override
+	public Object[] getVariants() {
+		return new Object[0];
+	}
+
+	@Override
+	public boolean isSoft() {
+		return true;
+	}
+}
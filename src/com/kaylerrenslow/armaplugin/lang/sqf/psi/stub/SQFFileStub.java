@@ -0,0 +1,21 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.stub;
+
+import com.intellij.psi.stubs.PsiFileStubImpl;
+import com.intellij.psi.tree.IStubFileElementType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Root of the stub tree of a {@link SQFFile}
+ */
+public class SQFFileStub extends PsiFileStubImpl<SQFFile> {
+	public SQFFileStub(SQFFile file) {
+		super(file);
+	}
+
+	@NotNull
+	@Override
+	public IStubFileElementType getType() {
+		return SQFFileStubElementType.INSTANCE;
+	}
+}
@@ -0,0 +1,64 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.stub;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.StubBuilder;
+import com.intellij.psi.stubs.DefaultStubBuilder;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubInputStream;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.intellij.psi.tree.IStubFileElementType;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFLanguage;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * File element type of SQF files. SQF files have a stub tree that only has the elements that are needed for
+ * cross file lookups (see {@link SQFVariableStubElementType}).
+ */
+public class SQFFileStubElementType extends IStubFileElementType<SQFFileStub> {
+	public static final SQFFileStubElementType INSTANCE = new SQFFileStubElementType();
+
+	/**
+	 * Increment this when a stub element type is added or its serialized format (or when it is created) changes
+	 */
+	private static final int STUB_VERSION = 2;
+
+	private SQFFileStubElementType() {
+		super("SQF_FILE", SQFLanguage.INSTANCE);
+	}
+
+	@Override
+	public StubBuilder getBuilder() {
+		return new DefaultStubBuilder() {
+			@NotNull
+			@Override
+			protected StubElement createStubForFile(@NotNull PsiFile file) {
+				if (file instanceof SQFFile) {
+					return new SQFFileStub((SQFFile) file);
+				}
+				return super.createStubForFile(file);
+			}
+		};
+	}
+
+	@Override
+	public int getStubVersion() {
+		return STUB_VERSION;
+	}
+
+	@NotNull
+	@Override
+	public String getExternalId() {
+		return "sqf.FILE";
+	}
+
+	@Override
+	public void serialize(@NotNull SQFFileStub stub, @NotNull StubOutputStream dataStream) {
+	}
+
+	@NotNull
+	@Override
+	public SQFFileStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) {
+		return new SQFFileStub(null);
+	}
+}
@@ -0,0 +1,26 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.stub;
+
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubBase;
+import com.intellij.psi.stubs.StubElement;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stub of a {@link SQFVariable} that is an assigned global variable (e.g. myVar = 1 or tag_fnc_function = {}).
+ * Other variables don't have stubs (see {@link SQFVariableStubElementType#shouldCreateStub(com.intellij.lang.ASTNode)}).
+ */
+public class SQFVariableStub extends StubBase<SQFVariable> {
+	@NotNull
+	private final String name;
+
+	public SQFVariableStub(StubElement parent, @NotNull IStubElementType elementType, @NotNull String name) {
+		super(parent, elementType);
+		this.name = name;
+	}
+
+	@NotNull
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,83 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.stub;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.*;
+import com.intellij.psi.tree.IElementType;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFLanguage;
+import com.kaylerrenslow.armaplugin.lang.sqf.index.SQFGlobalVariableIndex;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFTypes;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.impl.SQFPsiVariableImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Element type of {@link SQFVariable}. Only assigned global variables get a stub, so the stub tree stays small.
+ */
+public class SQFVariableStubElementType extends IStubElementType<SQFVariableStub, SQFVariable> {
+	public SQFVariableStubElementType(@NotNull String debugName) {
+		super(debugName, SQFLanguage.INSTANCE);
+	}
+
+	/**
+	 * Used by SQF.bnf (elementTypeFactory) to create {@link SQFTypes#VARIABLE}
+	 */
+	@NotNull
+	public static IElementType getElementType(@NotNull String debugName) {
+		return new SQFVariableStubElementType(debugName);
+	}
+
+	@Override
+	public SQFVariable createPsi(@NotNull SQFVariableStub stub) {
+		return new SQFPsiVariableImpl(stub, this);
+	}
+
+	@NotNull
+	@Override
+	public SQFVariableStub createStub(@NotNull SQFVariable psi, StubElement parentStub) {
+		return new SQFVariableStub(parentStub, this, psi.getVarName());
+	}
+
+	@Override
+	public boolean shouldCreateStub(ASTNode node) {
+		return isGlobalAssignment(node);
+	}
+
+	@NotNull
+	@Override
+	public String getExternalId() {
+		return "sqf." + toString();
+	}
+
+	@Override
+	public void serialize(@NotNull SQFVariableStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+		dataStream.writeName(stub.getName());
+	}
+
+	@NotNull
+	@Override
+	public SQFVariableStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+		String name = dataStream.readNameString();
+		return new SQFVariableStub(parentStub, this, name == null ? "" : name);
+	}
+
+	@Override
+	public void indexStub(@NotNull SQFVariableStub stub, @NotNull IndexSink sink) {
+		sink.occurrence(SQFGlobalVariableIndex.KEY, stub.getName().toLowerCase());
+	}
+
+	/**
+	 * @param variableNode node of a {@link SQFTypes#VARIABLE}
+	 * @return true if the variable is a global variable that is assigned (e.g. myVar = 1)
+	 */
+	static boolean isGlobalAssignment(@NotNull ASTNode variableNode) {
+		String name = variableNode.getText();
+		if (name.isEmpty() || name.charAt(0) == '_') {
+			return false;
+		}
+		ASTNode parent = variableNode.getTreeParent();
+		return parent != null && parent.getElementType() == SQFTypes.ASSIGNMENT_STATEMENT
+				&& parent.findChildByType(SQFTypes.PRIVATE_COMMAND) == null;
+	}
+}
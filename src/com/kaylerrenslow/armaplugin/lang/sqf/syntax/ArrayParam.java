@@ -1,7 +1,9 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,21 +12,25 @@ import java.util.List;
  */
 public class ArrayParam extends Param implements ArrayValueHolder {
 
-	private boolean unboundedParams;
-	private List<Param> params;
+	private final boolean unboundedParams;
+	private final List<Param> params;
 
 	public ArrayParam(boolean unboundedParams, @NotNull List<Param> params) {
 		this(unboundedParams, params, false);
 	}
 
 	public ArrayParam(boolean unboundedParams, @NotNull List<Param> params, boolean optional) {
-		this(unboundedParams, params, optional, "");
+		this(unboundedParams, params, optional, null, -1);
 	}
 
-	public ArrayParam(boolean unboundedParams, @NotNull List<Param> params, boolean optional, @NotNull String description) {
-		super("ARRAY", ValueType.BaseType.ARRAY, description, optional);
+	/**
+	 * @see Param#Param(String, ValueType, boolean, List, String, int)
+	 */
+	ArrayParam(boolean unboundedParams, @NotNull List<Param> params, boolean optional,
+			   @Nullable String descriptionCommandName, int descriptionIndex) {
+		super("ARRAY", ValueType.BaseType.ARRAY, optional, Collections.emptyList(), descriptionCommandName, descriptionIndex);
 		this.unboundedParams = unboundedParams;
-		this.params = params;
+		this.params = Collections.unmodifiableList(params);
 	}
 
 	public boolean hasUnboundedParams() {
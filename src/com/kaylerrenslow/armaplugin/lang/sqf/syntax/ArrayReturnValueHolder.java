@@ -1,7 +1,9 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -9,12 +11,20 @@ import java.util.List;
  * @since 02/24/2017
  */
 public class ArrayReturnValueHolder extends ReturnValueHolder implements ArrayValueHolder {
-	private List<ReturnValueHolder> values;
-	private boolean unbounded;
+	private final List<ReturnValueHolder> values;
+	private final boolean unbounded;
 
-	public ArrayReturnValueHolder(@NotNull String description, @NotNull List<ReturnValueHolder> values, boolean unbounded) {
-		super(ValueType.BaseType.ARRAY, description);
-		this.values = values;
+	public ArrayReturnValueHolder(@NotNull List<ReturnValueHolder> values, boolean unbounded) {
+		this(values, unbounded, null, -1);
+	}
+
+	/**
+	 * @see ReturnValueHolder#ReturnValueHolder(ValueType, List, String, int)
+	 */
+	ArrayReturnValueHolder(@NotNull List<ReturnValueHolder> values, boolean unbounded,
+						   @Nullable String descriptionCommandName, int descriptionIndex) {
+		super(ValueType.BaseType.ARRAY, Collections.emptyList(), descriptionCommandName, descriptionIndex);
+		this.values = Collections.unmodifiableList(values);
 		this.unbounded = unbounded;
 	}
 
@@ -35,7 +35,7 @@ public interface ArrayValueHolder extends ValueHolder {
 	boolean hasUnboundedParams();
 
 	/**
-	 * @return a mutable list of {@link ValueHolder} instances that are in this array
+	 * @return an unmodifiable list of {@link ValueHolder} instances that are in this array
 	 */
 	@NotNull
 	List<? extends ValueHolder> getValueHolders();
@@ -1,31 +1,50 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
+ * A value holder doesn't store its description. Instead, it only knows which command it belongs to and
+ * an index for the description. The description is loaded on demand from {@link CommandDescriptionStore}.
+ *
  * @author Kayler
  * @since 06/11/2016
  */
 public class BasicValueHolder implements ValueHolder {
 
-	private boolean optional;
+	private final boolean optional;
 
 	private final ValueType type;
-	private final String description;
 	private final List<String> literals;
+	@Nullable
+	private final String descriptionCommandName;
+	private final int descriptionIndex;
 
-	public BasicValueHolder(@NotNull ValueType type, @NotNull String description, boolean optional) {
-		this(type, description, optional, new ArrayList<>());
+	public BasicValueHolder(@NotNull ValueType type, boolean optional) {
+		this(type, optional, Collections.emptyList());
 	}
 
-	public BasicValueHolder(@NotNull ValueType type, @NotNull String description, boolean optional, @NotNull List<String> literals) {
+	public BasicValueHolder(@NotNull ValueType type, boolean optional, @NotNull List<String> literals) {
+		this(type, optional, literals, null, -1);
+	}
+
+	/**
+	 * @param type                   the type of the value
+	 * @param optional               true if the value is optional, false otherwise
+	 * @param literals               literals for the value (should not be mutated after given to this constructor)
+	 * @param descriptionCommandName the name of the command that this value belongs to, or null if no description exists
+	 * @param descriptionIndex       index used for {@link CommandDescriptionStore#getDescription(String, int)}
+	 */
+	BasicValueHolder(@NotNull ValueType type, boolean optional, @NotNull List<String> literals,
+					 @Nullable String descriptionCommandName, int descriptionIndex) {
 		this.type = new PolymorphicWrapperValueType(type);
-		this.description = description.trim();
 		this.optional = optional;
-		this.literals = literals;
+		this.literals = literals.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(literals);
+		this.descriptionCommandName = descriptionCommandName;
+		this.descriptionIndex = descriptionIndex;
 	}
 
 	@Override
@@ -34,10 +53,19 @@ public class BasicValueHolder implements ValueHolder {
 		return type;
 	}
 
+	/**
+	 * The description isn't stored with this value holder. The first invocation for a command may require the command's
+	 * syntax xml to be read again.
+	 *
+	 * @return the description, or an empty string if there is none
+	 */
 	@Override
 	@NotNull
 	public String getDescription() {
-		return description;
+		if (descriptionCommandName == null) {
+			return "";
+		}
+		return CommandDescriptionStore.getInstance().getDescription(descriptionCommandName, descriptionIndex);
 	}
 
 	@Override
@@ -45,6 +73,9 @@ public class BasicValueHolder implements ValueHolder {
 		return optional;
 	}
 
+	/**
+	 * @return an unmodifiable list of literals
+	 */
 	@NotNull
 	public List<String> getLiterals() {
 		return literals;
@@ -0,0 +1,169 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Lazily loads and caches descriptions for parameters and return values of commands. Descriptions are only needed for
+ * documentation, so they aren't stored inside {@link CommandDescriptor} instances and are instead retrieved with a
+ * command name and description index (see {@link SQFCommandSyntaxXMLLoader#importDescriptionsFromStream(CommandXMLInputStream)}).
+ * <p>
+ * All descriptions for a command are stored as one compressed block and only the most recently used commands are kept.
+ * This class is thread safe.
+ */
+public class CommandDescriptionStore {
+	private static final Logger LOG = Logger.getInstance(CommandDescriptionStore.class);
+	private static final CommandDescriptionStore instance = new CommandDescriptionStore(64);
+
+	@NotNull
+	public static CommandDescriptionStore getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Separates descriptions in a compressed block. Descriptions come from xml, which can't contain this char.
+	 */
+	private static final char SEPARATOR = '\0';
+	private static final byte[] NO_DESCRIPTIONS = new byte[0];
+
+	private final Map<String, byte[]> cache;
+
+	/**
+	 * @param maxCommands max number of commands to keep descriptions of at once
+	 */
+	CommandDescriptionStore(int maxCommands) {
+		cache = new LinkedHashMap<String, byte[]>(maxCommands, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+				return size() > maxCommands;
+			}
+		};
+	}
+
+	/**
+	 * Gets a description. If the command's descriptions aren't cached, the command's syntax xml will be read.
+	 *
+	 * @param commandName      name of the command (case doesn't matter). For operators, prefix with operators/
+	 * @param descriptionIndex index of the description
+	 * @return the description, or an empty string if it doesn't exist or couldn't be loaded
+	 */
+	@NotNull
+	public String getDescription(@NotNull String commandName, int descriptionIndex) {
+		if (descriptionIndex < 0) {
+			return "";
+		}
+		commandName = commandName.toLowerCase();
+		byte[] compressed;
+		synchronized (cache) {
+			compressed = cache.get(commandName);
+		}
+		if (compressed == null) {
+			compressed = load(commandName);
+			synchronized (cache) {
+				cache.put(commandName, compressed);
+			}
+		}
+		if (compressed.length == 0) {
+			return "";
+		}
+		String all = decompress(compressed);
+		if (all == null) {
+			return "";
+		}
+		int start = 0;
+		for (int i = 0; i < descriptionIndex; i++) {
+			start = all.indexOf(SEPARATOR, start);
+			if (start < 0) {
+				return "";
+			}
+			start++;
+		}
+		int end = all.indexOf(SEPARATOR, start);
+		return all.substring(start, end < 0 ? all.length() : end);
+	}
+
+	/**
+	 * Removes all cached descriptions.
+	 */
+	public void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	@NotNull
+	private static byte[] load(@NotNull String commandName) {
+		List<String> descriptions;
+		try {
+			descriptions = SQFCommandSyntaxXMLLoader.importDescriptionsFromStream(new CommandXMLInputStream(commandName));
+		} catch (UnsupportedOperationException e) {
+			//command doesn't have a syntax xml file
+			return NO_DESCRIPTIONS;
+		} catch (Exception e) {
+			LOG.warn("Couldn't load descriptions of command " + commandName, e);
+			return NO_DESCRIPTIONS;
+		}
+		if (descriptions.isEmpty()) {
+			return NO_DESCRIPTIONS;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < descriptions.size(); i++) {
+			if (i != 0) {
+				sb.append(SEPARATOR);
+			}
+			sb.append(descriptions.get(i));
+		}
+		return compress(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@NotNull
+	private static byte[] compress(@NotNull byte[] bytes) {
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+			byte[] buffer = new byte[1024];
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				out.write(buffer, 0, count);
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Nullable
+	private static String decompress(@NotNull byte[] compressed) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+			byte[] buffer = new byte[1024];
+			while (!inflater.finished()) {
+				int count = inflater.inflate(buffer);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				out.write(buffer, 0, count);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			LOG.warn("Couldn't decompress command descriptions", e);
+			return null;
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -8,6 +8,13 @@ import java.util.Collections;
 import java.util.List;
 
 /**
+ * Syntax information for a command. Descriptions of parameters and return values aren't stored in here
+ * (see {@link CommandDescriptionStore}), so instances are small and can be shared across threads.
+ * <p>
+ * The syntax list and literal lists can't be modified. The {@link ValueType} of each parameter and return value
+ * (including its polymorphic types) is filled in while the descriptor is loaded and isn't copied, so it must not be
+ * mutated afterwards.
+ *
  * @author Kayler
  * @since 06/11/2016.
  */
@@ -18,7 +25,7 @@ public class CommandDescriptor {
 	@Nullable
 	public static CommandDescriptor getDescriptorFromFile(@NotNull String commandName) {
 		try {
-			return SQFCommandSyntaxXMLLoader.importFromStream(new CommandXMLInputStream(commandName), false);
+			return SQFCommandSyntaxXMLLoader.importFromStream(new CommandXMLInputStream(commandName));
 		} catch (Exception e) {
 			if (e instanceof UnsupportedOperationException) {
 				//command doesn't have a syntax xml file
@@ -32,27 +39,44 @@ public class CommandDescriptor {
 
 	private final List<CommandSyntax> syntaxList;
 	private final String commandName;
-	private String gameVersion;
+	private final String gameVersion;
 	private final BIGame game;
 
-	private boolean deprecated = false;
+	private final boolean deprecated;
 
-	private boolean uncertain = false;
+	private final boolean uncertain;
 
 	public CommandDescriptor(@NotNull String commandName) {
-		this.commandName = commandName;
-		syntaxList = Collections.emptyList();
-		game = BIGame.UNKNOWN;
+		this(commandName, Collections.emptyList(), "", BIGame.UNKNOWN);
 	}
 
 	public CommandDescriptor(@NotNull String commandName,
 							 @NotNull List<CommandSyntax> syntaxList,
 							 @NotNull String gameVersion,
 							 @NotNull BIGame game) {
-		this.syntaxList = syntaxList;
+		this(commandName, syntaxList, gameVersion, game, false, false);
+	}
+
+	/**
+	 * @param commandName the command's case-sensitive name
+	 * @param syntaxList  list of syntaxes (should not be mutated after given to this constructor)
+	 * @param gameVersion game version the command was introduced in
+	 * @param game        game the command was introduced in
+	 * @param deprecated  true if the command is deprecated
+	 * @param uncertain   true if the syntaxes aren't exactly known
+	 */
+	public CommandDescriptor(@NotNull String commandName,
+							 @NotNull List<CommandSyntax> syntaxList,
+							 @NotNull String gameVersion,
+							 @NotNull BIGame game,
+							 boolean deprecated,
+							 boolean uncertain) {
+		this.syntaxList = syntaxList.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(syntaxList);
 		this.commandName = commandName;
 		this.gameVersion = gameVersion;
 		this.game = game;
+		this.deprecated = deprecated;
+		this.uncertain = uncertain;
 	}
 
 	/**
@@ -94,10 +118,6 @@ public class CommandDescriptor {
 		return deprecated;
 	}
 
-	void setDeprecated(boolean deprecated) {
-		this.deprecated = deprecated;
-	}
-
 	/**
 	 * @return true if the syntaxes for the command aren't exactly known and the current syntaxes are estimates
 	 */
@@ -105,10 +125,6 @@ public class CommandDescriptor {
 		return uncertain;
 	}
 
-	void setUncertain(boolean uncertain) {
-		this.uncertain = uncertain;
-	}
-
 	/**
 	 * @return a list of all literals across all {@link Param}s
 	 * @see Param#getLiterals()
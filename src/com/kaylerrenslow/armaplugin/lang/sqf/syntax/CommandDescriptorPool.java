@@ -7,7 +7,9 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Used for caching and loading SQF command syntax's ({@link CommandSyntax}) from their xml files. This class
@@ -27,6 +29,12 @@ public class CommandDescriptorPool {
 	private final Map<String, CommandDescriptor> frequentCache = new HashMap<>();
 	private final Random random = new Random();
 	private final LinkedBlockingQueue<ProcessingCommand> processing = new LinkedBlockingQueue<>();
+	/**
+	 * Lowercase names of commands that don't have a syntax xml file (or it couldn't be parsed).
+	 * Used so that those commands aren't repeatedly read from file.
+	 */
+	private final Set<String> noDescriptor = ConcurrentHashMap.newKeySet();
+	private final AtomicLong loadCount = new AtomicLong(0);
 
 	private final DescriptorWrapper PLACEHOLDER = new DescriptorWrapper(new CommandDescriptor(""));
 
@@ -92,8 +100,70 @@ public class CommandDescriptorPool {
 				"while",
 		};
 		for (String command : frequent) {
-			frequentCache.put(command.toLowerCase(), CommandDescriptor.getDescriptorFromFile(command));
+			CommandDescriptor d = CommandDescriptor.getDescriptorFromFile(command);
+			if (d == null) {
+				noDescriptor.add(command.toLowerCase());
+			} else {
+				frequentCache.put(command.toLowerCase(), d);
+			}
+		}
+	}
+
+	/**
+	 * Gets a {@link CommandDescriptor} only if it doesn't need to be loaded from file.
+	 *
+	 * @param commandName the name of command (case sensitivity doesn't matter).
+	 * @return the cached descriptor, or null if it isn't cached
+	 * @see #isResident(String)
+	 */
+	@Nullable
+	public CommandDescriptor getIfCached(@NotNull String commandName) {
+		return findCached(commandName.toLowerCase(), true);
+	}
+
+	/**
+	 * @param commandName the name of command (case sensitivity doesn't matter).
+	 * @return true if {@link #get(String)} wouldn't need to read a syntax xml file for the command. This is also true
+	 * for commands that are known to have no syntax xml file. This doesn't count as a use of the command in the tallied cache.
+	 */
+	public boolean isResident(@NotNull String commandName) {
+		commandName = commandName.toLowerCase();
+		return noDescriptor.contains(commandName) || findCached(commandName, false) != null;
+	}
+
+	/**
+	 * @param commandName lowercase name of the command
+	 * @param tally       true if the command's tally should be incremented when found in the tallied cache
+	 * @return the cached descriptor, or null if it isn't cached
+	 */
+	@Nullable
+	private CommandDescriptor findCached(@NotNull String commandName, boolean tally) {
+		CommandDescriptor d = frequentCache.get(commandName);
+		if (d != null) {
+			return d;
+		}
+		synchronized (tallyCache) {
+			for (DescriptorWrapper w : tallyCache) {
+				if (w == null || w == PLACEHOLDER) {
+					continue;
+				}
+				if (w.descriptor.getCommandName().equalsIgnoreCase(commandName)) {
+					if (tally) {
+						w.requestCount++;
+					}
+					return w.descriptor;
+				}
+			}
 		}
+		return null;
+	}
+
+	/**
+	 * @return how many times a syntax xml file was read by {@link #get(String)} (not counting the frequently used commands
+	 * that are read when this pool is created)
+	 */
+	public long getLoadCount() {
+		return loadCount.get();
 	}
 
 	/**
@@ -107,9 +177,8 @@ public class CommandDescriptorPool {
 	 * <p>
 	 * This method will return null when a syntax xml file doesn't exist or the XML had an error being parsed.
 	 * <p>
-	 * This method will not get any parameter descriptions, return descriptions, or any other type of descriptions.
-	 * If you wish to get these descriptions, you will need to invoke
-	 * {@link SQFCommandSyntaxXMLLoader#importFromStream(CommandXMLInputStream, boolean)} directly.
+	 * The returned descriptor doesn't store any descriptions. Descriptions are loaded on demand with
+	 * {@link ValueHolder#getDescription()}, which uses {@link CommandDescriptionStore}.
 	 *
 	 * @param commandName the name of command (case sensitivity doesn't matter).
 	 * @return the {@link CommandDescriptor} instance, or null if one couldn't be created
@@ -117,48 +186,44 @@ public class CommandDescriptorPool {
 	@Nullable
 	public CommandDescriptor get(@NotNull String commandName) {
 		commandName = commandName.toLowerCase();
-		if (frequentCache.containsKey(commandName)) {
-			return frequentCache.get(commandName);
+		CommandDescriptor cached = getIfCached(commandName);
+		if (cached != null) {
+			return cached;
 		}
-
-		synchronized (tallyCache) {
-			for (DescriptorWrapper w : tallyCache) {
-				if (w == null || w == PLACEHOLDER) {
-					continue;
-				}
-				if (w.descriptor.getCommandName().equalsIgnoreCase(commandName)) {
-					w.requestCount++;
-					return w.descriptor;
-				}
-			}
+		if (noDescriptor.contains(commandName)) {
+			return null;
 		}
 
-		ProcessingCommand processingCommand;
+		ProcessingCommand processingCommand = null;
+		ProcessingCommand waitFor = null;
 
 		synchronized (processing) {
-			ProcessingCommand waitFor = null;
 			for (ProcessingCommand processing : processing) {
 				if (processing.commandName.equalsIgnoreCase(commandName)) {
 					waitFor = processing;
 					break;
 				}
 			}
-			if (waitFor != null) {
-				try {
-					return waitFor.result.get();
-				} catch (Exception e) {
-					e.printStackTrace();
-					return null;
-				}
-			} else {
+			if (waitFor == null) {
 				processingCommand = new ProcessingCommand(commandName);
 				processing.add(processingCommand);
 			}
 		}
+		if (waitFor != null) {
+			//wait without holding the lock, since the loading thread needs the lock to give the result
+			try {
+				return waitFor.result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
 
+		loadCount.incrementAndGet();
 		CommandDescriptor d = CommandDescriptor.getDescriptorFromFile(commandName);
 
 		if (d == null) {
+			noDescriptor.add(commandName);
 			synchronized (processing) {
 				processingCommand.result.put(null);
 				processing.remove(processingCommand);
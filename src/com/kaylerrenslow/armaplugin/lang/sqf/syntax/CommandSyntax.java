@@ -13,9 +13,9 @@ import java.util.List;
  * @since 06/11/2016
  */
 public class CommandSyntax {
-	private ReturnValueHolder returnValue;
-	private Param prefixParam;
-	private Param postfixParam;
+	private final ReturnValueHolder returnValue;
+	private final Param prefixParam;
+	private final Param postfixParam;
 
 	public CommandSyntax(@Nullable Param prefixParam, @Nullable Param postfixParam, @NotNull ReturnValueHolder returnValue) {
 		this.prefixParam = prefixParam;
@@ -1,8 +1,9 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,24 +15,36 @@ public class Param extends BasicValueHolder {
 	private final String name;
 
 	/**
-	 * @param name        the parameter name (as a variable)
-	 * @param type        the type of the parameter
-	 * @param description description for the parameter
-	 * @param optional    true if the parameter is not required, false if it is required
+	 * @param name     the parameter name (as a variable)
+	 * @param type     the type of the parameter
+	 * @param optional true if the parameter is not required, false if it is required
 	 */
-	public Param(@NotNull String name, @NotNull ValueType type, @NotNull String description, boolean optional) {
-		this(name, type, description, optional, new ArrayList<>());
+	public Param(@NotNull String name, @NotNull ValueType type, boolean optional) {
+		this(name, type, optional, Collections.emptyList());
 	}
 
 	/**
-	 * @param name        the parameter name (as a variable)
-	 * @param type        the type of the parameter
-	 * @param description description for the parameter
-	 * @param optional    true if the parameter is not required, false if it is required
-	 * @param literals    a list of all literals, or an empty list if there are not literals
+	 * @param name     the parameter name (as a variable)
+	 * @param type     the type of the parameter
+	 * @param optional true if the parameter is not required, false if it is required
+	 * @param literals a list of all literals, or an empty list if there are not literals
 	 */
-	public Param(@NotNull String name, @NotNull ValueType type, @NotNull String description, boolean optional, @NotNull List<String> literals) {
-		super(type, description, optional, literals);
+	public Param(@NotNull String name, @NotNull ValueType type, boolean optional, @NotNull List<String> literals) {
+		this(name, type, optional, literals, null, -1);
+	}
+
+	/**
+	 * @param name                   the parameter name (as a variable)
+	 * @param type                   the type of the parameter
+	 * @param optional               true if the parameter is not required, false if it is required
+	 * @param literals               a list of all literals, or an empty list if there are not literals
+	 * @param descriptionCommandName the command this parameter belongs to, or null if there is no description
+	 * @param descriptionIndex       index of the description
+	 * @see CommandDescriptionStore
+	 */
+	Param(@NotNull String name, @NotNull ValueType type, boolean optional, @NotNull List<String> literals,
+		  @Nullable String descriptionCommandName, int descriptionIndex) {
+		super(type, optional, literals, descriptionCommandName, descriptionIndex);
 		this.name = name;
 	}
 
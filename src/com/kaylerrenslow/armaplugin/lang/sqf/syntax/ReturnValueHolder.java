@@ -1,14 +1,26 @@
 package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Kayler
  * @since 02/24/2017
  */
 public class ReturnValueHolder extends BasicValueHolder {
-	public ReturnValueHolder(@NotNull ValueType type, @NotNull String description) {
-		super(type, description, false);
+	public ReturnValueHolder(@NotNull ValueType type) {
+		this(type, Collections.emptyList(), null, -1);
+	}
+
+	/**
+	 * @see BasicValueHolder#BasicValueHolder(ValueType, boolean, List, String, int)
+	 */
+	ReturnValueHolder(@NotNull ValueType type, @NotNull List<String> literals,
+					  @Nullable String descriptionCommandName, int descriptionIndex) {
+		super(type, false, literals, descriptionCommandName, descriptionIndex);
 	}
 
 	/**
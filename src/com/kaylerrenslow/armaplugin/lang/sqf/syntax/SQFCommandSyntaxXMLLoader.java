@@ -2,23 +2,54 @@ package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
 
 import com.kaylerrenslow.armaDialogCreator.util.XmlUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType.BaseType;
 
 /**
+ * Loads {@link CommandDescriptor} instances from syntax xml. Descriptions are never stored on the descriptor. Every
+ * {@link ValueHolder} is instead given an index (assigned in document order) that can be used to look up its description
+ * with {@link #importDescriptionsFromStream(CommandXMLInputStream)}. This is what {@link CommandDescriptionStore} uses.
+ *
  * @author Kayler
  * @since 11/12/2017
  */
 class SQFCommandSyntaxXMLLoader {
+	/**
+	 * Loads a {@link CommandDescriptor} without any descriptions.
+	 *
+	 * @param is stream to read from
+	 * @return the descriptor
+	 */
+	@NotNull
+	public static CommandDescriptor importFromStream(@NotNull CommandXMLInputStream is) throws Exception {
+		return doImport(is, new LoadContext(is.getCommandName(), null));
+	}
+
+	/**
+	 * Reads all descriptions for a command. The list is indexed by the description indexes that
+	 * {@link #importFromStream(CommandXMLInputStream)} gives to each {@link ValueHolder}.
+	 *
+	 * @param is stream to read from
+	 * @return list of trimmed descriptions
+	 */
 	@NotNull
-	public static CommandDescriptor importFromStream(@NotNull CommandXMLInputStream is, boolean getCommandDescriptions) throws Exception {
+	public static List<String> importDescriptionsFromStream(@NotNull CommandXMLInputStream is) throws Exception {
+		List<String> descriptions = new ArrayList<>();
+		doImport(is, new LoadContext(is.getCommandName(), descriptions));
+		return descriptions;
+	}
+
+	@NotNull
+	private static CommandDescriptor doImport(@NotNull CommandXMLInputStream is, @NotNull LoadContext ctx) throws Exception {
 		Document document;
 
 		DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
@@ -54,7 +85,7 @@ class SQFCommandSyntaxXMLLoader {
 				if (params[order] != null) {
 					throw new RuntimeException("duplicate order for command " + is.getCommandName() + ". order=" + order);
 				}
-				params[order] = getArrayParam(arrayElement, getCommandDescriptions);
+				params[order] = getArrayParam(arrayElement, ctx);
 			}
 			List<Element> paramElements = XmlUtil.getChildElementsWithTagName(syntaxElement, "param");
 			for (Element paramElement : paramElements) {
@@ -62,7 +93,7 @@ class SQFCommandSyntaxXMLLoader {
 				if (params[order] != null) {
 					throw new RuntimeException("duplicate order for command " + is.getCommandName() + ". order=" + order);
 				}
-				params[order] = getParam(paramElement, getCommandDescriptions);
+				params[order] = getParam(paramElement, ctx);
 			}
 
 			ReturnValueHolder returnValue;
@@ -71,30 +102,30 @@ class SQFCommandSyntaxXMLLoader {
 			if (returnElements.size() == 0) {
 				throw new RuntimeException("no return value");
 			}
-			returnValue = getReturnValue(returnElements.get(0), getCommandDescriptions);
+			returnValue = getReturnValue(returnElements.get(0), ctx);
 
 
 			syntaxList.add(new CommandSyntax(params[PREFIX], params[POSTFIX], returnValue));
 		}
 
-		CommandDescriptor c = new CommandDescriptor(commandName, syntaxList, gameVersion, GameNameMap.getInstance().getGame(GameNameMap.LookupType.LINK_PREFIX, gameName));
-		c.setDeprecated(deprecated);
-		c.setUncertain(uncertain);
-
-		return c;
+		return new CommandDescriptor(
+				commandName, syntaxList, gameVersion,
+				GameNameMap.getInstance().getGame(GameNameMap.LookupType.LINK_PREFIX, gameName),
+				deprecated, uncertain
+		);
 	}
 
-	private static ReturnValueHolder getReturnValue(@NotNull Element returnValueElement, boolean getCommandDescriptions) {
+	private static ReturnValueHolder getReturnValue(@NotNull Element returnValueElement, @NotNull LoadContext ctx) {
 		List<Element> arrayElements = XmlUtil.getChildElementsWithTagName(returnValueElement, "array");
 		List<Element> valueElements = XmlUtil.getChildElementsWithTagName(returnValueElement, "value");
 
 		ArrayList<ReturnValueHolder> list = new ArrayList<>(1);
 
 		if (arrayElements.size() > 0) {
-			getArrayReturnValueFromElement(arrayElements.get(0), list, getCommandDescriptions);
+			getArrayReturnValueFromElement(arrayElements.get(0), list, ctx);
 			return list.get(0);
 		} else if (valueElements.size() > 0) {
-			getReturnValueFromElement(valueElements.get(0), list, getCommandDescriptions);
+			getReturnValueFromElement(valueElements.get(0), list, ctx);
 			return list.get(0);
 		} else {
 			throw new RuntimeException("no return value saved");
@@ -103,26 +134,21 @@ class SQFCommandSyntaxXMLLoader {
 
 	private static void getReturnValueFromElement(@NotNull Element returnValueElement,
 												  @NotNull List<ReturnValueHolder> parentReturnValues,
-												  boolean getCommandDescriptions) {
+												  @NotNull LoadContext ctx) {
 		String orderStr = returnValueElement.getAttribute("order");
 		int order = orderStr.length() > 0 ? Integer.parseInt(orderStr) : 0;
 
-		ValueType dataType;
-		String desc;
-
-		dataType = getTypeFromElementAttribute(returnValueElement, "type");
-		desc = getCommandDescriptions ? XmlUtil.getImmediateTextContent(returnValueElement) : "";
+		ValueType dataType = getTypeFromElementAttribute(returnValueElement, "type");
+		int descIndex = ctx.nextDescription(returnValueElement);
 
-		ReturnValueHolder returnValue = new ReturnValueHolder(dataType == null ? BaseType._ERROR : dataType, desc);
+		ReturnValueHolder returnValue = new ReturnValueHolder(
+				dataType == null ? BaseType._ERROR : dataType,
+				getLiterals(returnValueElement),
+				ctx.commandName, descIndex
+		);
 
 		addAltTypes(returnValueElement, returnValue.getType().getPolymorphicTypes());
 
-		//get literals
-		List<Element> literalElements = XmlUtil.getChildElementsWithTagName(returnValueElement, "literal");
-		for (Element literalElement : literalElements) {
-			returnValue.getLiterals().add(XmlUtil.getImmediateTextContent(literalElement));
-		}
-
 		while (order >= parentReturnValues.size()) { //guarantee that the order index exists
 			parentReturnValues.add(PLACEHOLDER_RETURN_VALUE);
 		}
@@ -132,51 +158,57 @@ class SQFCommandSyntaxXMLLoader {
 
 	private static void getArrayReturnValueFromElement(@NotNull Element arrayElement,
 													   @NotNull List<ReturnValueHolder> parentReturnValues,
-													   boolean getCommandDescriptions) {
+													   @NotNull LoadContext ctx) {
 		String orderStr = arrayElement.getAttribute("order");
 		int order = orderStr.length() > 0 ? Integer.parseInt(orderStr) : 0;
 
 		boolean unbounded = valueOfTF(arrayElement.getAttribute("unbounded"));
 		List<ReturnValueHolder> myValues = new ArrayList<>();
 
-		String desc = getCommandDescriptions ? XmlUtil.getImmediateTextContent(arrayElement) : "";
-		ArrayReturnValueHolder value = new ArrayReturnValueHolder(desc, myValues, unbounded);
+		int descIndex = ctx.nextDescription(arrayElement);
 
 		List<Element> valueElements = XmlUtil.getChildElementsWithTagName(arrayElement, "value");
 		for (Element arrayChildElement : valueElements) {
-			getReturnValueFromElement(arrayChildElement, myValues, getCommandDescriptions);
+			getReturnValueFromElement(arrayChildElement, myValues, ctx);
 		}
 		List<Element> arrayElements = XmlUtil.getChildElementsWithTagName(arrayElement, "array");
 		for (Element arrayChildElement : arrayElements) {
-			getArrayReturnValueFromElement(arrayChildElement, myValues, getCommandDescriptions);
+			getArrayReturnValueFromElement(arrayChildElement, myValues, ctx);
 		}
 		while (order >= parentReturnValues.size()) { //guarantee that the order index exists
 			parentReturnValues.add(PLACEHOLDER_RETURN_VALUE);
 		}
 
-		parentReturnValues.set(order, value);
+		parentReturnValues.set(order, new ArrayReturnValueHolder(myValues, unbounded, ctx.commandName, descIndex));
 	}
 
-	private static Param getParam(@NotNull Element paramElement, boolean getCommandDescriptions) {
+	private static Param getParam(@NotNull Element paramElement, @NotNull LoadContext ctx) {
 		ValueType dataType;
-		String paramName, desc;
+		String paramName;
 		boolean optional;
 
 		dataType = getTypeFromElementAttribute(paramElement, "type");
 		paramName = paramElement.getAttribute("name");
 		optional = valueOfTF(paramElement.getAttribute("optional"));
-		desc = getCommandDescriptions ? XmlUtil.getImmediateTextContent(paramElement) : "";
+		int descIndex = ctx.nextDescription(paramElement);
 
-		Param p = new Param(paramName, dataType, desc, optional);
+		Param p = new Param(paramName, dataType, optional, getLiterals(paramElement), ctx.commandName, descIndex);
 		addAltTypes(paramElement, p.getType().getPolymorphicTypes());
 
-		//get literals
-		List<Element> literalElements = XmlUtil.getChildElementsWithTagName(paramElement, "literal");
+		return p;
+	}
+
+	@NotNull
+	private static List<String> getLiterals(@NotNull Element hostElement) {
+		List<Element> literalElements = XmlUtil.getChildElementsWithTagName(hostElement, "literal");
+		if (literalElements.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> literals = new ArrayList<>(literalElements.size());
 		for (Element literalElement : literalElements) {
-			p.getLiterals().add(XmlUtil.getImmediateTextContent(literalElement));
+			literals.add(XmlUtil.getImmediateTextContent(literalElement));
 		}
-
-		return p;
+		return literals;
 	}
 
 	private static void addAltTypes(@NotNull Element hostElement, @NotNull List<ValueType> alternateDataTypes) {
@@ -190,26 +222,27 @@ class SQFCommandSyntaxXMLLoader {
 		}
 	}
 
-	private static ArrayParam getArrayParam(@NotNull Element arrayParamElement, boolean getCommandDescriptions) {
+	private static ArrayParam getArrayParam(@NotNull Element arrayParamElement, @NotNull LoadContext ctx) {
 		List<Param> paramList = new ArrayList<>();
 		boolean unbounded, optional;
 
 		unbounded = valueOfTF(arrayParamElement.getAttribute("unbounded"));
 		optional = valueOfTF(arrayParamElement.getAttribute("optional"));
+		int descIndex = ctx.nextDescription(arrayParamElement);
 
 		List<Element> arrayElements = XmlUtil.getChildElementsWithTagName(arrayParamElement, "array");
 		for (Element arrayElement : arrayElements) {
 			int order = getOrderForParam(paramList, arrayElement);
-			paramList.set(order, getArrayParam(arrayElement, getCommandDescriptions));
+			paramList.set(order, getArrayParam(arrayElement, ctx));
 		}
 
 		List<Element> paramElements = XmlUtil.getChildElementsWithTagName(arrayParamElement, "param");
 		for (Element paramElement : paramElements) {
 			int order = getOrderForParam(paramList, paramElement);
-			paramList.set(order, getParam(paramElement, getCommandDescriptions));
+			paramList.set(order, getParam(paramElement, ctx));
 		}
 
-		return new ArrayParam(unbounded, paramList, optional);
+		return new ArrayParam(unbounded, paramList, optional, ctx.commandName, descIndex);
 
 	}
 
@@ -252,6 +285,31 @@ class SQFCommandSyntaxXMLLoader {
 		return new CodeType(getTypeFromElementAttribute(codeHandlers.get(0), "t"));
 	}
 
-	private static final ReturnValueHolder PLACEHOLDER_RETURN_VALUE = new ReturnValueHolder(BaseType.ANYTHING, "PLACEHOLDER");
-	private static final Param PLACEHOLDER_PARAM = new Param("PLACEHOLDER", BaseType.ANYTHING, "", true);
+	private static final ReturnValueHolder PLACEHOLDER_RETURN_VALUE = new ReturnValueHolder(BaseType.ANYTHING);
+	private static final Param PLACEHOLDER_PARAM = new Param("PLACEHOLDER", BaseType.ANYTHING, true);
+
+	/**
+	 * Assigns description indexes in document order. If {@link #descriptions} isn't null, the description text is also
+	 * read into it.
+	 */
+	private static class LoadContext {
+		/** Key for {@link CommandDescriptionStore} (shared across all value holders of the command) */
+		@NotNull
+		private final String commandName;
+		@Nullable
+		private final List<String> descriptions;
+		private int nextIndex = 0;
+
+		public LoadContext(@NotNull String commandName, @Nullable List<String> descriptions) {
+			this.commandName = commandName.toLowerCase();
+			this.descriptions = descriptions;
+		}
+
+		public int nextDescription(@NotNull Element element) {
+			if (descriptions != null) {
+				descriptions.add(XmlUtil.getImmediateTextContent(element).trim());
+			}
+			return nextIndex++;
+		}
+	}
 }
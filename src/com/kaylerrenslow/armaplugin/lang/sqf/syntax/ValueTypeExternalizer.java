@@ -0,0 +1,115 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes and reads {@link ValueType} instances to and from a binary stream so that they can be persisted (for example,
+ * inside an index).
+ */
+public class ValueTypeExternalizer {
+	private static final byte BASE_TYPE = 0;
+	private static final byte CODE_TYPE = 1;
+	private static final byte SINGLETON_ARRAY = 2;
+	private static final byte EXPANDED = 3;
+	private static final byte POLYMORPHIC_WRAPPER = 4;
+
+	/**
+	 * Writes the given type. Use {@link #read(DataInput)} to read it back.
+	 */
+	public static void write(@NotNull DataOutput out, @NotNull ValueType type) throws IOException {
+		if (type instanceof ValueType.BaseType) {
+			out.writeByte(BASE_TYPE);
+			out.writeUTF(type.getType());
+		} else if (type instanceof CodeType) {
+			out.writeByte(CODE_TYPE);
+			write(out, ((CodeType) type).getReturnType());
+		} else if (type instanceof SingletonArrayExpandedValueType) {
+			out.writeByte(SINGLETON_ARRAY);
+			write(out, ((SingletonArrayExpandedValueType) type).getValueTypes().get(0));
+		} else if (type instanceof ExpandedValueType) {
+			ExpandedValueType expanded = (ExpandedValueType) type;
+			out.writeByte(EXPANDED);
+			out.writeBoolean(expanded.isUnbounded());
+			out.writeInt(expanded.getNumOptionalValues());
+			writeList(out, expanded.getValueTypes());
+			writeList(out, expanded.getPolymorphicTypes());
+		} else if (type instanceof PolymorphicWrapperValueType) {
+			out.writeByte(POLYMORPHIC_WRAPPER);
+			write(out, ((PolymorphicWrapperValueType) type).getWrappedValueType());
+			writeList(out, type.getPolymorphicTypes());
+		} else {
+			throw new IllegalArgumentException("can't write type " + type.getDebugName());
+		}
+	}
+
+	/**
+	 * Reads a type that was written with {@link #write(DataOutput, ValueType)}
+	 *
+	 * @throws IOException when the type couldn't be read, or the data isn't a type
+	 */
+	@NotNull
+	public static ValueType read(@NotNull DataInput in) throws IOException {
+		byte kind = in.readByte();
+		switch (kind) {
+			case BASE_TYPE: {
+				String name = in.readUTF();
+				ValueType type = ValueType.BaseType.valueOf(name);
+				if (type == null) {
+					throw new IOException("unknown base type " + name);
+				}
+				return type;
+			}
+			case CODE_TYPE: {
+				return new CodeType(read(in));
+			}
+			case SINGLETON_ARRAY: {
+				return new SingletonArrayExpandedValueType(read(in));
+			}
+			case EXPANDED: {
+				boolean unbounded = in.readBoolean();
+				int numOptionalValues = in.readInt();
+				List<ValueType> valueTypes = readList(in);
+				List<ValueType> polymorphicTypes = readList(in);
+				ExpandedValueType expanded = new ExpandedValueType(
+						unbounded, polymorphicTypes, valueTypes.toArray(new ValueType[valueTypes.size()])
+				);
+				expanded.setNumOptionalValues(numOptionalValues);
+				return expanded;
+			}
+			case POLYMORPHIC_WRAPPER: {
+				PolymorphicWrapperValueType wrapper = new PolymorphicWrapperValueType(read(in));
+				wrapper.getPolymorphicTypes().addAll(readList(in));
+				return wrapper;
+			}
+			default: {
+				throw new IOException("unknown value type kind " + kind);
+			}
+		}
+	}
+
+	private static void writeList(@NotNull DataOutput out, @NotNull List<ValueType> types) throws IOException {
+		out.writeInt(types.size());
+		for (ValueType type : types) {
+			write(out, type);
+		}
+	}
+
+	@NotNull
+	private static List<ValueType> readList(@NotNull DataInput in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			throw new IOException("negative list size");
+		}
+		List<ValueType> types = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			types.add(read(in));
+		}
+		return types;
+	}
+}
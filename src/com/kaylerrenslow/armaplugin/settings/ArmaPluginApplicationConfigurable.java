@@ -4,6 +4,7 @@ import com.intellij.openapi.options.ConfigurationException;
 import com.intellij.openapi.options.SearchableConfigurable;
 import com.intellij.openapi.util.io.FileUtil;
 import com.kaylerrenslow.armaplugin.ArmaPluginUserData;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFSyntaxHelper;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,6 +31,7 @@ public class ArmaPluginApplicationConfigurable implements SearchableConfigurable
 	public JComponent createComponent() {
 		File a3ToolsDir = ArmaPluginUserData.getInstance().getArmaToolsDirectory();
 		form.initArma3ToolsDirectory(a3ToolsDir == null ? "" : a3ToolsDir.getAbsolutePath());
+		form.initCheckTimeBudgetMillis(ArmaPluginApplicationSettings.getInstance().getState().sqfCheckTimeBudgetMillis);
 		return form.getPanelRoot();
 	}
 
@@ -44,12 +46,20 @@ public class ArmaPluginApplicationConfigurable implements SearchableConfigurable
 			//if modified, that means the files aren't equal
 			modified = !FileUtil.filesEqual(new File(enteredDir), ArmaPluginUserData.getInstance().getArmaToolsDirectory());
 		}
+		if (form.getCheckTimeBudgetMillis() != ArmaPluginApplicationSettings.getInstance().getState().sqfCheckTimeBudgetMillis) {
+			modified = true;
+		}
 		return modified;
 	}
 
 	@Override
 	public void apply() throws ConfigurationException {
 		ArmaPluginApplicationSettings.getInstance().getState().armaToolsDirectory = form.getArmaToolsDirectoryPath();
+		if (form.getCheckTimeBudgetMillis() != ArmaPluginApplicationSettings.getInstance().getState().sqfCheckTimeBudgetMillis) {
+			ArmaPluginApplicationSettings.getInstance().getState().sqfCheckTimeBudgetMillis = form.getCheckTimeBudgetMillis();
+			//results that ran out of time with the old budget are checked again
+			SQFSyntaxHelper.getInstance().rerunPartialCheckResults();
+		}
 	}
 
 	@NotNull
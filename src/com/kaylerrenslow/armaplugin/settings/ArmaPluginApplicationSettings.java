@@ -36,5 +36,9 @@ public class ArmaPluginApplicationSettings implements PersistentStateComponent<A
 	public static class State {
 		@Nullable
 		public String armaToolsDirectory;
+		/**
+		 * Max time in milliseconds that syntax and type checking a SQF file may take, or 0 for no limit
+		 */
+		public int sqfCheckTimeBudgetMillis = 5000;
 	}
 }
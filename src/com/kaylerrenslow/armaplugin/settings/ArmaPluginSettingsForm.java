@@ -20,6 +20,7 @@ public class ArmaPluginSettingsForm {
 	private JButton btnTestDir;
 	private JPanel panelForTfArmaToolsDir;
 	private JTextField tfArmaToolsDir;
+	private JSpinner spinnerCheckTimeBudget;
 
 	public ArmaPluginSettingsForm() {
 		btnTestDir.addActionListener(e -> {
@@ -38,6 +39,7 @@ public class ArmaPluginSettingsForm {
 	}
 
 	private void createUIComponents() {
+		spinnerCheckTimeBudget = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 500));
 		tfArmaToolsDir = new JTextField(40);
 		{
 			panelForTfArmaToolsDir = new TextFieldWithBrowseButton(tfArmaToolsDir, e -> {
@@ -63,6 +65,17 @@ public class ArmaPluginSettingsForm {
 		tfArmaToolsDir.setText(path);
 	}
 
+	/**
+	 * @return the entered time budget for checking a SQF file in milliseconds, or 0 for no limit
+	 */
+	public int getCheckTimeBudgetMillis() {
+		return (Integer) spinnerCheckTimeBudget.getValue();
+	}
+
+	public void initCheckTimeBudgetMillis(int millis) {
+		spinnerCheckTimeBudget.setValue(Math.max(0, millis));
+	}
+
 	private ResourceBundle getBundle() {
 		return ResourceBundle.getBundle("com.kaylerrenslow.armaplugin.ApplicationSettingsBundle");
 	}
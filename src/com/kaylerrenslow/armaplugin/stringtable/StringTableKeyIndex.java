@@ -0,0 +1,152 @@
+package com.kaylerrenslow.armaplugin.stringtable;
+
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps the ID (in lowercase) of every key in stringtable.xml files to a {@link StringTableKeyLocation}. The keys are
+ * found with {@link StringTableKeyScanner}, so the DOM of the stringtable is never made.
+ * <p>
+ * {@link #getAllKeys(XmlFile)} is a compact table of every key of a stringtable, for when all keys are needed
+ * (e.g. completion).
+ */
+public class StringTableKeyIndex extends FileBasedIndexExtension<String, StringTableKeyLocation> {
+	public static final ID<String, StringTableKeyLocation> NAME = ID.create("armaplugin.stringtable.key");
+
+	/**
+	 * Gets the key with the given ID (case doesn't matter) in the given stringtable.xml file.
+	 *
+	 * @param id          ID of the key. A leading $ is ignored ($STR_key and STR_key are the same key)
+	 * @param stringTable the stringtable.xml file
+	 * @param project     project
+	 * @return the key, or null if there is no such key or indexing is in progress
+	 */
+	@Nullable
+	public static StringTableKeyLocation findKey(@NotNull String id, @NotNull VirtualFile stringTable, @NotNull Project project) {
+		if (DumbService.isDumb(project)) {
+			return null;
+		}
+		List<StringTableKeyLocation> values = FileBasedIndex.getInstance().getValues(
+				NAME, getKey(id), GlobalSearchScope.fileScope(project, stringTable)
+		);
+		return values.isEmpty() ? null : values.get(0);
+	}
+
+	/**
+	 * @return a read-only list of all keys in the stringtable, in the order they appear in the file. The list is cached
+	 * until the file changes.
+	 */
+	@NotNull
+	public static List<StringTableKeyLocation> getAllKeys(@NotNull XmlFile stringTable) {
+		return CachedValuesManager.getCachedValue(stringTable, () -> {
+			return CachedValueProvider.Result.create(
+					Collections.unmodifiableList(StringTableKeyScanner.scan(stringTable.getViewProvider().getContents())),
+					stringTable
+			);
+		});
+	}
+
+	/**
+	 * @return the &lt;Key&gt; tag of the given key, or null if the stringtable changed and the tag isn't there
+	 */
+	@Nullable
+	public static XmlTag getKeyTag(@NotNull XmlFile stringTable, @NotNull StringTableKeyLocation key) {
+		PsiElement element = stringTable.findElementAt(key.getOffset());
+		XmlTag tag = PsiTreeUtil.getParentOfType(element, XmlTag.class, false);
+		if (tag == null || !tag.getName().equalsIgnoreCase("key")) {
+			return null;
+		}
+		return tag;
+	}
+
+	@NotNull
+	private static String getKey(@NotNull String id) {
+		if (id.startsWith("$")) {
+			id = id.substring(1);
+		}
+		return id.toLowerCase();
+	}
+
+	@NotNull
+	@Override
+	public ID<String, StringTableKeyLocation> getName() {
+		return NAME;
+	}
+
+	@NotNull
+	@Override
+	public DataIndexer<String, StringTableKeyLocation, FileContent> getIndexer() {
+		return inputData -> {
+			List<StringTableKeyLocation> keys = StringTableKeyScanner.scan(inputData.getContentAsText());
+			Map<String, StringTableKeyLocation> map = new HashMap<>(keys.size());
+			for (StringTableKeyLocation key : keys) {
+				//the first key with the ID is used
+				map.putIfAbsent(getKey(key.getID()), key);
+			}
+			return map;
+		};
+	}
+
+	@NotNull
+	@Override
+	public KeyDescriptor<String> getKeyDescriptor() {
+		return EnumeratorStringDescriptor.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public DataExternalizer<StringTableKeyLocation> getValueExternalizer() {
+		return new DataExternalizer<StringTableKeyLocation>() {
+			@Override
+			public void save(@NotNull DataOutput out, StringTableKeyLocation value) throws IOException {
+				value.write(out);
+			}
+
+			@Override
+			public StringTableKeyLocation read(@NotNull DataInput in) throws IOException {
+				return StringTableKeyLocation.read(in);
+			}
+		};
+	}
+
+	@NotNull
+	@Override
+	public FileBasedIndex.InputFilter getInputFilter() {
+		return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE) {
+			@Override
+			public boolean acceptInput(@NotNull VirtualFile file) {
+				return file.getName().equalsIgnoreCase("stringtable.xml");
+			}
+		};
+	}
+
+	@Override
+	public boolean dependsOnFileContent() {
+		return true;
+	}
+
+	@Override
+	public int getVersion() {
+		return 1;
+	}
+}
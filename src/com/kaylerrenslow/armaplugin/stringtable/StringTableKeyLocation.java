@@ -0,0 +1,76 @@
+package com.kaylerrenslow.armaplugin.stringtable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A key of a stringtable.xml file that was found by {@link StringTableKeyScanner}. Unlike {@link StringTableKey},
+ * this doesn't need the DOM or PSI of the file, so a large stringtable can be kept in memory and in an index
+ * ({@link StringTableKeyIndex}).
+ */
+public class StringTableKeyLocation {
+	@NotNull
+	private final String id;
+	@NotNull
+	private final String containerPath;
+	private final int offset;
+
+	StringTableKeyLocation(@NotNull String id, @NotNull String containerPath, int offset) {
+		this.id = id;
+		this.containerPath = containerPath;
+		this.offset = offset;
+	}
+
+	/**
+	 * @return the key's ID attribute
+	 */
+	@NotNull
+	public String getID() {
+		return id;
+	}
+
+	/**
+	 * @return a user-friendly display path that shows the package and container to get to the key
+	 * (same as {@link StringTableKey#getContainerPath()})
+	 */
+	@NotNull
+	public String getContainerPath() {
+		return containerPath;
+	}
+
+	/**
+	 * @return offset of the key's tag (&lt;Key) in the stringtable.xml file
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the ID ({@link #getID()}) but replaces str_ with $STR_
+	 *
+	 * @return key id
+	 */
+	@NotNull
+	public String getDollarKeyName() {
+		return "$" + id.replaceFirst("[sS][tT][rR]_", "STR_");
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+	void write(@NotNull DataOutput out) throws IOException {
+		out.writeUTF(id);
+		out.writeUTF(containerPath);
+		out.writeInt(offset);
+	}
+
+	@NotNull
+	static StringTableKeyLocation read(@NotNull DataInput in) throws IOException {
+		return new StringTableKeyLocation(in.readUTF(), in.readUTF(), in.readInt());
+	}
+}
@@ -0,0 +1,177 @@
+package com.kaylerrenslow.armaplugin.stringtable;
+
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Finds all keys of a stringtable.xml file with one pass over the text. Only Package, Container and Key tags are read,
+ * so the language values of a key are skipped without creating anything. Comments, CDATA and processing instructions
+ * are skipped.
+ */
+class StringTableKeyScanner {
+	private final CharSequence text;
+	private int pos = 0;
+	/**
+	 * Opened Package and Container tags
+	 */
+	private final LinkedList<OpenTag> openTags = new LinkedList<>();
+	private final List<StringTableKeyLocation> keys = new ArrayList<>();
+
+	private StringTableKeyScanner(@NotNull CharSequence text) {
+		this.text = text;
+	}
+
+	/**
+	 * @param text stringtable.xml text
+	 * @return all keys in the order they appear in the text
+	 */
+	@NotNull
+	static List<StringTableKeyLocation> scan(@NotNull CharSequence text) {
+		StringTableKeyScanner scanner = new StringTableKeyScanner(text);
+		scanner.scan();
+		return scanner.keys;
+	}
+
+	private void scan() {
+		while (true) {
+			int tagStart = StringUtil.indexOf(text, '<', pos);
+			if (tagStart < 0) {
+				return;
+			}
+			if (startsWith(tagStart, "<!--")) {
+				pos = skipPast(tagStart, "-->");
+			} else if (startsWith(tagStart, "<![CDATA[")) {
+				pos = skipPast(tagStart, "]]>");
+			} else if (startsWith(tagStart, "<?")) {
+				pos = skipPast(tagStart, "?>");
+			} else if (startsWith(tagStart, "<!")) {
+				pos = skipPast(tagStart, ">");
+			} else if (startsWith(tagStart, "</")) {
+				int nameEnd = readName(tagStart + 2);
+				String name = text.subSequence(tagStart + 2, nameEnd).toString();
+				if (!openTags.isEmpty() && openTags.peek().tagName.equalsIgnoreCase(name)) {
+					openTags.pop();
+				}
+				pos = skipPast(nameEnd, ">");
+			} else {
+				readTag(tagStart);
+			}
+		}
+	}
+
+	private void readTag(int tagStart) {
+		int nameEnd = readName(tagStart + 1);
+		String tagName = text.subSequence(tagStart + 1, nameEnd).toString();
+		String nameAttr = null;
+		String idAttr = null;
+		boolean selfClosing = false;
+		int i = nameEnd;
+		while (i < text.length()) {
+			char c = text.charAt(i);
+			if (c == '>') {
+				selfClosing = i > 0 && text.charAt(i - 1) == '/';
+				i++;
+				break;
+			}
+			if (Character.isLetter(c)) {
+				int attrEnd = readName(i);
+				String attrName = text.subSequence(i, attrEnd).toString();
+				i = attrEnd;
+				while (i < text.length() && (Character.isWhitespace(text.charAt(i)) || text.charAt(i) == '=')) {
+					i++;
+				}
+				if (i < text.length() && (text.charAt(i) == '"' || text.charAt(i) == '\'')) {
+					char quote = text.charAt(i);
+					int valueEnd = StringUtil.indexOf(text, quote, i + 1);
+					if (valueEnd < 0) {
+						valueEnd = text.length();
+					}
+					String value = text.subSequence(i + 1, valueEnd).toString();
+					if (attrName.equalsIgnoreCase("name")) {
+						nameAttr = value;
+					} else if (attrName.equalsIgnoreCase("ID")) {
+						idAttr = value;
+					}
+					i = valueEnd + 1;
+				}
+				continue;
+			}
+			i++;
+		}
+		pos = i;
+
+		if (tagName.equalsIgnoreCase("Key")) {
+			if (idAttr != null) {
+				keys.add(new StringTableKeyLocation(idAttr, getContainerPath(), tagStart));
+			}
+			return;
+		}
+		if (!selfClosing && (tagName.equalsIgnoreCase("Package") || tagName.equalsIgnoreCase("Container"))) {
+			openTags.push(new OpenTag(tagName, nameAttr == null ? "?" : nameAttr));
+		}
+	}
+
+	/**
+	 * @return the path in the same format as {@link StringTableProject#getAllKeys()}
+	 */
+	@NotNull
+	private String getContainerPath() {
+		if (openTags.isEmpty()) {
+			return "<No Package> / <No Container>";
+		}
+		StringBuilder path = new StringBuilder();
+		//openTags is a stack, so the outermost tag is last
+		for (int i = openTags.size() - 1; i >= 0; i--) {
+			OpenTag tag = openTags.get(i);
+			if (i == openTags.size() - 1) {
+				if (!tag.tagName.equalsIgnoreCase("Package")) {
+					path.append("<No Package>/");
+				}
+			} else {
+				path.append('/');
+			}
+			path.append(tag.name);
+		}
+		return path.toString();
+	}
+
+	private int readName(int start) {
+		int i = start;
+		while (i < text.length()) {
+			char c = text.charAt(i);
+			if (Character.isWhitespace(c) || c == '>' || c == '/' || c == '=') {
+				break;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private boolean startsWith(int start, @NotNull String prefix) {
+		return StringUtil.startsWith(text, start, prefix);
+	}
+
+	/**
+	 * @return the index after the first occurrence of end, or the text length if end wasn't found
+	 */
+	private int skipPast(int start, @NotNull String end) {
+		int index = StringUtil.indexOf(text, end, start);
+		return index < 0 ? text.length() : index + end.length();
+	}
+
+	private static class OpenTag {
+		@NotNull
+		private final String tagName;
+		@NotNull
+		private final String name;
+
+		private OpenTag(@NotNull String tagName, @NotNull String name) {
+			this.tagName = tagName;
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.kaylerrenslow.armaplugin.lang.header.index;
+
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.header.HeaderConfigFunction;
+
+import java.util.List;
+
+/**
+ * Tests for {@link HeaderConfigFunctionIndex} and {@link HeaderClassOutline}
+ */
+public class HeaderConfigFunctionIndexTest extends LightCodeInsightFixtureTestCase {
+
+	public void testOutline() {
+		List<HeaderClassOutline.Entry> entries = HeaderClassOutline.create(
+				"#include \"macros.hpp\"\n" +
+						"class Base;\n" +
+						"class Sub : Base { arr[] = {1, {2}}; file = \"a\\b.sqf\"; /* class Commented {}; */ };\n"
+		).getEntries();
+		assertEquals(5, entries.size());
+		assertEquals(HeaderClassOutline.Kind.INCLUDE, entries.get(0).getKind());
+		assertEquals("macros.hpp", entries.get(0).getName());
+		assertEquals(HeaderClassOutline.Kind.CLASS_DECLARATION, entries.get(1).getKind());
+		assertEquals(HeaderClassOutline.Kind.CLASS_START, entries.get(2).getKind());
+		assertEquals("Sub", entries.get(2).getName());
+		assertEquals(HeaderClassOutline.Kind.ASSIGNMENT, entries.get(3).getKind());
+		assertEquals("a\\b.sqf", entries.get(3).getValue());
+		//the array's braces don't close the class
+		assertEquals(HeaderClassOutline.Kind.CLASS_END, entries.get(4).getKind());
+	}
+
+	public void testFunctions() {
+		myFixture.addFileToProject("description.ext",
+				"class CfgFunctions {\n" +
+						"	class TagClass {\n" +
+						"		tag = \"overrideTag\";\n" +
+						"		class ContainerClass {\n" +
+						"			file = \"some\\Path\";\n" +
+						"			class myFunction;\n" +
+						"		};\n" +
+						"		class AnotherContainerClass {\n" +
+						"			class noDefFileFunction {};\n" +
+						"			class specialFileFunction { file = \"folder\\totalRadFunction.sqf\"; };\n" +
+						"			class fsmFunction { ext = \".fsm\"; };\n" +
+						"		};\n" +
+						"	};\n" +
+						"};\n" +
+						"class NotFunctions { class Tag { class Container { class notAFunction; }; }; };"
+		);
+		List<HeaderConfigFunction> functions = HeaderConfigFunctionIndex.getAllConfigFunctions(myModule);
+		assertNotNull(functions);
+		assertEquals(4, functions.size());
+
+		assertEquals("overrideTag_fnc_myFunction", functions.get(0).getCallableName());
+		assertEquals("some/Path/fn_myFunction.sqf", functions.get(0).getFullRelativePath());
+		assertEquals("TagClass", functions.get(0).getTagClassName());
+		assertEquals("functions/AnotherContainerClass/fn_noDefFileFunction.sqf", functions.get(1).getFullRelativePath());
+		assertEquals("folder/totalRadFunction.sqf", functions.get(2).getFullRelativePath());
+		assertEquals("functions/AnotherContainerClass/fn_fsmFunction.fsm", functions.get(3).getFullRelativePath());
+	}
+}
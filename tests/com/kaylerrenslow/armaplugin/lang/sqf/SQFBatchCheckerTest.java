@@ -0,0 +1,43 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.ex.InspectionManagerEx;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFStatement;
+
+/**
+ * Tests for {@link SQFBatchChecker}
+ */
+public class SQFBatchCheckerTest extends LightCodeInsightFixtureTestCase {
+
+	public void testProblemRange_wholeElement() {
+		SQFStatement statement = getSecondStatement();
+		ProblemDescriptor descriptor = registerProblem(statement, null);
+		assertEquals(statement.getTextRange(), SQFBatchChecker.getProblemRange(descriptor));
+	}
+
+	public void testProblemRange_rangeInElement() {
+		SQFStatement statement = getSecondStatement();
+		//"b + 'a'" -> 'a'
+		ProblemDescriptor descriptor = registerProblem(statement, new TextRange(4, 7));
+		int start = statement.getTextRange().getStartOffset();
+		assertEquals(new TextRange(start + 4, start + 7), SQFBatchChecker.getProblemRange(descriptor));
+	}
+
+	private SQFStatement getSecondStatement() {
+		PsiFile file = myFixture.configureByText(SQFFileType.INSTANCE, "a = 1;\nb + 'a';");
+		return ((SQFFile) file).getFileScope().getChildStatements().get(1);
+	}
+
+	private ProblemDescriptor registerProblem(SQFStatement statement, TextRange rangeInElement) {
+		ProblemsHolder holder = new ProblemsHolder(new InspectionManagerEx(getProject()), statement.getContainingFile(), true);
+		holder.registerProblem(statement, "problem", ProblemHighlightType.GENERIC_ERROR, rangeInElement);
+		assertEquals(1, holder.getResults().size());
+		return holder.getResults().get(0);
+	}
+}
@@ -0,0 +1,57 @@
+package com.kaylerrenslow.armaplugin.lang.sqf;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SQFCommandKeywordTableTest {
+	private final SQFCommandKeywordTable table = new SQFCommandKeywordTable(
+			Arrays.asList("createVehicle", "if", "forEach", "getPosATL", "diag_log", "IF")
+	);
+
+	@Test
+	public void ignoresCase() throws Exception {
+		assertTrue(table.contains("createVehicle"));
+		assertTrue(table.contains("CREATEVEHICLE"));
+		assertTrue(table.contains("createvehicle"));
+		assertTrue(table.contains("If"));
+		assertTrue(table.contains("DIAG_LOG"));
+	}
+
+	@Test
+	public void notKeyword() throws Exception {
+		assertFalse(table.contains("createVehicl"));
+		assertFalse(table.contains("createVehicles"));
+		assertFalse(table.contains("i"));
+		assertFalse(table.contains(""));
+		assertFalse(table.contains("thisIsLongerThanEveryKeyword"));
+		assertFalse(table.contains("getPosASL"));
+	}
+
+	@Test
+	public void range() throws Exception {
+		String text = "_x = player getPosATL(1) forEach";
+		assertTrue(table.contains(text, 12, 21));
+		assertFalse(table.contains(text, 12, 22));
+		assertFalse(table.contains(text, 5, 11));
+		assertTrue(table.contains(text, text.length() - 7, text.length()));
+	}
+
+	@Test
+	public void duplicatesStoredOnce() throws Exception {
+		assertEquals(5, table.size());
+	}
+
+	@Test
+	public void empty() throws Exception {
+		SQFCommandKeywordTable empty = new SQFCommandKeywordTable(Collections.emptyList());
+		assertEquals(0, empty.size());
+		assertFalse(empty.contains("if"));
+		assertFalse(empty.contains(""));
+	}
+}
@@ -0,0 +1,36 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+
+import java.util.List;
+
+/**
+ * Tests for {@link SQFCallSiteIndex}
+ */
+public class SQFCallSiteIndexTest extends LightCodeInsightFixtureTestCase {
+
+	public void testCallSites() {
+		myFixture.configureByText(SQFFileType.INSTANCE,
+				"[] call tag_fnc_a; 0 spawn (tag_fnc_a); _h = [] execVM \"\\scripts\\s.sqf\";\n" +
+						"call compile preprocessFileLineNumbers \"scripts/s.sqf\"; [tag_fnc_b] call _local;"
+		);
+		GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
+
+		List<SQFCallSiteIndex.CallSite> functionSites = SQFCallSiteIndex.findCallSites("TAG_fnc_a", getProject(), scope);
+		assertEquals(2, functionSites.size());
+		assertEquals(SQFCallSiteIndex.CallKind.CALL, functionSites.get(0).getKind());
+		assertEquals(SQFCallSiteIndex.CallKind.SPAWN, functionSites.get(1).getKind());
+		assertEquals("tag_fnc_a", functionSites.get(1).getElement(getProject()).getText());
+
+		List<SQFCallSiteIndex.CallSite> scriptSites = SQFCallSiteIndex.findCallSites("scripts/s.sqf", getProject(), scope);
+		assertEquals(2, scriptSites.size());
+		assertEquals(SQFCallSiteIndex.CallKind.EXEC_VM, scriptSites.get(0).getKind());
+		assertEquals(SQFCallSiteIndex.CallKind.CALL, scriptSites.get(1).getKind());
+		assertEquals(SQFCallSiteIndex.CallKind.CALL, SQFCallSiteIndex.getCallKind(scriptSites.get(1).getElement(getProject())));
+
+		//a parameter isn't called
+		assertEmpty(SQFCallSiteIndex.findCallSites("tag_fnc_b", getProject(), scope));
+	}
+}
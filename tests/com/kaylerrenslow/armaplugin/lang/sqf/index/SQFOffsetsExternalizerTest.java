@@ -0,0 +1,26 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.index;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for {@link SQFOffsetsExternalizer}
+ */
+public class SQFOffsetsExternalizerTest {
+
+	@Test
+	public void unsortedOffsets() throws Exception {
+		//a key of an outer command can come after the key of a nested command
+		int[] offsets = SQFOffsetsExternalizer.toArray(Arrays.asList(40, 12, 12, 3000, 7));
+		assertArrayEquals(new int[]{7, 12, 12, 40, 3000}, offsets);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SQFOffsetsExternalizer.INSTANCE.save(new DataOutputStream(bytes), offsets);
+		DataInput in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertArrayEquals(offsets, SQFOffsetsExternalizer.INSTANCE.read(in));
+	}
+}
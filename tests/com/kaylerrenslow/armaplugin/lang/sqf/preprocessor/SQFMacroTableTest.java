@@ -0,0 +1,114 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.preprocessor;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SQFMacroTableTest {
+
+	@NotNull
+	private static SQFMacroTable table(@NotNull String text) {
+		Map<String, SQFMacro> macros = new LinkedHashMap<>();
+		for (SQFDirective directive : SQFDirective.parse(text)) {
+			SQFMacro macro = directive.getMacro();
+			if (macro != null) {
+				macros.put(macro.getName(), macro);
+			}
+		}
+		return new SQFMacroTable(macros);
+	}
+
+	@Test
+	public void objectLike() throws Exception {
+		SQFMacroTable table = table("#define MAX 10\n#define TWICE_MAX (MAX * 2)");
+		assertEquals("_x = 10", table.expand("_x = MAX"));
+		assertEquals("_x = (10 * 2)", table.expand("_x = TWICE_MAX"));
+		assertEquals("MAXIMUM", table.expand("MAXIMUM"));
+	}
+
+	@Test
+	public void functionLike() throws Exception {
+		SQFMacroTable table = table("#define PREFIX tag\n#define GVAR(var) PREFIX##_##var\n#define QUOTE(var) #var");
+		assertEquals("tag_money", table.expand("GVAR(money)"));
+		assertEquals("\"tag_money\"", table.expand("QUOTE(GVAR(money))"));
+		assertEquals("[1, 2] call tag_fnc", table.expand("[1, 2] call GVAR(fnc)"));
+	}
+
+	@Test
+	public void arguments() throws Exception {
+		SQFMacroTable table = table("#define ADD(a,b) (a + b)");
+		assertEquals("((1 + 2) + (3, 4))", table.expand("ADD(ADD(1, 2), (3, 4))"));
+		assertEquals("(\"a,b\" + 1)", table.expand("ADD(\"a,b\", 1)"));
+		//wrong number of arguments or not a call
+		assertEquals("ADD(1)", table.expand("ADD(1)"));
+		assertEquals("ADD", table.expand("ADD"));
+		assertEquals("ADD(1, 2", table.expand("ADD(1, 2"));
+	}
+
+	@Test
+	public void notInStrings() throws Exception {
+		SQFMacroTable table = table("#define MAX 10\n#define STR(a) \"a\"");
+		assertEquals("\"MAX\" + 'MAX'", table.expand("\"MAX\" + 'MAX'"));
+		assertEquals("\"a\"", table.expand("STR(1)"));
+	}
+
+	@Test
+	public void recursive() throws Exception {
+		SQFMacroTable table = table("#define A B\n#define B A\n#define SELF SELF + 1");
+		assertEquals("A", table.expand("A"));
+		assertEquals("SELF + 1", table.expand("SELF"));
+	}
+
+	@Test
+	public void directives() throws Exception {
+		List<SQFDirective> directives = SQFDirective.parse(
+				"#include \"\\x\\cba\\script_macros.hpp\"\n" +
+						"  #define LONG(a) a + \\\n   1 // comment\n" +
+						"/*\n#define COMMENTED 1\n*/\n" +
+						"#ifdef DEBUG\n#undef LONG\n#endif\n" +
+						"hint \"#define NOT_A_MACRO\";"
+		);
+		assertEquals(5, directives.size());
+		assertEquals(SQFDirective.Kind.INCLUDE, directives.get(0).getKind());
+		assertEquals("\\x\\cba\\script_macros.hpp", directives.get(0).getArgument());
+		SQFMacro macro = directives.get(1).getMacro();
+		assertEquals("LONG", macro.getName());
+		assertEquals(1, macro.getParameters().size());
+		assertEquals("a +     1", macro.getBody());
+		assertEquals(SQFDirective.Kind.IFDEF, directives.get(2).getKind());
+		assertEquals(SQFDirective.Kind.UNDEF, directives.get(3).getKind());
+		assertEquals(SQFDirective.Kind.ENDIF, directives.get(4).getKind());
+		assertNull(SQFDirective.parseLine("#define 1"));
+	}
+
+	@Test
+	public void atOffset() throws Exception {
+		String text = "#define A 1\nA\n#undef A\nA\n#define A 2\nA";
+		SQFMacroTable.Builder builder = new SQFMacroTable.Builder();
+		for (SQFDirective directive : SQFDirective.parse(text)) {
+			SQFMacro macro = directive.getMacro();
+			if (macro != null) {
+				builder.define(directive.getOffset(), macro);
+			} else if (directive.getKind() == SQFDirective.Kind.UNDEF) {
+				builder.undefine(directive.getOffset(), directive.getArgument());
+			}
+		}
+		SQFMacroTable table = builder.build();
+		assertEquals("1", table.atOffset(text.indexOf("\nA\n") + 1).expand("A"));
+		assertEquals("A", table.atOffset(text.indexOf("#undef") + "#undef A\n".length()).expand("A"));
+		assertEquals("2", table.atOffset(text.length() - 1).expand("A"));
+		assertEquals("A", table.atOffset(0).expand("A"));
+		//the table without an offset has the macros at the end of the file
+		assertEquals("2", table.expand("A"));
+		assertTrue(table.isEverDefined("A"));
+		assertFalse(table.isEverDefined("B"));
+	}
+}
@@ -10,6 +10,7 @@ import com.kaylerrenslow.armaplugin.settings.ArmaPluginProjectSettings;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * These tests are for testing Arma Addons integration.
@@ -37,7 +38,7 @@ public class ArmaAddonsIntegrationTests extends LightCodeInsightFixtureTestCase
 	 */
 	private final String pathToTestFiles = new File("").getAbsolutePath() + "/";
 
-	public void test_addonsProject() {
+	public void test_addonsProject() throws Exception {
 
 		final String pathPrefix = pathToTestFiles + "test_files/addonTests/addonsProject/";
 
@@ -61,9 +62,13 @@ public class ArmaAddonsIntegrationTests extends LightCodeInsightFixtureTestCase
 
 		Module module = myFixture.getModule();
 		ArmaPluginUserData userData = ArmaPluginUserData.getInstance();
-		List<HeaderFile> headerFiles = userData.parseAndGetConfigHeaderFiles(module);
+		//the test runs on the EDT, where parseAndGetConfigHeaderFiles doesn't parse, so wait for the background thread
+		List<HeaderFile> headerFiles = userData.getFreshConfigHeaderSnapshot(module).get(30, TimeUnit.SECONDS).getHeaderFiles();
 
 		assertEquals("There should be 4 config.cpp files detected and parsed.", 4, headerFiles.size());
+		assertEquals("The latest snapshot should have the parsed files.", headerFiles,
+				userData.getConfigHeaderSnapshot(module).getHeaderFiles()
+		);
 
 		List<HeaderConfigFunction> allConfigFunctions = userData.getAllConfigFunctions(module);
 		assertNotNull("The functions should have been retrieved successfully and not be null.", allConfigFunctions);
@@ -0,0 +1,34 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SQFCodeBlockElementTypeTest {
+
+	@Test
+	public void reparseable() throws Exception {
+		assertTrue(SQFCodeBlockElementType.isReparseable("{}"));
+		assertTrue(SQFCodeBlockElementType.isReparseable("{ _x = 1; }"));
+		assertTrue(SQFCodeBlockElementType.isReparseable("{ if (true) then { hint \"}\"; }; }"));
+		assertTrue(SQFCodeBlockElementType.isReparseable("{ /* } */ _a = [{}, {}]; //}\n}"));
+	}
+
+	@Test
+	public void notOneBlock() throws Exception {
+		assertFalse(SQFCodeBlockElementType.isReparseable(""));
+		assertFalse(SQFCodeBlockElementType.isReparseable("_x = 1"));
+		assertFalse(SQFCodeBlockElementType.isReparseable("{ _x = 1; "));
+		assertFalse(SQFCodeBlockElementType.isReparseable("{ _x = 1; }}"));
+		assertFalse(SQFCodeBlockElementType.isReparseable("{} + {}"));
+		assertFalse(SQFCodeBlockElementType.isReparseable(" {}"));
+	}
+
+	@Test
+	public void lexedDifferentlyInFile() throws Exception {
+		assertFalse(SQFCodeBlockElementType.isReparseable("{ hint \"unclosed; }"));
+		assertFalse(SQFCodeBlockElementType.isReparseable("{ /* unclosed }"));
+		assertFalse(SQFCodeBlockElementType.isReparseable("{ MACRO(a }"));
+	}
+}
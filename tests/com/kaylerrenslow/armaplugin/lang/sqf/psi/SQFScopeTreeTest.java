@@ -0,0 +1,95 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link SQFScopeTree}
+ */
+public class SQFScopeTreeTest extends LightCodeInsightFixtureTestCase {
+
+	public void testForLoopPrivate() {
+		List<SQFScopeTree.LocalVariable> vars = getLocalVariables(
+				"_i = 100; for [{private _i = 0}, {_i < 5}, {_i = _i + 1}] do {}; hint str _i;"
+		);
+		//_i = 100 and hint str _i
+		assertSame(vars.get(0), vars.get(5));
+		//private _i, _i < 5, _i = _i + 1
+		assertSame(vars.get(1), vars.get(2));
+		assertSame(vars.get(1), vars.get(3));
+		assertSame(vars.get(1), vars.get(4));
+		assertNotSame(vars.get(0), vars.get(1));
+		assertTrue(vars.get(1).isPrivate());
+	}
+
+	public void testForLoopVariable() {
+		List<SQFScopeTree.LocalVariable> vars = getLocalVariables(
+				"_i = 1; for \"_i\" from 0 to 1 do { hint str _i; }; _i"
+		);
+		assertNotSame(vars.get(0), vars.get(1));
+		assertSame(vars.get(0), vars.get(2));
+		assertEquals(1, vars.get(1).getStrings().size());
+	}
+
+	public void testPrivateShadows() {
+		List<SQFScopeTree.LocalVariable> vars = getLocalVariables(
+				"_a = 1; call { private _a = 2; _a; }; call { _a = 3; }; _a"
+		);
+		assertSame(vars.get(1), vars.get(2));
+		assertNotSame(vars.get(0), vars.get(1));
+		//_a = 3 assigns the variable of the outer scope
+		assertSame(vars.get(0), vars.get(3));
+		assertSame(vars.get(0), vars.get(4));
+	}
+
+	public void testParamsAndPrivateStrings() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE,
+				"params [\"_a\", [\"_b\", 1]]; private \"_c\"; _c = _a + _b;"
+		);
+		SQFScopeTree tree = SQFScopeTree.getInstance(file);
+		List<SQFString> strings = new ArrayList<>(PsiTreeUtil.findChildrenOfType(file, SQFString.class));
+		List<SQFVariable> variables = new ArrayList<>(PsiTreeUtil.findChildrenOfType(file, SQFVariable.class));
+		assertSame(tree.getLocalVariable(strings.get(0)), tree.getLocalVariable(variables.get(1)));
+		assertSame(tree.getLocalVariable(strings.get(1)), tree.getLocalVariable(variables.get(2)));
+		assertSame(tree.getLocalVariable(strings.get(2)), tree.getLocalVariable(variables.get(0)));
+	}
+
+	public void testBlockVariableDoesNotLeak() {
+		List<SQFScopeTree.LocalVariable> vars = getLocalVariables(
+				"if (true) then { _a = 1; }; _a; [] spawn { _a; }"
+		);
+		assertNotSame(vars.get(0), vars.get(1));
+		assertNotSame(vars.get(1), vars.get(2));
+	}
+
+	public void testMagicVariables() {
+		List<SQFScopeTree.LocalVariable> vars = getLocalVariables(
+				"{ _x; { _x } forEach _x; } forEach []"
+		);
+		assertNotSame(vars.get(0), vars.get(1));
+		//the array of the inner forEach is in the outer forEach's code block
+		assertSame(vars.get(0), vars.get(2));
+		assertNull(vars.get(0).getDeclaration());
+	}
+
+	/**
+	 * @return the local variable of each {@link SQFVariable} in the text, in the order the variables appear
+	 */
+	@NotNull
+	private List<SQFScopeTree.LocalVariable> getLocalVariables(@NotNull String text) {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, text);
+		SQFScopeTree tree = SQFScopeTree.getInstance(file);
+		List<SQFScopeTree.LocalVariable> vars = new ArrayList<>();
+		for (SQFVariable variable : PsiTreeUtil.findChildrenOfType(file, SQFVariable.class)) {
+			SQFScopeTree.LocalVariable var = tree.getLocalVariable(variable);
+			assertNotNull("no local variable for " + variable, var);
+			vars.add(var);
+		}
+		return vars;
+	}
+}
@@ -609,6 +609,22 @@ public class SQFSyntaxCheckerTest extends SQFSyntaxCheckerTestHelper {
 		assertNoProblems("player setPos [0,0]"); //62
 	}
 
+	public void testCommandExpression_nestedPeeking_valid() {
+		//forward looking operators (&&, ||, ==, >) group the parts after them while a unary command peeks its argument
+		assertExitTypeAndNoProblems("count [] > 0 && count [1] > 0", null, BaseType.BOOLEAN);
+		assertExitTypeAndNoProblems("str 1 == str 2 || str 3 == str 4", null, BaseType.BOOLEAN);
+		assertExitTypeAndNoProblems("!isNull player && {alive player} && {damage player < 1}", null, BaseType.BOOLEAN);
+		assertNoProblems("if (count [] > 0 && {count [1] > 0}) then {};");
+		assertNoProblems("if (str (count [1]) == '1' || count [] > 0 && alive player) then {};");
+	}
+
+	public void testCommandExpression_nestedPeeking_bad() {
+		//the problem is in the group after the peeked argument
+		assertHasProblems("count [] > 0 && 1");
+		assertHasProblems("str 1 == str 2 || 5");
+		assertHasProblems("count [] > 'a' && alive player");
+	}
+
 	public void testCommandExpression_randomExpressions_bad() {
 		assertHasProblems("createVehicle");
 	}
@@ -644,33 +660,33 @@ public class SQFSyntaxCheckerTest extends SQFSyntaxCheckerTestHelper {
 						new ArrayParam(
 								false,
 								Arrays.asList(
-										new Param("required", BaseType.NUMBER, "", false),
-										new Param("optional", ValueType.BaseType.NUMBER, "", true)
+										new Param("required", BaseType.NUMBER, false),
+										new Param("optional", ValueType.BaseType.NUMBER, true)
 								),
 								true
 						),
-						new ReturnValueHolder(BaseType.VOID, "")
+						new ReturnValueHolder(BaseType.VOID)
 				)
 		), "", BIGame.UNKNOWN);
 
 		CommandDescriptor d2 = new CommandDescriptor("position", Arrays.asList(
 				new CommandSyntax(
-						new Param("optionalPrefix", BaseType.NUMBER, "", true),
+						new Param("optionalPrefix", BaseType.NUMBER, true),
 						new ArrayParam(
 								false,
 								Arrays.asList(
 										new ArrayParam(
 												false,
 												Arrays.asList(
-														new Param("required", ValueType.BaseType.CODE, "", false)
+														new Param("required", ValueType.BaseType.CODE, false)
 												),
 												true
 										),
-										new Param("optional", ValueType.BaseType.NUMBER, "", true)
+										new Param("optional", ValueType.BaseType.NUMBER, true)
 								),
 								true
 						),
-						new ReturnValueHolder(BaseType.CONFIG, "")
+						new ReturnValueHolder(BaseType.CONFIG)
 				)
 		), "", BIGame.UNKNOWN);
 
@@ -0,0 +1,94 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi;
+
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.ex.InspectionManagerEx;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType.BaseType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for the types that {@link SQFSyntaxChecker} remembers on {@link SQFTypeMemoElement} instances.
+ */
+public class SQFTypeMemoTest extends LightCodeInsightFixtureTestCase {
+
+	public void testEditOnlyChangesEditedStatement() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "(1 + 2);\n('a' + 'b');");
+		SQFSyntaxCheckResult result = SQFSyntaxHelper.getInstance().getCheckResult(file);
+		List<SQFStatement> statements = file.getFileScope().getChildStatements();
+		assertEquals(BaseType.NUMBER, result.getStatementType(statements.get(0)));
+		assertEquals(BaseType.STRING, result.getStatementType(statements.get(1)));
+
+		SQFTypeMemoElement unchanged = getParen(statements.get(1));
+		SQFTypeMemoElement.TypeMemo unchangedMemo = unchanged.getTypeMemo();
+		assertNotNull(unchangedMemo);
+
+		Document document = myFixture.getEditor().getDocument();
+		WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+			document.replaceString(1, "1 + 2".length() + 1, "'x' + 'y'");
+		});
+		PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+		result = SQFSyntaxHelper.getInstance().getCheckResult(file);
+		statements = file.getFileScope().getChildStatements();
+		assertEquals(BaseType.STRING, result.getStatementType(statements.get(0)));
+		assertEquals(BaseType.STRING, result.getStatementType(statements.get(1)));
+		//the statement that wasn't edited keeps its remembered type
+		assertTrue(unchanged.isValid());
+		assertSame(unchangedMemo, getParen(statements.get(1)).getTypeMemo());
+	}
+
+	public void testHelperCheckDoesNotMemoize() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "(1 + 2);");
+		ProblemsHolder holder = new ProblemsHolder(new InspectionManagerEx(getProject()), file, false);
+		SQFSyntaxHelper.getInstance().checkSyntax(file, holder);
+		SQFTypeMemoElement paren = getParen(file.getFileScope().getChildStatements().get(0));
+		assertNull(paren.getTypeMemo());
+
+		SQFSyntaxHelper.getInstance().getCheckResult(file);
+		assertNotNull(paren.getTypeMemo());
+	}
+
+	public void testGlobalVariableIsMemoized() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "_code = {myVar + 1};");
+		SQFSyntaxHelper.getInstance().getCheckResult(file);
+		SQFCodeBlock block = PsiTreeUtil.findChildOfType(file, SQFCodeBlock.class);
+		assertNotNull(block);
+		assertNotNull(block.getTypeMemo());
+	}
+
+	public void testMacroIsNotMemoized() {
+		//the #define may be in an included file, which can change without changing the block
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "#define MY_VAR 1\n_code = {MY_VAR + 1};\n_other = {myVar + 1};");
+		SQFSyntaxHelper.getInstance().getCheckResult(file);
+		List<SQFCodeBlock> blocks = new ArrayList<>(PsiTreeUtil.findChildrenOfType(file, SQFCodeBlock.class));
+		assertEquals(2, blocks.size());
+		assertNull(blocks.get(0).getTypeMemo());
+		assertNotNull(blocks.get(1).getTypeMemo());
+	}
+
+	public void testMemoWithOtherFingerprintIsNotUsed() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "(myVar);");
+		SQFTypeMemoElement paren = getParen(file.getFileScope().getChildStatements().get(0));
+		paren.setTypeMemo(new SQFTypeMemoElement.TypeMemo(BaseType.STRING, Collections.emptyList(), Collections.emptyMap(), -1));
+
+		SQFSyntaxCheckResult result = SQFSyntaxHelper.getInstance().getCheckResult(file);
+		assertEquals(BaseType._VARIABLE, result.getStatementType(file.getFileScope().getChildStatements().get(0)));
+		assertEquals(BaseType._VARIABLE, paren.getTypeMemo().getType());
+	}
+
+	@NotNull
+	private static SQFTypeMemoElement getParen(@NotNull SQFStatement statement) {
+		SQFExpression expr = ((SQFExpressionStatement) statement).getExpr();
+		assertInstanceOf(expr, SQFParenExpression.class);
+		return (SQFTypeMemoElement) expr;
+	}
+}
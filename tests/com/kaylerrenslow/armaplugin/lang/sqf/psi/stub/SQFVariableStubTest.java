@@ -0,0 +1,70 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.psi.stub;
+
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.stubs.SerializationManagerEx;
+import com.intellij.psi.stubs.Stub;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.kaylerrenslow.armaplugin.lang.sqf.SQFFileType;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFFile;
+import com.kaylerrenslow.armaplugin.lang.sqf.psi.SQFVariable;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the stub tree of SQF files ({@link SQFFileStubElementType} and {@link SQFVariableStubElementType})
+ */
+public class SQFVariableStubTest extends LightCodeInsightFixtureTestCase {
+
+	public void testShouldCreateStub() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE,
+				"myVar = 1;\n_local = myVar;\nprivate _priv = 2;\ntag_fnc_function = {};\n[] call tag_fnc_function;"
+		);
+		List<String> stubbed = new ArrayList<>();
+		for (SQFVariable var : PsiTreeUtil.findChildrenOfType(file, SQFVariable.class)) {
+			if (SQFVariableStubElementType.isGlobalAssignment(var.getNode())) {
+				stubbed.add(var.getVarName());
+			}
+		}
+		//only assigned global variables. Local variables and global variables that are only read don't have stubs.
+		assertOrderedEquals(stubbed, "myVar", "tag_fnc_function");
+	}
+
+	public void testBuildStubTree() {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "myVar = 1;\n_x = myVar;\nif (true) then {other = 2};");
+		StubElement root = SQFFileStubElementType.INSTANCE.getBuilder().buildStubTree(file);
+		assertInstanceOf(root, SQFFileStub.class);
+		assertOrderedEquals(getNames(root), "myVar", "other");
+	}
+
+	public void testSerializeRoundTrip() throws Exception {
+		SQFFile file = (SQFFile) myFixture.configureByText(SQFFileType.INSTANCE, "myVar = 1;\ntag_fnc_function = {other = 2};");
+		StubElement root = SQFFileStubElementType.INSTANCE.getBuilder().buildStubTree(file);
+
+		SerializationManagerEx manager = SerializationManagerEx.getInstanceEx();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		manager.serialize(root, out);
+		Stub restored = manager.deserialize(new ByteArrayInputStream(out.toByteArray()));
+
+		assertInstanceOf(restored, SQFFileStub.class);
+		assertEquals(DebugUtil.stubTreeToString(root), DebugUtil.stubTreeToString(restored));
+		assertOrderedEquals(getNames((StubElement) restored), "myVar", "tag_fnc_function", "other");
+	}
+
+	@NotNull
+	private static List<String> getNames(@NotNull StubElement<?> stub) {
+		List<String> names = new ArrayList<>();
+		for (StubElement child : stub.getChildrenStubs()) {
+			if (child instanceof SQFVariableStub) {
+				names.add(((SQFVariableStub) child).getName());
+			}
+			names.addAll(getNames(child));
+		}
+		return names;
+	}
+}
@@ -16,10 +16,10 @@ public class ArrayValueHolderTest {
 		//test if array param has alternate types by also checking in non-Array params alternate types
 		ArrayParam p;
 		{
-			Param firstArrayParam = new Param("p1", ValueType.BaseType.NUMBER, "", true);
+			Param firstArrayParam = new Param("p1", ValueType.BaseType.NUMBER, true);
 			firstArrayParam.getType().getPolymorphicTypes().add(ValueType.BaseType.CONTROL);
 
-			Param lastArrayParam = new Param("p2", ValueType.BaseType.BOOLEAN, "", true);
+			Param lastArrayParam = new Param("p2", ValueType.BaseType.BOOLEAN, true);
 			lastArrayParam.getType().getPolymorphicTypes().add(ValueType.BaseType.CODE);
 			lastArrayParam.getType().getPolymorphicTypes().add(ValueType.BaseType.CONFIG);
 
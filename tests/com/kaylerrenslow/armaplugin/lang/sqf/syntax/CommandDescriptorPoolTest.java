@@ -0,0 +1,41 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertSame;
+
+public class CommandDescriptorPoolTest {
+
+	@Test
+	public void concurrentGetOfSameUncachedCommand() throws Exception {
+		//none of these are frequently used commands, so each is loaded by the first thread and waited for by the other
+		String[] commands = {
+				"createVehicle", "setVariable", "getVariable", "allUnits", "deleteVehicle",
+				"attachTo", "getPosATL", "setPosATL", "nearestObjects", "noSyntaxXmlCommand"
+		};
+		CommandDescriptorPool pool = new CommandDescriptorPool();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (String command : commands) {
+				CyclicBarrier start = new CyclicBarrier(2);
+				List<Future<CommandDescriptor>> futures = new ArrayList<>(2);
+				for (int i = 0; i < 2; i++) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						return pool.get(command);
+					}));
+				}
+				//a dead lock would make this time out
+				CommandDescriptor first = futures.get(0).get(10, TimeUnit.SECONDS);
+				CommandDescriptor second = futures.get(1).get(10, TimeUnit.SECONDS);
+				assertSame(command, first, second);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
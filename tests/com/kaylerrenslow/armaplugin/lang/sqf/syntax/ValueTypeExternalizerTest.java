@@ -0,0 +1,74 @@
+package com.kaylerrenslow.armaplugin.lang.sqf.syntax;
+
+import org.junit.Test;
+
+import java.io.*;
+
+import static com.kaylerrenslow.armaplugin.lang.sqf.syntax.ValueType.BaseType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValueTypeExternalizerTest {
+
+	private static ValueType writeAndRead(ValueType type) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ValueTypeExternalizer.write(new DataOutputStream(bytes), type);
+		return ValueTypeExternalizer.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+	@Test
+	public void baseType() throws Exception {
+		assertSame(BaseType.NUMBER, writeAndRead(BaseType.NUMBER));
+		assertSame(BaseType._VARIABLE, writeAndRead(BaseType._VARIABLE));
+		assertSame(BaseType.POSITION_3D, writeAndRead(BaseType.POSITION_3D));
+	}
+
+	@Test
+	public void codeType() throws Exception {
+		ValueType read = writeAndRead(new CodeType(BaseType.STRING));
+		assertTrue(read instanceof CodeType);
+		assertSame(BaseType.STRING, ((CodeType) read).getReturnType());
+	}
+
+	@Test
+	public void expandedType() throws Exception {
+		ExpandedValueType type = new ExpandedValueType(true, BaseType.NUMBER, new ExpandedValueType(BaseType.STRING, BaseType.OBJECT));
+		type.setNumOptionalValues(1);
+		type.getPolymorphicTypes().add(BaseType.POSITION);
+
+		ValueType read = writeAndRead(type);
+		assertTrue(read instanceof ExpandedValueType);
+		ExpandedValueType expanded = (ExpandedValueType) read;
+		assertEquals(true, expanded.isUnbounded());
+		assertEquals(1, expanded.getNumOptionalValues());
+		assertEquals(1, expanded.getPolymorphicTypes().size());
+		assertTrue(type.isHardEqual(read));
+		assertEquals(type.getDisplayName(), read.getDisplayName());
+	}
+
+	@Test
+	public void singletonArray() throws Exception {
+		ValueType read = writeAndRead(new SingletonArrayExpandedValueType(BaseType.BOOLEAN));
+		assertTrue(read instanceof SingletonArrayExpandedValueType);
+		assertTrue(read.isArray());
+		assertSame(BaseType.BOOLEAN, ((ExpandedValueType) read).getValueTypes().get(0));
+	}
+
+	@Test
+	public void polymorphicWrapper() throws Exception {
+		PolymorphicWrapperValueType type = new PolymorphicWrapperValueType(BaseType.OBJECT);
+		type.getPolymorphicTypes().add(BaseType.GROUP);
+
+		ValueType read = writeAndRead(type);
+		assertTrue(read instanceof PolymorphicWrapperValueType);
+		assertSame(BaseType.OBJECT, ((PolymorphicWrapperValueType) read).getWrappedValueType());
+		assertEquals(1, read.getPolymorphicTypes().size());
+		assertSame(BaseType.GROUP, read.getPolymorphicTypes().get(0));
+	}
+
+	@Test(expected = IOException.class)
+	public void unknownKind() throws Exception {
+		ValueTypeExternalizer.read(new DataInputStream(new ByteArrayInputStream(new byte[]{99})));
+	}
+}
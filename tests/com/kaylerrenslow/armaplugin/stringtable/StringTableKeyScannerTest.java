@@ -0,0 +1,45 @@
+package com.kaylerrenslow.armaplugin.stringtable;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StringTableKeyScannerTest {
+
+	@Test
+	public void containerPaths() throws Exception {
+		List<StringTableKeyLocation> keys = StringTableKeyScanner.scan(
+				"<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+						"<Project name=\"test\">\n" +
+						"	<Key ID=\"str_top\"><Original>a</Original></Key>\n" +
+						"	<Package name=\"Mission\">\n" +
+						"		<Key ID=\"str_package\"><English>b > c</English></Key>\n" +
+						"		<Container name=\"A\">\n" +
+						"			<!-- <Key ID=\"str_commented\"></Key> -->\n" +
+						"			<Container name='B'><Key ID=\"str_nested\"/></Container>\n" +
+						"			<Key ID=\"str_container\"><![CDATA[<Key ID=\"str_cdata\">]]></Key>\n" +
+						"		</Container>\n" +
+						"	</Package>\n" +
+						"	<Container><Key ID=\"STR_no_package\"></Key></Container>\n" +
+						"</Project>"
+		);
+		assertEquals(5, keys.size());
+		assertEquals("<No Package> / <No Container>", keys.get(0).getContainerPath());
+		assertEquals("Mission", keys.get(1).getContainerPath());
+		assertEquals("str_nested", keys.get(2).getID());
+		assertEquals("Mission/A/B", keys.get(2).getContainerPath());
+		assertEquals("Mission/A", keys.get(3).getContainerPath());
+		assertEquals("<No Package>/?", keys.get(4).getContainerPath());
+		assertEquals("$STR_no_package", keys.get(4).getDollarKeyName());
+	}
+
+	@Test
+	public void offsets() throws Exception {
+		String text = "<Project><Key ID=\"str_a\"></Key>\n<Key ID=\"str_b\"></Key></Project>";
+		List<StringTableKeyLocation> keys = StringTableKeyScanner.scan(text);
+		assertEquals(text.indexOf("<Key"), keys.get(0).getOffset());
+		assertEquals(text.lastIndexOf("<Key"), keys.get(1).getOffset());
+	}
+}